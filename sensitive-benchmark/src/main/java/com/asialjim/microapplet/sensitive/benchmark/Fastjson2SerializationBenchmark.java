@@ -0,0 +1,100 @@
+/*
+ *    Copyright 2014-2025 <a href="mailto:asialjim@qq.com">Asial Jim</a>
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package com.asialjim.microapplet.sensitive.benchmark;
+
+import com.alibaba.fastjson2.JSON;
+import com.alibaba.fastjson2.TypeReference;
+import com.asialjim.microapplet.sensitive.encrypt.*;
+import com.asialjim.microapplet.sensitive.fastjson2.SensitiveFastjson2;
+import com.asialjim.microapplet.sensitive.handler.*;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 同一批敏感对象在 Jackson 与 Fastjson2 下的序列化、反序列化性能对比
+ *
+ * @author <a href="mailto:asialjim@hotmail.com">Asial Jim</a>
+ * @version 1.0
+ * @since 2026/10/19, &nbsp;&nbsp; <em>version:1.0</em>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class Fastjson2SerializationBenchmark {
+    private static final TypeReference<List<JacksonSerializationBenchmark.User>> USERS = new TypeReference<>() {
+    };
+
+    @Param({"1000"})
+    public int size;
+
+    private ObjectMapper objectMapper;
+    private List<JacksonSerializationBenchmark.User> users;
+    private String json;
+
+    @Setup
+    public void setUp() throws Exception {
+        new BankCardSensitiveHandler().init();
+        new ChineseCitizenIdCardSensitiveHandler().init();
+        new ChineseMobilePhoneSensitiveHandler().init();
+        new ChineseNameSensitiveHandler().init();
+        new EMailSensitiveHandler().init();
+
+        SecretKeyRepository.Pair pair = new SecretKeyRepository.Pair().setEncKey(KeyManager.generateModernEncryptionKey());
+        new EncryptionContextBean(List.of(new EncryptionContext(AlgorithmMode.MODERN)), () -> AlgorithmMode.MODERN, mode -> pair).init();
+        SensitiveFastjson2.register();
+
+        objectMapper = new ObjectMapper();
+        users = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            JacksonSerializationBenchmark.User user = new JacksonSerializationBenchmark.User();
+            user.setId((long) i);
+            user.setName("张三");
+            user.setPhone("13800138000");
+            user.setEmail("zhangsan@example.com");
+            user.setIdCard("110101199001011234");
+            user.setBankCard("6222021234567890123");
+            users.add(user);
+        }
+        json = objectMapper.writeValueAsString(users);
+    }
+
+    @Benchmark
+    public String jacksonSerialize() throws Exception {
+        return objectMapper.writeValueAsString(users);
+    }
+
+    @Benchmark
+    public String fastjson2Serialize() {
+        return JSON.toJSONString(users);
+    }
+
+    @Benchmark
+    public List<JacksonSerializationBenchmark.User> jacksonDeserialize() throws Exception {
+        return objectMapper.readValue(json, objectMapper.getTypeFactory().constructCollectionType(List.class, JacksonSerializationBenchmark.User.class));
+    }
+
+    @Benchmark
+    public List<JacksonSerializationBenchmark.User> fastjson2Deserialize() {
+        return JSON.parseObject(json, USERS);
+    }
+}
\ No newline at end of file
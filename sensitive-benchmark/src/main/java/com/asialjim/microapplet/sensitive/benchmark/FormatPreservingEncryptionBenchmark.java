@@ -0,0 +1,109 @@
+/*
+ *    Copyright 2014-2025 <a href="mailto:asialjim@qq.com">Asial Jim</a>
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+
+package com.asialjim.microapplet.sensitive.benchmark;
+
+import com.asialjim.microapplet.sensitive.encrypt.*;
+import org.bouncycastle.crypto.engines.AESEngine;
+import org.bouncycastle.crypto.engines.SM4Engine;
+import org.bouncycastle.crypto.fpe.FPEFF1Engine;
+import org.bouncycastle.crypto.params.FPEParameters;
+import org.bouncycastle.crypto.params.KeyParameter;
+import org.openjdk.jmh.annotations.*;
+
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 保留格式加密(FF1-AES/FF1-SM4)吞吐量，与现代算法封装格式对比
+ * <p>
+ * card 为 19 位卡号保留前 6 后 4 位，idCard 为身份证号保留前 6 后 4 位，phone 为手机号整体加密
+ *
+ * @author <a href="mailto:asialjim@hotmail.com">Asial Jim</a>
+ * @version 1.0
+ * @since 2026/10/19, &nbsp;&nbsp; <em>version:1.0</em>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FormatPreservingEncryptionBenchmark {
+    private static final String CARD = "6222021234567890123";
+    private static final String ID_CARD = "11010519491231002X";
+    private static final String PHONE = "13800138000";
+    private static final byte[] MIDDLE = {1, 2, 3, 4, 5, 6, 7, 8, 9};
+    private static final byte[] TWEAK = "6222020123".getBytes(StandardCharsets.UTF_8);
+
+    @Param({"aes", "sm4"})
+    public String cipher;
+
+    private final FF1EncryptionStrategy strategy = new FF1EncryptionStrategy();
+    private final ModernEncryptionStrategy modern = new ModernEncryptionStrategy();
+    private SecretKey key;
+    private SecretKey modernKey;
+    private String encryptedCard;
+
+    @Setup
+    public void setUp() throws Exception {
+        key = "sm4".equals(cipher) ? KeyManager.generateGMEncryptionKey() : KeyManager.generateFpeKey();
+        modernKey = KeyManager.generateModernEncryptionKey();
+        encryptedCard = strategy.encrypt(CARD, key, 6, 4);
+    }
+
+    @Benchmark
+    public String card() {
+        return strategy.encrypt(CARD, key, 6, 4);
+    }
+
+    @Benchmark
+    public String cardDecrypt() {
+        return strategy.decrypt(encryptedCard, key, 6, 4);
+    }
+
+    @Benchmark
+    public String idCard() {
+        return strategy.encrypt(ID_CARD, key, 6, 4);
+    }
+
+    @Benchmark
+    public String phone() {
+        return strategy.encrypt(PHONE, key, 0, 0);
+    }
+
+    /**
+     * 对照：Bouncy Castle FF1 实现加密同一卡号的中间 9 位（BigInteger 运算，每轮重新计算 P 分组）
+     */
+    @Benchmark
+    public byte[] cardReference() {
+        FPEFF1Engine engine = new FPEFF1Engine("sm4".equals(cipher) ? new SM4Engine() : AESEngine.newInstance());
+        engine.init(true, new FPEParameters(new KeyParameter(key.getEncoded()), 10, TWEAK));
+        byte[] result = new byte[MIDDLE.length];
+        engine.processBlock(MIDDLE, 0, MIDDLE.length, result, 0);
+        return result;
+    }
+
+    /**
+     * 对照：现代算法加密并输出为 _mask 封装格式
+     */
+    @Benchmark
+    public String modernEnvelope() throws Exception {
+        return modern.encrypt(CARD, modernKey, null).withMask("622202*********0123");
+    }
+}
\ No newline at end of file
@@ -0,0 +1,65 @@
+/*
+ *    Copyright 2014-2025 <a href="mailto:asialjim@qq.com">Asial Jim</a>
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package com.asialjim.microapplet.sensitive.benchmark;
+
+import com.asialjim.microapplet.sensitive.encrypt.*;
+import org.openjdk.jmh.annotations.*;
+
+import javax.crypto.SecretKey;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 国密算法 JCE 实现与 Bouncy Castle 轻量级实现的性能对比
+ *
+ * @author <a href="mailto:asialjim@hotmail.com">Asial Jim</a>
+ * @version 1.0
+ * @since 2026/10/19, &nbsp;&nbsp; <em>version:1.0</em>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GMEncryptionBenchmark {
+
+    @Param({"jce", "lightweight"})
+    public String engine;
+
+    private EncryptionStrategy strategy;
+    private SecretKey encKey;
+    private SecretKey macKey;
+    private EncryptionResult encrypted;
+
+    @Setup
+    public void setUp() throws Exception {
+        encKey = KeyManager.generateGMEncryptionKey();
+        macKey = KeyManager.generateGMMacKey();
+        strategy = "lightweight".equals(engine) ? new LightweightGMEncryptionStrategy() : new GMEncryptionStrategy();
+        encrypted = strategy.encrypt("13800138000", encKey, macKey);
+    }
+
+    @Benchmark
+    public EncryptionResult encrypt() throws Exception {
+        return strategy.encrypt("13800138000", encKey, macKey);
+    }
+
+    @Benchmark
+    public String decrypt() throws Exception {
+        return strategy.decrypt(encrypted, encKey, macKey);
+    }
+}
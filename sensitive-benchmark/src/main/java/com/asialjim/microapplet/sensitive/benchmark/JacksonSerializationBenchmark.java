@@ -0,0 +1,108 @@
+/*
+ *    Copyright 2014-2025 <a href="mailto:asialjim@qq.com">Asial Jim</a>
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package com.asialjim.microapplet.sensitive.benchmark;
+
+import com.asialjim.microapplet.sensitive.annotation.Sensitive;
+import com.asialjim.microapplet.sensitive.encrypt.*;
+import com.asialjim.microapplet.sensitive.handler.*;
+import com.asialjim.microapplet.sensitive.jackson.SensitiveBatchWriter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.Data;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 敏感对象列表的 Jackson 序列化性能，可配合 {@code -prof gc} 观察每次序列化的内存分配
+ *
+ * @author <a href="mailto:asialjim@hotmail.com">Asial Jim</a>
+ * @version 1.0
+ * @since 2026/10/19, &nbsp;&nbsp; <em>version:1.0</em>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JacksonSerializationBenchmark {
+
+    @Param({"1000", "5000"})
+    public int size;
+
+    private ObjectMapper objectMapper;
+    private SensitiveBatchWriter batchWriter;
+    private List<User> users;
+
+    @Setup
+    public void setUp() throws Exception {
+        new BankCardSensitiveHandler().init();
+        new ChineseCitizenIdCardSensitiveHandler().init();
+        new ChineseMobilePhoneSensitiveHandler().init();
+        new ChineseNameSensitiveHandler().init();
+        new EMailSensitiveHandler().init();
+
+        SecretKeyRepository.Pair pair = new SecretKeyRepository.Pair().setEncKey(KeyManager.generateModernEncryptionKey());
+        new EncryptionContextBean(List.of(new EncryptionContext(AlgorithmMode.MODERN)), () -> AlgorithmMode.MODERN, mode -> pair).init();
+
+        objectMapper = new ObjectMapper();
+        batchWriter = new SensitiveBatchWriter(objectMapper.writer());
+        users = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            User user = new User();
+            user.setId((long) i);
+            user.setName("张三");
+            user.setPhone("13800138000");
+            user.setEmail("zhangsan@example.com");
+            user.setIdCard("110101199001011234");
+            user.setBankCard("6222021234567890123");
+            users.add(user);
+        }
+    }
+
+    @Benchmark
+    public String serialize() throws Exception {
+        return objectMapper.writeValueAsString(users);
+    }
+
+    @Benchmark
+    public String serializeDeferred() throws Exception {
+        return batchWriter.writeValueAsString(users);
+    }
+
+    @Data
+    public static class User {
+        private Long id;
+
+        @Sensitive(SensitiveType.ChineseName)
+        private String name;
+
+        @Sensitive(SensitiveType.ChineseMobilePhone)
+        private String phone;
+
+        @Sensitive(SensitiveType.EMail)
+        private String email;
+
+        @Sensitive(SensitiveType.ChineseCitizenIdCard)
+        private String idCard;
+
+        @Sensitive(SensitiveType.BankCard)
+        private String bankCard;
+    }
+}
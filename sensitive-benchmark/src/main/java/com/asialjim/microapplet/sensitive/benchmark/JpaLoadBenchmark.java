@@ -0,0 +1,156 @@
+/*
+ *    Copyright 2014-2025 <a href="mailto:asialjim@qq.com">Asial Jim</a>
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package com.asialjim.microapplet.sensitive.benchmark;
+
+import com.asialjim.microapplet.sensitive.encrypt.*;
+import com.asialjim.microapplet.sensitive.jpa.SensitiveStringConverter;
+import com.asialjim.microapplet.sensitive.jpa.SensitiveValueConverter;
+import jakarta.persistence.Convert;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.cfg.Configuration;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JPA 批量加载敏感字段：{@link SensitiveStringConverter} 加载即解密，{@link SensitiveValueConverter} 读取时才解密
+ *
+ * @author <a href="mailto:asialjim@hotmail.com">Asial Jim</a>
+ * @version 1.0
+ * @since 2026/10/19, &nbsp;&nbsp; <em>version:1.0</em>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JpaLoadBenchmark {
+
+    @Param({"100000"})
+    public int rows;
+
+    private SessionFactory factory;
+
+    @Setup
+    public void setUp() throws Exception {
+        SecretKeyRepository.Pair pair = new SecretKeyRepository.Pair().setEncKey(KeyManager.generateModernEncryptionKey());
+        new EncryptionContextBean(List.of(new EncryptionContext(AlgorithmMode.MODERN)), () -> AlgorithmMode.MODERN, mode -> pair).init();
+
+        factory = new Configuration()
+                .setProperty(AvailableSettings.JAKARTA_JDBC_URL, "jdbc:h2:mem:jpa_benchmark;DB_CLOSE_DELAY=-1")
+                .setProperty(AvailableSettings.JAKARTA_JDBC_USER, "sa")
+                .setProperty(AvailableSettings.HBM2DDL_AUTO, "create-drop")
+                .setProperty(AvailableSettings.STATEMENT_BATCH_SIZE, "1000")
+                .addAttributeConverter(SensitiveValueConverter.class, true)
+                .addAnnotatedClass(EagerCustomer.class)
+                .addAnnotatedClass(LazyCustomer.class)
+                .buildSessionFactory();
+
+        factory.inTransaction(session -> {
+            for (long i = 0; i < rows; i++) {
+                String phone = String.format("138%08d", i);
+                session.persist(new EagerCustomer(i, "user" + i, phone));
+                session.persist(new LazyCustomer(i, "user" + i, SensitiveValue.of(phone)));
+                if (i % 1000 == 999) {
+                    session.flush();
+                    session.clear();
+                }
+            }
+        });
+    }
+
+    @TearDown
+    public void tearDown() {
+        factory.close();
+    }
+
+    @Benchmark
+    public int loadEager() {
+        return factory.fromSession(session -> {
+            int length = 0;
+            for (EagerCustomer customer : session.createQuery("from EagerCustomer", EagerCustomer.class).setReadOnly(true).getResultList()) {
+                length += customer.name.length();
+            }
+            return length;
+        });
+    }
+
+    @Benchmark
+    public int loadLazy() {
+        return factory.fromSession(session -> {
+            int length = 0;
+            for (LazyCustomer customer : session.createQuery("from LazyCustomer", LazyCustomer.class).setReadOnly(true).getResultList()) {
+                length += customer.name.length();
+            }
+            return length;
+        });
+    }
+
+    @Benchmark
+    public int loadLazyAndRead() {
+        return factory.fromSession(session -> {
+            int length = 0;
+            for (LazyCustomer customer : session.createQuery("from LazyCustomer", LazyCustomer.class).setReadOnly(true).getResultList()) {
+                length += customer.phone.get().length();
+            }
+            return length;
+        });
+    }
+
+    @Entity(name = "EagerCustomer")
+    @Table(name = "eager_customer")
+    public static class EagerCustomer {
+        @Id
+        private Long id;
+        private String name;
+        @Convert(converter = SensitiveStringConverter.class)
+        private String phone;
+
+        protected EagerCustomer() {
+        }
+
+        EagerCustomer(Long id, String name, String phone) {
+            this.id = id;
+            this.name = name;
+            this.phone = phone;
+        }
+    }
+
+    @Entity(name = "LazyCustomer")
+    @Table(name = "lazy_customer")
+    public static class LazyCustomer {
+        @Id
+        private Long id;
+        private String name;
+        private SensitiveValue phone;
+
+        protected LazyCustomer() {
+        }
+
+        LazyCustomer(Long id, String name, SensitiveValue phone) {
+            this.id = id;
+            this.name = name;
+            this.phone = phone;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,109 @@
+/*
+ *    Copyright 2014-2025 <a href="mailto:asialjim@qq.com">Asial Jim</a>
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package com.asialjim.microapplet.sensitive.benchmark;
+
+import com.asialjim.microapplet.sensitive.encrypt.*;
+import com.asialjim.microapplet.sensitive.handler.*;
+import com.asialjim.microapplet.sensitive.jackson.SensitiveJsonRedactor;
+import com.asialjim.microapplet.sensitive.jackson.SensitivePlan;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 原始 JSON 流式脱敏与纯复制的吞吐对比
+ *
+ * @author <a href="mailto:asialjim@hotmail.com">Asial Jim</a>
+ * @version 1.0
+ * @since 2026/10/19, &nbsp;&nbsp; <em>version:1.0</em>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonRedactorBenchmark {
+
+    @Param({"1000"})
+    public int size;
+
+    private final JsonFactory factory = new JsonFactory();
+    private byte[] document;
+    private SensitiveJsonRedactor maskOnly;
+    private SensitiveJsonRedactor encrypt;
+
+    @Setup
+    public void setUp() throws Exception {
+        new ChineseMobilePhoneSensitiveHandler().init();
+        new ChineseCitizenIdCardSensitiveHandler().init();
+
+        SecretKeyRepository.Pair pair = new SecretKeyRepository.Pair().setEncKey(KeyManager.generateModernEncryptionKey());
+        new EncryptionContextBean(List.of(new EncryptionContext(AlgorithmMode.MODERN)), () -> AlgorithmMode.MODERN, mode -> pair).init();
+
+        StringBuilder json = new StringBuilder("{\"users\":[");
+        for (int i = 0; i < size; i++) {
+            if (i > 0)
+                json.append(',');
+            json.append("{\"id\":").append(i)
+                    .append(",\"nickname\":\"user").append(i)
+                    .append("\",\"phone\":\"13800138000\",\"idCard\":\"110101199001011234\",\"tags\":[\"a\",\"b\",\"c\"],\"score\":98.5}");
+        }
+        document = json.append("]}").toString().getBytes(StandardCharsets.UTF_8);
+
+        maskOnly = new SensitiveJsonRedactor()
+                .rule("/users/*/phone", SensitivePlan.of(SensitiveType.ChineseMobilePhone, 0, 0, "", true, false))
+                .rule("/users/*/idCard", SensitivePlan.of(SensitiveType.ChineseCitizenIdCard, 0, 0, "", true, false));
+        encrypt = new SensitiveJsonRedactor()
+                .rule("/users/*/phone", SensitiveType.ChineseMobilePhone)
+                .rule("/users/*/idCard", SensitiveType.ChineseCitizenIdCard);
+    }
+
+    @Benchmark
+    public int copy() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(document.length * 2);
+        try (JsonParser parser = factory.createParser(document);
+             JsonGenerator generator = factory.createGenerator(out, JsonEncoding.UTF8)) {
+            while (parser.nextToken() != null) {
+                generator.copyCurrentEvent(parser);
+            }
+        }
+        return out.size();
+    }
+
+    @Benchmark
+    public int redactMaskOnly() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(document.length * 2);
+        maskOnly.redact(new ByteArrayInputStream(document), out);
+        return out.size();
+    }
+
+    @Benchmark
+    public int redactEncrypt() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(document.length * 2);
+        encrypt.redact(new ByteArrayInputStream(document), out);
+        return out.size();
+    }
+}
\ No newline at end of file
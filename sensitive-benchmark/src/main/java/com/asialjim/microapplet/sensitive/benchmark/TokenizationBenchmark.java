@@ -0,0 +1,131 @@
+/*
+ *    Copyright 2014-2025 <a href="mailto:asialjim@qq.com">Asial Jim</a>
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+
+package com.asialjim.microapplet.sensitive.benchmark;
+
+import com.asialjim.microapplet.sensitive.encrypt.*;
+import com.asialjim.microapplet.sensitive.handler.*;
+import com.asialjim.microapplet.sensitive.token.LocalTokenVault;
+import com.asialjim.microapplet.sensitive.token.SensitiveToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 密文格式与令牌格式输出的对比：序列化耗时、响应体积（启动时打印）与客户端解析耗时。
+ * 客户端解析按 {@code mask.js} 的方式读取 JSON 后以正则提取每个敏感字段的脱敏数据
+ *
+ * @author <a href="mailto:asialjim@hotmail.com">Asial Jim</a>
+ * @version 1.0
+ * @since 2026/10/19, &nbsp;&nbsp; <em>version:1.0</em>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TokenizationBenchmark {
+    private static final Pattern ENVELOPE = Pattern.compile("^_mask\\|([A-Za-z0-9-_=@.]+)\\|([A-Za-z0-9-_=]+)\\|([A-Za-z0-9-_=]+)\\|([A-Za-z0-9-_=]+)\\|(.*)$");
+    private static final Pattern TOKEN = Pattern.compile("^_tok\\|([A-Za-z0-9-_]+)\\|(.*)$");
+
+    @Param({"1000"})
+    public int size;
+
+    /**
+     * envelope：密文格式；heap：令牌格式，密文存放在堆内；offHeap：令牌格式，密文存放在堆外
+     */
+    @Param({"envelope", "heap", "offHeap"})
+    public String output;
+
+    private ObjectMapper objectMapper;
+    private LocalTokenVault vault;
+    private List<JacksonSerializationBenchmark.User> users;
+    private String json;
+
+    @Setup
+    public void setUp() throws Exception {
+        new BankCardSensitiveHandler().init();
+        new ChineseCitizenIdCardSensitiveHandler().init();
+        new ChineseMobilePhoneSensitiveHandler().init();
+        new ChineseNameSensitiveHandler().init();
+        new EMailSensitiveHandler().init();
+
+        SecretKeyRepository.Pair pair = new SecretKeyRepository.Pair().setEncKey(KeyManager.generateModernEncryptionKey());
+        new EncryptionContextBean(List.of(new EncryptionContext(AlgorithmMode.MODERN)), () -> AlgorithmMode.MODERN, mode -> pair).init();
+
+        if (!"envelope".equals(output)) {
+            vault = new LocalTokenVault(1_000_000, Duration.ofMinutes(30), "offHeap".equals(output) ? 256L << 20 : 0);
+            SensitiveToken.register(vault);
+        }
+
+        objectMapper = new ObjectMapper();
+        users = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            JacksonSerializationBenchmark.User user = new JacksonSerializationBenchmark.User();
+            user.setId((long) i);
+            user.setName("张三");
+            user.setPhone("13800138000");
+            user.setEmail("zhangsan@example.com");
+            user.setIdCard("110101199001011234");
+            user.setBankCard("6222021234567890123");
+            users.add(user);
+        }
+        json = objectMapper.writeValueAsString(users);
+        System.out.printf("%n[%s] payload: %d bytes%n", output, json.getBytes(StandardCharsets.UTF_8).length);
+    }
+
+    @TearDown
+    public void tearDown() {
+        if (Objects.nonNull(vault))
+            vault.close();
+    }
+
+    @Benchmark
+    public String serialize() throws Exception {
+        return objectMapper.writeValueAsString(users);
+    }
+
+    @Benchmark
+    public void clientParse(Blackhole blackhole) throws Exception {
+        for (JsonNode user : objectMapper.readTree(json)) {
+            for (JsonNode field : user) {
+                if (!field.isTextual())
+                    continue;
+
+                String text = field.textValue();
+                Matcher matcher = ENVELOPE.matcher(text);
+                if (matcher.matches()) {
+                    blackhole.consume(matcher.group(5));
+                    continue;
+                }
+                matcher = TOKEN.matcher(text);
+                blackhole.consume(matcher.matches() ? matcher.group(2) : text);
+            }
+        }
+    }
+}
\ No newline at end of file
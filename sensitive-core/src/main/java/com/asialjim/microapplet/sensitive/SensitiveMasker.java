@@ -0,0 +1,123 @@
+/*
+ *    Copyright 2014-2025 <a href="mailto:asialjim@qq.com">Asial Jim</a>
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+
+package com.asialjim.microapplet.sensitive;
+
+import com.asialjim.microapplet.sensitive.encrypt.EncryptionContextBean;
+import org.apache.commons.lang3.StringUtils;
+
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * 编译期生成的敏感数据处理工具
+ * <p>
+ * 由 {@code sensitive-processor} 注解处理器为含 {@code @Sensitive} 字段的类型生成 {@code <类型名>SensitiveMasker}，
+ * 直接读写字段或访问方法，不使用反射。适用于日志、缓存、事件等 Jackson 之外的场景：
+ * <pre>{@code
+ * UserSensitiveMasker.INSTANCE.mask(user);
+ * SensitiveMasker.of(User.class).encrypt(user);
+ * }</pre>
+ * 普通类在原对象上替换敏感字段并返回原对象，record 返回新实例；非字符串敏感字段保持不变。
+ * Jackson 序列化时优先使用生成类中按属性编译的脱敏函数，见 {@link #maskFunction(String)}
+ *
+ * @author <a href="mailto:asialjim@hotmail.com">Asial Jim</a>
+ * @version 1.0
+ * @since 2026/10/19, &nbsp;&nbsp; <em>version:1.0</em>
+ */
+public interface SensitiveMasker<T> {
+
+    /**
+     * 生成类名后缀
+     */
+    String SUFFIX = "SensitiveMasker";
+
+    Class<T> type();
+
+    /**
+     * 将敏感字段替换为脱敏数据
+     */
+    T mask(T value);
+
+    /**
+     * 将敏感字段替换为 _mask|algorithm|nonce|encrypt|mac|mask 格式数据，注解关闭加密的字段仅脱敏
+     */
+    T encrypt(T value);
+
+    /**
+     * 属性编译期生成的脱敏函数，函数内已包含校验、计数与 JFR 事件；非敏感或不支持的属性返回 {@code null}
+     *
+     * @param property 字段名或 record 组件名
+     */
+    default Function<String, String> maskFunction(String property) {
+        return null;
+    }
+
+    /**
+     * 查找类型的生成类，同一类型只加载一次
+     */
+    @SuppressWarnings("unchecked")
+    static <T> SensitiveMasker<T> of(Class<T> type) {
+        SensitiveMasker<T> masker = (SensitiveMasker<T>) Holder.MASKERS.get(type).orElse(null);
+        if (Objects.isNull(masker))
+            throw new IllegalArgumentException("未找到生成的敏感数据处理工具:" + Holder.maskerName(type));
+        return masker;
+    }
+
+    /**
+     * 查找类型的生成类，未生成时返回 {@code null}，查找结果按类型缓存
+     */
+    @SuppressWarnings("unchecked")
+    static <T> SensitiveMasker<T> find(Class<T> type) {
+        return (SensitiveMasker<T>) Holder.MASKERS.get(type).orElse(null);
+    }
+
+    /**
+     * 脱敏并加密，空白数据原样返回
+     */
+    static String encrypt(String source, Function<String, String> mask) {
+        if (StringUtils.isBlank(source))
+            return source;
+
+        return EncryptionContextBean.instance.encrypt(source).withMask(mask.apply(source));
+    }
+
+    final class Holder {
+        private static final ClassValue<Optional<SensitiveMasker<?>>> MASKERS = new ClassValue<>() {
+            @Override
+            protected Optional<SensitiveMasker<?>> computeValue(Class<?> type) {
+                try {
+                    Class<?> masker = Class.forName(maskerName(type), true, type.getClassLoader());
+                    return Optional.of((SensitiveMasker<?>) masker.getField("INSTANCE").get(null));
+                } catch (ReflectiveOperationException | LinkageError | ClassCastException e) {
+                    return Optional.empty();
+                }
+            }
+        };
+
+        private static String maskerName(Class<?> type) {
+            String name = type.getName();
+            String packageName = type.getPackageName();
+            String simpleName = packageName.isEmpty() ? name : name.substring(packageName.length() + 1);
+            return (packageName.isEmpty() ? "" : packageName + ".") + simpleName.replace('$', '_') + SUFFIX;
+        }
+
+        private Holder() {
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,231 @@
+/*
+ *    Copyright 2014-2025 <a href="mailto:asialjim@qq.com">Asial Jim</a>
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+
+package com.asialjim.microapplet.sensitive;
+
+import com.asialjim.microapplet.sensitive.encrypt.AlgorithmMode;
+import com.asialjim.microapplet.sensitive.handler.SensitiveHandler;
+import com.asialjim.microapplet.sensitive.handler.SensitiveType;
+
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 敏感数据运行指标
+ * <p>
+ * 按敏感类型统计脱敏次数，按算法模式统计加解密次数与解密失败次数，并对加解密耗时抽样记录到按 2 的幂分桶的直方图。
+ * 写入只做 {@link LongAdder} 累加，无锁且不分配对象；汇总仅在 {@link #snapshot()} 时进行。{@link SensitiveWarmUp} 预热期间的调用不计入
+ *
+ * @author <a href="mailto:asialjim@hotmail.com">Asial Jim</a>
+ * @version 1.0
+ * @since 2026/10/19, &nbsp;&nbsp; <em>version:1.0</em>
+ */
+public final class SensitiveMetrics {
+    /**
+     * 耗时抽样比例 1/16
+     */
+    private static final int SAMPLE_MASK = 0xF;
+
+    private static final LongAdder[] MASKS = adders(SensitiveType.values().length);
+    private static final LongAdder[] ENCRYPTS = adders(AlgorithmMode.values().length);
+    private static final LongAdder[] DECRYPTS = adders(AlgorithmMode.values().length);
+    private static final LongAdder[] DECRYPT_FAILURES = adders(AlgorithmMode.values().length);
+    private static final LongAdder[] MAC_FAILURES = adders(AlgorithmMode.values().length);
+    private static final LongAdder PATTERN_HITS = new LongAdder();
+    private static final LongAdder PATTERN_MISSES = new LongAdder();
+    private static final Histogram ENCRYPT_LATENCY = new Histogram();
+    private static final Histogram DECRYPT_LATENCY = new Histogram();
+
+    private SensitiveMetrics() {
+    }
+
+    public static void masked(SensitiveType type) {
+        if (SensitiveWarmUp.warming())
+            return;
+
+        MASKS[type.ordinal()].increment();
+    }
+
+    /**
+     * 开始计时，未被抽中时返回 0
+     */
+    public static long start() {
+        if (SensitiveWarmUp.warming())
+            return 0L;
+
+        return (ThreadLocalRandom.current().nextInt() & SAMPLE_MASK) == 0 ? System.nanoTime() : 0L;
+    }
+
+    public static void encrypted(AlgorithmMode mode, int count, long start) {
+        if (SensitiveWarmUp.warming())
+            return;
+
+        ENCRYPTS[mode.ordinal()].add(count);
+        ENCRYPT_LATENCY.record(start);
+    }
+
+    public static void decrypted(AlgorithmMode mode, long start) {
+        if (SensitiveWarmUp.warming())
+            return;
+
+        DECRYPTS[mode.ordinal()].increment();
+        DECRYPT_LATENCY.record(start);
+    }
+
+    /**
+     * 解密失败
+     *
+     * @param mac 是否为 MAC/认证标签校验失败
+     */
+    public static void decryptFailed(AlgorithmMode mode, boolean mac) {
+        if (SensitiveWarmUp.warming())
+            return;
+
+        DECRYPT_FAILURES[mode.ordinal()].increment();
+        if (mac)
+            MAC_FAILURES[mode.ordinal()].increment();
+    }
+
+    public static void patternLookup(boolean hit) {
+        if (SensitiveWarmUp.warming())
+            return;
+
+        (hit ? PATTERN_HITS : PATTERN_MISSES).increment();
+    }
+
+    /**
+     * 汇总当前指标
+     */
+    public static Map<String, Object> snapshot() {
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+
+        Map<SensitiveType, Long> masks = new EnumMap<>(SensitiveType.class);
+        for (SensitiveType type : SensitiveType.values()) {
+            masks.put(type, MASKS[type.ordinal()].sum());
+        }
+        snapshot.put("masks", masks);
+
+        Map<AlgorithmMode, Map<String, Long>> modes = new EnumMap<>(AlgorithmMode.class);
+        for (AlgorithmMode mode : AlgorithmMode.values()) {
+            int i = mode.ordinal();
+            Map<String, Long> counters = new LinkedHashMap<>();
+            counters.put("encrypt", ENCRYPTS[i].sum());
+            counters.put("decrypt", DECRYPTS[i].sum());
+            counters.put("decryptFailures", DECRYPT_FAILURES[i].sum());
+            counters.put("macFailures", MAC_FAILURES[i].sum());
+            modes.put(mode, counters);
+        }
+        snapshot.put("modes", modes);
+
+        Map<String, Object> latency = new LinkedHashMap<>();
+        latency.put("encrypt", ENCRYPT_LATENCY.snapshot());
+        latency.put("decrypt", DECRYPT_LATENCY.snapshot());
+        snapshot.put("latency", latency);
+
+        Map<String, Object> patternCache = new LinkedHashMap<>();
+        patternCache.put("size", SensitiveHandler.patternCacheSize());
+        patternCache.putAll(cache(PATTERN_HITS.sum(), PATTERN_MISSES.sum()));
+        snapshot.put("patternCache", patternCache);
+        return snapshot;
+    }
+
+    /**
+     * 缓存命中统计
+     */
+    public static Map<String, Object> cache(long hits, long misses) {
+        Map<String, Object> cache = new LinkedHashMap<>();
+        cache.put("hits", hits);
+        cache.put("misses", misses);
+        long total = hits + misses;
+        cache.put("hitRatio", total == 0 ? 0D : (double) hits / total);
+        return cache;
+    }
+
+    public static void reset() {
+        for (LongAdder[] adders : new LongAdder[][]{MASKS, ENCRYPTS, DECRYPTS, DECRYPT_FAILURES, MAC_FAILURES}) {
+            for (LongAdder adder : adders) {
+                adder.reset();
+            }
+        }
+        PATTERN_HITS.reset();
+        PATTERN_MISSES.reset();
+        ENCRYPT_LATENCY.reset();
+        DECRYPT_LATENCY.reset();
+    }
+
+    private static LongAdder[] adders(int size) {
+        LongAdder[] adders = new LongAdder[size];
+        for (int i = 0; i < size; i++) {
+            adders[i] = new LongAdder();
+        }
+        return adders;
+    }
+
+    /**
+     * 耗时直方图，第 i 个桶记录 [2^i, 2^(i+1)) 纳秒的样本，百分位取桶上界
+     */
+    private static final class Histogram {
+        private final LongAdder[] buckets = adders(Long.SIZE);
+
+        void record(long start) {
+            if (start == 0L)
+                return;
+
+            long nanos = Math.max(1L, System.nanoTime() - start);
+            buckets[Long.SIZE - 1 - Long.numberOfLeadingZeros(nanos)].increment();
+        }
+
+        Map<String, Object> snapshot() {
+            long[] counts = new long[buckets.length];
+            long total = 0;
+            for (int i = 0; i < buckets.length; i++) {
+                counts[i] = buckets[i].sum();
+                total += counts[i];
+            }
+
+            Map<String, Object> snapshot = new LinkedHashMap<>();
+            snapshot.put("samples", total);
+            snapshot.put("p50Micros", percentile(counts, total, 0.50));
+            snapshot.put("p90Micros", percentile(counts, total, 0.90));
+            snapshot.put("p99Micros", percentile(counts, total, 0.99));
+            return snapshot;
+        }
+
+        private static double percentile(long[] counts, long total, double percentile) {
+            if (total == 0)
+                return 0D;
+
+            long rank = (long) Math.ceil(total * percentile);
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= rank)
+                    return (i == Long.SIZE - 2 ? Long.MAX_VALUE : 1L << (i + 1)) / 1000D;
+            }
+            return 0D;
+        }
+
+        void reset() {
+            for (LongAdder bucket : buckets) {
+                bucket.reset();
+            }
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,144 @@
+/*
+ *    Copyright 2014-2025 <a href="mailto:asialjim@qq.com">Asial Jim</a>
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+
+package com.asialjim.microapplet.sensitive;
+
+import com.asialjim.microapplet.sensitive.encrypt.AlgorithmMode;
+import com.asialjim.microapplet.sensitive.encrypt.AlgorithmModeConfig;
+import com.asialjim.microapplet.sensitive.handler.SensitiveType;
+import org.apache.commons.lang3.StringUtils;
+
+import java.util.Objects;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * 敏感数据处理策略
+ * <p>
+ * 算法模式与各敏感类型的脱敏保留位数、校验正则组成的不可变快照，正则在构建时完成编译。
+ * 脱敏与加密时通过 {@link #current()} 读取单个 volatile 引用，配置变更时构建新快照后以 {@link #update} 整体替换，
+ * 构建失败时原快照保持不变；算法模式不能为 {@link AlgorithmMode#FPE}，见 {@link AlgorithmModeConfig#requireGlobalMode}
+ * <pre>{@code
+ * SensitivePolicy.update(SensitivePolicy.current()
+ *         .withMode(AlgorithmMode.GM)
+ *         .withRule(SensitiveType.ChineseMobilePhone, 3, 2, null));
+ * }</pre>
+ *
+ * @author <a href="mailto:asialjim@hotmail.com">Asial Jim</a>
+ * @version 1.0
+ * @since 2026/10/19, &nbsp;&nbsp; <em>version:1.0</em>
+ */
+public final class SensitivePolicy {
+    private static final SensitivePolicy DEFAULTS = defaults(AlgorithmMode.MODERN);
+    private static volatile SensitivePolicy current = DEFAULTS;
+
+    private final AlgorithmMode mode;
+    private final Rule[] rules;
+
+    private SensitivePolicy(AlgorithmMode mode, Rule[] rules) {
+        this.mode = mode;
+        this.rules = rules;
+    }
+
+    /**
+     * 当前生效的策略
+     */
+    public static SensitivePolicy current() {
+        return current;
+    }
+
+    /**
+     * 整体替换当前策略
+     */
+    public static void update(SensitivePolicy policy) {
+        current = Objects.requireNonNull(policy, "敏感数据处理策略不能为空");
+    }
+
+    /**
+     * 恢复默认策略：{@link AlgorithmMode#MODERN} 与 {@link SensitiveType} 内置规则
+     */
+    public static void reset() {
+        current = DEFAULTS;
+    }
+
+    /**
+     * 按 {@link SensitiveType} 内置规则构建策略
+     */
+    public static SensitivePolicy defaults(AlgorithmMode mode) {
+        SensitiveType[] types = SensitiveType.values();
+        Rule[] rules = new Rule[types.length];
+        for (SensitiveType type : types) {
+            rules[type.ordinal()] = Rule.of(type, type.getPrefix(), type.getSuffix(), type.getRegex());
+        }
+        return new SensitivePolicy(AlgorithmModeConfig.requireGlobalMode(mode), rules);
+    }
+
+    /**
+     * 读取当前策略算法模式的配置
+     */
+    public static AlgorithmModeConfig modeConfig() {
+        return () -> current.mode;
+    }
+
+    public AlgorithmMode mode() {
+        return mode;
+    }
+
+    public Rule rule(SensitiveType type) {
+        return rules[type.ordinal()];
+    }
+
+    /**
+     * 替换算法模式，返回新策略
+     */
+    public SensitivePolicy withMode(AlgorithmMode mode) {
+        return new SensitivePolicy(AlgorithmModeConfig.requireGlobalMode(mode), rules);
+    }
+
+    /**
+     * 替换敏感类型规则，返回新策略
+     *
+     * @param regex 校验正则，为空时使用 {@link SensitiveType} 内置正则
+     */
+    public SensitivePolicy withRule(SensitiveType type, int prefix, int suffix, String regex) {
+        Rule[] next = rules.clone();
+        next[type.ordinal()] = Rule.of(type, prefix, suffix, StringUtils.defaultIfBlank(regex, type.getRegex()));
+        return new SensitivePolicy(mode, next);
+    }
+
+    /**
+     * 敏感类型规则
+     *
+     * @param prefix  脱敏保留前缀位数
+     * @param suffix  脱敏保留后缀位数
+     * @param regex   校验正则
+     * @param pattern 编译后的校验正则
+     */
+    public record Rule(int prefix, int suffix, String regex, Pattern pattern) {
+
+        static Rule of(SensitiveType type, int prefix, int suffix, String regex) {
+            if (prefix < 0 || suffix < 0)
+                throw new IllegalArgumentException("脱敏保留位数不能小于0:" + type);
+
+            try {
+                return new Rule(prefix, suffix, regex, Pattern.compile(regex));
+            } catch (PatternSyntaxException e) {
+                throw new IllegalArgumentException("无效的校验正则:" + type, e);
+            }
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,119 @@
+/*
+ *    Copyright 2014-2025 <a href="mailto:asialjim@qq.com">Asial Jim</a>
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package com.asialjim.microapplet.sensitive;
+
+import com.asialjim.microapplet.sensitive.encrypt.EncryptionContextBean;
+import com.asialjim.microapplet.sensitive.encrypt.SecretKeyRepository;
+
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.regex.Pattern;
+
+/**
+ * 当前租户
+ * <p>
+ * 请求入口（过滤器、拦截器、消息监听器）设置当前线程的租户，{@link EncryptionContextBean} 加密时据此经由
+ * {@link SecretKeyRepository#pairOf(String, com.asialjim.microapplet.sensitive.encrypt.AlgorithmMode)} 取得租户密钥，
+ * 并将租户写入密文的算法段（如 {@code _mask|GM@tenant-a|...}）；解密时按密文中的租户取密钥。
+ * 设置了当前租户时不能解密其他租户及未标记租户的数据，未设置时（平台任务）可解密所有租户的数据。
+ * 密钥仓库不区分租户（{@link SecretKeyRepository#tenantAware()} 为 {@code false}）时不标记租户，也不做租户隔离
+ * <pre>{@code
+ * try (SensitiveTenant.Scope ignored = SensitiveTenant.open(tenantId)) {
+ *     chain.doFilter(request, response);
+ * }
+ * }</pre>
+ * 响应式应用中线程不固定，由 WebFlux 集成在 Reactor Context 的 {@link #CONTEXT_KEY} 中传递
+ *
+ * @author <a href="mailto:asialjim@hotmail.com">Asial Jim</a>
+ * @version 1.0
+ * @since 2026/10/19, &nbsp;&nbsp; <em>version:1.0</em>
+ */
+public final class SensitiveTenant {
+    /**
+     * Reactor Context 等上下文中保存租户的键
+     */
+    public static final String CONTEXT_KEY = SensitiveTenant.class.getName();
+    /**
+     * 租户标识只允许字母、数字与 {@code _.-}，不超过 64 个字符，不会与密文分隔符冲突
+     */
+    private static final Pattern PATTERN = Pattern.compile("[A-Za-z0-9_.\\-]{1,64}");
+    private static final ThreadLocal<String> CURRENT = new ThreadLocal<>();
+
+    private SensitiveTenant() {
+    }
+
+    /**
+     * 当前线程的租户，未设置时为 {@code null}
+     */
+    public static String current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * 设置当前线程的租户，关闭返回的作用域时恢复原租户
+     *
+     * @param tenant 租户标识，为 {@code null} 时清除
+     */
+    public static Scope open(String tenant) {
+        String previous = CURRENT.get();
+        set(validate(tenant));
+        return new Scope(previous);
+    }
+
+    public static <T> T call(String tenant, Callable<T> callable) throws Exception {
+        try (Scope ignored = open(tenant)) {
+            return callable.call();
+        }
+    }
+
+    public static void run(String tenant, Runnable runnable) {
+        try (Scope ignored = open(tenant)) {
+            runnable.run();
+        }
+    }
+
+    /**
+     * 校验租户标识
+     *
+     * @return 原租户标识
+     */
+    public static String validate(String tenant) {
+        if (Objects.nonNull(tenant) && !PATTERN.matcher(tenant).matches())
+            throw new IllegalArgumentException("无效的租户标识:" + tenant);
+        return tenant;
+    }
+
+    private static void set(String tenant) {
+        if (Objects.isNull(tenant))
+            CURRENT.remove();
+        else
+            CURRENT.set(tenant);
+    }
+
+    public static final class Scope implements AutoCloseable {
+        private final String previous;
+
+        private Scope(String previous) {
+            this.previous = previous;
+        }
+
+        @Override
+        public void close() {
+            set(previous);
+        }
+    }
+}
\ No newline at end of file
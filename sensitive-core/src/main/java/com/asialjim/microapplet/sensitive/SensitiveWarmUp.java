@@ -0,0 +1,129 @@
+/*
+ *    Copyright 2014-2025 <a href="mailto:asialjim@qq.com">Asial Jim</a>
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package com.asialjim.microapplet.sensitive;
+
+import com.asialjim.microapplet.sensitive.audit.SensitiveAudit;
+import com.asialjim.microapplet.sensitive.encrypt.AlgorithmMode;
+import com.asialjim.microapplet.sensitive.encrypt.EncryptionContextBean;
+import com.asialjim.microapplet.sensitive.encrypt.EncryptionResult;
+import com.asialjim.microapplet.sensitive.encrypt.KeyManager;
+import com.asialjim.microapplet.sensitive.handler.SensitiveHandler;
+import com.asialjim.microapplet.sensitive.handler.SensitiveType;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 敏感数据组件预热
+ * <p>
+ * 注册加密Provider、预先解析加密策略与密钥，并反复执行各敏感类型的脱敏与各算法模式的加解密，
+ * 使首批业务请求不再承担Provider注册、类加载与JIT冷启动的开销。
+ * Spring 环境下由自动配置在应用就绪前执行，非Spring环境需手动调用 {@link #warmUp(EncryptionContextBean)}。
+ * 预热产生的调用不计入 {@link SensitiveMetrics}，预热中的解密也不写入 {@link SensitiveAudit} 审计记录
+ *
+ * @author <a href="mailto:asialjim@hotmail.com">Asial Jim</a>
+ * @version 1.0
+ * @since 2026/10/19, &nbsp;&nbsp; <em>version:1.0</em>
+ */
+public class SensitiveWarmUp {
+    public static final int DEFAULT_ITERATIONS = 5_000;
+
+    private static final ThreadLocal<Boolean> WARMING = new ThreadLocal<>();
+    private static final AtomicInteger WARMING_THREADS = new AtomicInteger();
+
+    private static final Map<SensitiveType, String> SAMPLES = new EnumMap<>(SensitiveType.class);
+
+    static {
+        SAMPLES.put(SensitiveType.BankCard, "6222021234567890123");
+        SAMPLES.put(SensitiveType.EMail, "zhangsan@example.com");
+        SAMPLES.put(SensitiveType.ChineseCitizenIdCard, "110101199001011234");
+        SAMPLES.put(SensitiveType.ChineseMobilePhone, "13800138000");
+        SAMPLES.put(SensitiveType.ChineseTellPhone, "010-12345678");
+        SAMPLES.put(SensitiveType.ChineseName, "张三丰");
+        SAMPLES.put(SensitiveType.EnglishName, "John Smith");
+        SAMPLES.put(SensitiveType.Customer, "abc123");
+    }
+
+    /**
+     * 使用默认次数预热
+     */
+    public static Duration warmUp(EncryptionContextBean bean) {
+        return warmUp(bean, DEFAULT_ITERATIONS);
+    }
+
+    /**
+     * 预热脱敏与加解密路径
+     *
+     * @param bean       加密上下文，为空时仅预热脱敏
+     * @param iterations 每条路径的执行次数
+     * @return 预热耗时
+     */
+    public static Duration warmUp(EncryptionContextBean bean, int iterations) {
+        WARMING.set(Boolean.TRUE);
+        WARMING_THREADS.incrementAndGet();
+        try {
+            return run(bean, iterations);
+        } finally {
+            WARMING_THREADS.decrementAndGet();
+            WARMING.remove();
+        }
+    }
+
+    /**
+     * 当前线程是否正在预热，预热期间的脱敏与加解密不计入 {@link SensitiveMetrics}，解密不做审计；
+     * 未在预热时只读取一次计数，不访问 {@link ThreadLocal}
+     */
+    public static boolean warming() {
+        return WARMING_THREADS.get() > 0 && Boolean.TRUE.equals(WARMING.get());
+    }
+
+    private static Duration run(EncryptionContextBean bean, int iterations) {
+        long start = System.nanoTime();
+
+        // 1. 注册Provider
+        KeyManager.registerProvider();
+
+        // 2. 预先解析加密策略与密钥
+        Set<AlgorithmMode> modes = Objects.isNull(bean) ? Set.of() : bean.preload();
+
+        // 3. 执行各敏感类型脱敏与各算法模式加解密
+        for (Map.Entry<SensitiveType, String> entry : SAMPLES.entrySet()) {
+            SensitiveType type = entry.getKey();
+            if (!SensitiveHandler.holder.supports(type))
+                continue;
+
+            String sample = entry.getValue();
+            for (int i = 0; i < iterations; i++) {
+                SensitiveHandler.mask(type, sample);
+            }
+        }
+
+        String sample = SAMPLES.get(SensitiveType.ChineseMobilePhone);
+        for (AlgorithmMode mode : modes) {
+            for (int i = 0; i < iterations; i++) {
+                EncryptionResult result = bean.encrypt(mode, sample);
+                bean.decrypt(result.withMask(sample));
+            }
+        }
+
+        return Duration.ofNanos(System.nanoTime() - start);
+    }
+}
@@ -0,0 +1,309 @@
+/*
+ *    Copyright 2014-2025 <a href="mailto:asialjim@qq.com">Asial Jim</a>
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package com.asialjim.microapplet.sensitive.audit;
+
+import com.asialjim.microapplet.sensitive.encrypt.AlgorithmMode;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.format.DateTimeFormatter;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 环形缓冲区解密审计
+ * <p>
+ * 解密线程将审计事件写入预先分配的固定大小环形缓冲区：以 CAS 申请序号、填写槽位后发布，无锁且不分配对象；
+ * 后台线程按序批量取出事件，以制表符分隔的文本行追加写入本地文件：
+ * <pre>
+ * 时间(ISO-8601)  算法模式  租户(无为-)  nonce前8字节(十六进制)  OK/FAIL  线程名
+ * </pre>
+ * 成功的解密按 {@code sampleRate} 抽样记录，失败的解密总是记录。缓冲区已满时按 {@link Backpressure} 丢弃或等待
+ * <pre>{@code
+ * RingBufferAuditListener audit = new RingBufferAuditListener(Path.of("/data/audit/sensitive.log"), 8192, 256, 1.0, Backpressure.BLOCK).start();
+ * SensitiveAudit.register(audit);
+ * }</pre>
+ *
+ * @author <a href="mailto:asialjim@hotmail.com">Asial Jim</a>
+ * @version 1.0
+ * @since 2026/10/19, &nbsp;&nbsp; <em>version:1.0</em>
+ */
+public class RingBufferAuditListener implements SensitiveAuditListener, Closeable {
+    private static final long IDLE_PARK_NANOS = 1_000_000L;
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private final Path file;
+    private final Event[] events;
+    /**
+     * 各槽位已发布的序号 + 1，0 表示尚未发布
+     */
+    private final AtomicLongArray published;
+    private final int mask;
+    private final int batchSize;
+    private final double sampleRate;
+    private final Backpressure backpressure;
+    /**
+     * 下一个待申请的序号
+     */
+    private final AtomicLong claimed = new AtomicLong();
+    /**
+     * 下一个待写出的序号，只由后台线程更新
+     */
+    private volatile long consumed;
+    private volatile boolean closed;
+    private volatile IOException failure;
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder sampledOut = new LongAdder();
+    private final AtomicLong written = new AtomicLong();
+    private Thread writer;
+
+    /**
+     * @param file         审计文件，只追加写入
+     * @param bufferSize   环形缓冲区槽位数，向上取整为 2 的幂
+     * @param batchSize    后台线程每批写出的最大事件数
+     * @param sampleRate   成功解密的抽样比例，0 ~ 1
+     * @param backpressure 缓冲区已满时的处理方式
+     */
+    public RingBufferAuditListener(Path file, int bufferSize, int batchSize, double sampleRate, Backpressure backpressure) {
+        if (bufferSize <= 0 || bufferSize > 1 << 30)
+            throw new IllegalArgumentException("缓冲区大小必须在 1 ~ 2^30 之间");
+        if (batchSize <= 0)
+            throw new IllegalArgumentException("批量大小必须大于0");
+        if (sampleRate < 0 || sampleRate > 1)
+            throw new IllegalArgumentException("抽样比例必须在 0 ~ 1 之间");
+
+        this.file = Objects.requireNonNull(file, "审计文件不能为空").toAbsolutePath();
+        this.backpressure = Objects.requireNonNull(backpressure, "背压策略不能为空");
+        int capacity = bufferSize == 1 ? 1 : Integer.highestOneBit(bufferSize - 1) << 1;
+        this.events = new Event[capacity];
+        for (int i = 0; i < capacity; i++) {
+            events[i] = new Event();
+        }
+        this.published = new AtomicLongArray(capacity);
+        this.mask = capacity - 1;
+        this.batchSize = batchSize;
+        this.sampleRate = sampleRate;
+    }
+
+    /**
+     * 启动后台写出线程
+     */
+    public synchronized RingBufferAuditListener start() throws IOException {
+        if (closed)
+            throw new IllegalStateException("审计已关闭");
+        if (Objects.nonNull(writer))
+            return this;
+
+        Files.createDirectories(file.getParent());
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        Thread thread = new Thread(() -> drain(channel), "sensitive-audit-writer");
+        thread.setDaemon(true);
+        thread.start();
+        this.writer = thread;
+        return this;
+    }
+
+    @Override
+    public void decrypted(AlgorithmMode mode, String tenant, byte[] nonce, boolean success) {
+        if (success && sampleRate < 1 && ThreadLocalRandom.current().nextDouble() >= sampleRate) {
+            sampledOut.increment();
+            return;
+        }
+
+        long sequence = claim();
+        if (sequence < 0)
+            return;
+
+        Event event = events[(int) sequence & mask];
+        event.time = System.currentTimeMillis();
+        event.mode = mode;
+        event.tenant = tenant;
+        event.nonce = prefixOf(nonce);
+        event.success = success;
+        event.thread = Thread.currentThread().getName();
+        published.set((int) sequence & mask, sequence + 1);
+    }
+
+    /**
+     * 申请序号，缓冲区已满且策略为丢弃或已关闭时返回 -1
+     */
+    private long claim() {
+        int capacity = events.length;
+        while (!closed) {
+            long sequence = claimed.get();
+            if (sequence - consumed >= capacity) {
+                if (backpressure == Backpressure.DROP) {
+                    dropped.increment();
+                    return -1;
+                }
+                LockSupport.parkNanos(1_000L);
+                continue;
+            }
+
+            if (claimed.compareAndSet(sequence, sequence + 1))
+                return sequence;
+        }
+        dropped.increment();
+        return -1;
+    }
+
+    private static long prefixOf(byte[] nonce) {
+        long prefix = 0;
+        int length = Objects.isNull(nonce) ? 0 : Math.min(8, nonce.length);
+        for (int i = 0; i < length; i++) {
+            prefix = prefix << 8 | (nonce[i] & 0xFF);
+        }
+        return prefix;
+    }
+
+    private void drain(FileChannel channel) {
+        StringBuilder lines = new StringBuilder(batchSize * 96);
+        try (channel) {
+            long next = consumed;
+            while (true) {
+                lines.setLength(0);
+                int count = 0;
+                while (count < batchSize) {
+                    int index = (int) next & mask;
+                    if (published.get(index) != next + 1)
+                        break;
+
+                    format(events[index], lines);
+                    next++;
+                    count++;
+                }
+
+                if (count == 0) {
+                    if (closed && claimed.get() == next)
+                        return;
+                    LockSupport.parkNanos(IDLE_PARK_NANOS);
+                    continue;
+                }
+
+                // 事件已复制到文本缓冲区，先释放槽位再写文件
+                consumed = next;
+                ByteBuffer bytes = StandardCharsets.UTF_8.encode(CharBuffer.wrap(lines));
+                while (bytes.hasRemaining()) {
+                    channel.write(bytes);
+                }
+                written.addAndGet(count);
+            }
+        } catch (IOException e) {
+            // 无法继续写出，停止接收事件，避免 BLOCK 策略下解密线程一直等待
+            this.failure = e;
+            this.closed = true;
+        }
+    }
+
+    private static void format(Event event, StringBuilder lines) {
+        DateTimeFormatter.ISO_INSTANT.formatTo(Instant.ofEpochMilli(event.time), lines);
+        lines.append('\t').append(Objects.isNull(event.mode) ? "-" : event.mode.getCode())
+                .append('\t').append(Objects.isNull(event.tenant) ? "-" : event.tenant)
+                .append('\t');
+        for (int shift = 60; shift >= 0; shift -= 4) {
+            lines.append(HEX[(int) (event.nonce >>> shift) & 0xF]);
+        }
+        lines.append('\t').append(event.success ? "OK" : "FAIL")
+                .append('\t');
+        String thread = event.thread;
+        for (int i = 0; i < thread.length(); i++) {
+            char c = thread.charAt(i);
+            lines.append(c == '\t' || c == '\n' || c == '\r' ? ' ' : c);
+        }
+        lines.append('\n');
+    }
+
+    /**
+     * 从 {@link SensitiveAudit} 注销并停止接收事件，写出缓冲区中剩余的事件后关闭文件
+     */
+    @Override
+    public void close() {
+        SensitiveAudit.unregister(this);
+        Thread writer;
+        synchronized (this) {
+            closed = true;
+            writer = this.writer;
+        }
+
+        if (Objects.isNull(writer))
+            return;
+
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * 已写出、因缓冲区已满或已关闭丢弃、因抽样未记录的事件数
+     */
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("written", written.get());
+        stats.put("pending", claimed.get() - consumed);
+        stats.put("dropped", dropped.sum());
+        stats.put("sampledOut", sampledOut.sum());
+        IOException failure = this.failure;
+        stats.put("failure", Objects.isNull(failure) ? null : failure.toString());
+        return stats;
+    }
+
+    public Path file() {
+        return file;
+    }
+
+    /**
+     * 缓冲区已满时的处理方式
+     */
+    public enum Backpressure {
+        /**
+         * 丢弃新事件并计数，不影响解密延迟
+         */
+        DROP,
+        /**
+         * 等待后台线程释放槽位，保证不丢失事件；需先 {@link #start()}，关闭或写出失败后改为丢弃
+         */
+        BLOCK
+    }
+
+    /**
+     * 预先分配的槽位，由申请到序号的解密线程填写，发布后由后台线程读取
+     */
+    private static final class Event {
+        private long time;
+        private AlgorithmMode mode;
+        private String tenant;
+        private long nonce;
+        private boolean success;
+        private String thread;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,67 @@
+/*
+ *    Copyright 2014-2025 <a href="mailto:asialjim@qq.com">Asial Jim</a>
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package com.asialjim.microapplet.sensitive.audit;
+
+import com.asialjim.microapplet.sensitive.SensitiveWarmUp;
+import com.asialjim.microapplet.sensitive.encrypt.AlgorithmMode;
+import com.asialjim.microapplet.sensitive.encrypt.EncryptionContextBean;
+
+import java.util.Objects;
+
+/**
+ * 解密审计
+ * <p>
+ * {@link EncryptionContextBean#decrypt} 每次解密后调用 {@link #decrypted}，转交当前注册的 {@link SensitiveAuditListener}；
+ * 未注册时只读取一次 volatile 引用，不产生其他开销；{@link SensitiveWarmUp} 预热期间的解密不是真实访问，不做记录
+ *
+ * @author <a href="mailto:asialjim@hotmail.com">Asial Jim</a>
+ * @version 1.0
+ * @since 2026/10/19, &nbsp;&nbsp; <em>version:1.0</em>
+ */
+public final class SensitiveAudit {
+    private static volatile SensitiveAuditListener listener;
+
+    private SensitiveAudit() {
+    }
+
+    /**
+     * 注册审计监听器，替换已注册的监听器
+     */
+    public static synchronized void register(SensitiveAuditListener listener) {
+        SensitiveAudit.listener = Objects.requireNonNull(listener, "审计监听器不能为空");
+    }
+
+    /**
+     * 注销审计监听器，当前注册的不是该监听器时不做处理
+     */
+    public static synchronized void unregister(SensitiveAuditListener listener) {
+        if (SensitiveAudit.listener == listener)
+            SensitiveAudit.listener = null;
+    }
+
+    /**
+     * 当前注册的审计监听器，未注册时为 {@code null}
+     */
+    public static SensitiveAuditListener listener() {
+        return listener;
+    }
+
+    public static void decrypted(AlgorithmMode mode, String tenant, byte[] nonce, boolean success) {
+        SensitiveAuditListener listener = SensitiveAudit.listener;
+        if (Objects.nonNull(listener) && !SensitiveWarmUp.warming())
+            listener.decrypted(mode, tenant, nonce, success);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,39 @@
+/*
+ *    Copyright 2014-2025 <a href="mailto:asialjim@qq.com">Asial Jim</a>
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package com.asialjim.microapplet.sensitive.audit;
+
+import com.asialjim.microapplet.sensitive.encrypt.AlgorithmMode;
+
+/**
+ * 解密审计监听器
+ * <p>
+ * 每次解密 {@code _mask} 格式数据后由 {@link SensitiveAudit} 在解密线程上同步调用，实现不应阻塞或分配较多对象，
+ * 耗时操作交由后台线程完成，见 {@link RingBufferAuditListener}
+ *
+ * @author <a href="mailto:asialjim@hotmail.com">Asial Jim</a>
+ * @version 1.0
+ * @since 2026/10/19, &nbsp;&nbsp; <em>version:1.0</em>
+ */
+public interface SensitiveAuditListener {
+
+    /**
+     * @param mode    密文的算法模式
+     * @param tenant  密文所属租户，未标记租户时为 {@code null}
+     * @param nonce   密文的 nonce/IV，可用于定位被解密的数据，不可修改；保留格式加密无 nonce，为空数组或 _mask 格式数据中的单字节占位
+     * @param success 是否解密成功
+     */
+    void decrypted(AlgorithmMode mode, String tenant, byte[] nonce, boolean success);
+}
\ No newline at end of file
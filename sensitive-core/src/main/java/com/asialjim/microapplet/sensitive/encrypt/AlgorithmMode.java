@@ -30,7 +30,8 @@ import lombok.Getter;
 @AllArgsConstructor
 public enum AlgorithmMode {
     GM("GM", "国密算法(SM4-SM3)","ChaCha20","ChaCha20"),
-    MODERN("MODERN", "现代算法(ChaCha20-Poly1305/AES-GCM)","SM4","HmacSM3");
+    MODERN("MODERN", "现代算法(ChaCha20-Poly1305/AES-GCM)","SM4","HmacSM3"),
+    FPE("FPE", "保留格式加密(FF1-AES/FF1-SM4)", "AES", null);
 
     private final String code;
     private final String description;
@@ -16,6 +16,8 @@
 
 package com.asialjim.microapplet.sensitive.encrypt;
 
+import java.util.Objects;
+
 /**
  * 脱敏加密配置接口
  *
@@ -26,4 +28,16 @@ package com.asialjim.microapplet.sensitive.encrypt;
 public interface AlgorithmModeConfig {
 
     AlgorithmMode currentMode();
+
+    /**
+     * 校验可作为全局算法模式：{@link AlgorithmMode#FPE} 只能加密数字，不适用于邮箱、姓名等敏感类型，
+     * 需经由 {@link EncryptionContextBean#encryptPreservingFormat} 按字段使用
+     */
+    static AlgorithmMode requireGlobalMode(AlgorithmMode mode) {
+        if (Objects.isNull(mode))
+            throw new IllegalArgumentException("算法模式不能为空");
+        if (AlgorithmMode.FPE == mode)
+            throw new IllegalArgumentException("保留格式加密只能加密数字，不能作为全局算法模式:" + mode);
+        return mode;
+    }
 }
\ No newline at end of file
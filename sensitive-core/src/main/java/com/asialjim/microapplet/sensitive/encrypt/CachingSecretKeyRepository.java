@@ -0,0 +1,139 @@
+/*
+ *    Copyright 2014-2025 <a href="mailto:asialjim@qq.com">Asial Jim</a>
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+
+package com.asialjim.microapplet.sensitive.encrypt;
+
+import com.asialjim.microapplet.sensitive.SensitiveMetrics;
+
+import java.security.NoSuchAlgorithmException;
+import java.security.NoSuchProviderException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 带缓存的密钥仓库
+ * <p>
+ * 包装远程密钥管理服务等加载较慢的 {@link SecretKeyRepository}，按算法模式缓存密钥并记录加载时间与命中次数；
+ * {@link #refresh()} 丢弃缓存，下次使用时重新加载
+ *
+ * @author <a href="mailto:asialjim@hotmail.com">Asial Jim</a>
+ * @version 1.0
+ * @since 2026/10/19, &nbsp;&nbsp; <em>version:1.0</em>
+ */
+public class CachingSecretKeyRepository implements SecretKeyRepository {
+    private final SecretKeyRepository delegate;
+    private final Map<AlgorithmMode, Entry> cache = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public CachingSecretKeyRepository(SecretKeyRepository delegate) {
+        this.delegate = Objects.requireNonNull(delegate, "密钥仓库不能为空");
+    }
+
+    @Override
+    public Pair pairOf(AlgorithmMode mode) throws NoSuchAlgorithmException, NoSuchProviderException {
+        if (Objects.isNull(mode))
+            return null;
+
+        Entry entry = cache.get(mode);
+        if (Objects.nonNull(entry)) {
+            hits.increment();
+            return entry.pair;
+        }
+
+        synchronized (cache) {
+            entry = cache.get(mode);
+            if (Objects.nonNull(entry)) {
+                hits.increment();
+                return entry.pair;
+            }
+
+            misses.increment();
+            Pair pair = delegate.pairOf(mode);
+            if (Objects.nonNull(pair))
+                cache.put(mode, new Entry(pair, Instant.now()));
+            return pair;
+        }
+    }
+
+    /**
+     * 只缓存平台默认密钥，租户密钥直接取自被包装的仓库，租户较多时使用 {@link TenantCachingSecretKeyRepository}
+     */
+    @Override
+    public Pair pairOf(String tenant, AlgorithmMode mode) throws NoSuchAlgorithmException, NoSuchProviderException {
+        return Objects.isNull(tenant) ? pairOf(mode) : delegate.pairOf(tenant, mode);
+    }
+
+    @Override
+    public boolean tenantAware() {
+        return delegate.tenantAware();
+    }
+
+    /**
+     * 历史密钥只在解密认证失败时使用，不缓存
+     */
+    @Override
+    public List<Pair> retiredPairsOf(String tenant, AlgorithmMode mode) throws NoSuchAlgorithmException, NoSuchProviderException {
+        return delegate.retiredPairsOf(tenant, mode);
+    }
+
+    @Override
+    public void refresh() {
+        synchronized (cache) {
+            delegate.refresh();
+            cache.clear();
+        }
+    }
+
+    /**
+     * 算法模式的密钥是否已缓存
+     */
+    public boolean cached(AlgorithmMode mode) {
+        return Objects.nonNull(mode) && cache.containsKey(mode);
+    }
+
+    /**
+     * 已缓存密钥的缓存时长
+     */
+    public Map<AlgorithmMode, Duration> ages() {
+        Instant now = Instant.now();
+        Map<AlgorithmMode, Duration> ages = new EnumMap<>(AlgorithmMode.class);
+        cache.forEach((mode, entry) -> ages.put(mode, Duration.between(entry.loadedAt, now)));
+        return ages;
+    }
+
+    /**
+     * 缓存命中统计与各算法模式的缓存时长（秒）
+     */
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>(SensitiveMetrics.cache(hits.sum(), misses.sum()));
+        Map<AlgorithmMode, Long> ages = new EnumMap<>(AlgorithmMode.class);
+        ages().forEach((mode, age) -> ages.put(mode, age.toSeconds()));
+        stats.put("ageSeconds", ages);
+        return stats;
+    }
+
+    private record Entry(Pair pair, Instant loadedAt) {
+    }
+}
\ No newline at end of file
@@ -16,10 +16,13 @@
 
 package com.asialjim.microapplet.sensitive.encrypt;
 
+import com.asialjim.microapplet.sensitive.jfr.DecryptEvent;
+import com.asialjim.microapplet.sensitive.jfr.EncryptEvent;
 import lombok.Getter;
 import lombok.Setter;
 
 import javax.crypto.SecretKey;
+import java.util.List;
 
 /**
  * 加密上下文 - 策略模式上下文
@@ -54,14 +57,38 @@ public class EncryptionContext {
      * 加密数据
      */
     public EncryptionResult encrypt(String sensitiveData, SecretKey encryptionKey, SecretKey macKey) throws Exception {
-        return strategy.encrypt(sensitiveData, encryptionKey, macKey);
+        EncryptEvent event = new EncryptEvent();
+        event.begin();
+        EncryptionResult result = strategy.encrypt(sensitiveData, encryptionKey, macKey);
+        event.complete(result.getAlgorithmMode(), 1);
+        return result;
+    }
+
+    /**
+     * 批量加密数据
+     */
+    public List<EncryptionResult> encryptAll(List<String> sensitiveData, SecretKey encryptionKey, SecretKey macKey) throws Exception {
+        EncryptEvent event = new EncryptEvent();
+        event.begin();
+        List<EncryptionResult> results = strategy.encryptAll(sensitiveData, encryptionKey, macKey);
+        event.complete(strategy.getAlgorithmMode(), results.size());
+        return results;
     }
 
     /**
      * 解密数据
      */
     public String decrypt(EncryptionResult encryptedData, SecretKey encryptionKey, SecretKey macKey) throws Exception {
-        return strategy.decrypt(encryptedData, encryptionKey, macKey);
+        DecryptEvent event = new DecryptEvent();
+        event.begin();
+        boolean success = false;
+        try {
+            String result = strategy.decrypt(encryptedData, encryptionKey, macKey);
+            success = true;
+            return result;
+        } finally {
+            event.complete(encryptedData.getAlgorithmMode(), success);
+        }
     }
 
     /**
@@ -71,7 +98,7 @@ public class EncryptionContext {
         EncryptionResult encryptedData = EncryptionResult.fromFormattedString(formattedData);
         // 根据数据自动选择策略
         this.strategy = EncryptionStrategyFactory.getStrategyForData(formattedData);
-        return strategy.decrypt(encryptedData, encryptionKey, macKey);
+        return decrypt(encryptedData, encryptionKey, macKey);
     }
 
     /**
@@ -16,26 +16,43 @@
 
 package com.asialjim.microapplet.sensitive.encrypt;
 
+import com.asialjim.microapplet.sensitive.SensitiveMetrics;
+import com.asialjim.microapplet.sensitive.SensitivePolicy;
+import com.asialjim.microapplet.sensitive.SensitiveTenant;
+import com.asialjim.microapplet.sensitive.audit.SensitiveAudit;
+import com.asialjim.microapplet.sensitive.handler.SensitiveType;
+import com.asialjim.microapplet.sensitive.jfr.DecryptEvent;
+import com.asialjim.microapplet.sensitive.jfr.EncryptEvent;
+import com.asialjim.microapplet.sensitive.jfr.KeyLookupEvent;
 import jakarta.annotation.PostConstruct;
 import jakarta.annotation.Resource;
 import lombok.AllArgsConstructor;
 import lombok.NoArgsConstructor;
 import lombok.SneakyThrows;
+import org.apache.commons.lang3.StringUtils;
 
-import java.util.List;
-import java.util.Map;
-import java.util.Objects;
+import javax.crypto.AEADBadTagException;
+import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * 加密上下文 - 策略模式上下文
+ * <p>
+ * Spring 环境由自动配置创建，其他环境（如 Flink、命令行任务）使用 {@link #builder()}：
+ * <pre>{@code
+ * EncryptionContextBean.builder()
+ *         .mode(AlgorithmMode.MODERN)
+ *         .secretKeyRepository(repository)
+ *         .build();
+ * }</pre>
  */
 @NoArgsConstructor
 @AllArgsConstructor
 public class EncryptionContextBean {
     public static EncryptionContextBean instance;
+    private static final byte[] NO_NONCE = new byte[0];
 
-    private static final Map<AlgorithmMode, EncryptionContext> CONTEXT_MAP = new ConcurrentHashMap<>();
+    private final Map<AlgorithmMode, EncryptionContext> contextMap = new ConcurrentHashMap<>();
     @Resource
     private List<EncryptionContext> contexts;
     @Resource
@@ -45,36 +62,267 @@ public class EncryptionContextBean {
 
     @PostConstruct
     public void init() {
+        // 自定义算法模式配置同样在启动时校验，而非首次序列化时失败
+        if (Objects.nonNull(this.algorithmModeConfig))
+            AlgorithmModeConfig.requireGlobalMode(this.algorithmModeConfig.currentMode());
         instance = this;
     }
 
-    @SneakyThrows
+    public static Builder builder() {
+        return new Builder();
+    }
+
     public EncryptionResult encrypt(String source) {
-        AlgorithmMode mode = this.algorithmModeConfig.currentMode();
+        return encrypt(this.algorithmModeConfig.currentMode(), source);
+    }
 
+    /**
+     * 使用指定算法模式加密数据
+     */
+    @SneakyThrows
+    public EncryptionResult encrypt(AlgorithmMode mode, String source) {
+        long start = SensitiveMetrics.start();
+        String tenant = tenant();
         EncryptionContext ctx = encryptionContextOf(mode);
-        SecretKeyRepository.Pair pair = this.secretKeyRepository.pairOf(mode);
-        return ctx.encrypt(source, pair.getEncKey(), pair.getMacKey());
+        SecretKeyRepository.Pair pair = pairOf(tenant, mode);
+        EncryptionResult result = withTenant(ctx.encrypt(source, pair.getEncKey(), pair.getMacKey()), tenant);
+        SensitiveMetrics.encrypted(mode, 1, start);
+        return result;
     }
 
+    /**
+     * 批量加密数据，整批只解析一次算法模式、加密上下文与密钥
+     */
     @SneakyThrows
-    public String decrypt(String source) {
+    public List<EncryptionResult> encryptAll(List<String> sources) {
         AlgorithmMode mode = this.algorithmModeConfig.currentMode();
 
+        long start = SensitiveMetrics.start();
+        String tenant = tenant();
+        EncryptionContext ctx = encryptionContextOf(mode);
+        SecretKeyRepository.Pair pair = pairOf(tenant, mode);
+        List<EncryptionResult> results = ctx.encryptAll(sources, pair.getEncKey(), pair.getMacKey());
+        if (Objects.nonNull(tenant)) {
+            List<EncryptionResult> tagged = new ArrayList<>(results.size());
+            for (EncryptionResult result : results) {
+                tagged.add(withTenant(result, tenant));
+            }
+            results = tagged;
+        }
+        SensitiveMetrics.encrypted(mode, results.size(), start);
+        return results;
+    }
+
+    public String decrypt(String source) {
+        return decrypt(EncryptionResult.fromFormattedString(source));
+    }
+
+    /**
+     * 解密数据，按密文自身的算法模式与租户选择加密上下文与密钥，认证失败时依次尝试 {@link SecretKeyRepository#retiredPairsOf} 历史密钥；
+     * 设置了当前租户时只能解密本租户的数据，密钥仓库按租户提供密钥（{@link SecretKeyRepository#tenantAware()}）时同样拒绝未标记租户的数据，
+     * 避免删除租户标记后以平台密钥解密。
+     * 成功与失败均记录到 {@link SensitiveAudit}
+     */
+    @SneakyThrows
+    public String decrypt(EncryptionResult source) {
+        AlgorithmMode mode = source.getAlgorithmMode();
+        String tenant = source.getTenant();
+        String current = SensitiveTenant.current();
+        if (Objects.nonNull(tenant) && Objects.nonNull(current) && !tenant.equals(current)) {
+            SensitiveAudit.decrypted(mode, tenant, source.getNonce(), false);
+            throw new IllegalArgumentException("敏感数据所属租户与当前租户不一致");
+        }
+        if (Objects.isNull(tenant) && Objects.nonNull(current) && this.secretKeyRepository.tenantAware()) {
+            SensitiveAudit.decrypted(mode, null, source.getNonce(), false);
+            throw new IllegalArgumentException("当前租户不能解密未标记租户的敏感数据");
+        }
+
+        long start = SensitiveMetrics.start();
         EncryptionContext ctx = encryptionContextOf(mode);
-        SecretKeyRepository.Pair pair = this.secretKeyRepository.pairOf(mode);
+        SecretKeyRepository.Pair pair = pairOf(tenant, mode);
+        String result;
+        try {
+            result = ctx.decrypt(source, pair.getEncKey(), pair.getMacKey());
+        } catch (Exception e) {
+            boolean authentication = e instanceof SecurityException || e instanceof AEADBadTagException;
+            result = authentication ? decryptRetired(ctx, source, tenant, mode) : null;
+            if (Objects.isNull(result)) {
+                SensitiveMetrics.decryptFailed(mode, authentication);
+                SensitiveAudit.decrypted(mode, tenant, source.getNonce(), false);
+                throw e;
+            }
+        }
+        SensitiveMetrics.decrypted(mode, start);
+        SensitiveAudit.decrypted(mode, tenant, source.getNonce(), true);
+        return result;
+    }
+
+    /**
+     * 按敏感类型的脱敏规则保留前后字符并保留格式加密，见 {@link #encryptPreservingFormat(String, int, int)}；
+     * 保留后参与加密的数字不足 {@link FF1EncryptionStrategy#MIN_DIGITS} 位时先缩减后缀再缩减前缀，
+     * 如手机号按 3/4 保留时实际保留 3/2 位
+     */
+    public String encryptPreservingFormat(SensitiveType type, String source) {
+        if (StringUtils.isEmpty(source))
+            return source;
+
+        int[] preserved = preservedOf(type, source);
+        return encryptPreservingFormat(source, preserved[0], preserved[1]);
+    }
+
+    /**
+     * 解密 {@link #encryptPreservingFormat(SensitiveType, String)} 的结果，脱敏规则需与加密时相同
+     */
+    public String decryptPreservingFormat(SensitiveType type, String source) {
+        if (StringUtils.isEmpty(source))
+            return source;
+
+        int[] preserved = preservedOf(type, source);
+        return decryptPreservingFormat(source, preserved[0], preserved[1]);
+    }
+
+    /**
+     * 使用 {@link AlgorithmMode#FPE} 密钥保留格式加密，输出与明文长度、格式相同，不含算法与租户标记，
+     * 解密时使用当前租户的密钥
+     *
+     * @param prefix 前部保留不加密的字符数
+     * @param suffix 后部保留不加密的字符数
+     */
+    @SneakyThrows
+    public String encryptPreservingFormat(String source, int prefix, int suffix) {
+        if (StringUtils.isEmpty(source))
+            return source;
+
+        long start = SensitiveMetrics.start();
+        SecretKeyRepository.Pair pair = pairOf(tenant(), AlgorithmMode.FPE);
+        EncryptEvent event = new EncryptEvent();
+        event.begin();
+        String result = fpeStrategy().encrypt(source, pair.getEncKey(), prefix, suffix);
+        event.complete(AlgorithmMode.FPE, 1);
+        SensitiveMetrics.encrypted(AlgorithmMode.FPE, 1, start);
+        return result;
+    }
+
+    /**
+     * 解密 {@link #encryptPreservingFormat(String, int, int)} 的结果，前后保留字符数需与加密时相同；
+     * 保留格式密文不含认证标签，密钥或保留位数不符时得到错误明文而非异常
+     */
+    @SneakyThrows
+    public String decryptPreservingFormat(String source, int prefix, int suffix) {
+        if (StringUtils.isEmpty(source))
+            return source;
+
+        long start = SensitiveMetrics.start();
+        String tenant = tenant();
+        SecretKeyRepository.Pair pair = pairOf(tenant, AlgorithmMode.FPE);
+        DecryptEvent event = new DecryptEvent();
+        event.begin();
+        String result;
+        try {
+            result = fpeStrategy().decrypt(source, pair.getEncKey(), prefix, suffix);
+        } catch (Exception e) {
+            event.complete(AlgorithmMode.FPE, false);
+            SensitiveMetrics.decryptFailed(AlgorithmMode.FPE, false);
+            SensitiveAudit.decrypted(AlgorithmMode.FPE, tenant, NO_NONCE, false);
+            throw e;
+        }
+        event.complete(AlgorithmMode.FPE, true);
+        SensitiveMetrics.decrypted(AlgorithmMode.FPE, start);
+        SensitiveAudit.decrypted(AlgorithmMode.FPE, tenant, NO_NONCE, true);
+        return result;
+    }
+
+    private static int[] preservedOf(SensitiveType type, String source) {
+        SensitivePolicy.Rule rule = SensitivePolicy.current().rule(type);
+        return FF1EncryptionStrategy.preserved(source, rule.prefix(), rule.suffix());
+    }
+
+    private FF1EncryptionStrategy fpeStrategy() {
+        EncryptionContext ctx = encryptionContextOf(AlgorithmMode.FPE);
+        EncryptionStrategy strategy = Objects.nonNull(ctx) ? ctx.getStrategy() : EncryptionStrategyFactory.getStrategy(AlgorithmMode.FPE);
+        if (strategy instanceof FF1EncryptionStrategy ff1)
+            return ff1;
+        throw new IllegalArgumentException("保留格式加密需要FF1加密策略:" + strategy.getClass().getName());
+    }
 
-        // 调用接收字符串格式化数据的decrypt方法
-        return ctx.decrypt(source, pair.getEncKey(), pair.getMacKey());
+    /**
+     * 加密使用的租户：密钥仓库不区分租户时为空，密文不标记租户
+     */
+    private String tenant() {
+        return this.secretKeyRepository.tenantAware() ? SensitiveTenant.current() : null;
     }
 
+    private SecretKeyRepository.Pair pairOf(String tenant, AlgorithmMode mode) throws Exception {
+        KeyLookupEvent event = new KeyLookupEvent();
+        event.begin();
+        SecretKeyRepository.Pair pair = this.secretKeyRepository.pairOf(tenant, mode);
+        event.complete(mode, tenant, Objects.nonNull(pair));
+        return pair;
+    }
+
+    /**
+     * 依次使用历史密钥解密，均未通过认证时返回 {@code null}
+     */
+    private String decryptRetired(EncryptionContext ctx, EncryptionResult source, String tenant, AlgorithmMode mode) throws Exception {
+        for (SecretKeyRepository.Pair retired : this.secretKeyRepository.retiredPairsOf(tenant, mode)) {
+            try {
+                return ctx.decrypt(source, retired.getEncKey(), retired.getMacKey());
+            } catch (SecurityException | AEADBadTagException ignored) {
+                // 尝试更早的密钥
+            }
+        }
+        return null;
+    }
+
+    private static EncryptionResult withTenant(EncryptionResult result, String tenant) {
+        // 租户已在 SensitiveTenant 设置时校验
+        return Objects.isNull(tenant) ? result
+                : new EncryptionResult(result.getAlgorithmMode(), result.getNonce(), result.getEncrypt(), result.getMac(), tenant);
+    }
+
+    /**
+     * 重新加载密钥，见 {@link SecretKeyRepository#refresh()}
+     */
+    public void refreshKeys() {
+        this.secretKeyRepository.refresh();
+    }
+
+    /**
+     * 预先解析所有算法模式的加密上下文与密钥
+     *
+     * @return 已就绪的算法模式
+     */
+    @SneakyThrows
+    public Set<AlgorithmMode> preload() {
+        Set<AlgorithmMode> modes = EnumSet.noneOf(AlgorithmMode.class);
+        for (AlgorithmMode mode : AlgorithmMode.values()) {
+            if (Objects.isNull(encryptionContextOf(mode)))
+                continue;
+
+            if (Objects.nonNull(pairOfQuietly(mode)))
+                modes.add(mode);
+        }
+        return modes;
+    }
+
+
+    /**
+     * 密钥仓库未配置的算法模式（如早期密钥库中的 {@link AlgorithmMode#FPE}）不参与预热
+     */
+    private SecretKeyRepository.Pair pairOfQuietly(AlgorithmMode mode) throws Exception {
+        try {
+            return pairOf(null, mode);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
 
     private EncryptionContext encryptionContextOf(AlgorithmMode mode) {
-        EncryptionContext encryptionContext = CONTEXT_MAP.get(mode);
+        EncryptionContext encryptionContext = contextMap.get(mode);
         if (Objects.nonNull(encryptionContext))
             return encryptionContext;
-        synchronized (CONTEXT_MAP) {
-            encryptionContext = CONTEXT_MAP.get(mode);
+        synchronized (contextMap) {
+            encryptionContext = contextMap.get(mode);
             if (Objects.nonNull(encryptionContext))
                 return encryptionContext;
             encryptionContext = contexts.stream()
@@ -82,9 +330,86 @@ public class EncryptionContextBean {
                     .filter(item -> mode.equals(item.getCurrentAlgorithmMode()))
                     .findAny().orElse(null);
 
-            CONTEXT_MAP.put(mode, encryptionContext);
+            if (Objects.nonNull(encryptionContext))
+                contextMap.put(mode, encryptionContext);
 
             return encryptionContext;
         }
     }
+
+    /**
+     * 加密上下文构建器，未设置的部分按以下默认值补齐：
+     * <ul>
+     *     <li>加密上下文：{@link EncryptionStrategyFactory} 中每个算法模式各一个</li>
+     *     <li>算法模式：{@link SensitivePolicy#modeConfig()}</li>
+     *     <li>密钥仓库：经由 {@link ServiceLoader} 声明的第一个 {@link SecretKeyRepository} 实现</li>
+     * </ul>
+     */
+    public static final class Builder {
+        private final List<EncryptionContext> contexts = new ArrayList<>();
+        private AlgorithmModeConfig algorithmModeConfig;
+        private SecretKeyRepository secretKeyRepository;
+
+        private Builder() {
+        }
+
+        public Builder context(EncryptionContext context) {
+            if (Objects.isNull(context))
+                throw new IllegalArgumentException("加密上下文不能为空");
+
+            this.contexts.add(context);
+            return this;
+        }
+
+        public Builder contexts(Collection<EncryptionContext> contexts) {
+            contexts.forEach(this::context);
+            return this;
+        }
+
+        /**
+         * 固定使用指定算法模式加密
+         */
+        public Builder mode(AlgorithmMode mode) {
+            if (Objects.isNull(mode))
+                throw new IllegalArgumentException("算法模式不能为空");
+
+            return algorithmModeConfig(() -> mode);
+        }
+
+        public Builder algorithmModeConfig(AlgorithmModeConfig algorithmModeConfig) {
+            this.algorithmModeConfig = algorithmModeConfig;
+            return this;
+        }
+
+        public Builder secretKeyRepository(SecretKeyRepository secretKeyRepository) {
+            this.secretKeyRepository = secretKeyRepository;
+            return this;
+        }
+
+        /**
+         * 构建加密上下文并设为 {@link EncryptionContextBean#instance}
+         */
+        public EncryptionContextBean build() {
+            List<EncryptionContext> contexts = new ArrayList<>(this.contexts);
+            if (contexts.isEmpty()) {
+                for (AlgorithmMode mode : EncryptionStrategyFactory.getSupportedModes()) {
+                    contexts.add(new EncryptionContext(EncryptionStrategyFactory.getStrategy(mode)));
+                }
+            }
+
+            AlgorithmModeConfig algorithmModeConfig = Objects.nonNull(this.algorithmModeConfig)
+                    ? this.algorithmModeConfig : SensitivePolicy.modeConfig();
+
+            SecretKeyRepository secretKeyRepository = this.secretKeyRepository;
+            if (Objects.isNull(secretKeyRepository)) {
+                secretKeyRepository = ServiceLoader.load(SecretKeyRepository.class, EncryptionContextBean.class.getClassLoader())
+                        .findFirst()
+                        .orElseThrow(() -> new IllegalArgumentException("缺少密钥仓库:请设置或经由ServiceLoader声明SecretKeyRepository实现"));
+            }
+
+            EncryptionContextBean bean = new EncryptionContextBean(contexts, algorithmModeConfig, secretKeyRepository);
+            bean.init();
+            return bean;
+        }
+    }
 }
\ No newline at end of file
@@ -16,61 +16,245 @@
 
 package com.asialjim.microapplet.sensitive.encrypt;
 
+import com.asialjim.microapplet.sensitive.SensitiveTenant;
+import com.asialjim.microapplet.sensitive.jfr.EnvelopeParseEvent;
 import lombok.Getter;
 import org.apache.commons.lang3.ArrayUtils;
 import org.apache.commons.lang3.StringUtils;
 
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 import java.util.Base64;
+import java.util.Objects;
 
 @SuppressWarnings("LombokGetterMayBeUsed")
 public record EncryptionResult(
         @Getter AlgorithmMode algorithmMode,
         @Getter byte[] nonce,
         @Getter byte[] encrypt,
-        @Getter byte[] mac) {
+        @Getter byte[] mac,
+        @Getter String tenant) {
+
+    private static final String PREFIX = "_mask";
+    private static final char SEPARATOR = '|';
+    /**
+     * 算法段中算法与租户的分隔符：{@code GM@tenant-a}
+     */
+    private static final char TENANT_SEPARATOR = '@';
+    private static final char[] BASE64_URL = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_".toCharArray();
+
+    public EncryptionResult(AlgorithmMode algorithmMode, byte[] nonce, byte[] encrypt, byte[] mac) {
+        this(algorithmMode, nonce, encrypt, mac, null);
+    }
+
+    /**
+     * 标记所属租户，租户写入格式化数据与二进制数据的算法段
+     */
+    public EncryptionResult withTenant(String tenant) {
+        return new EncryptionResult(algorithmMode, nonce, encrypt, mac, SensitiveTenant.validate(tenant));
+    }
 
     public String toFormattedString() {
         // 格式化为字符串: _mask|algorithm|nonce|encrypt|mac|mask
-        String algorithmFlag = algorithmMode.getCode();
-        String encryptHex = bytesToBase64Url(encrypt);
-        String macHex = bytesToBase64Url(mac);
-        String nonceHex = bytesToBase64Url(nonce);
-
-        return String.format("_mask|%s|%s|%s|%s|", algorithmFlag, nonceHex, encryptHex, macHex);
+        return withMask(StringUtils.EMPTY);
     }
 
     public String withMask(String mask){
-        String formattedString = toFormattedString();
-        return formattedString + mask;
+        char[] chars = new char[formattedLength(mask)];
+        int length = writeFormatted(chars, 0, mask);
+        return new String(chars, 0, length);
+    }
+
+    /**
+     * 格式化数据（含脱敏数据）的字符长度
+     */
+    public int formattedLength(String mask) {
+        return PREFIX.length() + algorithmMode.getCode().length() + tenantLength()
+                + base64Length(nonce) + base64Length(encrypt) + base64Length(mac)
+                + 5 + StringUtils.length(mask);
+    }
+
+    /**
+     * 将格式化数据 _mask|algorithm|nonce|encrypt|mac|mask 直接写入字符缓冲区，不产生中间字符串
+     *
+     * @param dest   目标缓冲区，剩余容量不小于 {@link #formattedLength(String)}
+     * @param offset 写入起始位置
+     * @param mask   脱敏数据
+     * @return 写入的字符数
+     */
+    public int writeFormatted(char[] dest, int offset, String mask) {
+        int pos = offset;
+        pos = writeString(PREFIX, dest, pos);
+        dest[pos++] = SEPARATOR;
+        pos = writeString(algorithmMode.getCode(), dest, pos);
+        if (Objects.nonNull(tenant)) {
+            dest[pos++] = TENANT_SEPARATOR;
+            pos = writeString(tenant, dest, pos);
+        }
+        dest[pos++] = SEPARATOR;
+        pos = writeBase64Url(nonce, dest, pos);
+        dest[pos++] = SEPARATOR;
+        pos = writeBase64Url(encrypt, dest, pos);
+        dest[pos++] = SEPARATOR;
+        pos = writeBase64Url(mac, dest, pos);
+        dest[pos++] = SEPARATOR;
+        if (Objects.nonNull(mask))
+            pos = writeString(mask, dest, pos);
+        return pos - offset;
     }
 
+    /**
+     * 是否为 _mask|algorithm|nonce|encrypt|mac|mask 格式数据，脱敏数据可为空
+     */
     public static boolean isEncryptionMaskData(String source){
-        return StringUtils.startsWith(source, "_mask") && ArrayUtils.getLength(StringUtils.split(source, "\\|")) == 6;
+        return StringUtils.startsWith(source, PREFIX + SEPARATOR) && StringUtils.countMatches(source, SEPARATOR) >= 5;
     }
 
     public static EncryptionResult fromFormattedString(String formattedString) {
-        String[] parts = formattedString.split("\\|");
+        EnvelopeParseEvent event = new EnvelopeParseEvent();
+        event.begin();
+        EncryptionResult result = null;
+        try {
+            result = parseFormatted(formattedString);
+            return result;
+        } finally {
+            event.complete(EnvelopeParseEvent.FORMATTED, Objects.isNull(result) ? null : result.getAlgorithmMode());
+        }
+    }
+
+    private static EncryptionResult parseFormatted(String formattedString) {
+        // 保留末尾空的脱敏数据，脱敏数据中的分隔符不再拆分
+        String[] parts = formattedString.split("\\|", 6);
         if (parts.length != 6 || !"_mask".equals(parts[0]))
             throw new IllegalArgumentException("无效的数据格式");
 
-        AlgorithmMode mode = AlgorithmMode.fromCode(parts[1]);
+        AlgorithmMode mode = AlgorithmMode.fromCode(algorithmCode(parts[1]));
         byte[] nonce = base64UrlToBytes(parts[2]);
         byte[] encrypt = base64UrlToBytes(parts[3]);
         byte[] mac = base64UrlToBytes(parts[4]);
 
-        return new EncryptionResult(mode, nonce, encrypt, mac);
+        return new EncryptionResult(mode, nonce, encrypt, mac, tenantOf(parts[1]));
     }
 
 
-    // 工具方法
-    private static String bytesToBase64Url(byte[] bytes) {
-        return Base64.getUrlEncoder().encodeToString(bytes);
+    /**
+     * 二进制格式，供 CBOR/Smile 等二进制数据格式直接输出，不经 Base64 编码：
+     * [算法段长度][算法段][nonce长度][nonce][mac长度][mac][encrypt]，长度各占一个字节，算法段与格式化数据相同（含租户）
+     */
+    public byte[] toBinary() {
+        String segment = Objects.isNull(tenant) ? algorithmMode.getCode() : algorithmMode.getCode() + TENANT_SEPARATOR + tenant;
+        byte[] code = segment.getBytes(StandardCharsets.US_ASCII);
+        int nonceLength = ArrayUtils.getLength(nonce);
+        int macLength = ArrayUtils.getLength(mac);
+        int encryptLength = ArrayUtils.getLength(encrypt);
+        if (code.length > 0xFF || nonceLength > 0xFF || macLength > 0xFF)
+            throw new IllegalArgumentException("算法、nonce或mac长度超出二进制格式限制");
+
+        byte[] bytes = new byte[3 + code.length + nonceLength + macLength + encryptLength];
+        int pos = writeBytes(code, code.length, bytes, 0);
+        pos = writeBytes(nonce, nonceLength, bytes, pos);
+        pos = writeBytes(mac, macLength, bytes, pos);
+        if (encryptLength > 0)
+            System.arraycopy(encrypt, 0, bytes, pos, encryptLength);
+        return bytes;
+    }
+
+    public static EncryptionResult fromBinary(byte[] bytes) {
+        EnvelopeParseEvent event = new EnvelopeParseEvent();
+        event.begin();
+        EncryptionResult result = null;
+        try {
+            result = parseBinary(bytes);
+            return result;
+        } finally {
+            event.complete(EnvelopeParseEvent.BINARY, Objects.isNull(result) ? null : result.getAlgorithmMode());
+        }
+    }
+
+    private static EncryptionResult parseBinary(byte[] bytes) {
+        int length = ArrayUtils.getLength(bytes);
+        int codeLength = length > 0 ? bytes[0] & 0xFF : length;
+        int noncePos = 2 + codeLength;
+        int nonceLength = noncePos <= length ? bytes[noncePos - 1] & 0xFF : length;
+        int macPos = noncePos + nonceLength + 1;
+        int macLength = macPos <= length ? bytes[macPos - 1] & 0xFF : length;
+        int encryptPos = macPos + macLength;
+        if (length == 0 || encryptPos > length)
+            throw new IllegalArgumentException("无效的数据格式");
+
+        String segment = new String(bytes, 1, codeLength, StandardCharsets.US_ASCII);
+        AlgorithmMode mode = AlgorithmMode.fromCode(algorithmCode(segment));
+        byte[] nonce = Arrays.copyOfRange(bytes, noncePos, noncePos + nonceLength);
+        byte[] mac = Arrays.copyOfRange(bytes, macPos, macPos + macLength);
+        byte[] encrypt = Arrays.copyOfRange(bytes, encryptPos, length);
+        return new EncryptionResult(mode, nonce, encrypt, mac, tenantOf(segment));
+    }
+
+    /**
+     * 算法段中的算法编码，不含租户
+     */
+    public static String algorithmCode(String segment) {
+        int index = StringUtils.indexOf(segment, TENANT_SEPARATOR);
+        return index < 0 ? segment : segment.substring(0, index);
+    }
+
+    private static String tenantOf(String segment) {
+        int index = segment.indexOf(TENANT_SEPARATOR);
+        return index < 0 ? null : SensitiveTenant.validate(segment.substring(index + 1));
     }
 
+    private int tenantLength() {
+        return Objects.isNull(tenant) ? 0 : tenant.length() + 1;
+    }
+
+
+    // 工具方法
     private static byte[] base64UrlToBytes(String hexString) {
         return Base64.getUrlDecoder().decode(hexString);
     }
 
+    private static int base64Length(byte[] bytes) {
+        return (ArrayUtils.getLength(bytes) + 2) / 3 * 4;
+    }
+
+    private static int writeBytes(byte[] source, int length, byte[] dest, int pos) {
+        dest[pos++] = (byte) length;
+        if (length > 0)
+            System.arraycopy(source, 0, dest, pos, length);
+        return pos + length;
+    }
+
+    private static int writeString(String source, char[] dest, int pos) {
+        int length = source.length();
+        source.getChars(0, length, dest, pos);
+        return pos + length;
+    }
+
+    private static int writeBase64Url(byte[] bytes, char[] dest, int pos) {
+        if (Objects.isNull(bytes))
+            return pos;
+
+        int length = bytes.length;
+        int full = length - length % 3;
+        for (int i = 0; i < full; i += 3) {
+            int bits = (bytes[i] & 0xFF) << 16 | (bytes[i + 1] & 0xFF) << 8 | (bytes[i + 2] & 0xFF);
+            dest[pos++] = BASE64_URL[bits >>> 18 & 0x3F];
+            dest[pos++] = BASE64_URL[bits >>> 12 & 0x3F];
+            dest[pos++] = BASE64_URL[bits >>> 6 & 0x3F];
+            dest[pos++] = BASE64_URL[bits & 0x3F];
+        }
+
+        int remaining = length - full;
+        if (remaining > 0) {
+            int bits = (bytes[full] & 0xFF) << 16 | (remaining == 2 ? (bytes[full + 1] & 0xFF) << 8 : 0);
+            dest[pos++] = BASE64_URL[bits >>> 18 & 0x3F];
+            dest[pos++] = BASE64_URL[bits >>> 12 & 0x3F];
+            dest[pos++] = remaining == 2 ? BASE64_URL[bits >>> 6 & 0x3F] : '=';
+            dest[pos++] = '=';
+        }
+        return pos;
+    }
+
     @Override
     public String toString() {
         return "EncryptionResult => " + toFormattedString();
@@ -17,6 +17,8 @@
 package com.asialjim.microapplet.sensitive.encrypt;
 
 import javax.crypto.SecretKey;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * 加解密策略
@@ -31,6 +33,17 @@ public interface EncryptionStrategy {
      */
     EncryptionResult encrypt(String sensitiveData, SecretKey encryptionKey, SecretKey macKey) throws Exception;
 
+    /**
+     * 批量加密敏感数据，同一批数据共用密钥，实现类可复用加密算法实例
+     */
+    default List<EncryptionResult> encryptAll(List<String> sensitiveData, SecretKey encryptionKey, SecretKey macKey) throws Exception {
+        List<EncryptionResult> results = new ArrayList<>(sensitiveData.size());
+        for (String data : sensitiveData) {
+            results.add(encrypt(data, encryptionKey, macKey));
+        }
+        return results;
+    }
+
     /**
      * 解密数据
      */
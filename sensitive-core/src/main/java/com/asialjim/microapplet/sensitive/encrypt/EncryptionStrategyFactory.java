@@ -16,19 +16,28 @@
 
 package com.asialjim.microapplet.sensitive.encrypt;
 
-import java.util.HashMap;
 import java.util.Map;
+import java.util.ServiceLoader;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * 加密策略工厂 - 工厂模式
  */
 public class EncryptionStrategyFactory {
-    private static final Map<AlgorithmMode, EncryptionStrategy> strategies = new HashMap<>();
+    private static final Map<AlgorithmMode, EncryptionStrategy> strategies = new ConcurrentHashMap<>();
 
     static {
-        // 注册所有策略
-        strategies.put(AlgorithmMode.GM, new GMEncryptionStrategy());
-        strategies.put(AlgorithmMode.MODERN, new ModernEncryptionStrategy());
+        // 经由 ServiceLoader 注册内置及第三方策略，不扫描类路径
+        load(EncryptionStrategyFactory.class.getClassLoader());
+    }
+
+    /**
+     * 注册类加载器中经由 {@link ServiceLoader} 声明的策略，同一算法模式以先注册者为准
+     */
+    public static void load(ClassLoader classLoader) {
+        for (EncryptionStrategy strategy : ServiceLoader.load(EncryptionStrategy.class, classLoader)) {
+            strategies.putIfAbsent(strategy.getAlgorithmMode(), strategy);
+        }
     }
 
     /**
@@ -0,0 +1,343 @@
+/*
+ *    Copyright 2014-2025 <a href="mailto:asialjim@qq.com">Asial Jim</a>
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+
+package com.asialjim.microapplet.sensitive.encrypt;
+
+import org.bouncycastle.crypto.BlockCipher;
+import org.bouncycastle.crypto.engines.AESEngine;
+import org.bouncycastle.crypto.engines.SM4Engine;
+import org.bouncycastle.crypto.fpe.FPEFF1Engine;
+import org.bouncycastle.crypto.params.FPEParameters;
+import org.bouncycastle.crypto.params.KeyParameter;
+
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * 保留格式加密策略实现 - NIST SP 800-38G FF1，分组密码按密钥算法选用 SM4 或 AES
+ * <p>
+ * 只加密数字位，空格、-、+、括号及身份证校验位 X 等格式字符保持原位，输出与输入长度、字符集相同，可直接写回
+ * {@code VARCHAR(19)}、{@code CHAR(18)} 等原有列。可保留前后若干字符不加密（与脱敏规则的前后保留位数一致），
+ * 保留部分同时作为 tweak 参与加密，不同卡 BIN、地区码下相同的中间数字得到不同密文。
+ * <p>
+ * 注意：FF1 为确定性加密，相同密钥与 tweak 下相同明文的密文相同，可用于等值查询，同时也暴露明文是否相等；
+ * 为满足 SP 800-38G Rev.1 对定义域不小于 10<sup>6</sup> 的要求，参与加密的数字不少于 {@link #MIN_DIGITS} 位。
+ * 经由 {@link EncryptionStrategy} 接口加密时不保留前后字符，密文以数字串存入 {@link EncryptionResult#getEncrypt()}，
+ * 仍可输出为 _mask|FPE|... 格式，nonce 与 mac 段写入单字节占位，使 mask.js 与 sensitive.wxs 按非空段解析
+ *
+ * @author <a href="mailto:asialjim@hotmail.com">Asial Jim</a>
+ * @version 1.0
+ * @since 2026/10/19, &nbsp;&nbsp; <em>version:1.0</em>
+ */
+public class FF1EncryptionStrategy implements EncryptionStrategy {
+    /**
+     * 参与加密的最少数字位数
+     */
+    public static final int MIN_DIGITS = 6;
+    private static final int RADIX = 10;
+    private static final int ROUNDS = 10;
+    private static final int BLOCK_SIZE = 16;
+    /**
+     * 十进制快速路径支持的最大位数，两半部分均不超过 16 位
+     */
+    private static final int FAST_DIGITS = 32;
+    private static final long[] POW10 = new long[FAST_DIGITS / 2 + 1];
+    private static final byte[] EMPTY = new byte[0];
+    /**
+     * 无 nonce 与 mac 时写入格式化数据的占位，解密时忽略
+     */
+    private static final byte[] PLACEHOLDER = {0};
+    private static final String SM4 = "SM4";
+    private static final int MAX_CACHED_KEYS = 64;
+
+    static {
+        POW10[0] = 1;
+        for (int i = 1; i < POW10.length; i++) {
+            POW10[i] = POW10[i - 1] * RADIX;
+        }
+    }
+
+    private final SecretKeyCache<ThreadLocal<BlockCipher>> ciphers = new SecretKeyCache<>(MAX_CACHED_KEYS, FF1EncryptionStrategy::threadLocalCipher);
+
+    @Override
+    public EncryptionResult encrypt(String sensitiveData, SecretKey encryptionKey, SecretKey macKey) throws Exception {
+        String encrypted = encrypt(sensitiveData, encryptionKey, 0, 0);
+        return new EncryptionResult(AlgorithmMode.FPE, PLACEHOLDER, encrypted.getBytes(StandardCharsets.UTF_8), PLACEHOLDER);
+    }
+
+    @Override
+    public String decrypt(EncryptionResult encryptedData, SecretKey encryptionKey, SecretKey macKey) throws Exception {
+        return decrypt(new String(encryptedData.getEncrypt(), StandardCharsets.UTF_8), encryptionKey, 0, 0);
+    }
+
+    /**
+     * 保留格式加密
+     *
+     * @param source 明文，如卡号、手机号、身份证号
+     * @param key    加密密钥，算法为 SM4 时使用 FF1-SM4，否则使用 FF1-AES
+     * @param prefix 前部保留不加密的字符数
+     * @param suffix 后部保留不加密的字符数
+     * @return 与明文长度、格式相同的密文
+     */
+    public String encrypt(String source, SecretKey key, int prefix, int suffix) {
+        return transform(true, source, key, prefix, suffix);
+    }
+
+    /**
+     * 保留格式解密，前后保留字符数需与加密时相同
+     */
+    public String decrypt(String source, SecretKey key, int prefix, int suffix) {
+        return transform(false, source, key, prefix, suffix);
+    }
+
+    private String transform(boolean encrypt, String source, SecretKey key, int prefix, int suffix) {
+        if (Objects.isNull(key))
+            throw new IllegalArgumentException("保留格式加密需要加密密钥");
+        if (Objects.isNull(source))
+            throw new IllegalArgumentException("保留格式加密数据不能为空");
+        if (prefix < 0 || suffix < 0 || prefix + suffix > source.length())
+            throw new IllegalArgumentException("保留位数超出数据长度:" + prefix + "," + suffix);
+
+        int end = source.length() - suffix;
+        char[] chars = source.toCharArray();
+        byte[] numerals = new byte[end - prefix];
+        int length = 0;
+        for (int i = prefix; i < end; i++) {
+            char c = chars[i];
+            if (digit(c))
+                numerals[length++] = (byte) (c - '0');
+            else if (!formatChar(c))
+                throw new IllegalArgumentException("保留格式加密仅支持数字及空格、-、+、括号、X 等格式字符");
+        }
+        if (length < MIN_DIGITS)
+            throw new IllegalArgumentException("参与保留格式加密的数字不能少于" + MIN_DIGITS + "位");
+
+        byte[] tweak = tweakOf(source, prefix, end);
+        byte[] digits = length == numerals.length ? numerals : Arrays.copyOf(numerals, length);
+        byte[] result = length <= FAST_DIGITS ? decimal(encrypt, cipherOf(key), tweak, digits) : process(encrypt, key, RADIX, tweak, digits);
+
+        // 按原位置写回数字，格式字符不变
+        int index = 0;
+        for (int i = prefix; i < end; i++) {
+            if (digit(chars[i]))
+                chars[i] = (char) ('0' + result[index++]);
+        }
+        return new String(chars);
+    }
+
+    /**
+     * FF1 原语，供校验 NIST 测试向量及自定义字符集使用
+     *
+     * @param encrypt  加密为 true，解密为 false
+     * @param key      密钥，算法为 SM4 时使用 SM4，否则使用 AES
+     * @param radix    基数
+     * @param tweak    tweak，可为空数组
+     * @param numerals 各位数值，均小于 radix
+     * @return 结果各位数值
+     */
+    public static byte[] process(boolean encrypt, SecretKey key, int radix, byte[] tweak, byte[] numerals) {
+        if (radix == RADIX && numerals.length >= MIN_DIGITS && numerals.length <= FAST_DIGITS) {
+            BlockCipher cipher = blockCipherOf(key);
+            cipher.init(true, new KeyParameter(key.getEncoded()));
+            return decimal(encrypt, cipher, tweak, numerals);
+        }
+
+        FPEFF1Engine engine = new FPEFF1Engine(blockCipherOf(key));
+        engine.init(encrypt, new FPEParameters(new KeyParameter(key.getEncoded()), radix, tweak));
+        byte[] result = new byte[numerals.length];
+        engine.processBlock(numerals, 0, numerals.length, result, 0);
+        return result;
+    }
+
+    /**
+     * 十进制 FF1：各半部分不超过 16 位，NUM/STR 及取模以 long 运算代替 BigInteger；P 与 Q 中 tweak 部分各轮相同，
+     * 预先计算其 CBC-MAC 链值，每轮只加密 Q 的最后一个分组
+     */
+    private static byte[] decimal(boolean encrypt, BlockCipher cipher, byte[] tweak, byte[] numerals) {
+        int n = numerals.length;
+        int u = n / 2;
+        int v = n - u;
+        int t = tweak.length;
+        // b = ceil(ceil(v * log2(10)) / 8)，10^v 的位数即 ceil(v * log2(10))
+        int b = (64 - Long.numberOfLeadingZeros(POW10[v]) + 7) / 8;
+        int d = 4 * ((b + 3) / 4) + 4;
+
+        // P = [1][2][1][radix]^3[10][u mod 256][n]^4[t]^4
+        byte[] chain = {1, 2, 1, 0, 0, RADIX, 10, (byte) u,
+                (byte) (n >>> 24), (byte) (n >>> 16), (byte) (n >>> 8), (byte) n,
+                (byte) (t >>> 24), (byte) (t >>> 16), (byte) (t >>> 8), (byte) t};
+        cipher.processBlock(chain, 0, chain, 0);
+
+        // Q = T || [0]^((-t-b-1) mod 16) || [i] || [NUM(B)]^b，[i] 与 NUM(B) 总在最后一个分组内
+        int length = t + Math.floorMod(-t - b - 1, 16) + 1 + b;
+        byte[] q = new byte[length];
+        System.arraycopy(tweak, 0, q, 0, t);
+        for (int offset = 0; offset < length - BLOCK_SIZE; offset += BLOCK_SIZE) {
+            xor(chain, q, offset);
+            cipher.processBlock(chain, 0, chain, 0);
+        }
+
+        byte[] block = new byte[BLOCK_SIZE];
+        long a = num(numerals, 0, u);
+        long c = num(numerals, u, n);
+        for (int round = 0; round < ROUNDS; round++) {
+            int i = encrypt ? round : ROUNDS - 1 - round;
+            long modulus = POW10[(i & 1) == 0 ? u : v];
+            System.arraycopy(q, length - BLOCK_SIZE, block, 0, BLOCK_SIZE);
+            block[BLOCK_SIZE - b - 1] = (byte) i;
+            long value = encrypt ? c : a;
+            for (int j = BLOCK_SIZE - 1; j >= BLOCK_SIZE - b; j--, value >>>= 8) {
+                block[j] = (byte) value;
+            }
+            for (int j = 0; j < BLOCK_SIZE; j++) {
+                block[j] ^= chain[j];
+            }
+            cipher.processBlock(block, 0, block, 0);
+
+            // y = NUM(S[0..d)) mod radix^m，模数不超过 10^16，逐字节累加不会溢出
+            long y = 0;
+            for (int j = 0; j < d; j++) {
+                y = (y << 8 | (block[j] & 0xFF)) % modulus;
+            }
+
+            if (encrypt) {
+                long next = (a + y) % modulus;
+                a = c;
+                c = next;
+            } else {
+                long next = Math.floorMod(c - y, modulus);
+                c = a;
+                a = next;
+            }
+        }
+
+        byte[] result = new byte[n];
+        str(a, result, 0, u);
+        str(c, result, u, n);
+        return result;
+    }
+
+    private static long num(byte[] numerals, int from, int to) {
+        long value = 0;
+        for (int i = from; i < to; i++) {
+            value = value * RADIX + numerals[i];
+        }
+        return value;
+    }
+
+    private static void str(long value, byte[] numerals, int from, int to) {
+        for (int i = to - 1; i >= from; i--, value /= RADIX) {
+            numerals[i] = (byte) (value % RADIX);
+        }
+    }
+
+    private static void xor(byte[] chain, byte[] source, int offset) {
+        for (int i = 0; i < BLOCK_SIZE; i++) {
+            chain[i] ^= source[offset + i];
+        }
+    }
+
+    /**
+     * 按加密位数调整前后保留字符数，使参与加密的数字不少于 {@link #MIN_DIGITS} 位：先缩减后缀，再缩减前缀
+     *
+     * @return 调整后的 {前缀, 后缀}
+     */
+    static int[] preserved(String source, int prefix, int suffix) {
+        int length = source.length();
+        prefix = Math.max(0, Math.min(prefix, length));
+        suffix = Math.max(0, Math.min(suffix, length - prefix));
+        int digits = 0;
+        for (int i = prefix; i < length - suffix; i++) {
+            if (digit(source.charAt(i)))
+                digits++;
+        }
+
+        while (digits < MIN_DIGITS && suffix > 0) {
+            if (digit(source.charAt(length - suffix)))
+                digits++;
+            suffix--;
+        }
+        while (digits < MIN_DIGITS && prefix > 0) {
+            prefix--;
+            if (digit(source.charAt(prefix)))
+                digits++;
+        }
+        return new int[]{prefix, suffix};
+    }
+
+    private static boolean digit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static boolean formatChar(char c) {
+        return c == ' ' || c == '-' || c == '+' || c == '(' || c == ')' || c == 'X' || c == 'x';
+    }
+
+    /**
+     * 保留部分及其长度作为 tweak，不保留时为空
+     */
+    private static byte[] tweakOf(String source, int prefix, int end) {
+        if (prefix == 0 && end == source.length())
+            return EMPTY;
+
+        byte[] head = source.substring(0, prefix).getBytes(StandardCharsets.UTF_8);
+        byte[] tail = source.substring(end).getBytes(StandardCharsets.UTF_8);
+        byte[] tweak = new byte[head.length + tail.length + 2];
+        tweak[0] = (byte) head.length;
+        System.arraycopy(head, 0, tweak, 1, head.length);
+        tweak[head.length + 1] = (byte) tail.length;
+        System.arraycopy(tail, 0, tweak, head.length + 2, tail.length);
+        return tweak;
+    }
+
+    /**
+     * 按密钥缓存完成密钥扩展的分组密码，FF1 加解密均只使用其加密方向；超出容量时淘汰最久未使用的密钥
+     */
+    private BlockCipher cipherOf(SecretKey key) {
+        return ciphers.get(key).get();
+    }
+
+    private static ThreadLocal<BlockCipher> threadLocalCipher(SecretKey key) {
+        byte[] encoded = key.getEncoded();
+        return ThreadLocal.withInitial(() -> {
+            BlockCipher cipher = blockCipherOf(key);
+            cipher.init(true, new KeyParameter(encoded));
+            return cipher;
+        });
+    }
+
+    private static BlockCipher blockCipherOf(SecretKey key) {
+        return SM4.equalsIgnoreCase(key.getAlgorithm()) ? new SM4Engine() : AESEngine.newInstance();
+    }
+
+    @Override
+    public AlgorithmMode getAlgorithmMode() {
+        return AlgorithmMode.FPE;
+    }
+
+    @Override
+    public boolean supports(String formattedData) {
+        try {
+            String[] parts = formattedData.split("\\|");
+            return parts.length >= 2 && AlgorithmMode.FPE.getCode().equals(EncryptionResult.algorithmCode(parts[1]));
+        } catch (Exception e) {
+            return false;
+        }
+    }
+}
\ No newline at end of file
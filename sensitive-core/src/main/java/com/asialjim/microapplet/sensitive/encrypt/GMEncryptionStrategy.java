@@ -22,7 +22,8 @@ import javax.crypto.SecretKey;
 import javax.crypto.spec.IvParameterSpec;
 import java.nio.charset.StandardCharsets;
 import java.security.MessageDigest;
-import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Objects;
 
 /**
@@ -33,9 +34,12 @@ public class GMEncryptionStrategy implements EncryptionStrategy {
     //private static final String GM_ENCRYPTION_ALGORITHM = "SM4";
     private static final String GM_CIPHER_TRANSFORMATION = "SM4/CBC/PKCS5Padding";
     private static final String GM_MAC_ALGORITHM = "HmacSM3";
-    private static final int GM_IV_LENGTH = 16;
+    protected static final int GM_IV_LENGTH = 16;
 
-    private final SecureRandom secureRandom = new SecureRandom();
+    static {
+        // 提前注册Provider，避免首次加解密时才注册
+        KeyManager.registerProvider();
+    }
 
     @Override
     public EncryptionResult encrypt(String sensitiveData, SecretKey encryptionKey, SecretKey macKey) throws Exception {
@@ -43,20 +47,39 @@ public class GMEncryptionStrategy implements EncryptionStrategy {
             throw new IllegalArgumentException("国密算法需要加密密钥和MAC密钥");
         }
 
+        Mac mac = Mac.getInstance(GM_MAC_ALGORITHM);
+        mac.init(macKey);
+        return encrypt(Cipher.getInstance(GM_CIPHER_TRANSFORMATION), mac, sensitiveData, encryptionKey);
+    }
+
+    @Override
+    public List<EncryptionResult> encryptAll(List<String> sensitiveData, SecretKey encryptionKey, SecretKey macKey) throws Exception {
+        if (Objects.isNull(encryptionKey) || Objects.isNull(macKey)) {
+            throw new IllegalArgumentException("国密算法需要加密密钥和MAC密钥");
+        }
+
+        // 整批复用同一个Cipher实例，MAC只初始化一次
+        Cipher cipher = Cipher.getInstance(GM_CIPHER_TRANSFORMATION);
+        Mac mac = Mac.getInstance(GM_MAC_ALGORITHM);
+        mac.init(macKey);
+        List<EncryptionResult> results = new ArrayList<>(sensitiveData.size());
+        for (String data : sensitiveData) {
+            results.add(encrypt(cipher, mac, data, encryptionKey));
+        }
+        return results;
+    }
+
+    private EncryptionResult encrypt(Cipher cipher, Mac mac, String sensitiveData, SecretKey encryptionKey) throws Exception {
         // 生成IV
         byte[] iv = new byte[GM_IV_LENGTH];
-        secureRandom.nextBytes(iv);
+        KeyManager.secureRandom().nextBytes(iv);
 
         // SM4加密
-        Cipher cipher = Cipher.getInstance(GM_CIPHER_TRANSFORMATION);
         cipher.init(Cipher.ENCRYPT_MODE, encryptionKey, new IvParameterSpec(iv));
         byte[] encrypted = cipher.doFinal(sensitiveData.getBytes(StandardCharsets.UTF_8));
 
         // 使用HMAC-SM3计算MAC
-        Mac mac = Mac.getInstance(GM_MAC_ALGORITHM);
-        mac.init(macKey);
-        mac.update(encrypted);
-        byte[] macBytes = mac.doFinal();
+        byte[] macBytes = mac.doFinal(encrypted);
 
         return new EncryptionResult(AlgorithmMode.GM, iv, encrypted, macBytes);
     }
@@ -93,7 +116,7 @@ public class GMEncryptionStrategy implements EncryptionStrategy {
     public boolean supports(String formattedData) {
         try {
             String[] parts = formattedData.split("\\|");
-            return parts.length >= 2 && AlgorithmMode.GM.getCode().equals(parts[1]);
+            return parts.length >= 2 && AlgorithmMode.GM.getCode().equals(EncryptionResult.algorithmCode(parts[1]));
         } catch (Exception e) {
             return false;
         }
@@ -32,20 +32,36 @@ import java.util.Map;
  */
 public class KeyManager {
 
-    private static final SecureRandom secureRandom = new SecureRandom();
     private static final Map<String, SecretKey> keyCache = new HashMap<>();
 
     // 密钥类型常量
     public static final String KEY_TYPE_MODERN = "MODERN_ENCRYPTION";
     public static final String KEY_TYPE_GM_ENCRYPTION = "GM_ENCRYPTION";
     public static final String KEY_TYPE_GM_MAC = "GM_MAC";
+    public static final String KEY_TYPE_FPE = "FPE";
+
+    /**
+     * 共享的随机数生成器，首次使用时才创建：类初始化可在 native-image 构建期完成，而随机数种子在运行期生成
+     */
+    public static SecureRandom secureRandom() {
+        return RandomHolder.SECURE_RANDOM;
+    }
+
+    /**
+     * 注册Bouncy Castle Provider，重复调用不会重复注册
+     */
+    public static synchronized void registerProvider() {
+        if (Security.getProvider(BouncyCastleProvider.PROVIDER_NAME) == null) {
+            Security.addProvider(new BouncyCastleProvider());
+        }
+    }
 
     /**
      * 生成现代算法加密密钥
      */
     public static SecretKey generateModernEncryptionKey() throws NoSuchAlgorithmException {
         KeyGenerator keyGenerator = KeyGenerator.getInstance("ChaCha20");
-        keyGenerator.init(256, secureRandom);
+        keyGenerator.init(256, secureRandom());
         return keyGenerator.generateKey();
     }
 
@@ -53,12 +69,9 @@ public class KeyManager {
      * 生成国密算法加密密钥
      */
     public static SecretKey generateGMEncryptionKey() throws NoSuchAlgorithmException, NoSuchProviderException {
-        // 注册Bouncy Castle Provider
-        if (Security.getProvider("BC") == null) {
-            Security.addProvider(new BouncyCastleProvider());
-        }
+        registerProvider();
         KeyGenerator keyGenerator = KeyGenerator.getInstance("SM4", "BC");
-        keyGenerator.init(128, secureRandom);
+        keyGenerator.init(128, secureRandom());
         return keyGenerator.generateKey();
     }
 
@@ -66,8 +79,18 @@ public class KeyManager {
      * 生成国密算法MAC密钥
      */
     public static SecretKey generateGMMacKey() throws NoSuchAlgorithmException {
+        registerProvider();
         KeyGenerator keyGenerator = KeyGenerator.getInstance("HmacSM3");
-        keyGenerator.init(256, secureRandom);
+        keyGenerator.init(256, secureRandom());
+        return keyGenerator.generateKey();
+    }
+
+    /**
+     * 生成保留格式加密密钥(FF1-AES)
+     */
+    public static SecretKey generateFpeKey() throws NoSuchAlgorithmException {
+        KeyGenerator keyGenerator = KeyGenerator.getInstance("AES");
+        keyGenerator.init(256, secureRandom());
         return keyGenerator.generateKey();
     }
 
@@ -80,10 +103,15 @@ public class KeyManager {
                 case KEY_TYPE_MODERN -> generateModernEncryptionKey();
                 case KEY_TYPE_GM_ENCRYPTION -> generateGMEncryptionKey();
                 case KEY_TYPE_GM_MAC -> generateGMMacKey();
+                case KEY_TYPE_FPE -> generateFpeKey();
                 default -> throw new IllegalArgumentException("不支持的密钥类型: " + keyType);
             };
             keyCache.put(keyType, key);
         }
         return keyCache.get(keyType);
     }
+
+    private static final class RandomHolder {
+        private static final SecureRandom SECURE_RANDOM = new SecureRandom();
+    }
 }
\ No newline at end of file
@@ -0,0 +1,433 @@
+/*
+ *    Copyright 2014-2025 <a href="mailto:asialjim@qq.com">Asial Jim</a>
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package com.asialjim.microapplet.sensitive.encrypt;
+
+import org.bouncycastle.jce.provider.BouncyCastleProvider;
+
+import javax.crypto.SecretKey;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.KeyStore;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 密钥库文件密钥仓库
+ * <p>
+ * 从 PKCS12/BCFKS 密钥库文件加载各算法模式的密钥，启动时一次性读入不可变的内存快照，{@link #pairOf} 只读取 volatile 引用，无锁。
+ * {@link #watch(Duration)} 启动后台线程经由 {@link WatchService} 监听文件替换并整体切换快照；同时按间隔比较文件属性，
+ * 覆盖 NFS 等不产生文件事件的共享存储，多个节点可共用同一文件。新文件无法读取（如写入未完成）时保留原有密钥，
+ * 失败原因见 {@link #lastFailure()}
+ * <p>
+ * 密钥库条目别名见 {@link #ALIAS_MODERN_ENC}/{@link #ALIAS_GM_ENC}/{@link #ALIAS_GM_MAC}/{@link #ALIAS_FPE_ENC}/{@link #ALIAS_FPE_SM4_ENC}，
+ * 密钥以 AES 类型存储原始字节（密钥库不识别 ChaCha20/SM4/HmacSM3），读取时按别名还原算法；更新密钥请使用 {@link #store}，先写临时文件再原子替换。
+ * {@link #rotate} 轮换密钥时将原密钥保留为 {@code <别名>.<版本>} 条目，解密认证失败时经由 {@link #retiredPairsOf} 依次尝试，轮换前写入的数据仍可解密
+ * <pre>{@code
+ * KeyStoreSecretKeyRepository repository = KeyStoreSecretKeyRepository
+ *         .createIfAbsent(Path.of("/data/keys/sensitive.p12"), password, KeyStoreSecretKeyRepository.DEFAULT_TYPE)
+ *         .watch(Duration.ofSeconds(30));
+ * }</pre>
+ *
+ * @author <a href="mailto:asialjim@hotmail.com">Asial Jim</a>
+ * @version 1.0
+ * @since 2026/10/19, &nbsp;&nbsp; <em>version:1.0</em>
+ */
+public class KeyStoreSecretKeyRepository implements SecretKeyRepository, Closeable {
+    public static final String DEFAULT_TYPE = "PKCS12";
+    public static final String ALIAS_MODERN_ENC = "modern-enc";
+    public static final String ALIAS_GM_ENC = "gm-enc";
+    public static final String ALIAS_GM_MAC = "gm-mac";
+    public static final String ALIAS_FPE_ENC = "fpe-enc";
+    public static final String ALIAS_FPE_SM4_ENC = "fpe-sm4-enc";
+    private static final String CARRIER_ALGORITHM = "AES";
+    private static final Pattern RETIRED_ALIAS = Pattern.compile("(.+)\\.(\\d+)");
+
+    private final Path file;
+    private final char[] password;
+    private final String type;
+    private volatile Snapshot snapshot;
+    private volatile Exception lastFailure;
+    private Thread watcher;
+
+    public KeyStoreSecretKeyRepository(Path file, char[] password) {
+        this(file, password, DEFAULT_TYPE);
+    }
+
+    /**
+     * @param file     密钥库文件
+     * @param password 密钥库及条目口令
+     * @param type     密钥库类型，PKCS12 或 BCFKS
+     */
+    public KeyStoreSecretKeyRepository(Path file, char[] password, String type) {
+        this.file = Objects.requireNonNull(file, "密钥库文件不能为空").toAbsolutePath();
+        this.password = Objects.requireNonNull(password, "密钥库口令不能为空").clone();
+        this.type = Objects.requireNonNull(type, "密钥库类型不能为空");
+        try {
+            this.snapshot = load();
+        } catch (IOException | GeneralSecurityException e) {
+            throw new IllegalArgumentException("密钥库加载失败:" + this.file, e);
+        }
+    }
+
+    /**
+     * 密钥库文件不存在时生成各算法模式的密钥并写入，已存在时直接加载；多个节点同时启动时经由文件锁只生成一次
+     */
+    public static KeyStoreSecretKeyRepository createIfAbsent(Path file, char[] password, String type) throws IOException, GeneralSecurityException {
+        Path target = file.toAbsolutePath();
+        locked(target, () -> {
+            if (Files.notExists(target))
+                create(target, password, type, generate());
+        });
+        return new KeyStoreSecretKeyRepository(target, password, type);
+    }
+
+    /**
+     * 持有 {@code <文件名>.lock} 文件锁执行密钥库文件的读改写，多个节点或线程同时生成、写入、轮换密钥时依次执行
+     */
+    private static void locked(Path target, LockedAction action) throws IOException, GeneralSecurityException {
+        Path lock = target.resolveSibling(target.getFileName() + ".lock");
+        Files.createDirectories(target.getParent());
+        // 文件锁在进程间互斥，同一进程内的多个线程另需同步
+        synchronized (KeyStoreSecretKeyRepository.class) {
+            try (FileChannel channel = FileChannel.open(lock, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+                 FileLock ignored = channel.lock()) {
+                action.run();
+            }
+        }
+    }
+
+    private interface LockedAction {
+        void run() throws IOException, GeneralSecurityException;
+    }
+
+    /**
+     * 生成各算法模式的随机密钥
+     */
+    public static Map<AlgorithmMode, Pair> generate() throws GeneralSecurityException {
+        Map<AlgorithmMode, Pair> pairs = new EnumMap<>(AlgorithmMode.class);
+        pairs.put(AlgorithmMode.MODERN, new Pair().setEncKey(KeyManager.generateModernEncryptionKey()));
+        pairs.put(AlgorithmMode.GM, new Pair().setEncKey(KeyManager.generateGMEncryptionKey()).setMacKey(KeyManager.generateGMMacKey()));
+        pairs.put(AlgorithmMode.FPE, new Pair().setEncKey(KeyManager.generateFpeKey()));
+        return pairs;
+    }
+
+    /**
+     * 将密钥写入密钥库文件：先写同目录下的临时文件再原子替换，监听中的节点不会读到写入一半的文件
+     */
+    public static void store(Path file, char[] password, String type, Map<AlgorithmMode, Pair> pairs) throws IOException, GeneralSecurityException {
+        Path target = file.toAbsolutePath();
+        locked(target, () -> create(target, password, type, pairs));
+    }
+
+    private static void create(Path target, char[] password, String type, Map<AlgorithmMode, Pair> pairs) throws IOException, GeneralSecurityException {
+        KeyStore keyStore = keyStore(type);
+        keyStore.load(null, password);
+        write(target, password, keyStore, pairs);
+    }
+
+    private static void write(Path target, char[] password, KeyStore keyStore, Map<AlgorithmMode, Pair> pairs) throws IOException, GeneralSecurityException {
+        KeyStore.ProtectionParameter protection = new KeyStore.PasswordProtection(password);
+        for (Map.Entry<AlgorithmMode, Pair> entry : pairs.entrySet()) {
+            Pair pair = entry.getValue();
+            switch (entry.getKey()) {
+                case MODERN -> setKey(keyStore, ALIAS_MODERN_ENC, pair.getEncKey(), protection);
+                case GM -> {
+                    setKey(keyStore, ALIAS_GM_ENC, pair.getEncKey(), protection);
+                    setKey(keyStore, ALIAS_GM_MAC, pair.getMacKey(), protection);
+                }
+                case FPE -> setKey(keyStore, fpeAliasOf(pair.getEncKey()), pair.getEncKey(), protection);
+            }
+        }
+
+        Path temp = Files.createTempFile(target.getParent(), target.getFileName().toString(), ".tmp");
+        try {
+            try (OutputStream out = Files.newOutputStream(temp)) {
+                keyStore.store(out, password);
+            }
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * 轮换密钥：原有的当前密钥改存为 {@code <别名>.<版本>} 历史条目，版本号递增，再写入新密钥；未列出的算法模式保持不变。
+     * 保留格式加密密文不含认证标签，无法自动按历史密钥解密，轮换 {@link AlgorithmMode#FPE} 密钥前需重新加密已有数据；
+     * 读取、改写与替换文件持有与 {@link #createIfAbsent} 相同的文件锁，同时轮换时不会丢失历史条目
+     */
+    public static void rotate(Path file, char[] password, String type, Map<AlgorithmMode, Pair> pairs) throws IOException, GeneralSecurityException {
+        Path target = file.toAbsolutePath();
+        locked(target, () -> retire(target, password, type, pairs));
+    }
+
+    private static void retire(Path target, char[] password, String type, Map<AlgorithmMode, Pair> pairs) throws IOException, GeneralSecurityException {
+        KeyStore keyStore = keyStore(type);
+        try (InputStream in = Files.newInputStream(target)) {
+            keyStore.load(in, password);
+        }
+
+        KeyStore.ProtectionParameter protection = new KeyStore.PasswordProtection(password);
+        for (Map.Entry<AlgorithmMode, Pair> entry : pairs.entrySet()) {
+            List<String> aliases = switch (entry.getKey()) {
+                case MODERN -> List.of(ALIAS_MODERN_ENC);
+                case GM -> List.of(ALIAS_GM_ENC, ALIAS_GM_MAC);
+                case FPE -> List.of(ALIAS_FPE_ENC, ALIAS_FPE_SM4_ENC);
+            };
+            int version = nextVersion(keyStore, aliases);
+            for (String alias : aliases) {
+                Key key = keyStore.getKey(alias, password);
+                if (Objects.isNull(key))
+                    continue;
+
+                keyStore.setEntry(alias + "." + version, new KeyStore.SecretKeyEntry((SecretKey) key), protection);
+                keyStore.deleteEntry(alias);
+            }
+        }
+        write(target, password, keyStore, pairs);
+    }
+
+    private static int nextVersion(KeyStore keyStore, List<String> aliases) throws GeneralSecurityException {
+        int version = 0;
+        for (String alias : Collections.list(keyStore.aliases())) {
+            Matcher matcher = RETIRED_ALIAS.matcher(alias);
+            if (matcher.matches() && aliases.contains(matcher.group(1)))
+                version = Math.max(version, Integer.parseInt(matcher.group(2)));
+        }
+        return version + 1;
+    }
+
+    private static String fpeAliasOf(SecretKey key) {
+        return Objects.nonNull(key) && "SM4".equalsIgnoreCase(key.getAlgorithm()) ? ALIAS_FPE_SM4_ENC : ALIAS_FPE_ENC;
+    }
+
+    private static void setKey(KeyStore keyStore, String alias, SecretKey key, KeyStore.ProtectionParameter protection) throws GeneralSecurityException {
+        if (Objects.isNull(key))
+            return;
+
+        SecretKeySpec carrier = new SecretKeySpec(key.getEncoded(), CARRIER_ALGORITHM);
+        keyStore.setEntry(alias, new KeyStore.SecretKeyEntry(carrier), protection);
+    }
+
+    private static KeyStore keyStore(String type) throws GeneralSecurityException {
+        KeyManager.registerProvider();
+        if ("BCFKS".equalsIgnoreCase(type))
+            return KeyStore.getInstance(type, BouncyCastleProvider.PROVIDER_NAME);
+        return KeyStore.getInstance(type);
+    }
+
+    /**
+     * 密钥库中 {@code <别名>.<版本>} 历史条目，按版本从新到旧排列；密钥库不区分租户
+     */
+    @Override
+    public List<Pair> retiredPairsOf(String tenant, AlgorithmMode mode) {
+        return Objects.isNull(mode) ? Collections.emptyList() : snapshot.retired.getOrDefault(mode, Collections.emptyList());
+    }
+
+    @Override
+    public Pair pairOf(AlgorithmMode mode) {
+        if (Objects.isNull(mode))
+            return null;
+
+        Pair pair = snapshot.pairs.get(mode);
+        if (Objects.isNull(pair))
+            throw new IllegalArgumentException("密钥库缺少算法模式密钥:" + mode);
+        return pair;
+    }
+
+    /**
+     * 文件发生变化时重新加载，读取失败时保留原有密钥
+     */
+    @Override
+    public void refresh() {
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+            if (!snapshot.sameFile(attributes))
+                reload();
+        } catch (IOException e) {
+            this.lastFailure = e;
+        }
+    }
+
+    /**
+     * 重新加载密钥库文件
+     *
+     * @return 是否加载成功，失败时保留原有密钥
+     */
+    public synchronized boolean reload() {
+        try {
+            this.snapshot = load();
+            this.lastFailure = null;
+            return true;
+        } catch (IOException | GeneralSecurityException | RuntimeException e) {
+            this.lastFailure = e;
+            return false;
+        }
+    }
+
+    private Snapshot load() throws IOException, GeneralSecurityException {
+        BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+        KeyStore keyStore = keyStore(type);
+        try (InputStream in = Files.newInputStream(file)) {
+            keyStore.load(in, password);
+        }
+
+        Map<AlgorithmMode, Pair> pairs = new EnumMap<>(AlgorithmMode.class);
+        SecretKey modern = keyOf(keyStore, ALIAS_MODERN_ENC, "ChaCha20");
+        if (Objects.nonNull(modern))
+            pairs.put(AlgorithmMode.MODERN, new Pair().setEncKey(modern));
+
+        SecretKey gmEnc = keyOf(keyStore, ALIAS_GM_ENC, "SM4");
+        if (Objects.nonNull(gmEnc))
+            pairs.put(AlgorithmMode.GM, new Pair().setEncKey(gmEnc).setMacKey(keyOf(keyStore, ALIAS_GM_MAC, "HmacSM3")));
+
+        // 早期生成的密钥库不含保留格式加密密钥
+        SecretKey fpe = keyOf(keyStore, ALIAS_FPE_ENC, "AES");
+        if (Objects.isNull(fpe))
+            fpe = keyOf(keyStore, ALIAS_FPE_SM4_ENC, "SM4");
+        if (Objects.nonNull(fpe))
+            pairs.put(AlgorithmMode.FPE, new Pair().setEncKey(fpe));
+
+        return new Snapshot(Collections.unmodifiableMap(pairs), retired(keyStore), attributes.lastModifiedTime().toMillis(), attributes.size(), attributes.fileKey());
+    }
+
+    private Map<AlgorithmMode, List<Pair>> retired(KeyStore keyStore) throws GeneralSecurityException {
+        TreeSet<Integer> modern = new TreeSet<>(Comparator.reverseOrder());
+        TreeSet<Integer> gm = new TreeSet<>(Comparator.reverseOrder());
+        TreeSet<Integer> fpe = new TreeSet<>(Comparator.reverseOrder());
+        for (String alias : Collections.list(keyStore.aliases())) {
+            Matcher matcher = RETIRED_ALIAS.matcher(alias);
+            if (!matcher.matches())
+                continue;
+
+            int version = Integer.parseInt(matcher.group(2));
+            switch (matcher.group(1)) {
+                case ALIAS_MODERN_ENC -> modern.add(version);
+                case ALIAS_GM_ENC -> gm.add(version);
+                case ALIAS_FPE_ENC, ALIAS_FPE_SM4_ENC -> fpe.add(version);
+                default -> {
+                }
+            }
+        }
+
+        Map<AlgorithmMode, List<Pair>> retired = new EnumMap<>(AlgorithmMode.class);
+        List<Pair> pairs = new ArrayList<>(modern.size());
+        for (int version : modern) {
+            pairs.add(new Pair().setEncKey(keyOf(keyStore, ALIAS_MODERN_ENC + "." + version, "ChaCha20")));
+        }
+        retired.put(AlgorithmMode.MODERN, List.copyOf(pairs));
+
+        pairs = new ArrayList<>(gm.size());
+        for (int version : gm) {
+            pairs.add(new Pair().setEncKey(keyOf(keyStore, ALIAS_GM_ENC + "." + version, "SM4"))
+                    .setMacKey(keyOf(keyStore, ALIAS_GM_MAC + "." + version, "HmacSM3")));
+        }
+        retired.put(AlgorithmMode.GM, List.copyOf(pairs));
+
+        pairs = new ArrayList<>(fpe.size());
+        for (int version : fpe) {
+            SecretKey key = keyOf(keyStore, ALIAS_FPE_ENC + "." + version, "AES");
+            pairs.add(new Pair().setEncKey(Objects.nonNull(key) ? key : keyOf(keyStore, ALIAS_FPE_SM4_ENC + "." + version, "SM4")));
+        }
+        retired.put(AlgorithmMode.FPE, List.copyOf(pairs));
+        return Collections.unmodifiableMap(retired);
+    }
+
+    private SecretKey keyOf(KeyStore keyStore, String alias, String algorithm) throws GeneralSecurityException {
+        Key key = keyStore.getKey(alias, password);
+        return Objects.isNull(key) ? null : new SecretKeySpec(key.getEncoded(), algorithm);
+    }
+
+    /**
+     * 启动后台线程监听密钥库文件，文件被替换时切换密钥；每隔 {@code pollInterval} 比较一次文件属性，兼容不产生文件事件的共享存储
+     */
+    public synchronized KeyStoreSecretKeyRepository watch(Duration pollInterval) throws IOException {
+        if (Objects.nonNull(watcher))
+            return this;
+
+        WatchService watchService = file.getFileSystem().newWatchService();
+        file.getParent().register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+        Thread thread = new Thread(() -> watch(watchService, pollInterval.toMillis()), "sensitive-keystore-watcher");
+        thread.setDaemon(true);
+        thread.start();
+        this.watcher = thread;
+        return this;
+    }
+
+    private void watch(WatchService watchService, long pollMillis) {
+        try (watchService) {
+            while (!Thread.currentThread().isInterrupted()) {
+                WatchKey key = watchService.poll(pollMillis, TimeUnit.MILLISECONDS);
+                if (Objects.nonNull(key)) {
+                    // 事件也可能来自同目录的临时文件与锁文件，统一比较文件属性判断是否变化
+                    key.pollEvents();
+                    key.reset();
+                }
+                refresh();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException | ClosedWatchServiceException ignored) {
+            // 停止监听
+        }
+    }
+
+    /**
+     * 最近一次加载失败的原因，加载成功后清空
+     */
+    public Exception lastFailure() {
+        return lastFailure;
+    }
+
+    public Path file() {
+        return file;
+    }
+
+    /**
+     * 停止监听
+     */
+    @Override
+    public synchronized void close() {
+        if (Objects.nonNull(watcher)) {
+            watcher.interrupt();
+            watcher = null;
+        }
+    }
+
+    /**
+     * 密钥快照及其对应的文件属性，文件被原子替换后 fileKey 改变，修改时间精度不足时也能识别
+     */
+    private record Snapshot(Map<AlgorithmMode, Pair> pairs, Map<AlgorithmMode, List<Pair>> retired, long modified, long size, Object fileKey) {
+
+        boolean sameFile(BasicFileAttributes attributes) {
+            return modified == attributes.lastModifiedTime().toMillis()
+                    && size == attributes.size()
+                    && Objects.equals(fileKey, attributes.fileKey());
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,203 @@
+/*
+ *    Copyright 2014-2025 <a href="mailto:asialjim@qq.com">Asial Jim</a>
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package com.asialjim.microapplet.sensitive.encrypt;
+
+import org.bouncycastle.crypto.digests.SM3Digest;
+import org.bouncycastle.crypto.engines.SM4Engine;
+import org.bouncycastle.crypto.params.KeyParameter;
+
+import javax.crypto.BadPaddingException;
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * 国密算法策略实现 - 基于 Bouncy Castle 轻量级API 的 SM4/CBC/PKCS5Padding 加密 + HMAC-SM3 消息认证
+ * <p>
+ * 与 {@link GMEncryptionStrategy} 输出完全一致，但绕过 JCE 的 Provider 分发与密钥转换，
+ * 并按 {@link SecretKey} 缓存 SM4 轮密钥与 HMAC 内外层填充后的摘要状态，避免每次调用重复扩展密钥；超出容量时淘汰最久未使用的密钥
+ *
+ * @author <a href="mailto:asialjim@hotmail.com">Asial Jim</a>
+ * @version 1.0
+ * @since 2026/10/19, &nbsp;&nbsp; <em>version:1.0</em>
+ */
+public class LightweightGMEncryptionStrategy extends GMEncryptionStrategy {
+    private static final int BLOCK_SIZE = 16;
+    private static final int SM3_BLOCK_SIZE = 64;
+    private static final int MAX_CACHED_KEYS = 64;
+
+    private final SecretKeyCache<KeySchedule> keySchedules = new SecretKeyCache<>(MAX_CACHED_KEYS, KeySchedule::new);
+    private final SecretKeyCache<MacState> macStates = new SecretKeyCache<>(MAX_CACHED_KEYS, MacState::new);
+
+    @Override
+    public EncryptionResult encrypt(String sensitiveData, SecretKey encryptionKey, SecretKey macKey) throws Exception {
+        if (Objects.isNull(encryptionKey) || Objects.isNull(macKey)) {
+            throw new IllegalArgumentException("国密算法需要加密密钥和MAC密钥");
+        }
+
+        // 生成IV
+        byte[] iv = new byte[GM_IV_LENGTH];
+        KeyManager.secureRandom().nextBytes(iv);
+
+        // SM4加密
+        SM4Engine engine = keySchedules.get(encryptionKey).encryptor.get();
+        byte[] encrypted = encryptCbc(engine, iv, sensitiveData.getBytes(StandardCharsets.UTF_8));
+
+        // 使用HMAC-SM3计算MAC
+        byte[] macBytes = macStates.get(macKey).mac(encrypted);
+
+        return new EncryptionResult(AlgorithmMode.GM, iv, encrypted, macBytes);
+    }
+
+    @Override
+    public List<EncryptionResult> encryptAll(List<String> sensitiveData, SecretKey encryptionKey, SecretKey macKey) throws Exception {
+        // 密钥扩展结果已缓存，逐条加密即可
+        List<EncryptionResult> results = new ArrayList<>(sensitiveData.size());
+        for (String data : sensitiveData) {
+            results.add(encrypt(data, encryptionKey, macKey));
+        }
+        return results;
+    }
+
+    @Override
+    public String decrypt(EncryptionResult encryptedData, SecretKey encryptionKey, SecretKey macKey) throws Exception {
+        if (Objects.isNull(encryptionKey) || Objects.isNull(macKey)) {
+            throw new IllegalArgumentException("国密算法需要加密密钥和MAC密钥");
+        }
+
+        // 验证MAC
+        byte[] calculatedMac = macStates.get(macKey).mac(encryptedData.getEncrypt());
+        if (!MessageDigest.isEqual(calculatedMac, encryptedData.getMac())) {
+            throw new SecurityException("MAC验证失败，数据可能被篡改");
+        }
+
+        // SM4解密
+        SM4Engine engine = keySchedules.get(encryptionKey).decryptor.get();
+        byte[] decrypted = decryptCbc(engine, encryptedData.getNonce(), encryptedData.getEncrypt());
+        return new String(decrypted, StandardCharsets.UTF_8);
+    }
+
+    private static byte[] encryptCbc(SM4Engine engine, byte[] iv, byte[] plain) {
+        // PKCS5Padding: 始终补齐 1~16 字节
+        int padding = BLOCK_SIZE - plain.length % BLOCK_SIZE;
+        byte[] out = Arrays.copyOf(plain, plain.length + padding);
+        Arrays.fill(out, plain.length, out.length, (byte) padding);
+
+        byte[] chain = iv;
+        int chainOffset = 0;
+        for (int offset = 0; offset < out.length; offset += BLOCK_SIZE) {
+            for (int i = 0; i < BLOCK_SIZE; i++) {
+                out[offset + i] ^= chain[chainOffset + i];
+            }
+            engine.processBlock(out, offset, out, offset);
+            chain = out;
+            chainOffset = offset;
+        }
+        return out;
+    }
+
+    private static byte[] decryptCbc(SM4Engine engine, byte[] iv, byte[] encrypted) throws BadPaddingException {
+        if (encrypted.length == 0 || encrypted.length % BLOCK_SIZE != 0 || iv.length != BLOCK_SIZE)
+            throw new BadPaddingException("密文长度不合法");
+
+        byte[] out = new byte[encrypted.length];
+        for (int offset = 0; offset < encrypted.length; offset += BLOCK_SIZE) {
+            engine.processBlock(encrypted, offset, out, offset);
+            byte[] chain = offset == 0 ? iv : encrypted;
+            int chainOffset = offset == 0 ? 0 : offset - BLOCK_SIZE;
+            for (int i = 0; i < BLOCK_SIZE; i++) {
+                out[offset + i] ^= chain[chainOffset + i];
+            }
+        }
+
+        int padding = out[out.length - 1] & 0xFF;
+        if (padding < 1 || padding > BLOCK_SIZE)
+            throw new BadPaddingException("填充数据不合法");
+        for (int i = out.length - padding; i < out.length; i++) {
+            if ((out[i] & 0xFF) != padding)
+                throw new BadPaddingException("填充数据不合法");
+        }
+        return Arrays.copyOf(out, out.length - padding);
+    }
+
+    /**
+     * SM4 密钥扩展结果，SM4Engine 非线程安全，按线程持有已扩展轮密钥的引擎
+     */
+    private static final class KeySchedule {
+        private final ThreadLocal<SM4Engine> encryptor;
+        private final ThreadLocal<SM4Engine> decryptor;
+
+        private KeySchedule(SecretKey key) {
+            byte[] encoded = key.getEncoded();
+            this.encryptor = ThreadLocal.withInitial(() -> engineOf(true, encoded));
+            this.decryptor = ThreadLocal.withInitial(() -> engineOf(false, encoded));
+        }
+
+        private static SM4Engine engineOf(boolean forEncryption, byte[] key) {
+            SM4Engine engine = new SM4Engine();
+            engine.init(forEncryption, new KeyParameter(key));
+            return engine;
+        }
+    }
+
+    /**
+     * HMAC-SM3 预计算状态：已吸收 ipad / opad 的摘要，每次计算时复制后继续使用
+     */
+    private static final class MacState {
+        private final SM3Digest inner;
+        private final SM3Digest outer;
+
+        private MacState(SecretKey key) {
+            byte[] block = key.getEncoded();
+            if (block.length > SM3_BLOCK_SIZE) {
+                SM3Digest digest = new SM3Digest();
+                digest.update(block, 0, block.length);
+                block = new byte[digest.getDigestSize()];
+                digest.doFinal(block, 0);
+            }
+            block = Arrays.copyOf(block, SM3_BLOCK_SIZE);
+
+            byte[] ipad = new byte[SM3_BLOCK_SIZE];
+            byte[] opad = new byte[SM3_BLOCK_SIZE];
+            for (int i = 0; i < SM3_BLOCK_SIZE; i++) {
+                ipad[i] = (byte) (block[i] ^ 0x36);
+                opad[i] = (byte) (block[i] ^ 0x5C);
+            }
+
+            this.inner = new SM3Digest();
+            this.inner.update(ipad, 0, ipad.length);
+            this.outer = new SM3Digest();
+            this.outer.update(opad, 0, opad.length);
+        }
+
+        private byte[] mac(byte[] data) {
+            SM3Digest digest = new SM3Digest(inner);
+            digest.update(data, 0, data.length);
+            byte[] result = new byte[digest.getDigestSize()];
+            digest.doFinal(result, 0);
+
+            digest = new SM3Digest(outer);
+            digest.update(result, 0, result.length);
+            digest.doFinal(result, 0);
+            return result;
+        }
+    }
+}
@@ -20,8 +20,9 @@ import javax.crypto.Cipher;
 import javax.crypto.SecretKey;
 import javax.crypto.spec.IvParameterSpec;
 import java.nio.charset.StandardCharsets;
-import java.security.SecureRandom;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 import java.util.Objects;
 
 /**
@@ -32,19 +33,34 @@ public class ModernEncryptionStrategy implements EncryptionStrategy {
     private static final int MODERN_NONCE_LENGTH = 12;
     private static final int MODERN_TAG_LENGTH = 128;
 
-    private final SecureRandom secureRandom = new SecureRandom();
-
     @Override
     public EncryptionResult encrypt(String sensitiveData, SecretKey encryptionKey, SecretKey macKey) throws Exception {
         if (Objects.isNull(encryptionKey))
             throw new IllegalArgumentException("现代算法需要加密密钥和MAC密钥");
 
+        return encrypt(Cipher.getInstance(MODERN_ENCRYPTION_ALGORITHM), sensitiveData, encryptionKey);
+    }
+
+    @Override
+    public List<EncryptionResult> encryptAll(List<String> sensitiveData, SecretKey encryptionKey, SecretKey macKey) throws Exception {
+        if (Objects.isNull(encryptionKey))
+            throw new IllegalArgumentException("现代算法需要加密密钥和MAC密钥");
+
+        // 整批复用同一个Cipher实例
+        Cipher cipher = Cipher.getInstance(MODERN_ENCRYPTION_ALGORITHM);
+        List<EncryptionResult> results = new ArrayList<>(sensitiveData.size());
+        for (String data : sensitiveData) {
+            results.add(encrypt(cipher, data, encryptionKey));
+        }
+        return results;
+    }
+
+    private EncryptionResult encrypt(Cipher cipher, String sensitiveData, SecretKey encryptionKey) throws Exception {
         // 生成随机数
         byte[] nonce = new byte[MODERN_NONCE_LENGTH];
-        secureRandom.nextBytes(nonce);
+        KeyManager.secureRandom().nextBytes(nonce);
 
         // 初始化Cipher
-        Cipher cipher = Cipher.getInstance(MODERN_ENCRYPTION_ALGORITHM);
         IvParameterSpec parameterSpec = new IvParameterSpec(nonce);
         cipher.init(Cipher.ENCRYPT_MODE, encryptionKey, parameterSpec);
 
@@ -88,7 +104,7 @@ public class ModernEncryptionStrategy implements EncryptionStrategy {
     public boolean supports(String formattedData) {
         try {
             String[] parts = formattedData.split("\\|");
-            return parts.length >= 2 && AlgorithmMode.MODERN.getCode().equals(parts[1]);
+            return parts.length >= 2 && AlgorithmMode.MODERN.getCode().equals(EncryptionResult.algorithmCode(parts[1]));
         } catch (Exception e) {
             return false;
         }
@@ -0,0 +1,62 @@
+/*
+ *    Copyright 2014-2025 <a href="mailto:asialjim@qq.com">Asial Jim</a>
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package com.asialjim.microapplet.sensitive.encrypt;
+
+import javax.crypto.SecretKey;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * 按 {@link SecretKey} 缓存密钥扩展结果
+ * <p>
+ * 超出容量时只淘汰最久未使用的条目，多租户密钥数量超过容量时常用密钥仍保留在缓存中；
+ * 扩展结果在锁外计算，并发首次访问同一密钥时以先写入的结果为准
+ *
+ * @author <a href="mailto:asialjim@hotmail.com">Asial Jim</a>
+ * @version 1.0
+ * @since 2026/10/19, &nbsp;&nbsp; <em>version:1.0</em>
+ */
+final class SecretKeyCache<V> {
+    private final Map<SecretKey, V> entries;
+    private final Function<SecretKey, V> loader;
+
+    SecretKeyCache(int capacity, Function<SecretKey, V> loader) {
+        this.loader = Objects.requireNonNull(loader);
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<SecretKey, V> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    V get(SecretKey key) {
+        synchronized (entries) {
+            V value = entries.get(key);
+            if (Objects.nonNull(value))
+                return value;
+        }
+
+        V value = loader.apply(key);
+        synchronized (entries) {
+            V previous = entries.putIfAbsent(key, value);
+            return Objects.nonNull(previous) ? previous : value;
+        }
+    }
+}
\ No newline at end of file
@@ -23,6 +23,8 @@ import javax.crypto.SecretKey;
 import java.io.Serializable;
 import java.security.NoSuchAlgorithmException;
 import java.security.NoSuchProviderException;
+import java.util.Collections;
+import java.util.List;
 
 /**
  * 密钥仓库
@@ -35,6 +37,40 @@ public interface SecretKeyRepository {
 
     Pair pairOf(AlgorithmMode mode) throws NoSuchAlgorithmException, NoSuchProviderException;
 
+    /**
+     * 租户的密钥，{@code tenant} 为空时即 {@link #pairOf(AlgorithmMode)}；
+     * 默认实现不区分租户，多租户实现应覆盖本方法，并可由 {@link TenantCachingSecretKeyRepository} 缓存
+     *
+     * @param tenant 租户标识，见 {@link com.asialjim.microapplet.sensitive.SensitiveTenant}
+     */
+    default Pair pairOf(String tenant, AlgorithmMode mode) throws NoSuchAlgorithmException, NoSuchProviderException {
+        return pairOf(mode);
+    }
+
+    /**
+     * 是否按租户提供互不相同的密钥。为 {@code false} 时所有租户共用平台密钥，加密时不在密文中标记租户，
+     * 以免给出租户隔离的错觉；按租户覆盖 {@link #pairOf(String, AlgorithmMode)} 的实现应同时返回 {@code true}
+     */
+    default boolean tenantAware() {
+        return false;
+    }
+
+    /**
+     * 已轮换退役的历史密钥，按从新到旧排列；密文认证失败（AEAD 标签或 MAC 校验不通过）时依次尝试，
+     * 使轮换前写入的数据仍可解密。默认没有历史密钥
+     *
+     * @param tenant 租户标识，为空时为平台默认密钥
+     */
+    default List<Pair> retiredPairsOf(String tenant, AlgorithmMode mode) throws NoSuchAlgorithmException, NoSuchProviderException {
+        return Collections.emptyList();
+    }
+
+    /**
+     * 重新加载密钥，缓存密钥的实现应在此丢弃缓存，默认无操作
+     */
+    default void refresh() {
+    }
+
 
     @Data
     @Accessors(chain = true)
@@ -0,0 +1,137 @@
+/*
+ *    Copyright 2014-2025 <a href="mailto:asialjim@qq.com">Asial Jim</a>
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package com.asialjim.microapplet.sensitive.encrypt;
+
+import java.util.Objects;
+
+/**
+ * 延迟解密的敏感数据
+ * <p>
+ * 从数据库等存储读取的密文首次调用 {@link #get()} 时才解密，只读取其他字段的列表查询不产生解密开销；
+ * 未修改的值写回存储时沿用原密文，新建的值只加密一次。{@link #equals}/{@link #hashCode()} 按密文比较，{@link #toString()} 不输出明文
+ *
+ * @author <a href="mailto:asialjim@hotmail.com">Asial Jim</a>
+ * @version 1.0
+ * @since 2026/10/19, &nbsp;&nbsp; <em>version:1.0</em>
+ */
+public final class SensitiveValue {
+    private static final String HIDDEN = "******";
+
+    /**
+     * 存储中的 _mask|algorithm|nonce|encrypt|mac|mask 格式数据，新建的明文值在首次加密后保留
+     */
+    private volatile String formatted;
+    private volatile String value;
+    private volatile boolean decrypted;
+
+    private SensitiveValue(String formatted, String value, boolean decrypted) {
+        this.formatted = formatted;
+        this.value = value;
+        this.decrypted = decrypted;
+    }
+
+    /**
+     * 明文值，写入存储时加密
+     */
+    public static SensitiveValue of(String value) {
+        return Objects.isNull(value) ? null : new SensitiveValue(null, value, true);
+    }
+
+    /**
+     * 存储中读取的数据，非格式化数据（如加密改造前的历史数据）按明文处理
+     */
+    public static SensitiveValue ofStored(String stored) {
+        if (Objects.isNull(stored))
+            return null;
+
+        if (!EncryptionResult.isEncryptionMaskData(stored))
+            return of(stored);
+
+        return new SensitiveValue(stored, null, false);
+    }
+
+    /**
+     * 明文，首次调用时经由 {@link EncryptionContextBean#instance} 解密
+     */
+    public String get() {
+        if (decrypted)
+            return value;
+
+        synchronized (this) {
+            if (!decrypted) {
+                value = EncryptionContextBean.instance.decrypt(formatted);
+                decrypted = true;
+            }
+        }
+        return value;
+    }
+
+    /**
+     * 密文，新建的明文值首次调用时经由 {@link EncryptionContextBean#instance} 加密并保留结果，
+     * 重复写入（如 JPA 快照与插入）不再重复加密
+     */
+    public String encrypted() {
+        String formatted = this.formatted;
+        if (Objects.nonNull(formatted))
+            return formatted;
+
+        synchronized (this) {
+            if (Objects.isNull(this.formatted))
+                this.formatted = EncryptionContextBean.instance.encrypt(value).toFormattedString();
+        }
+        return this.formatted;
+    }
+
+    /**
+     * 是否已解密或本身为明文
+     */
+    public boolean isDecrypted() {
+        return decrypted;
+    }
+
+    /**
+     * 原密文或已加密的结果，尚未加密的明文值返回 {@code null}
+     */
+    public String formatted() {
+        return formatted;
+    }
+
+    /**
+     * 按密文比较，不解密：同一明文的两次加密结果不同，互不相等；尚未加密的明文值比较前先加密
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o)
+            return true;
+        if (!(o instanceof SensitiveValue that))
+            return false;
+        return encrypted().equals(that.encrypted());
+    }
+
+    /**
+     * 按密文计算，不解密
+     */
+    @Override
+    public int hashCode() {
+        return encrypted().hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return HIDDEN;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,282 @@
+/*
+ *    Copyright 2014-2025 <a href="mailto:asialjim@qq.com">Asial Jim</a>
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package com.asialjim.microapplet.sensitive.encrypt;
+
+import com.asialjim.microapplet.sensitive.SensitiveMetrics;
+
+import java.security.NoSuchAlgorithmException;
+import java.security.NoSuchProviderException;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 按租户分片缓存的密钥仓库
+ * <p>
+ * 租户与算法模式的密钥按哈希分布到多个分片，每个分片为按访问顺序排列的有界 {@link LinkedHashMap}，各自加锁，
+ * 查找与淘汰均为 O(1)。超出容量时淘汰最久未访问的租户，超过 {@code expireAfterAccess} 未访问的租户在下次访问或
+ * {@link #cleanUp()} 时移除，数万租户下内存占用不超过 {@code maximumSize} 个密钥对。
+ * 被包装仓库的加载在分片锁外进行，较慢的密钥管理服务不会阻塞同分片的其他租户
+ * <pre>{@code
+ * SecretKeyRepository repository = new TenantCachingSecretKeyRepository(kmsRepository, 50_000, Duration.ofHours(1));
+ * }</pre>
+ *
+ * @author <a href="mailto:asialjim@hotmail.com">Asial Jim</a>
+ * @version 1.0
+ * @since 2026/10/19, &nbsp;&nbsp; <em>version:1.0</em>
+ */
+public class TenantCachingSecretKeyRepository implements SecretKeyRepository, AutoCloseable {
+    private static final int MAX_SHARDS = 64;
+
+    private final SecretKeyRepository delegate;
+    private final Shard[] shards;
+    private final int shardMask;
+    private final long expireAfterAccessNanos;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * @param delegate          按租户提供密钥的仓库
+     * @param maximumSize       缓存的密钥对上限（租户数 × 算法模式数）
+     * @param expireAfterAccess 租户未访问多久后移除
+     */
+    public TenantCachingSecretKeyRepository(SecretKeyRepository delegate, int maximumSize, Duration expireAfterAccess) {
+        if (maximumSize <= 0)
+            throw new IllegalArgumentException("缓存上限必须大于0");
+        if (Objects.isNull(expireAfterAccess) || expireAfterAccess.isNegative() || expireAfterAccess.isZero())
+            throw new IllegalArgumentException("过期时间必须大于0");
+
+        this.delegate = Objects.requireNonNull(delegate, "密钥仓库不能为空");
+        this.expireAfterAccessNanos = expireAfterAccess.toNanos();
+
+        // 分片数为 2 的幂，每个分片至少容纳 16 个密钥对
+        int count = Integer.highestOneBit(Math.max(1, Math.min(MAX_SHARDS, maximumSize / 16)));
+        int capacity = (maximumSize + count - 1) / count;
+        this.shards = new Shard[count];
+        for (int i = 0; i < count; i++) {
+            shards[i] = new Shard(capacity);
+        }
+        this.shardMask = count - 1;
+    }
+
+    @Override
+    public Pair pairOf(AlgorithmMode mode) throws NoSuchAlgorithmException, NoSuchProviderException {
+        return pairOf(null, mode);
+    }
+
+    @Override
+    public Pair pairOf(String tenant, AlgorithmMode mode) throws NoSuchAlgorithmException, NoSuchProviderException {
+        if (Objects.isNull(mode))
+            return null;
+
+        Key key = new Key(tenant, mode);
+        Shard shard = shardOf(key);
+        long now = System.nanoTime();
+        Pair pair = shard.get(key, now, expireAfterAccessNanos);
+        if (Objects.nonNull(pair)) {
+            hits.increment();
+            return pair;
+        }
+
+        misses.increment();
+        pair = Objects.isNull(tenant) ? delegate.pairOf(mode) : delegate.pairOf(tenant, mode);
+        if (Objects.nonNull(pair))
+            shard.put(key, pair, now);
+        return pair;
+    }
+
+    /**
+     * 租户与算法模式的密钥是否已缓存且未过期，不更新访问时间
+     */
+    public boolean cached(String tenant, AlgorithmMode mode) {
+        if (Objects.isNull(mode))
+            return false;
+
+        Key key = new Key(tenant, mode);
+        return shardOf(key).contains(key, System.nanoTime(), expireAfterAccessNanos);
+    }
+
+    /**
+     * 被包装的仓库
+     */
+    public SecretKeyRepository delegate() {
+        return delegate;
+    }
+
+    /**
+     * 移除租户的所有密钥，下次使用时重新加载
+     */
+    public void invalidate(String tenant) {
+        for (AlgorithmMode mode : AlgorithmMode.values()) {
+            Key key = new Key(tenant, mode);
+            shardOf(key).remove(key);
+        }
+    }
+
+    /**
+     * 与被包装的仓库一致，只缓存平台密钥的仓库不因包装而按租户标记密文
+     */
+    @Override
+    public boolean tenantAware() {
+        return delegate.tenantAware();
+    }
+
+    /**
+     * 历史密钥只在解密认证失败时使用，不缓存
+     */
+    @Override
+    public List<Pair> retiredPairsOf(String tenant, AlgorithmMode mode) throws NoSuchAlgorithmException, NoSuchProviderException {
+        return delegate.retiredPairsOf(tenant, mode);
+    }
+
+    @Override
+    public void refresh() {
+        delegate.refresh();
+        for (Shard shard : shards) {
+            shard.clear();
+        }
+    }
+
+    /**
+     * 关闭被包装的仓库，如停止 {@link KeyStoreSecretKeyRepository} 的文件监听
+     */
+    @Override
+    public void close() throws Exception {
+        if (delegate instanceof AutoCloseable closeable)
+            closeable.close();
+    }
+
+    /**
+     * 移除所有超过过期时间未访问的密钥，可由定时任务调用
+     */
+    public void cleanUp() {
+        long now = System.nanoTime();
+        for (Shard shard : shards) {
+            shard.expire(now, expireAfterAccessNanos);
+        }
+    }
+
+    /**
+     * 已缓存的密钥对数量
+     */
+    public int size() {
+        int size = 0;
+        for (Shard shard : shards) {
+            size += shard.size();
+        }
+        return size;
+    }
+
+    /**
+     * 缓存命中统计、已缓存数量与淘汰次数
+     */
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>(SensitiveMetrics.cache(hits.sum(), misses.sum()));
+        stats.put("size", size());
+        stats.put("evictions", evictions.sum());
+        return stats;
+    }
+
+    private Shard shardOf(Key key) {
+        int hash = key.hashCode();
+        return shards[(hash ^ hash >>> 16) & shardMask];
+    }
+
+    private record Key(String tenant, AlgorithmMode mode) {
+    }
+
+    private static final class Entry {
+        private final Pair pair;
+        private long accessedAt;
+
+        private Entry(Pair pair, long accessedAt) {
+            this.pair = pair;
+            this.accessedAt = accessedAt;
+        }
+    }
+
+    private final class Shard {
+        private final Map<Key, Entry> entries;
+
+        private Shard(int capacity) {
+            this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+                    if (size() <= capacity)
+                        return false;
+
+                    evictions.increment();
+                    return true;
+                }
+            };
+        }
+
+        synchronized Pair get(Key key, long now, long expireAfterAccessNanos) {
+            Entry entry = entries.get(key);
+            if (Objects.isNull(entry))
+                return null;
+
+            if (now - entry.accessedAt > expireAfterAccessNanos) {
+                entries.remove(key);
+                evictions.increment();
+                return null;
+            }
+            entry.accessedAt = now;
+            return entry.pair;
+        }
+
+        synchronized boolean contains(Key key, long now, long expireAfterAccessNanos) {
+            Entry entry = entries.get(key);
+            return Objects.nonNull(entry) && now - entry.accessedAt <= expireAfterAccessNanos;
+        }
+
+        synchronized void put(Key key, Pair pair, long now) {
+            entries.put(key, new Entry(pair, now));
+        }
+
+        synchronized void remove(Key key) {
+            entries.remove(key);
+        }
+
+        synchronized void clear() {
+            entries.clear();
+        }
+
+        synchronized int size() {
+            return entries.size();
+        }
+
+        /**
+         * 按访问顺序从最久未访问的一端移除，遇到未过期的即停止
+         */
+        synchronized void expire(long now, long expireAfterAccessNanos) {
+            Iterator<Entry> iterator = entries.values().iterator();
+            while (iterator.hasNext()) {
+                if (now - iterator.next().accessedAt <= expireAfterAccessNanos)
+                    return;
+
+                iterator.remove();
+                evictions.increment();
+            }
+        }
+    }
+}
\ No newline at end of file
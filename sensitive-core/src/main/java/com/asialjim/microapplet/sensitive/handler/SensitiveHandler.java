@@ -16,11 +16,15 @@
 
 package com.asialjim.microapplet.sensitive.handler;
 
+import com.asialjim.microapplet.sensitive.SensitiveMetrics;
+import com.asialjim.microapplet.sensitive.SensitivePolicy;
+import com.asialjim.microapplet.sensitive.jfr.MaskEvent;
 import jakarta.annotation.PostConstruct;
 import org.apache.commons.lang3.StringUtils;
 
 import java.util.Map;
 import java.util.Objects;
+import java.util.ServiceLoader;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 import java.util.regex.Pattern;
@@ -44,21 +48,22 @@ public abstract class SensitiveHandler {
 
     public abstract SensitiveType type();
 
+    /**
+     * 按 {@link SensitivePolicy#current()} 中的保留位数脱敏
+     */
     public Function<String, String> function() {
+        SensitiveType type = type();
         return s -> {
-            SensitiveType type = type();
-            int prefix = type.getPrefix();
-            int suffix = type.getSuffix();
-            return maskWithIndex(s, prefix, suffix);
+            SensitivePolicy.Rule rule = SensitivePolicy.current().rule(type);
+            return maskWithIndex(s, rule.prefix(), rule.suffix());
         };
     }
 
 
     public static String mask(SensitiveType type, String source) {
-        int prefix = type.getPrefix();
-        int suffix = type.getSuffix();
+        SensitivePolicy.Rule rule = SensitivePolicy.current().rule(type);
         SensitiveHandler handler = holder.handlerOf(type);
-        return mask(type, source, prefix, suffix, type.getRegex(), !SensitiveType.Customer.equals(type), handler.function());
+        return mask(type, source, rule.prefix(), rule.suffix(), rule.regex(), !SensitiveType.Customer.equals(type), handler.function());
     }
 
 
@@ -76,7 +81,8 @@ public abstract class SensitiveHandler {
                               String regex, boolean match,
                               Function<String, String> function) {
 
-        return mask(type, source, type.getPrefix(), type.getSuffix(), regex, match, function);
+        SensitivePolicy.Rule rule = SensitivePolicy.current().rule(type);
+        return mask(type, source, rule.prefix(), rule.suffix(), regex, match, function);
     }
 
 
@@ -95,10 +101,65 @@ public abstract class SensitiveHandler {
                 throw new IllegalArgumentException("敏感数据校验失败:不符合校验规则");
         }
 
-        if (SensitiveType.Customer.equals(type))
-            return maskWithIndex(source, prefix, suffix);
+        SensitiveMetrics.masked(type);
+        MaskEvent event = new MaskEvent();
+        event.begin();
+        String mask = SensitiveType.Customer.equals(type) ? maskWithIndex(source, prefix, suffix) : function.apply(source);
+        event.complete(type);
+        return mask;
+    }
+
+    /**
+     * 按保留前后位数脱敏的函数
+     */
+    public static Function<String, String> indexFunction(int prefix, int suffix) {
+        return s -> maskWithIndex(s, prefix, suffix);
+    }
+
+    /**
+     * 编译脱敏函数，参数含义与 {@code @Sensitive} 注解一致：{@link SensitiveType#Customer} 按保留位数与自定义正则脱敏，
+     * 内置敏感类型按 {@link SensitivePolicy#current()} 校验并使用已注册处理器的脱敏函数，处理器在首次调用时解析
+     */
+    public static Function<String, String> maskFunction(SensitiveType type, int prefix, int suffix, String regex, boolean match) {
+        if (SensitiveType.Customer.equals(type)) {
+            Pattern pattern = match && StringUtils.isNotBlank(regex) ? patternOf(regex) : null;
+            return s -> {
+                if (StringUtils.isBlank(s))
+                    return s;
+                if (Objects.nonNull(pattern) && !pattern.matcher(s).matches())
+                    throw new IllegalArgumentException("敏感数据校验失败:不符合校验规则");
+
+                SensitiveMetrics.masked(type);
+                MaskEvent event = new MaskEvent();
+                event.begin();
+                String mask = maskWithIndex(s, prefix, suffix);
+                event.complete(type);
+                return mask;
+            };
+        }
 
-        return function.apply(source);
+        return new Function<>() {
+            private Function<String, String> function;
+
+            @Override
+            public String apply(String s) {
+                if (StringUtils.isBlank(s))
+                    return s;
+                if (!SensitivePolicy.current().rule(type).pattern().matcher(s).matches())
+                    throw new IllegalArgumentException("敏感数据校验失败:不符合校验规则");
+
+                Function<String, String> function = this.function;
+                if (Objects.isNull(function))
+                    this.function = function = holder.handlerOf(type).function();
+
+                SensitiveMetrics.masked(type);
+                MaskEvent event = new MaskEvent();
+                event.begin();
+                String mask = function.apply(s);
+                event.complete(type);
+                return mask;
+            }
+        };
     }
 
     protected static String maskWithIndex(String s, int prefix, int suffix) {
@@ -115,14 +176,19 @@ public abstract class SensitiveHandler {
 
     public static Pattern patternOf(String regex) {
         Pattern pattern = PATTERN_MAP.get(regex);
-        if (Objects.nonNull(pattern))
+        if (Objects.nonNull(pattern)) {
+            SensitiveMetrics.patternLookup(true);
             return pattern;
+        }
 
         synchronized (PATTERN_MAP) {
             pattern = PATTERN_MAP.get(regex);
-            if (Objects.nonNull(pattern))
+            if (Objects.nonNull(pattern)) {
+                SensitiveMetrics.patternLookup(true);
                 return pattern;
+            }
 
+            SensitiveMetrics.patternLookup(false);
 
             pattern = Pattern.compile(regex);
             PATTERN_MAP.put(regex, pattern);
@@ -130,9 +196,32 @@ public abstract class SensitiveHandler {
         return pattern;
     }
 
+    /**
+     * 已编译的校验正则数量
+     */
+    public static int patternCacheSize() {
+        return PATTERN_MAP.size();
+    }
+
     public static class Holder {
         private static final Map<SensitiveType, SensitiveHandler> HANDLER_MAP = new ConcurrentHashMap<>();
 
+        static {
+            // 内置及第三方处理器经由 ServiceLoader 注册：只读取 META-INF/services 声明，不扫描类路径，
+            // 不依赖 Spring 与 @PostConstruct，可在 native-image 构建期完成初始化
+            load(SensitiveHandler.class.getClassLoader());
+        }
+
+        /**
+         * 注册类加载器中经由 {@link ServiceLoader} 声明的处理器，同一敏感类型以先注册者为准，
+         * 如 Flink 等运行时的用户代码类加载器
+         */
+        public static void load(ClassLoader classLoader) {
+            for (SensitiveHandler handler : ServiceLoader.load(SensitiveHandler.class, classLoader)) {
+                HANDLER_MAP.putIfAbsent(handler.type(), handler);
+            }
+        }
+
         public void register(SensitiveHandler handler) {
             if (Objects.isNull(handler))
                 return;
@@ -140,6 +229,10 @@ public abstract class SensitiveHandler {
             HANDLER_MAP.put(handler.type(), handler);
         }
 
+        public boolean supports(SensitiveType type) {
+            return HANDLER_MAP.containsKey(type);
+        }
+
         public SensitiveHandler handlerOf(SensitiveType type) {
             SensitiveHandler handler = HANDLER_MAP.get(type);
             if (Objects.isNull(handler))
@@ -0,0 +1,53 @@
+/*
+ *    Copyright 2014-2025 <a href="mailto:asialjim@qq.com">Asial Jim</a>
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package com.asialjim.microapplet.sensitive.jfr;
+
+import com.asialjim.microapplet.sensitive.encrypt.AlgorithmMode;
+import jdk.jfr.*;
+
+/**
+ * 解密事件，覆盖 {@code EncryptionStrategy#decrypt}，只记录算法模式与是否成功，不记录密文与解密结果
+ *
+ * @author <a href="mailto:asialjim@hotmail.com">Asial Jim</a>
+ * @version 1.0
+ * @since 2026/10/19, &nbsp;&nbsp; <em>version:1.0</em>
+ */
+@Name(DecryptEvent.NAME)
+@Label("Sensitive Decrypt")
+@Category("Sensitive")
+@Description("敏感数据解密")
+@StackTrace(false)
+public final class DecryptEvent extends Event {
+    public static final String NAME = "com.asialjim.microapplet.sensitive.Decrypt";
+
+    @Label("Algorithm Mode")
+    String mode;
+
+    @Label("Success")
+    boolean success;
+
+    /**
+     * 结束并提交事件，未开启记录或耗时低于阈值时不设置字段
+     */
+    public void complete(AlgorithmMode mode, boolean success) {
+        if (!shouldCommit())
+            return;
+
+        this.mode = mode.name();
+        this.success = success;
+        commit();
+    }
+}
\ No newline at end of file
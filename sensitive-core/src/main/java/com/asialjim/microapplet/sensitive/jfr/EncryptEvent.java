@@ -0,0 +1,54 @@
+/*
+ *    Copyright 2014-2025 <a href="mailto:asialjim@qq.com">Asial Jim</a>
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package com.asialjim.microapplet.sensitive.jfr;
+
+import com.asialjim.microapplet.sensitive.encrypt.AlgorithmMode;
+import jdk.jfr.*;
+
+/**
+ * 加密事件，覆盖 {@code EncryptionStrategy#encrypt} 与 {@code EncryptionStrategy#encryptAll}，批量加密记录一次，
+ * 只记录算法模式与数据条数，不记录原数据与密文
+ *
+ * @author <a href="mailto:asialjim@hotmail.com">Asial Jim</a>
+ * @version 1.0
+ * @since 2026/10/19, &nbsp;&nbsp; <em>version:1.0</em>
+ */
+@Name(EncryptEvent.NAME)
+@Label("Sensitive Encrypt")
+@Category("Sensitive")
+@Description("敏感数据加密")
+@StackTrace(false)
+public final class EncryptEvent extends Event {
+    public static final String NAME = "com.asialjim.microapplet.sensitive.Encrypt";
+
+    @Label("Algorithm Mode")
+    String mode;
+
+    @Label("Count")
+    int count;
+
+    /**
+     * 结束并提交事件，未开启记录或耗时低于阈值时不设置字段
+     */
+    public void complete(AlgorithmMode mode, int count) {
+        if (!shouldCommit())
+            return;
+
+        this.mode = mode.name();
+        this.count = count;
+        commit();
+    }
+}
\ No newline at end of file
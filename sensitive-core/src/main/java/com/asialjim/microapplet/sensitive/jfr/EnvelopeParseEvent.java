@@ -0,0 +1,64 @@
+/*
+ *    Copyright 2014-2025 <a href="mailto:asialjim@qq.com">Asial Jim</a>
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package com.asialjim.microapplet.sensitive.jfr;
+
+import com.asialjim.microapplet.sensitive.encrypt.AlgorithmMode;
+import jdk.jfr.*;
+
+import java.util.Objects;
+
+/**
+ * 密文解析事件，覆盖 {@code _mask} 格式数据与二进制格式数据的解析，只记录数据格式、算法模式与是否成功
+ *
+ * @author <a href="mailto:asialjim@hotmail.com">Asial Jim</a>
+ * @version 1.0
+ * @since 2026/10/19, &nbsp;&nbsp; <em>version:1.0</em>
+ */
+@Name(EnvelopeParseEvent.NAME)
+@Label("Sensitive Envelope Parse")
+@Category("Sensitive")
+@Description("敏感数据密文解析")
+@StackTrace(false)
+public final class EnvelopeParseEvent extends Event {
+    public static final String NAME = "com.asialjim.microapplet.sensitive.EnvelopeParse";
+    public static final String FORMATTED = "formatted";
+    public static final String BINARY = "binary";
+
+    @Label("Format")
+    String format;
+
+    @Label("Algorithm Mode")
+    String mode;
+
+    @Label("Success")
+    boolean success;
+
+    /**
+     * 结束并提交事件，未开启记录或耗时低于阈值时不设置字段
+     *
+     * @param format {@link #FORMATTED} 或 {@link #BINARY}
+     * @param mode   解析出的算法模式，解析失败时为 {@code null}
+     */
+    public void complete(String format, AlgorithmMode mode) {
+        if (!shouldCommit())
+            return;
+
+        this.format = format;
+        this.mode = Objects.isNull(mode) ? null : mode.name();
+        this.success = Objects.nonNull(mode);
+        commit();
+    }
+}
\ No newline at end of file
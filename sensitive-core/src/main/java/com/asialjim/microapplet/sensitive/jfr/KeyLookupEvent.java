@@ -0,0 +1,60 @@
+/*
+ *    Copyright 2014-2025 <a href="mailto:asialjim@qq.com">Asial Jim</a>
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package com.asialjim.microapplet.sensitive.jfr;
+
+import com.asialjim.microapplet.sensitive.encrypt.AlgorithmMode;
+import jdk.jfr.*;
+
+/**
+ * 密钥查找事件，覆盖 {@code SecretKeyRepository#pairOf}，可用于定位密钥缓存未命中或密钥服务响应慢的调用，
+ * 只记录算法模式、租户与是否找到密钥，不记录密钥
+ *
+ * @author <a href="mailto:asialjim@hotmail.com">Asial Jim</a>
+ * @version 1.0
+ * @since 2026/10/19, &nbsp;&nbsp; <em>version:1.0</em>
+ */
+@Name(KeyLookupEvent.NAME)
+@Label("Sensitive Key Lookup")
+@Category("Sensitive")
+@Description("敏感数据密钥查找")
+@StackTrace(false)
+public final class KeyLookupEvent extends Event {
+    public static final String NAME = "com.asialjim.microapplet.sensitive.KeyLookup";
+
+    @Label("Algorithm Mode")
+    String mode;
+
+    @Label("Tenant")
+    String tenant;
+
+    @Label("Found")
+    boolean found;
+
+    /**
+     * 结束并提交事件，未开启记录或耗时低于阈值时不设置字段
+     *
+     * @param tenant 租户，未设置租户时为 {@code null}
+     */
+    public void complete(AlgorithmMode mode, String tenant, boolean found) {
+        if (!shouldCommit())
+            return;
+
+        this.mode = mode.name();
+        this.tenant = tenant;
+        this.found = found;
+        commit();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,58 @@
+/*
+ *    Copyright 2014-2025 <a href="mailto:asialjim@qq.com">Asial Jim</a>
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package com.asialjim.microapplet.sensitive.jfr;
+
+import com.asialjim.microapplet.sensitive.handler.SensitiveType;
+import jdk.jfr.*;
+
+/**
+ * 脱敏事件
+ * <p>
+ * 只记录敏感类型与耗时，不记录原数据与脱敏结果。未开启 JFR 记录时 {@link #shouldCommit()} 恒为 {@code false}，
+ * 事件对象经逃逸分析消除，不产生额外开销
+ * <pre>{@code
+ * MaskEvent event = new MaskEvent();
+ * event.begin();
+ * String mask = function.apply(source);
+ * event.complete(type);
+ * }</pre>
+ *
+ * @author <a href="mailto:asialjim@hotmail.com">Asial Jim</a>
+ * @version 1.0
+ * @since 2026/10/19, &nbsp;&nbsp; <em>version:1.0</em>
+ */
+@Name(MaskEvent.NAME)
+@Label("Sensitive Mask")
+@Category("Sensitive")
+@Description("敏感数据脱敏")
+@StackTrace(false)
+public final class MaskEvent extends Event {
+    public static final String NAME = "com.asialjim.microapplet.sensitive.Mask";
+
+    @Label("Sensitive Type")
+    String sensitiveType;
+
+    /**
+     * 结束并提交事件，未开启记录或耗时低于阈值时不设置字段
+     */
+    public void complete(SensitiveType type) {
+        if (!shouldCommit())
+            return;
+
+        this.sensitiveType = type.name();
+        commit();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,455 @@
+/*
+ *    Copyright 2014-2025 <a href="mailto:asialjim@qq.com">Asial Jim</a>
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package com.asialjim.microapplet.sensitive.token;
+
+import com.asialjim.microapplet.sensitive.SensitiveMetrics;
+
+import java.io.Closeable;
+import java.nio.ByteBuffer;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 本地令牌库
+ * <p>
+ * 令牌为 12 字节随机数的 Base64Url 编码，按随机数分布到多个分片，各自加锁。每个分片按令牌数上限预先分配定长数组：
+ * 按写入顺序循环使用的槽位记录随机数、写入时间与密文位置，开放寻址的整数索引表按随机数定位槽位，
+ * 每个令牌约占 48 字节且不产生索引对象，数十万令牌常驻也不增加 GC 负担。有效期自写入起计算，写入顺序即过期顺序，
+ * 过期令牌在写入与 {@link #cleanUp()} 时从最早一端移除，超出容量时同样淘汰最早写入的令牌。
+ * 配置堆外容量时，密文存放在每个分片预先分配的{@link ByteBuffer#allocateDirect 直接内存}环形区域，按写入顺序追加、
+ * 随最早的令牌一起释放，令牌库在堆内不再持有任何按令牌分配的对象
+ * <pre>{@code
+ * LocalTokenVault vault = new LocalTokenVault(100_000, Duration.ofMinutes(30), 16 << 20);
+ * SensitiveToken.register(vault);
+ * }</pre>
+ * 令牌只存在于当前节点，多节点部署需会话粘滞，或实现基于共享存储的 {@link TokenVault}
+ *
+ * @author <a href="mailto:asialjim@hotmail.com">Asial Jim</a>
+ * @version 1.0
+ * @since 2026/10/19, &nbsp;&nbsp; <em>version:1.0</em>
+ */
+public class LocalTokenVault implements TokenVault, Closeable {
+    private static final int MAX_SHARDS = 64;
+    /**
+     * 令牌随机字节数，Base64Url 编码后为 16 个字符
+     */
+    private static final int TOKEN_BYTES = 12;
+    private static final int TOKEN_LENGTH = 16;
+    /**
+     * 每次从 DRBG 取出的随机字节可生成的令牌数
+     */
+    private static final int TOKENS_PER_FILL = 32;
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+    /**
+     * 每个线程独立的 DRBG 与随机字节缓冲区，生成令牌时不争用同一随机数生成器
+     */
+    private static final ThreadLocal<RandomBuffer> RANDOM = ThreadLocal.withInitial(RandomBuffer::new);
+
+    private final Shard[] shards;
+    private final int shardMask;
+    private final long ttlNanos;
+    private final long offHeapBytes;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public LocalTokenVault(int maximumSize, Duration ttl) {
+        this(maximumSize, ttl, 0);
+    }
+
+    /**
+     * @param maximumSize  令牌数上限
+     * @param ttl          令牌有效期，自写入起计算
+     * @param offHeapBytes 堆外存储容量（字节），为 0 时密文存放在堆内
+     */
+    public LocalTokenVault(int maximumSize, Duration ttl, long offHeapBytes) {
+        if (maximumSize <= 0)
+            throw new IllegalArgumentException("令牌数上限必须大于0");
+        if (Objects.isNull(ttl) || ttl.isNegative() || ttl.isZero())
+            throw new IllegalArgumentException("有效期必须大于0");
+        if (offHeapBytes < 0)
+            throw new IllegalArgumentException("堆外存储容量不能小于0");
+
+        this.ttlNanos = ttl.toNanos();
+        this.offHeapBytes = offHeapBytes;
+
+        // 分片数为 2 的幂，每个分片至少容纳 256 个令牌
+        int count = Integer.highestOneBit(Math.max(1, Math.min(MAX_SHARDS, maximumSize / 256)));
+        int capacity = (maximumSize + count - 1) / count;
+        long arena = offHeapBytes / count;
+        if (offHeapBytes > 0 && (arena <= 0 || arena > Integer.MAX_VALUE))
+            throw new IllegalArgumentException("堆外存储容量超出范围");
+
+        this.shards = new Shard[count];
+        for (int i = 0; i < count; i++) {
+            shards[i] = new Shard(capacity, offHeapBytes > 0 ? ByteBuffer.allocateDirect((int) arena) : null);
+        }
+        this.shardMask = count - 1;
+    }
+
+    @Override
+    public String store(byte[] data) {
+        Objects.requireNonNull(data, "数据不能为空");
+
+        byte[] random = new byte[TOKEN_BYTES];
+        RANDOM.get().nextBytes(random);
+        long high = high(random);
+        int low = low(random);
+        shardOf(high).put(high, low, data, System.nanoTime());
+        return ENCODER.encodeToString(random);
+    }
+
+    @Override
+    public byte[] resolve(String token) {
+        byte[] random = decode(token);
+        byte[] data = Objects.isNull(random) ? null : shardOf(high(random)).get(high(random), low(random), System.nanoTime());
+        if (Objects.isNull(data))
+            misses.increment();
+        else
+            hits.increment();
+        return data;
+    }
+
+    @Override
+    public void invalidate(String token) {
+        byte[] random = decode(token);
+        if (Objects.nonNull(random))
+            shardOf(high(random)).remove(high(random), low(random));
+    }
+
+    /**
+     * 移除所有已过期的令牌，可由定时任务调用
+     */
+    public void cleanUp() {
+        long now = System.nanoTime();
+        for (Shard shard : shards) {
+            shard.cleanUp(now);
+        }
+    }
+
+    /**
+     * 当前令牌数
+     */
+    public int size() {
+        int size = 0;
+        for (Shard shard : shards) {
+            size += shard.size();
+        }
+        return size;
+    }
+
+    /**
+     * 令牌命中统计、当前令牌数、淘汰次数与堆外存储容量
+     */
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>(SensitiveMetrics.cache(hits.sum(), misses.sum()));
+        stats.put("size", size());
+        stats.put("evictions", evictions.sum());
+        stats.put("offHeapBytes", offHeapBytes);
+        return stats;
+    }
+
+    /**
+     * 注销并清空令牌库，直接内存随对象回收释放
+     */
+    @Override
+    public void close() {
+        SensitiveToken.unregister(this);
+        for (Shard shard : shards) {
+            shard.clear();
+        }
+    }
+
+    private Shard shardOf(long high) {
+        return shards[(int) high & shardMask];
+    }
+
+    /**
+     * 非本令牌库格式的令牌返回 {@code null}
+     */
+    private static byte[] decode(String token) {
+        if (Objects.isNull(token) || token.length() != TOKEN_LENGTH)
+            return null;
+
+        try {
+            return DECODER.decode(token);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static long high(byte[] random) {
+        long high = 0;
+        for (int i = 0; i < 8; i++) {
+            high = high << 8 | (random[i] & 0xFF);
+        }
+        return high;
+    }
+
+    private static int low(byte[] random) {
+        return (random[8] & 0xFF) << 24 | (random[9] & 0xFF) << 16 | (random[10] & 0xFF) << 8 | random[11] & 0xFF;
+    }
+
+    private static final class RandomBuffer {
+        private final SecureRandom random = newRandom();
+        private final byte[] buffer = new byte[TOKEN_BYTES * TOKENS_PER_FILL];
+        private int position = buffer.length;
+
+        void nextBytes(byte[] bytes) {
+            if (position == buffer.length) {
+                random.nextBytes(buffer);
+                position = 0;
+            }
+            System.arraycopy(buffer, position, bytes, 0, bytes.length);
+            // 取出后立即清除，缓冲区中不保留已发放的令牌
+            Arrays.fill(buffer, position, position + bytes.length, (byte) 0);
+            position += bytes.length;
+        }
+
+        private static SecureRandom newRandom() {
+            try {
+                return SecureRandom.getInstance("DRBG");
+            } catch (NoSuchAlgorithmException e) {
+                return new SecureRandom();
+            }
+        }
+    }
+
+    /**
+     * 分片：槽位按写入序号循环使用，{@code [head, tail)} 为尚未释放的槽位，其中已移除的令牌在轮到最早一端时一并释放
+     */
+    private final class Shard {
+        private final int capacity;
+        private final long[] highs;
+        private final int[] lows;
+        private final long[] storedAts;
+        private final int[] offsets;
+        private final int[] lengths;
+        private final boolean[] live;
+        /**
+         * 堆内存储时的密文，堆外存储时为 {@code null}
+         */
+        private final byte[][] data;
+        /**
+         * 线性探测索引表，元素为槽位下标加 1，0 表示空
+         */
+        private final int[] table;
+        private final int tableMask;
+        private final ByteBuffer arena;
+        private long head;
+        private long tail;
+        private int size;
+        /**
+         * 环形区域下一次写入的位置，最早未释放槽位的偏移量为有效数据的起点
+         */
+        private int arenaTail;
+
+        private Shard(int capacity, ByteBuffer arena) {
+            this.capacity = capacity;
+            this.highs = new long[capacity];
+            this.lows = new int[capacity];
+            this.storedAts = new long[capacity];
+            this.offsets = new int[capacity];
+            this.lengths = new int[capacity];
+            this.live = new boolean[capacity];
+            this.data = Objects.isNull(arena) ? new byte[capacity][] : null;
+            // 装载因子不超过 0.5
+            this.table = new int[Integer.highestOneBit(capacity) << 2];
+            this.tableMask = table.length - 1;
+            this.arena = arena;
+        }
+
+        synchronized void put(long high, int low, byte[] bytes, long now) {
+            expire(now);
+            if (tail - head == capacity)
+                release();
+
+            int offset = Objects.isNull(arena) ? 0 : allocate(bytes.length);
+            int slot = slot(tail++);
+            highs[slot] = high;
+            lows[slot] = low;
+            storedAts[slot] = now;
+            offsets[slot] = offset;
+            lengths[slot] = bytes.length;
+            live[slot] = true;
+            if (Objects.isNull(arena))
+                data[slot] = bytes;
+            else
+                arena.put(offset, bytes);
+
+            int position = hash(high, low) & tableMask;
+            while (table[position] != 0) {
+                position = (position + 1) & tableMask;
+            }
+            table[position] = slot + 1;
+            size++;
+        }
+
+        synchronized byte[] get(long high, int low, long now) {
+            int position = find(high, low);
+            if (position < 0)
+                return null;
+
+            int slot = table[position] - 1;
+            if (now - storedAts[slot] > ttlNanos) {
+                expire(now);
+                return null;
+            }
+
+            if (Objects.isNull(arena))
+                return data[slot].clone();
+
+            byte[] bytes = new byte[lengths[slot]];
+            arena.get(offsets[slot], bytes);
+            return bytes;
+        }
+
+        synchronized void remove(long high, int low) {
+            int position = find(high, low);
+            if (position >= 0)
+                unlink(position);
+        }
+
+        synchronized void clear() {
+            Arrays.fill(table, 0);
+            Arrays.fill(live, false);
+            if (Objects.nonNull(data))
+                Arrays.fill(data, null);
+            head = tail = 0;
+            size = 0;
+            arenaTail = 0;
+        }
+
+        synchronized int size() {
+            return size;
+        }
+
+        synchronized void cleanUp(long now) {
+            expire(now);
+        }
+
+        /**
+         * 从最早一端释放槽位，遇到未过期的令牌即停止
+         */
+        private void expire(long now) {
+            while (head < tail) {
+                int slot = slot(head);
+                if (live[slot] && now - storedAts[slot] <= ttlNanos)
+                    return;
+                release();
+            }
+        }
+
+        /**
+         * 释放最早的槽位，其中的令牌尚未移除时计为淘汰
+         */
+        private void release() {
+            int slot = slot(head++);
+            if (live[slot]) {
+                unlink(find(highs[slot], lows[slot]));
+                evictions.increment();
+            }
+        }
+
+        /**
+         * 从索引表中移除并将后续探测链上的元素前移，保持线性探测无空洞
+         */
+        private void unlink(int position) {
+            int slot = table[position] - 1;
+            live[slot] = false;
+            if (Objects.nonNull(data))
+                data[slot] = null;
+            size--;
+
+            int next = (position + 1) & tableMask;
+            while (table[next] != 0) {
+                int moved = table[next] - 1;
+                int home = hash(highs[moved], lows[moved]) & tableMask;
+                if (((next - home) & tableMask) >= ((next - position) & tableMask)) {
+                    table[position] = table[next];
+                    position = next;
+                }
+                next = (next + 1) & tableMask;
+            }
+            table[position] = 0;
+        }
+
+        private int find(long high, int low) {
+            int position = hash(high, low) & tableMask;
+            while (table[position] != 0) {
+                int slot = table[position] - 1;
+                if (highs[slot] == high && lows[slot] == low)
+                    return position;
+                position = (position + 1) & tableMask;
+            }
+            return -1;
+        }
+
+        /**
+         * 在环形区域中分配连续空间，空间不足时释放最早的槽位；写入顺序即分配顺序，
+         * 有效数据始终位于最早未释放槽位的偏移量与 {@link #arenaTail} 之间（可能跨越区域末尾）
+         */
+        private int allocate(int length) {
+            if (length > arena.capacity())
+                throw new IllegalArgumentException("数据长度超出令牌库堆外存储容量");
+
+            while (true) {
+                if (head == tail) {
+                    arenaTail = length;
+                    return 0;
+                }
+
+                int start = offsets[slot(head)];
+                if (arenaTail > start) {
+                    // 有效数据未跨越末尾：优先追加到末尾，否则从头部开始
+                    if (arena.capacity() - arenaTail >= length) {
+                        int offset = arenaTail;
+                        arenaTail += length;
+                        return offset;
+                    }
+                    if (start >= length) {
+                        arenaTail = length;
+                        return 0;
+                    }
+                } else if (start - arenaTail >= length) {
+                    int offset = arenaTail;
+                    arenaTail += length;
+                    return offset;
+                }
+                release();
+            }
+        }
+
+        private int slot(long sequence) {
+            return (int) (sequence % capacity);
+        }
+
+        /**
+         * 令牌本身为随机数，分片已使用 {@code high} 的低位，索引表取其余位
+         */
+        private static int hash(long high, int low) {
+            return (int) (high >>> 32) ^ low;
+        }
+    }
+}
\ No newline at end of file
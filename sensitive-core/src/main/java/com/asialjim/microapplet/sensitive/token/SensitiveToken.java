@@ -0,0 +1,108 @@
+/*
+ *    Copyright 2014-2025 <a href="mailto:asialjim@qq.com">Asial Jim</a>
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package com.asialjim.microapplet.sensitive.token;
+
+import com.asialjim.microapplet.sensitive.encrypt.EncryptionResult;
+import org.apache.commons.lang3.StringUtils;
+
+import java.util.Objects;
+
+/**
+ * 敏感数据令牌化
+ * <p>
+ * 注册 {@link TokenVault} 后，序列化输出 {@code _tok|token|mask} 格式数据替代 {@code _mask|algorithm|nonce|encrypt|mac|mask}，
+ * 手机号等短字段的响应体积由 80 余字节降至 30 字节左右；令牌库中只存放二进制格式密文，不存放原数据，
+ * 还原时仍经 {@code EncryptionContextBean#decrypt} 解密，租户隔离与解密审计照常生效。未注册时只读取一次 volatile 引用
+ *
+ * @author <a href="mailto:asialjim@hotmail.com">Asial Jim</a>
+ * @version 1.0
+ * @since 2026/10/19, &nbsp;&nbsp; <em>version:1.0</em>
+ */
+public final class SensitiveToken {
+    public static final String PREFIX = "_tok";
+    private static final char SEPARATOR = '|';
+
+    private static volatile TokenVault vault;
+
+    private SensitiveToken() {
+    }
+
+    /**
+     * 注册令牌库，替换已注册的令牌库
+     */
+    public static synchronized void register(TokenVault vault) {
+        SensitiveToken.vault = Objects.requireNonNull(vault, "令牌库不能为空");
+    }
+
+    /**
+     * 注销令牌库，当前注册的不是该令牌库时不做处理
+     */
+    public static synchronized void unregister(TokenVault vault) {
+        if (SensitiveToken.vault == vault)
+            SensitiveToken.vault = null;
+    }
+
+    /**
+     * 当前注册的令牌库，未注册时为 {@code null}
+     */
+    public static TokenVault vault() {
+        return vault;
+    }
+
+    /**
+     * 是否已注册令牌库
+     */
+    public static boolean enabled() {
+        return Objects.nonNull(vault);
+    }
+
+    /**
+     * 是否为 _tok|token|mask 格式数据，脱敏数据可为空
+     */
+    public static boolean isTokenMaskData(String source) {
+        return StringUtils.startsWith(source, PREFIX + SEPARATOR) && source.indexOf(SEPARATOR, PREFIX.length() + 1) > 0;
+    }
+
+    /**
+     * 将密文存入令牌库，输出 _tok|token|mask 格式数据
+     */
+    public static String tokenize(EncryptionResult result, String mask) {
+        String token = requireVault().store(result.toBinary());
+        return PREFIX + SEPARATOR + token + SEPARATOR + StringUtils.defaultString(mask);
+    }
+
+    /**
+     * 取回 _tok|token|mask 格式数据对应的密文
+     */
+    public static EncryptionResult resolve(String source) {
+        if (!isTokenMaskData(source))
+            throw new IllegalArgumentException("无效的数据格式");
+
+        String token = source.substring(PREFIX.length() + 1, source.indexOf(SEPARATOR, PREFIX.length() + 1));
+        byte[] data = requireVault().resolve(token);
+        if (Objects.isNull(data))
+            throw new IllegalArgumentException("令牌不存在或已过期");
+
+        return EncryptionResult.fromBinary(data);
+    }
+
+    private static TokenVault requireVault() {
+        TokenVault vault = SensitiveToken.vault;
+        if (Objects.isNull(vault))
+            throw new IllegalStateException("未注册令牌库");
+        return vault;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,47 @@
+/*
+ *    Copyright 2014-2025 <a href="mailto:asialjim@qq.com">Asial Jim</a>
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package com.asialjim.microapplet.sensitive.token;
+
+/**
+ * 令牌库
+ * <p>
+ * 以随机令牌替代响应中的密文，密文留存在服务端，由 {@link SensitiveToken} 在序列化时存入、反序列化时取回。
+ * 令牌只在有效期内可还原，不应写入数据库等持久化存储
+ *
+ * @author <a href="mailto:asialjim@hotmail.com">Asial Jim</a>
+ * @version 1.0
+ * @since 2026/10/19, &nbsp;&nbsp; <em>version:1.0</em>
+ */
+public interface TokenVault {
+
+    /**
+     * 存储数据
+     *
+     * @param data 二进制格式密文 {@code EncryptionResult#toBinary()}，调用后不再修改
+     * @return 随机令牌，仅含 Base64Url 字符
+     */
+    String store(byte[] data);
+
+    /**
+     * 令牌对应的数据，令牌不存在或已过期时返回 {@code null}
+     */
+    byte[] resolve(String token);
+
+    /**
+     * 移除令牌
+     */
+    void invalidate(String token);
+}
\ No newline at end of file
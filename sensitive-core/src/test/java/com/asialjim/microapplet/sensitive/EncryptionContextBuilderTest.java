@@ -0,0 +1,105 @@
+/*
+ *    Copyright 2014-2025 <a href="mailto:asialjim@qq.com">Asial Jim</a>
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package com.asialjim.microapplet.sensitive;
+
+import com.asialjim.microapplet.sensitive.encrypt.*;
+import lombok.SneakyThrows;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * 非 Spring 环境构建加密上下文测试
+ */
+public class EncryptionContextBuilderTest {
+
+    @After
+    public void after() {
+        SensitivePolicy.reset();
+    }
+
+    @Test
+    public void testStrategies() {
+        List<AlgorithmMode> modes = Arrays.asList(EncryptionStrategyFactory.getSupportedModes());
+        assertTrue(modes.contains(AlgorithmMode.MODERN));
+        assertTrue(modes.contains(AlgorithmMode.GM));
+        assertTrue(EncryptionStrategyFactory.getStrategy(AlgorithmMode.GM) instanceof GMEncryptionStrategy);
+    }
+
+    @Test
+    public void testDefaults() {
+        // 加密上下文取自策略表，算法模式取自处理策略，密钥仓库经由 ServiceLoader 加载
+        EncryptionContextBean bean = EncryptionContextBean.builder().build();
+        assertSame(bean, EncryptionContextBean.instance);
+
+        String modern = bean.encrypt("13800138000").withMask("138****8000");
+        assertTrue(modern.startsWith("_mask|MODERN|"));
+        assertEquals("13800138000", bean.decrypt(modern));
+
+        SensitivePolicy.update(SensitivePolicy.current().withMode(AlgorithmMode.GM));
+        String gm = bean.encrypt("13800138000").withMask("138****8000");
+        assertTrue(gm.startsWith("_mask|GM|"));
+        assertEquals("13800138000", bean.decrypt(gm));
+    }
+
+    @Test
+    public void testExplicit() {
+        Repository repository = new Repository();
+        EncryptionContextBean bean = EncryptionContextBean.builder()
+                .context(new EncryptionContext(AlgorithmMode.MODERN))
+                .mode(AlgorithmMode.MODERN)
+                .secretKeyRepository(repository)
+                .build();
+
+        String formatted = bean.encrypt("zhangsan@example.com").withMask("zhan*****@example.com");
+        assertEquals("zhangsan@example.com", bean.decrypt(formatted));
+        assertEquals(Collections.singleton(AlgorithmMode.MODERN), bean.preload());
+
+        assertThrows(IllegalArgumentException.class, () -> EncryptionContextBean.builder().mode(null));
+        assertThrows(IllegalArgumentException.class, () -> EncryptionContextBean.builder().context(null));
+    }
+
+    /**
+     * 经由 META-INF/services 声明的测试密钥仓库
+     */
+    public static class Repository implements SecretKeyRepository {
+        private final Map<AlgorithmMode, Pair> pairs = new EnumMap<>(AlgorithmMode.class);
+
+        @Override
+        @SneakyThrows
+        public synchronized Pair pairOf(AlgorithmMode mode) {
+            Pair pair = pairs.get(mode);
+            if (pair == null) {
+                pair = new Pair();
+                switch (mode) {
+                    case MODERN -> pair.setEncKey(KeyManager.generateModernEncryptionKey());
+                    case GM -> pair.setEncKey(KeyManager.generateGMEncryptionKey()).setMacKey(KeyManager.generateGMMacKey());
+                    case FPE -> pair.setEncKey(KeyManager.generateFpeKey());
+                }
+                pairs.put(mode, pair);
+            }
+            return pair;
+        }
+    }
+}
\ No newline at end of file
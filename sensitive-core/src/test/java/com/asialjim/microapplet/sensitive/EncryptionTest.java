@@ -20,11 +20,22 @@ import com.asialjim.microapplet.sensitive.encrypt.AlgorithmMode;
 import com.asialjim.microapplet.sensitive.encrypt.EncryptionContext;
 import com.asialjim.microapplet.sensitive.encrypt.EncryptionResult;
 import com.asialjim.microapplet.sensitive.encrypt.KeyManager;
+import com.asialjim.microapplet.sensitive.encrypt.LightweightGMEncryptionStrategy;
 import com.asialjim.microapplet.sensitive.handler.*;
 import org.junit.Before;
 import org.junit.Test;
 
+import javax.crypto.Cipher;
+import javax.crypto.Mac;
 import javax.crypto.SecretKey;
+import javax.crypto.spec.IvParameterSpec;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
 
 /**
  * 重构后的双算法加密方案使用示例
@@ -64,6 +75,65 @@ public class EncryptionTest {
         System.out.println("=====================================");
     }
 
+    @Test
+    public void testFormattedWithoutMask() throws Exception {
+        SecretKey modernKey = KeyManager.getOrGenerateKey(KeyManager.KEY_TYPE_MODERN);
+        EncryptionContext context = new EncryptionContext(AlgorithmMode.MODERN);
+        EncryptionResult result = context.encrypt("13800138000", modernKey, null);
+
+        // 不含脱敏数据及脱敏数据含分隔符时均可还原
+        for (String formatted : new String[]{result.toFormattedString(), result.withMask("138|8000")}) {
+            assertTrue(EncryptionResult.isEncryptionMaskData(formatted));
+            assertEquals("13800138000", context.decrypt(EncryptionResult.fromFormattedString(formatted), modernKey, null));
+        }
+        assertFalse(EncryptionResult.isEncryptionMaskData("_mask|MODERN|abc"));
+    }
+
+    @Test
+    public void testLightweightGMAlgorithm() throws Exception {
+        SecretKey gmEncryptionKey = KeyManager.getOrGenerateKey(KeyManager.KEY_TYPE_GM_ENCRYPTION);
+        SecretKey gmMacKey = KeyManager.getOrGenerateKey(KeyManager.KEY_TYPE_GM_MAC);
+        EncryptionContext jce = new EncryptionContext(AlgorithmMode.GM);
+        EncryptionContext lightweight = new EncryptionContext(new LightweightGMEncryptionStrategy());
+
+        for (String sensitiveData : new String[]{"", "1", "0123456789abcdef", "110101199001011234@ggg.com", "张三丰"}) {
+            // 轻量级实现的输出与 JCE 实现逐字节一致
+            EncryptionResult result = lightweight.encrypt(sensitiveData, gmEncryptionKey, gmMacKey);
+            Cipher cipher = Cipher.getInstance("SM4/CBC/PKCS5Padding");
+            cipher.init(Cipher.ENCRYPT_MODE, gmEncryptionKey, new IvParameterSpec(result.getNonce()));
+            assertArrayEquals(cipher.doFinal(sensitiveData.getBytes(StandardCharsets.UTF_8)), result.getEncrypt());
+            Mac mac = Mac.getInstance("HmacSM3");
+            mac.init(gmMacKey);
+            assertArrayEquals(mac.doFinal(result.getEncrypt()), result.getMac());
+
+            // 两种实现可互相解密
+            assertEquals(sensitiveData, jce.decrypt(result, gmEncryptionKey, gmMacKey));
+            assertEquals(sensitiveData, lightweight.decrypt(jce.encrypt(sensitiveData, gmEncryptionKey, gmMacKey), gmEncryptionKey, gmMacKey));
+        }
+
+        EncryptionResult result = lightweight.encrypt("13800138000", gmEncryptionKey, gmMacKey);
+        result.getEncrypt()[0] ^= 1;
+        assertThrows(SecurityException.class, () -> lightweight.decrypt(result, gmEncryptionKey, gmMacKey));
+    }
+
+    @Test
+    public void testFormattedString() {
+        for (int length = 0; length < 8; length++) {
+            byte[] bytes = new byte[length];
+            new java.util.Random(length).nextBytes(bytes);
+            EncryptionResult result = new EncryptionResult(AlgorithmMode.GM, bytes, bytes, bytes);
+            String base64 = java.util.Base64.getUrlEncoder().encodeToString(bytes);
+            String expected = String.format("_mask|%s|%s|%s|%s|", "GM", base64, base64, base64);
+
+            assertEquals(expected, result.toFormattedString());
+            assertEquals(expected + "138****8000", result.withMask("138****8000"));
+
+            char[] buffer = new char[result.formattedLength("138****8000") + 2];
+            int written = result.writeFormatted(buffer, 2, "138****8000");
+            assertEquals(expected + "138****8000", new String(buffer, 2, written));
+        }
+    }
+
     private static void testModernAlgorithm(String sensitiveData, SecretKey modernKey) throws Exception {
         System.out.println("=== 测试现代算法 ===");
 
@@ -0,0 +1,181 @@
+/*
+ *    Copyright 2014-2025 <a href="mailto:asialjim@qq.com">Asial Jim</a>
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+
+package com.asialjim.microapplet.sensitive;
+
+import com.asialjim.microapplet.sensitive.encrypt.*;
+import com.asialjim.microapplet.sensitive.handler.SensitiveType;
+import org.bouncycastle.crypto.engines.AESEngine;
+import org.bouncycastle.crypto.engines.SM4Engine;
+import org.bouncycastle.crypto.fpe.FPEFF1Engine;
+import org.bouncycastle.crypto.params.FPEParameters;
+import org.bouncycastle.crypto.params.KeyParameter;
+import org.bouncycastle.util.encoders.Hex;
+import org.junit.Test;
+
+import javax.crypto.SecretKey;
+import javax.crypto.spec.SecretKeySpec;
+import java.util.Random;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.Assert.*;
+
+/**
+ * 保留格式加密(FF1)测试，测试向量取自 NIST SP 800-38G FF1 样例
+ */
+public class FormatPreservingEncryptionTest {
+    private static final String ALPHABET = "0123456789abcdefghijklmnopqrstuvwxyz";
+    private static final String AES_128 = "2B7E151628AED2A6ABF7158809CF4F3C";
+    private static final String AES_192 = AES_128 + "EF4359D8D580AA4F";
+    private static final String AES_256 = AES_192 + "7F036D6F04FC6A94";
+
+    @Test
+    public void testNistVectors() {
+        assertVector(AES_128, 10, "", "0123456789", "2433477484");
+        assertVector(AES_128, 10, "39383736353433323130", "0123456789", "6124200773");
+        assertVector(AES_128, 36, "3737373770717273373737", "0123456789abcdefghi", "a9tv40mll9kdu509eum");
+        assertVector(AES_192, 10, "", "0123456789", "2830668132");
+        assertVector(AES_256, 10, "", "0123456789", "6657667009");
+    }
+
+    @Test
+    public void testDecimalAgainstBouncyCastle() throws Exception {
+        // 十进制快速路径与 Bouncy Castle FF1 实现逐一比对
+        Random random = new Random(20261019L);
+        SecretKey[] keys = {KeyManager.generateFpeKey(), KeyManager.generateGMEncryptionKey()};
+        for (int i = 0; i < 500; i++) {
+            SecretKey key = keys[i & 1];
+            byte[] numerals = new byte[6 + random.nextInt(27)];
+            for (int j = 0; j < numerals.length; j++) {
+                numerals[j] = (byte) random.nextInt(10);
+            }
+            byte[] tweak = new byte[random.nextInt(40)];
+            random.nextBytes(tweak);
+
+            FPEFF1Engine engine = new FPEFF1Engine(key.getAlgorithm().equals("SM4") ? new SM4Engine() : AESEngine.newInstance());
+            engine.init(true, new FPEParameters(new KeyParameter(key.getEncoded()), 10, tweak));
+            byte[] expected = new byte[numerals.length];
+            engine.processBlock(numerals, 0, numerals.length, expected, 0);
+
+            byte[] actual = FF1EncryptionStrategy.process(true, key, 10, tweak, numerals);
+            assertArrayEquals(expected, actual);
+            assertArrayEquals(numerals, FF1EncryptionStrategy.process(false, key, 10, tweak, actual));
+        }
+    }
+
+    @Test
+    public void testPreservingFormat() throws Exception {
+        FF1EncryptionStrategy strategy = new FF1EncryptionStrategy();
+        SecretKey key = KeyManager.generateFpeKey();
+
+        String card = strategy.encrypt("6222021234567890", key, 6, 4);
+        assertEquals(16, card.length());
+        assertTrue(card.matches("^622202\\d{6}7890$"));
+        assertEquals("6222021234567890", strategy.decrypt(card, key, 6, 4));
+        // 确定性加密，相同明文密文相同
+        assertEquals(card, strategy.encrypt("6222021234567890", key, 6, 4));
+
+        String spaced = strategy.encrypt("6222 0212 3456 7890", key, 0, 0);
+        assertTrue(spaced.matches("^\\d{4} \\d{4} \\d{4} \\d{4}$"));
+        assertEquals("6222 0212 3456 7890", strategy.decrypt(spaced, key, 0, 0));
+
+        String idCard = strategy.encrypt("11010519491231002X", key, 6, 4);
+        assertTrue(idCard.matches("^110105\\d{8}002X$"));
+        assertEquals("11010519491231002X", strategy.decrypt(idCard, key, 6, 4));
+
+        // 保留部分参与 tweak，不同卡 BIN 下相同的中间数字密文不同
+        String other = strategy.encrypt("6228481234567890", key, 6, 4);
+        assertNotEquals(card.substring(6, 12), other.substring(6, 12));
+
+        // FF1-SM4
+        SecretKey sm4 = KeyManager.generateGMEncryptionKey();
+        String gm = strategy.encrypt("6222021234567890", sm4, 6, 4);
+        assertEquals("6222021234567890", strategy.decrypt(gm, sm4, 6, 4));
+        SecretKey aes = new SecretKeySpec(sm4.getEncoded(), "AES");
+        assertNotEquals(gm, strategy.encrypt("6222021234567890", aes, 6, 4));
+
+        // 超过 32 位数字时使用 Bouncy Castle FF1 实现
+        String longDigits = "1234567890123456789012345678901234567890";
+        String longEncrypted = strategy.encrypt(longDigits, key, 0, 0);
+        assertTrue(longEncrypted.matches("^\\d{40}$"));
+        assertEquals(longDigits, strategy.decrypt(longEncrypted, key, 0, 0));
+
+        assertThrows(IllegalArgumentException.class, () -> strategy.encrypt("13800138000", key, 3, 4));
+        assertThrows(IllegalArgumentException.class, () -> strategy.encrypt("zhangsan123456@example.com", key, 0, 0));
+        assertThrows(IllegalArgumentException.class, () -> strategy.encrypt("6222021234567890", key, 10, 10));
+    }
+
+    @Test
+    public void testContextBean() {
+        EncryptionContextBean bean = EncryptionContextBean.builder().build();
+
+        // 手机号按 3/4 保留时中间只有 4 位数字，缩减为 3/2
+        String phone = bean.encryptPreservingFormat(SensitiveType.ChineseMobilePhone, "13800138000");
+        assertTrue(phone.matches("^138\\d{6}00$"));
+        assertEquals("13800138000", bean.decryptPreservingFormat(SensitiveType.ChineseMobilePhone, phone));
+
+        String card = bean.encryptPreservingFormat(SensitiveType.BankCard, "6222021234567890123");
+        assertTrue(card.matches("^622202\\d{9}0123$"));
+        assertEquals("6222021234567890123", bean.decryptPreservingFormat(SensitiveType.BankCard, card));
+
+        assertEquals("", bean.encryptPreservingFormat(SensitiveType.BankCard, ""));
+        assertNull(bean.decryptPreservingFormat(SensitiveType.BankCard, null));
+
+        // 经由策略接口加密时仍可输出为 _mask 格式
+        EncryptionResult result = bean.encrypt(AlgorithmMode.FPE, "6222021234567890");
+        String formatted = result.withMask("622202******7890");
+        assertTrue(formatted.startsWith("_mask|FPE|"));
+        assertEquals("6222021234567890", bean.decrypt(formatted));
+
+        // 与 mask.js、sensitive.wxs 相同的解析规则，各段均不为空
+        Matcher matcher = Pattern.compile("^_mask\\|([^|]+)\\|([^|]+)\\|([^|]+)\\|([^|]+)\\|(.*)$").matcher(formatted);
+        assertTrue(matcher.matches());
+        assertEquals("622202******7890", matcher.group(5));
+
+        // nonce 与 mac 段为空的数据仍可解密
+        String empty = new EncryptionResult(AlgorithmMode.FPE, new byte[0], result.getEncrypt(), new byte[0]).withMask("622202******7890");
+        assertTrue(empty.startsWith("_mask|FPE||"));
+        assertEquals("6222021234567890", bean.decrypt(empty));
+
+        // 保留格式加密只能加密数字，不能作为全局算法模式
+        assertThrows(IllegalArgumentException.class, () -> EncryptionContextBean.builder().algorithmModeConfig(() -> AlgorithmMode.FPE).build());
+    }
+
+    private static void assertVector(String key, int radix, String tweak, String plain, String cipher) {
+        SecretKey secretKey = new SecretKeySpec(Hex.decode(key), "AES");
+        byte[] result = FF1EncryptionStrategy.process(true, secretKey, radix, Hex.decode(tweak), numeralsOf(plain));
+        assertEquals(cipher, stringOf(result));
+        assertEquals(plain, stringOf(FF1EncryptionStrategy.process(false, secretKey, radix, Hex.decode(tweak), result)));
+    }
+
+    private static byte[] numeralsOf(String value) {
+        byte[] numerals = new byte[value.length()];
+        for (int i = 0; i < numerals.length; i++) {
+            numerals[i] = (byte) ALPHABET.indexOf(value.charAt(i));
+        }
+        return numerals;
+    }
+
+    private static String stringOf(byte[] numerals) {
+        StringBuilder builder = new StringBuilder(numerals.length);
+        for (byte numeral : numerals) {
+            builder.append(ALPHABET.charAt(numeral));
+        }
+        return builder.toString();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,217 @@
+/*
+ *    Copyright 2014-2025 <a href="mailto:asialjim@qq.com">Asial Jim</a>
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package com.asialjim.microapplet.sensitive;
+
+import com.asialjim.microapplet.sensitive.encrypt.*;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.*;
+
+/**
+ * 密钥库文件密钥仓库测试
+ */
+public class KeyStoreSecretKeyRepositoryTest {
+    private static final char[] PASSWORD = "changeit".toCharArray();
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testCreateAndReload() throws Exception {
+        Path file = folder.getRoot().toPath().resolve("keys/sensitive.p12");
+        KeyStoreSecretKeyRepository repository = KeyStoreSecretKeyRepository.createIfAbsent(file, PASSWORD, KeyStoreSecretKeyRepository.DEFAULT_TYPE);
+        String modern = encrypt(repository, AlgorithmMode.MODERN);
+        String gm = encrypt(repository, AlgorithmMode.GM);
+
+        // 重启后沿用同一文件中的密钥
+        KeyStoreSecretKeyRepository restarted = KeyStoreSecretKeyRepository.createIfAbsent(file, PASSWORD, KeyStoreSecretKeyRepository.DEFAULT_TYPE);
+        assertArrayEquals(repository.pairOf(AlgorithmMode.GM).getMacKey().getEncoded(), restarted.pairOf(AlgorithmMode.GM).getMacKey().getEncoded());
+        EncryptionContextBean bean = bean(restarted, AlgorithmMode.MODERN);
+        assertEquals("13800138000", bean.decrypt(modern));
+        assertEquals("13800138000", bean.decrypt(gm));
+    }
+
+    @Test
+    public void testRotate() throws Exception {
+        Path file = folder.getRoot().toPath().resolve("rotate.p12");
+        KeyStoreSecretKeyRepository repository = KeyStoreSecretKeyRepository.createIfAbsent(file, PASSWORD, KeyStoreSecretKeyRepository.DEFAULT_TYPE);
+        CachingSecretKeyRepository caching = new CachingSecretKeyRepository(repository);
+        String modern1 = encrypt(caching, AlgorithmMode.MODERN);
+        String gm1 = encrypt(caching, AlgorithmMode.GM);
+        byte[] fpe = repository.pairOf(AlgorithmMode.FPE).getEncKey().getEncoded();
+
+        Map<AlgorithmMode, SecretKeyRepository.Pair> pairs = KeyStoreSecretKeyRepository.generate();
+        pairs.remove(AlgorithmMode.FPE);
+        KeyStoreSecretKeyRepository.rotate(file, PASSWORD, KeyStoreSecretKeyRepository.DEFAULT_TYPE, pairs);
+        assertTrue(repository.reload());
+        caching.refresh();
+        String modern2 = encrypt(caching, AlgorithmMode.MODERN);
+        String gm2 = encrypt(caching, AlgorithmMode.GM);
+
+        KeyStoreSecretKeyRepository.rotate(file, PASSWORD, KeyStoreSecretKeyRepository.DEFAULT_TYPE, KeyStoreSecretKeyRepository.generate());
+        assertTrue(repository.reload());
+        caching.refresh();
+        assertArrayEquals(pairs.get(AlgorithmMode.GM).getMacKey().getEncoded(),
+                repository.retiredPairsOf(null, AlgorithmMode.GM).get(0).getMacKey().getEncoded());
+        assertEquals(2, repository.retiredPairsOf(null, AlgorithmMode.MODERN).size());
+        assertEquals(1, repository.retiredPairsOf(null, AlgorithmMode.FPE).size());
+        assertArrayEquals(fpe, repository.retiredPairsOf(null, AlgorithmMode.FPE).get(0).getEncKey().getEncoded());
+
+        // 轮换前写入的数据按历史密钥解密，重启后同样可用
+        for (SecretKeyRepository candidate : List.of(caching, new KeyStoreSecretKeyRepository(file, PASSWORD))) {
+            EncryptionContextBean bean = bean(candidate, AlgorithmMode.MODERN);
+            for (String encrypted : List.of(modern1, gm1, modern2, gm2, encrypt(candidate, AlgorithmMode.GM))) {
+                assertEquals("13800138000", bean.decrypt(encrypted));
+            }
+        }
+
+        // 所有密钥均无法通过认证时仍然失败
+        String[] parts = gm1.split("\\|");
+        parts[4] = parts[4].charAt(0) == 'A' ? 'B' + parts[4].substring(1) : 'A' + parts[4].substring(1);
+        assertThrows(SecurityException.class, () -> bean(caching, AlgorithmMode.GM).decrypt(String.join("|", parts)));
+    }
+
+    @Test
+    public void testBcfks() throws Exception {
+        Path file = folder.getRoot().toPath().resolve("sensitive.bcfks");
+        KeyStoreSecretKeyRepository.store(file, PASSWORD, "BCFKS", KeyStoreSecretKeyRepository.generate());
+        KeyStoreSecretKeyRepository repository = new KeyStoreSecretKeyRepository(file, PASSWORD, "BCFKS");
+        assertEquals("13800138000", bean(repository, AlgorithmMode.GM).decrypt(encrypt(repository, AlgorithmMode.GM)));
+        assertEquals("SM4", repository.pairOf(AlgorithmMode.GM).getEncKey().getAlgorithm());
+        assertEquals("AES", repository.pairOf(AlgorithmMode.FPE).getEncKey().getAlgorithm());
+
+        // FF1-SM4 密钥按别名还原算法
+        Map<AlgorithmMode, SecretKeyRepository.Pair> pairs = KeyStoreSecretKeyRepository.generate();
+        pairs.put(AlgorithmMode.FPE, new SecretKeyRepository.Pair().setEncKey(KeyManager.generateGMEncryptionKey()));
+        KeyStoreSecretKeyRepository.store(file, PASSWORD, "BCFKS", pairs);
+        assertTrue(repository.reload());
+        assertEquals("SM4", repository.pairOf(AlgorithmMode.FPE).getEncKey().getAlgorithm());
+    }
+
+    @Test
+    public void testConcurrentCreate() throws Exception {
+        Path file = folder.getRoot().toPath().resolve("shared.p12");
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<KeyStoreSecretKeyRepository>> futures = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                futures.add(executor.submit(() -> KeyStoreSecretKeyRepository.createIfAbsent(file, PASSWORD, KeyStoreSecretKeyRepository.DEFAULT_TYPE)));
+            }
+
+            // 只生成一次，所有实例取得同一密钥
+            byte[] expected = futures.get(0).get().pairOf(AlgorithmMode.MODERN).getEncKey().getEncoded();
+            for (Future<KeyStoreSecretKeyRepository> future : futures) {
+                assertArrayEquals(expected, future.get().pairOf(AlgorithmMode.MODERN).getEncKey().getEncoded());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testConcurrentRotate() throws Exception {
+        Path file = folder.getRoot().toPath().resolve("concurrent.p12");
+        KeyStoreSecretKeyRepository repository = KeyStoreSecretKeyRepository.createIfAbsent(file, PASSWORD, KeyStoreSecretKeyRepository.DEFAULT_TYPE);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                futures.add(executor.submit(() -> {
+                    Map<AlgorithmMode, SecretKeyRepository.Pair> pairs = KeyStoreSecretKeyRepository.generate();
+                    pairs.keySet().retainAll(List.of(AlgorithmMode.MODERN));
+                    KeyStoreSecretKeyRepository.rotate(file, PASSWORD, KeyStoreSecretKeyRepository.DEFAULT_TYPE, pairs);
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+
+            // 每次轮换均保留上一密钥，版本号不重复
+            assertTrue(repository.reload());
+            assertEquals(8, repository.retiredPairsOf(null, AlgorithmMode.MODERN).size());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testWatchRotation() throws Exception {
+        Path file = folder.getRoot().toPath().resolve("watched.p12");
+        try (KeyStoreSecretKeyRepository repository = KeyStoreSecretKeyRepository
+                .createIfAbsent(file, PASSWORD, KeyStoreSecretKeyRepository.DEFAULT_TYPE)
+                .watch(Duration.ofMillis(100))) {
+            Map<AlgorithmMode, SecretKeyRepository.Pair> rotated = KeyStoreSecretKeyRepository.generate();
+            KeyStoreSecretKeyRepository.store(file, PASSWORD, KeyStoreSecretKeyRepository.DEFAULT_TYPE, rotated);
+
+            byte[] expected = rotated.get(AlgorithmMode.MODERN).getEncKey().getEncoded();
+            long deadline = System.currentTimeMillis() + 10_000;
+            while (!Arrays.equals(expected, repository.pairOf(AlgorithmMode.MODERN).getEncKey().getEncoded())
+                    && System.currentTimeMillis() < deadline) {
+                Thread.sleep(20);
+            }
+            assertArrayEquals(expected, repository.pairOf(AlgorithmMode.MODERN).getEncKey().getEncoded());
+            assertNull(repository.lastFailure());
+        }
+    }
+
+    @Test
+    public void testBrokenFileKeepsKeys() throws Exception {
+        Path file = folder.getRoot().toPath().resolve("broken.p12");
+        KeyStoreSecretKeyRepository repository = KeyStoreSecretKeyRepository.createIfAbsent(file, PASSWORD, KeyStoreSecretKeyRepository.DEFAULT_TYPE);
+        SecretKeyRepository.Pair pair = repository.pairOf(AlgorithmMode.MODERN);
+
+        // 写入一半的文件无法读取，保留原有密钥
+        Files.write(file, new byte[]{0x30, 0x03});
+        repository.refresh();
+        assertSame(pair, repository.pairOf(AlgorithmMode.MODERN));
+        assertNotNull(repository.lastFailure());
+
+        KeyStoreSecretKeyRepository.store(file, PASSWORD, KeyStoreSecretKeyRepository.DEFAULT_TYPE, KeyStoreSecretKeyRepository.generate());
+        repository.refresh();
+        assertNotSame(pair, repository.pairOf(AlgorithmMode.MODERN));
+        assertNull(repository.lastFailure());
+
+        assertThrows(IllegalArgumentException.class, () -> new KeyStoreSecretKeyRepository(folder.getRoot().toPath().resolve("missing.p12"), PASSWORD));
+    }
+
+    private static String encrypt(SecretKeyRepository repository, AlgorithmMode mode) {
+        return bean(repository, mode).encrypt("13800138000").withMask("138****8000");
+    }
+
+    private static EncryptionContextBean bean(SecretKeyRepository repository, AlgorithmMode mode) {
+        return EncryptionContextBean.builder()
+                .context(new EncryptionContext(AlgorithmMode.MODERN))
+                .context(new EncryptionContext(AlgorithmMode.GM))
+                .mode(mode)
+                .secretKeyRepository(repository)
+                .build();
+    }
+}
\ No newline at end of file
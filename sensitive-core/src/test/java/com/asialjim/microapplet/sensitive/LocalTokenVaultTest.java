@@ -0,0 +1,189 @@
+/*
+ *    Copyright 2014-2025 <a href="mailto:asialjim@qq.com">Asial Jim</a>
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+
+package com.asialjim.microapplet.sensitive;
+
+import com.asialjim.microapplet.sensitive.encrypt.*;
+import com.asialjim.microapplet.sensitive.token.LocalTokenVault;
+import com.asialjim.microapplet.sensitive.token.SensitiveToken;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.Assert.*;
+
+/**
+ * 令牌库测试
+ */
+public class LocalTokenVaultTest {
+
+    @Test
+    public void testStoreAndResolve() {
+        LocalTokenVault vault = new LocalTokenVault(100, Duration.ofMinutes(1));
+        byte[] data = {1, 2, 3};
+        String token = vault.store(data);
+        assertTrue(token.matches("[A-Za-z0-9_-]{16}"));
+        assertNotEquals(token, vault.store(data));
+
+        byte[] resolved = vault.resolve(token);
+        assertArrayEquals(data, resolved);
+        // 返回副本，修改不影响令牌库
+        resolved[0] = 9;
+        assertArrayEquals(data, vault.resolve(token));
+
+        assertNull(vault.resolve("unknown"));
+        vault.invalidate(token);
+        assertNull(vault.resolve(token));
+        assertEquals(1, vault.size());
+        assertEquals(2L, vault.stats().get("hits"));
+    }
+
+    @Test
+    public void testExpireAndEvict() throws Exception {
+        LocalTokenVault vault = new LocalTokenVault(10, Duration.ofMillis(50));
+        List<String> tokens = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            tokens.add(vault.store(new byte[]{(byte) i}));
+        }
+        // 超出容量淘汰最早写入的令牌
+        assertEquals(10, vault.size());
+        assertNull(vault.resolve(tokens.get(0)));
+        assertArrayEquals(new byte[]{19}, vault.resolve(tokens.get(19)));
+
+        Thread.sleep(80);
+        assertNull(vault.resolve(tokens.get(19)));
+        vault.cleanUp();
+        assertEquals(0, vault.size());
+    }
+
+    @Test
+    public void testOffHeap() {
+        // 单分片 4KB 环形区域，写入量为容量的数十倍，反复跨越区域末尾
+        LocalTokenVault vault = new LocalTokenVault(200, Duration.ofMinutes(1), 4096);
+        Map<String, byte[]> written = new LinkedHashMap<>();
+        for (int i = 0; i < 5000; i++) {
+            byte[] data = new byte[ThreadLocalRandom.current().nextInt(1, 120)];
+            ThreadLocalRandom.current().nextBytes(data);
+            written.put(vault.store(data), data);
+        }
+
+        int live = 0;
+        for (Map.Entry<String, byte[]> entry : written.entrySet()) {
+            byte[] resolved = vault.resolve(entry.getKey());
+            if (Objects.nonNull(resolved)) {
+                assertArrayEquals(entry.getValue(), resolved);
+                live++;
+            }
+        }
+        assertEquals(vault.size(), live);
+        assertTrue(live > 30);
+
+        // 最近写入的令牌总是可还原
+        List<String> tokens = new ArrayList<>(written.keySet());
+        String last = tokens.get(tokens.size() - 1);
+        assertArrayEquals(written.get(last), vault.resolve(last));
+
+        assertThrows(IllegalArgumentException.class, () -> vault.store(new byte[4097]));
+    }
+
+    @Test
+    public void testRandomOperations() {
+        for (long offHeapBytes : new long[]{0, 64 * 1024}) {
+            // 2 个分片，每个分片 500 个槽位
+            LocalTokenVault vault = new LocalTokenVault(1000, Duration.ofMinutes(1), offHeapBytes);
+            List<String> tokens = new ArrayList<>();
+            Map<String, byte[]> written = new HashMap<>();
+            Set<String> invalidated = new HashSet<>();
+            Random random = new Random(offHeapBytes);
+            for (int i = 0; i < 20_000; i++) {
+                int op = random.nextInt(10);
+                if (op < 6 || tokens.isEmpty()) {
+                    byte[] data = new byte[1 + random.nextInt(60)];
+                    random.nextBytes(data);
+                    String token = vault.store(data);
+                    tokens.add(token);
+                    written.put(token, data);
+                } else if (op < 8) {
+                    String token = tokens.get(random.nextInt(tokens.size()));
+                    vault.invalidate(token);
+                    invalidated.add(token);
+                } else {
+                    String token = tokens.get(random.nextInt(tokens.size()));
+                    byte[] resolved = vault.resolve(token);
+                    if (invalidated.contains(token))
+                        assertNull(resolved);
+                    else if (Objects.nonNull(resolved))
+                        assertArrayEquals(written.get(token), resolved);
+                }
+            }
+
+            // 最近写入且未移除的令牌总是可还原
+            for (String token : tokens.subList(tokens.size() - 200, tokens.size())) {
+                if (!invalidated.contains(token))
+                    assertArrayEquals(written.get(token), vault.resolve(token));
+            }
+            assertTrue(vault.size() <= 1000);
+        }
+    }
+
+    @Test
+    public void testTokenize() throws Exception {
+        SecretKeyRepository.Pair pair = new SecretKeyRepository.Pair().setEncKey(KeyManager.generateModernEncryptionKey());
+        EncryptionContextBean bean = EncryptionContextBean.builder()
+                .context(new EncryptionContext(AlgorithmMode.MODERN))
+                .mode(AlgorithmMode.MODERN)
+                .secretKeyRepository(new SecretKeyRepository() {
+                    @Override
+                    public Pair pairOf(AlgorithmMode mode) {
+                        return pair;
+                    }
+
+                    // 各租户共用测试密钥，仍按租户标记密文
+                    @Override
+                    public boolean tenantAware() {
+                        return true;
+                    }
+                })
+                .build();
+        EncryptionResult result = SensitiveTenant.call("tenant-a", () -> bean.encrypt("13800138000"));
+
+        assertThrows(IllegalStateException.class, () -> SensitiveToken.tokenize(result, "138****8000"));
+
+        LocalTokenVault vault = new LocalTokenVault(100, Duration.ofMinutes(1), 1024);
+        SensitiveToken.register(vault);
+        try {
+            String data = SensitiveToken.tokenize(result, "138****8000");
+            assertTrue(SensitiveToken.isTokenMaskData(data));
+            assertTrue(data.endsWith("|138****8000"));
+            assertFalse(EncryptionResult.isEncryptionMaskData(data));
+
+            // 令牌中保留租户，其他租户无法还原
+            EncryptionResult resolved = SensitiveToken.resolve(data);
+            assertEquals("tenant-a", resolved.getTenant());
+            assertEquals("13800138000", SensitiveTenant.call("tenant-a", () -> bean.decrypt(resolved)));
+            assertThrows(IllegalArgumentException.class, () -> SensitiveTenant.call("tenant-b", () -> bean.decrypt(resolved)));
+
+            assertThrows(IllegalArgumentException.class, () -> SensitiveToken.resolve("_tok|unknown|138****8000"));
+            assertFalse(SensitiveToken.isTokenMaskData("_tok|"));
+        } finally {
+            vault.close();
+        }
+        assertFalse(SensitiveToken.enabled());
+    }
+}
\ No newline at end of file
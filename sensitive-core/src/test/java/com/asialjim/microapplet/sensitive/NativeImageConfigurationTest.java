@@ -0,0 +1,127 @@
+/*
+ *    Copyright 2014-2025 <a href="mailto:asialjim@qq.com">Asial Jim</a>
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package com.asialjim.microapplet.sensitive;
+
+import com.asialjim.microapplet.sensitive.encrypt.*;
+import com.asialjim.microapplet.sensitive.handler.SensitiveHandler;
+import com.asialjim.microapplet.sensitive.handler.SensitiveType;
+import org.junit.Test;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.Assert.*;
+
+/**
+ * native-image 构建参数测试
+ */
+public class NativeImageConfigurationTest {
+    private static final String METADATA = "META-INF/native-image/com.asialjim.microapplet/sensitive-core/";
+
+    @Test
+    public void testBuiltInHandlers() {
+        // 不调用 init()，内置处理器随类初始化注册
+        for (SensitiveType type : SensitiveType.values()) {
+            assertTrue(type.name(), SensitiveHandler.holder.supports(type));
+        }
+    }
+
+    @Test
+    public void testInitializationArgs() throws Exception {
+        Properties properties = new Properties();
+        try (InputStream in = resource("native-image.properties")) {
+            properties.load(in);
+        }
+
+        String args = properties.getProperty("Args");
+        assertNotNull(args);
+        List<String> names = namesOf(args, "--initialize-at-build-time=");
+        assertFalse(names.isEmpty());
+        for (String name : names) {
+            assertTrue(name, exists(name));
+            // Bouncy Castle 与注册 Provider、创建随机数的类保持运行期初始化
+            assertFalse(name, name.startsWith("org.bouncycastle"));
+        }
+        for (Class<?> type : List.of(EncryptionStrategyFactory.class, KeyManager.class, GMEncryptionStrategy.class)) {
+            assertFalse(type.getName(), names.contains(type.getName()));
+        }
+    }
+
+    @Test
+    public void testReflectionTypes() throws Exception {
+        String config;
+        try (InputStream in = resource("reflect-config.json")) {
+            config = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+
+        Matcher matcher = Pattern.compile("\"name\"\\s*:\\s*\"([^\"<]+)\"").matcher(config);
+        int count = 0;
+        while (matcher.find()) {
+            Class.forName(matcher.group(1), false, getClass().getClassLoader()).getConstructor();
+            count++;
+        }
+        assertTrue(count > 0);
+    }
+
+    @Test
+    public void testSharedRandom() throws Exception {
+        // 共享随机数生成器在运行期创建，连续加密的随机数互不相同
+        SecretKeyRepository.Pair pair = new SecretKeyRepository.Pair().setEncKey(KeyManager.generateModernEncryptionKey());
+        EncryptionStrategy strategy = EncryptionStrategyFactory.getStrategy(AlgorithmMode.MODERN);
+        EncryptionResult first = strategy.encrypt("13800138000", pair.getEncKey(), null);
+        EncryptionResult second = strategy.encrypt("13800138000", pair.getEncKey(), null);
+        assertFalse(Arrays.equals(first.getNonce(), second.getNonce()));
+        assertSame(KeyManager.secureRandom(), KeyManager.secureRandom());
+    }
+
+    private InputStream resource(String name) {
+        InputStream in = getClass().getClassLoader().getResourceAsStream(METADATA + name);
+        assertNotNull(name, in);
+        return in;
+    }
+
+    private static List<String> namesOf(String args, String option) {
+        List<String> names = new ArrayList<>();
+        for (String arg : args.trim().split("\\s+")) {
+            if (arg.startsWith(option)) {
+                for (String name : arg.substring(option.length()).split(",")) {
+                    names.add(name.trim());
+                }
+            }
+        }
+        return names;
+    }
+
+    /**
+     * 类名或包名存在
+     */
+    private boolean exists(String name) {
+        ClassLoader classLoader = getClass().getClassLoader();
+        try {
+            Class.forName(name, false, classLoader);
+            return true;
+        } catch (ClassNotFoundException e) {
+            return classLoader.getResource(name.replace('.', '/')) != null;
+        }
+    }
+}
\ No newline at end of file
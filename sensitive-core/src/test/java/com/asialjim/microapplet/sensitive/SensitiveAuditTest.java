@@ -0,0 +1,185 @@
+/*
+ *    Copyright 2014-2025 <a href="mailto:asialjim@qq.com">Asial Jim</a>
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package com.asialjim.microapplet.sensitive;
+
+import com.asialjim.microapplet.sensitive.audit.RingBufferAuditListener;
+import com.asialjim.microapplet.sensitive.audit.RingBufferAuditListener.Backpressure;
+import com.asialjim.microapplet.sensitive.audit.SensitiveAudit;
+import com.asialjim.microapplet.sensitive.encrypt.*;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.*;
+
+/**
+ * 解密审计测试
+ */
+public class SensitiveAuditTest {
+    private static final byte[] NONCE = {1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12};
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testDecryptAudit() throws Exception {
+        SecretKeyRepository.Pair pair = new SecretKeyRepository.Pair().setEncKey(KeyManager.generateModernEncryptionKey());
+        EncryptionContextBean bean = EncryptionContextBean.builder()
+                .context(new EncryptionContext(AlgorithmMode.MODERN))
+                .mode(AlgorithmMode.MODERN)
+                .secretKeyRepository(new SecretKeyRepository() {
+                    @Override
+                    public Pair pairOf(AlgorithmMode mode) {
+                        return pair;
+                    }
+
+                    // 各租户共用测试密钥，仍按租户标记密文
+                    @Override
+                    public boolean tenantAware() {
+                        return true;
+                    }
+                })
+                .build();
+        EncryptionResult plain = bean.encrypt("13800138000");
+        EncryptionResult tenant = SensitiveTenant.call("tenant-a", () -> bean.encrypt("13800138000"));
+
+        Path file = folder.getRoot().toPath().resolve("audit/sensitive.log");
+        RingBufferAuditListener audit = new RingBufferAuditListener(file, 1024, 64, 1.0, Backpressure.BLOCK).start();
+        SensitiveAudit.register(audit);
+        try {
+            for (int i = 0; i < 1000; i++) {
+                assertEquals("13800138000", bean.decrypt(plain));
+            }
+            bean.decrypt(tenant);
+            // 篡改密文，解密失败同样记录
+            String forged = plain.toFormattedString().replaceFirst("\\|[^|]+\\|$", "|AAAAAAAAAAAAAAAAAAAAAA==|");
+            assertThrows(Exception.class, () -> bean.decrypt(forged));
+        } finally {
+            SensitiveAudit.unregister(audit);
+            audit.close();
+        }
+
+        List<String> lines = Files.readAllLines(file);
+        assertEquals(1002, lines.size());
+        String[] columns = lines.get(0).split("\t");
+        assertEquals(6, columns.length);
+        assertEquals("MODERN", columns[1]);
+        assertEquals("-", columns[2]);
+        assertEquals(16, columns[3].length());
+        assertEquals("OK", columns[4]);
+        assertEquals("tenant-a", lines.get(1000).split("\t")[2]);
+        assertEquals("FAIL", lines.get(1001).split("\t")[4]);
+        assertEquals(1002L, audit.stats().get("written"));
+
+        // 注销后不再记录
+        bean.decrypt(plain);
+        assertEquals(1002, Files.readAllLines(file).size());
+    }
+
+    @Test
+    public void testDropWhenFull() throws Exception {
+        Path file = folder.getRoot().toPath().resolve("drop.log");
+        RingBufferAuditListener audit = new RingBufferAuditListener(file, 10, 4, 1.0, Backpressure.DROP);
+        // 后台线程未启动，缓冲区（向上取整为 16）写满后丢弃
+        for (int i = 0; i < 100; i++) {
+            audit.decrypted(AlgorithmMode.GM, null, NONCE, true);
+        }
+        assertEquals(84L, audit.stats().get("dropped"));
+
+        audit.start();
+        audit.close();
+        assertEquals(16, Files.readAllLines(file).size());
+        assertTrue(Files.readAllLines(file).get(0).contains("\t0102030405060708\t"));
+    }
+
+    @Test
+    public void testBlockWithConcurrentProducers() throws Exception {
+        Path file = folder.getRoot().toPath().resolve("block.log");
+        RingBufferAuditListener audit = new RingBufferAuditListener(file, 16, 8, 1.0, Backpressure.BLOCK).start();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < 2500; i++) {
+                        audit.decrypted(AlgorithmMode.MODERN, "tenant-b", NONCE, true);
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+            audit.close();
+        }
+
+        // 缓冲区远小于事件数，等待策略下不丢失
+        assertEquals(10_000, Files.readAllLines(file).size());
+        assertEquals(0L, audit.stats().get("dropped"));
+    }
+
+    @Test
+    public void testSampling() throws Exception {
+        Path file = folder.getRoot().toPath().resolve("sample.log");
+        RingBufferAuditListener audit = new RingBufferAuditListener(file, 256, 64, 0, Backpressure.DROP).start();
+        for (int i = 0; i < 100; i++) {
+            audit.decrypted(AlgorithmMode.MODERN, null, NONCE, true);
+        }
+        audit.decrypted(AlgorithmMode.MODERN, null, NONCE, false);
+        audit.close();
+
+        // 成功的解密全部被抽样排除，失败的解密总是记录
+        List<String> lines = Files.readAllLines(file);
+        assertEquals(1, lines.size());
+        assertTrue(lines.get(0).contains("\tFAIL\t"));
+        assertEquals(100L, audit.stats().get("sampledOut"));
+
+        assertThrows(IllegalArgumentException.class, () -> new RingBufferAuditListener(file, 16, 8, 1.5, Backpressure.DROP));
+    }
+
+    @Test
+    public void testWarmUpNotAudited() throws Exception {
+        SecretKeyRepository.Pair pair = new SecretKeyRepository.Pair().setEncKey(KeyManager.generateModernEncryptionKey());
+        EncryptionContextBean bean = new EncryptionContextBean(List.of(new EncryptionContext(AlgorithmMode.MODERN)),
+                () -> AlgorithmMode.MODERN, mode -> pair);
+
+        Path file = folder.getRoot().toPath().resolve("warm-up.log");
+        RingBufferAuditListener audit = new RingBufferAuditListener(file, 256, 64, 1.0, Backpressure.BLOCK).start();
+        SensitiveAudit.register(audit);
+        try {
+            SensitiveWarmUp.warmUp(bean, 100);
+            // 预热结束后的解密照常记录
+            bean.decrypt(bean.encrypt("13800138000"));
+        } finally {
+            SensitiveAudit.unregister(audit);
+            audit.close();
+        }
+
+        List<String> lines = Files.readAllLines(file);
+        assertEquals(1, lines.size());
+        assertEquals(1L, audit.stats().get("written"));
+    }
+}
\ No newline at end of file
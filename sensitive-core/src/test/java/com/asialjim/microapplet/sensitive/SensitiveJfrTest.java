@@ -0,0 +1,152 @@
+/*
+ *    Copyright 2014-2025 <a href="mailto:asialjim@qq.com">Asial Jim</a>
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+
+package com.asialjim.microapplet.sensitive;
+
+import com.asialjim.microapplet.sensitive.encrypt.*;
+import com.asialjim.microapplet.sensitive.handler.SensitiveHandler;
+import com.asialjim.microapplet.sensitive.handler.SensitiveType;
+import com.asialjim.microapplet.sensitive.jfr.*;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.*;
+
+/**
+ * JFR 事件测试
+ */
+public class SensitiveJfrTest {
+    private static final String SOURCE = "13800138000";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testEventsRecorded() throws Exception {
+        SecretKeyRepository.Pair pair = new SecretKeyRepository.Pair().setEncKey(KeyManager.generateModernEncryptionKey());
+        EncryptionContextBean bean = EncryptionContextBean.builder()
+                .context(new EncryptionContext(AlgorithmMode.MODERN))
+                .mode(AlgorithmMode.MODERN)
+                .secretKeyRepository(new SecretKeyRepository() {
+                    @Override
+                    public Pair pairOf(AlgorithmMode mode) {
+                        return pair;
+                    }
+
+                    // 各租户共用测试密钥，仍按租户标记密文
+                    @Override
+                    public boolean tenantAware() {
+                        return true;
+                    }
+                })
+                .build();
+
+        Path file = folder.getRoot().toPath().resolve("sensitive.jfr");
+        String mask;
+        try (Recording recording = new Recording()) {
+            for (String name : List.of(MaskEvent.NAME, EncryptEvent.NAME, DecryptEvent.NAME, KeyLookupEvent.NAME, EnvelopeParseEvent.NAME)) {
+                recording.enable(name).withoutThreshold();
+            }
+            recording.start();
+
+            mask = SensitiveHandler.mask(SensitiveType.Customer, SOURCE, 3, 4, "", false, null);
+            String formatted = SensitiveTenant.call("tenant-a", () -> bean.encrypt(SOURCE).withMask("***"));
+            bean.encryptAll(List.of(SOURCE, SOURCE));
+            assertEquals(SOURCE, SensitiveTenant.call("tenant-a", () -> bean.decrypt(formatted)));
+            assertThrows(IllegalArgumentException.class, () -> EncryptionResult.fromBinary(new byte[]{9}));
+
+            recording.stop();
+            recording.dump(file);
+        }
+
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file).stream()
+                .filter(event -> event.getEventType().getName().startsWith("com.asialjim.microapplet.sensitive."))
+                .collect(Collectors.toList());
+
+        RecordedEvent masked = only(events, MaskEvent.NAME);
+        assertEquals("Customer", masked.getString("sensitiveType"));
+
+        List<RecordedEvent> encrypts = of(events, EncryptEvent.NAME);
+        assertEquals(2, encrypts.size());
+        assertEquals("MODERN", encrypts.get(0).getString("mode"));
+        assertEquals(1, encrypts.get(0).getInt("count"));
+        assertEquals(2, encrypts.get(1).getInt("count"));
+
+        RecordedEvent decrypted = only(events, DecryptEvent.NAME);
+        assertEquals("MODERN", decrypted.getString("mode"));
+        assertTrue(decrypted.getBoolean("success"));
+
+        List<RecordedEvent> lookups = of(events, KeyLookupEvent.NAME);
+        assertEquals(3, lookups.size());
+        assertEquals("tenant-a", lookups.get(0).getString("tenant"));
+        assertNull(lookups.get(1).getString("tenant"));
+        assertTrue(lookups.get(2).getBoolean("found"));
+
+        List<RecordedEvent> parses = of(events, EnvelopeParseEvent.NAME);
+        assertEquals(2, parses.size());
+        assertEquals(EnvelopeParseEvent.FORMATTED, parses.get(0).getString("format"));
+        assertTrue(parses.get(0).getBoolean("success"));
+        assertEquals(EnvelopeParseEvent.BINARY, parses.get(1).getString("format"));
+        assertFalse(parses.get(1).getBoolean("success"));
+        assertNull(parses.get(1).getString("mode"));
+
+        // 事件中不含原数据与脱敏数据
+        for (RecordedEvent event : events) {
+            assertFalse(event.toString().contains(SOURCE));
+            assertFalse(event.toString().contains(mask));
+        }
+    }
+
+    @Test
+    public void testDisabledEventsNotRecorded() throws Exception {
+        Path file = folder.getRoot().toPath().resolve("disabled.jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable(EncryptEvent.NAME).withoutThreshold();
+            recording.disable(MaskEvent.NAME);
+            recording.start();
+
+            SensitiveHandler.mask(SensitiveType.Customer, SOURCE, 3, 4, "", false, null);
+
+            recording.stop();
+            recording.dump(file);
+        }
+
+        assertTrue(RecordingFile.readAllEvents(file).stream()
+                .noneMatch(event -> MaskEvent.NAME.equals(event.getEventType().getName())));
+    }
+
+    private static RecordedEvent only(List<RecordedEvent> events, String name) {
+        List<RecordedEvent> matched = of(events, name);
+        assertEquals(name, 1, matched.size());
+        return matched.get(0);
+    }
+
+    private static List<RecordedEvent> of(List<RecordedEvent> events, String name) {
+        return events.stream()
+                .filter(event -> name.equals(event.getEventType().getName()))
+                .sorted((a, b) -> a.getStartTime().compareTo(b.getStartTime()))
+                .collect(Collectors.toList());
+    }
+}
\ No newline at end of file
@@ -0,0 +1,121 @@
+/*
+ *    Copyright 2014-2025 <a href="mailto:asialjim@qq.com">Asial Jim</a>
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+
+package com.asialjim.microapplet.sensitive;
+
+import com.asialjim.microapplet.sensitive.encrypt.*;
+import com.asialjim.microapplet.sensitive.handler.*;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * 敏感数据运行指标测试
+ */
+@SuppressWarnings("unchecked")
+public class SensitiveMetricsTest {
+    private final AtomicInteger loads = new AtomicInteger();
+    private CachingSecretKeyRepository repository;
+    private EncryptionContextBean bean;
+
+    @Before
+    public void before() throws Exception {
+        new ChineseMobilePhoneSensitiveHandler().init();
+        SensitiveMetrics.reset();
+
+        SecretKeyRepository.Pair pair = new SecretKeyRepository.Pair()
+                .setEncKey(KeyManager.generateGMEncryptionKey())
+                .setMacKey(KeyManager.generateGMMacKey());
+        repository = new CachingSecretKeyRepository(mode -> {
+            loads.incrementAndGet();
+            return pair;
+        });
+        bean = new EncryptionContextBean(Collections.singletonList(new EncryptionContext(AlgorithmMode.GM)), () -> AlgorithmMode.GM, repository);
+    }
+
+    @Test
+    public void testCounters() {
+        SensitiveHandler.mask(SensitiveType.ChineseMobilePhone, "13800138000");
+        for (int i = 0; i < 64; i++) {
+            bean.decrypt(bean.encrypt("13800138000").withMask("138****8000"));
+        }
+        bean.encryptAll(List.of("13800138000", "13900139000"));
+
+        String tampered = bean.encrypt("13800138000").withMask("138****8000");
+        String[] parts = tampered.split("\\|");
+        parts[4] = parts[4].charAt(0) == 'A' ? 'B' + parts[4].substring(1) : 'A' + parts[4].substring(1);
+        assertThrows(SecurityException.class, () -> bean.decrypt(String.join("|", parts)));
+
+        Map<String, Object> snapshot = SensitiveMetrics.snapshot();
+        assertEquals(1L, ((Map<SensitiveType, Long>) snapshot.get("masks")).get(SensitiveType.ChineseMobilePhone).longValue());
+
+        Map<String, Long> gm = ((Map<AlgorithmMode, Map<String, Long>>) snapshot.get("modes")).get(AlgorithmMode.GM);
+        assertEquals(67L, gm.get("encrypt").longValue());
+        assertEquals(64L, gm.get("decrypt").longValue());
+        assertEquals(1L, gm.get("decryptFailures").longValue());
+        assertEquals(1L, gm.get("macFailures").longValue());
+
+        Map<String, Object> latency = (Map<String, Object>) ((Map<String, Object>) snapshot.get("latency")).get("decrypt");
+        long samples = (Long) latency.get("samples");
+        assertTrue(samples <= 64);
+        if (samples > 0)
+            assertTrue((Double) latency.get("p99Micros") >= (Double) latency.get("p50Micros"));
+    }
+
+    @Test
+    public void testWarmUpExcluded() {
+        SensitiveWarmUp.warmUp(bean, 100);
+        assertFalse(SensitiveWarmUp.warming());
+
+        Map<String, Object> snapshot = SensitiveMetrics.snapshot();
+        assertEquals(0L, ((Map<SensitiveType, Long>) snapshot.get("masks")).get(SensitiveType.ChineseMobilePhone).longValue());
+        Map<String, Long> gm = ((Map<AlgorithmMode, Map<String, Long>>) snapshot.get("modes")).get(AlgorithmMode.GM);
+        assertEquals(0L, gm.get("encrypt").longValue());
+        assertEquals(0L, gm.get("decrypt").longValue());
+        Map<String, Object> latency = (Map<String, Object>) ((Map<String, Object>) snapshot.get("latency")).get("decrypt");
+        assertEquals(0L, latency.get("samples"));
+
+        // 预热结束后恢复计数
+        bean.decrypt(bean.encrypt("13800138000").withMask("138****8000"));
+        gm = ((Map<AlgorithmMode, Map<String, Long>>) SensitiveMetrics.snapshot().get("modes")).get(AlgorithmMode.GM);
+        assertEquals(1L, gm.get("encrypt").longValue());
+        assertEquals(1L, gm.get("decrypt").longValue());
+    }
+
+    @Test
+    public void testKeyCache() {
+        bean.encrypt("13800138000");
+        bean.encrypt("13800138000");
+        assertEquals(1, loads.get());
+
+        Map<String, Object> stats = repository.stats();
+        assertEquals(1L, stats.get("hits"));
+        assertEquals(1L, stats.get("misses"));
+        assertTrue(((Map<AlgorithmMode, Long>) stats.get("ageSeconds")).containsKey(AlgorithmMode.GM));
+
+        bean.refreshKeys();
+        assertTrue(repository.ages().isEmpty());
+        bean.encrypt("13800138000");
+        assertEquals(2, loads.get());
+    }
+}
\ No newline at end of file
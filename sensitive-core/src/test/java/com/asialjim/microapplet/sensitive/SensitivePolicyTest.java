@@ -0,0 +1,77 @@
+/*
+ *    Copyright 2014-2025 <a href="mailto:asialjim@qq.com">Asial Jim</a>
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+
+package com.asialjim.microapplet.sensitive;
+
+import com.asialjim.microapplet.sensitive.encrypt.AlgorithmMode;
+import com.asialjim.microapplet.sensitive.encrypt.AlgorithmModeConfig;
+import com.asialjim.microapplet.sensitive.handler.*;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * 敏感数据处理策略测试
+ */
+public class SensitivePolicyTest {
+
+    @Before
+    public void before() {
+        new BankCardSensitiveHandler().init();
+        new ChineseMobilePhoneSensitiveHandler().init();
+    }
+
+    @After
+    public void after() {
+        SensitivePolicy.reset();
+    }
+
+    @Test
+    public void testDefaults() {
+        SensitivePolicy policy = SensitivePolicy.current();
+        assertEquals(AlgorithmMode.MODERN, policy.mode());
+        assertEquals(SensitiveType.ChineseMobilePhone.getPrefix(), policy.rule(SensitiveType.ChineseMobilePhone).prefix());
+        assertEquals(SensitiveType.BankCard.getRegex(), policy.rule(SensitiveType.BankCard).regex());
+        assertEquals("138****8000", SensitiveHandler.mask(SensitiveType.ChineseMobilePhone, "13800138000"));
+    }
+
+    @Test
+    public void testUpdate() {
+        AlgorithmModeConfig config = SensitivePolicy.modeConfig();
+        SensitivePolicy.update(SensitivePolicy.current()
+                .withMode(AlgorithmMode.GM)
+                .withRule(SensitiveType.ChineseMobilePhone, 3, 2, null)
+                .withRule(SensitiveType.BankCard, 4, 4, "^\\d{16}$"));
+
+        assertEquals(AlgorithmMode.GM, config.currentMode());
+        assertEquals("138******00", SensitiveHandler.mask(SensitiveType.ChineseMobilePhone, "13800138000"));
+        assertEquals("6222********0123", SensitiveHandler.mask(SensitiveType.BankCard, "6222021234560123"));
+        assertThrows(IllegalArgumentException.class, () -> SensitiveHandler.mask(SensitiveType.BankCard, "6222021234567890123"));
+    }
+
+    @Test
+    public void testInvalidRuleKeepsCurrent() {
+        SensitivePolicy current = SensitivePolicy.current();
+        assertThrows(IllegalArgumentException.class, () -> SensitivePolicy.update(current.withRule(SensitiveType.BankCard, 4, 4, "[")));
+        assertThrows(IllegalArgumentException.class, () -> SensitivePolicy.update(current.withRule(SensitiveType.BankCard, -1, 4, null)));
+        assertThrows(IllegalArgumentException.class, () -> SensitivePolicy.update(current.withMode(AlgorithmMode.FPE)));
+        assertThrows(IllegalArgumentException.class, () -> SensitivePolicy.defaults(AlgorithmMode.FPE));
+        assertSame(current, SensitivePolicy.current());
+    }
+}
\ No newline at end of file
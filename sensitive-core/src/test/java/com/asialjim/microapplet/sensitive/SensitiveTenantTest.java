@@ -0,0 +1,201 @@
+/*
+ *    Copyright 2014-2025 <a href="mailto:asialjim@qq.com">Asial Jim</a>
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package com.asialjim.microapplet.sensitive;
+
+import com.asialjim.microapplet.sensitive.encrypt.*;
+import lombok.SneakyThrows;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * 多租户密钥隔离测试
+ */
+public class SensitiveTenantTest {
+    private final TenantRepository repository = new TenantRepository();
+    private EncryptionContextBean bean;
+
+    @Before
+    public void setUp() {
+        bean = EncryptionContextBean.builder()
+                .context(new EncryptionContext(AlgorithmMode.MODERN))
+                .context(new EncryptionContext(AlgorithmMode.GM))
+                .mode(AlgorithmMode.MODERN)
+                .secretKeyRepository(repository)
+                .build();
+    }
+
+    @Test
+    public void testEnvelope() throws Exception {
+        String formatted = SensitiveTenant.call("tenant-a", () -> bean.encrypt("13800138000").withMask("138****8000"));
+        assertTrue(formatted.startsWith("_mask|MODERN@tenant-a|"));
+        assertTrue(formatted.endsWith("|138****8000"));
+
+        EncryptionResult result = EncryptionResult.fromFormattedString(formatted);
+        assertEquals("tenant-a", result.getTenant());
+        assertEquals(AlgorithmMode.MODERN, result.getAlgorithmMode());
+        assertEquals("tenant-a", EncryptionResult.fromBinary(result.toBinary()).getTenant());
+
+        // 平台任务未设置租户，按密文中的租户解密
+        assertNull(SensitiveTenant.current());
+        assertEquals("13800138000", bean.decrypt(formatted));
+
+        // 未设置租户的数据不带租户标记，使用平台默认密钥
+        assertTrue(bean.encrypt("13800138000").toFormattedString().startsWith("_mask|MODERN|"));
+
+        String gm = SensitiveTenant.call("tenant-a", () -> bean.encrypt(AlgorithmMode.GM, "13800138000").toFormattedString());
+        assertTrue(EncryptionStrategyFactory.getStrategyForData(gm) instanceof GMEncryptionStrategy);
+        assertEquals("13800138000", bean.decrypt(gm));
+    }
+
+    @Test
+    public void testIsolation() throws Exception {
+        String formatted = SensitiveTenant.call("tenant-a", () -> bean.encrypt("13800138000").toFormattedString());
+        assertEquals("13800138000", SensitiveTenant.call("tenant-a", () -> bean.decrypt(formatted)));
+
+        // 其他租户不能解密
+        SensitiveTenant.run("tenant-b", () -> assertThrows(IllegalArgumentException.class, () -> bean.decrypt(formatted)));
+
+        // 篡改租户标记后使用其他租户的密钥，校验失败
+        String forged = formatted.replace("MODERN@tenant-a", "MODERN@tenant-b");
+        assertThrows(Exception.class, () -> bean.decrypt(forged));
+
+        // 删除租户标记后，当前租户不能解密未标记租户的数据
+        String stripped = formatted.replace("MODERN@tenant-a", "MODERN");
+        SensitiveTenant.run("tenant-b", () -> assertThrows(IllegalArgumentException.class, () -> bean.decrypt(stripped)));
+        SensitiveTenant.run("tenant-a", () -> assertThrows(IllegalArgumentException.class, () -> bean.decrypt(stripped)));
+
+        List<EncryptionResult> results = SensitiveTenant.call("tenant-b", () -> bean.encryptAll(Arrays.asList("a", "b")));
+        assertEquals("tenant-b", results.get(1).getTenant());
+        assertEquals("b", bean.decrypt(results.get(1)));
+        assertNull(SensitiveTenant.current());
+    }
+
+    @Test
+    public void testSharedRepository() throws Exception {
+        SecretKeyRepository.Pair pair = new SecretKeyRepository.Pair().setEncKey(KeyManager.generateModernEncryptionKey());
+        EncryptionContextBean shared = EncryptionContextBean.builder()
+                .context(new EncryptionContext(AlgorithmMode.MODERN))
+                .mode(AlgorithmMode.MODERN)
+                .secretKeyRepository(mode -> pair)
+                .build();
+
+        // 所有租户共用密钥时不标记租户，也不提供租户隔离
+        String formatted = SensitiveTenant.call("tenant-a", () -> shared.encrypt("13800138000").toFormattedString());
+        assertTrue(formatted.startsWith("_mask|MODERN|"));
+        assertEquals(1, SensitiveTenant.call("tenant-a", () -> shared.encryptAll(List.of("13800138000"))).stream()
+                .filter(result -> result.getTenant() == null).count());
+        assertEquals("13800138000", SensitiveTenant.call("tenant-b", () -> shared.decrypt(formatted)));
+    }
+
+    @Test
+    public void testScope() {
+        try (SensitiveTenant.Scope ignored = SensitiveTenant.open("outer")) {
+            try (SensitiveTenant.Scope inner = SensitiveTenant.open("inner")) {
+                assertEquals("inner", SensitiveTenant.current());
+            }
+            assertEquals("outer", SensitiveTenant.current());
+        }
+        assertNull(SensitiveTenant.current());
+
+        assertThrows(IllegalArgumentException.class, () -> SensitiveTenant.open("a|b"));
+        assertThrows(IllegalArgumentException.class, () -> SensitiveTenant.open("a@b"));
+        assertThrows(IllegalArgumentException.class, () -> EncryptionResult.fromFormattedString("_mask|MODERN@a b|AA==|AA==|AA==|"));
+    }
+
+    @Test
+    public void testBoundedCache() throws Exception {
+        TenantCachingSecretKeyRepository cache = new TenantCachingSecretKeyRepository(repository, 256, Duration.ofHours(1));
+        SecretKeyRepository.Pair hot = cache.pairOf("tenant-0", AlgorithmMode.MODERN);
+        for (int i = 1; i < 10_000; i++) {
+            cache.pairOf("tenant-" + i, AlgorithmMode.MODERN);
+            // 持续访问的租户不会被淘汰
+            assertSame(hot, cache.pairOf("tenant-0", AlgorithmMode.MODERN));
+        }
+
+        assertTrue(cache.size() <= 256);
+        assertEquals(1, repository.loads("tenant-0"));
+        assertTrue(cache.tenantAware());
+        assertFalse(new TenantCachingSecretKeyRepository(mode -> null, 256, Duration.ofHours(1)).tenantAware());
+        assertTrue((Long) cache.stats().get("evictions") >= 10_000 - 256);
+
+        cache.invalidate("tenant-0");
+        cache.pairOf("tenant-0", AlgorithmMode.MODERN);
+        assertEquals(2, repository.loads("tenant-0"));
+    }
+
+    @Test
+    public void testIdleExpiry() throws Exception {
+        TenantCachingSecretKeyRepository cache = new TenantCachingSecretKeyRepository(repository, 1024, Duration.ofMillis(50));
+        for (int i = 0; i < 100; i++) {
+            cache.pairOf("idle-" + i, AlgorithmMode.GM);
+        }
+        assertEquals(100, cache.size());
+
+        Thread.sleep(100);
+        cache.cleanUp();
+        assertEquals(0, cache.size());
+
+        cache.pairOf("idle-0", AlgorithmMode.GM);
+        assertEquals(2, repository.loads("idle-0"));
+        assertThrows(IllegalArgumentException.class, () -> new TenantCachingSecretKeyRepository(repository, 0, Duration.ofHours(1)));
+    }
+
+    /**
+     * 每个租户独立生成密钥，并记录加载次数
+     */
+    private static class TenantRepository implements SecretKeyRepository {
+        private final Map<String, Map<AlgorithmMode, Pair>> pairs = new ConcurrentHashMap<>();
+        private final Map<String, AtomicInteger> loads = new ConcurrentHashMap<>();
+
+        @Override
+        public Pair pairOf(AlgorithmMode mode) {
+            return pairOf("", mode);
+        }
+
+        @Override
+        public boolean tenantAware() {
+            return true;
+        }
+
+        @Override
+        public Pair pairOf(String tenant, AlgorithmMode mode) {
+            String key = String.valueOf(tenant);
+            loads.computeIfAbsent(key, k -> new AtomicInteger()).incrementAndGet();
+            return pairs.computeIfAbsent(key, k -> new ConcurrentHashMap<>()).computeIfAbsent(mode, TenantRepository::generate);
+        }
+
+        int loads(String tenant) {
+            return loads.getOrDefault(tenant, new AtomicInteger()).get();
+        }
+
+        @SneakyThrows
+        private static Pair generate(AlgorithmMode mode) {
+            return mode == AlgorithmMode.GM
+                    ? new Pair().setEncKey(KeyManager.generateGMEncryptionKey()).setMacKey(KeyManager.generateGMMacKey())
+                    : new Pair().setEncKey(KeyManager.generateModernEncryptionKey());
+        }
+    }
+}
\ No newline at end of file
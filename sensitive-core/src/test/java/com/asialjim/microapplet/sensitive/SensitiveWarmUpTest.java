@@ -0,0 +1,87 @@
+/*
+ *    Copyright 2014-2025 <a href="mailto:asialjim@qq.com">Asial Jim</a>
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package com.asialjim.microapplet.sensitive;
+
+import com.asialjim.microapplet.sensitive.encrypt.*;
+import com.asialjim.microapplet.sensitive.handler.*;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.Assert.*;
+
+/**
+ * 敏感数据组件预热测试
+ */
+public class SensitiveWarmUpTest {
+    private EncryptionContextBean bean;
+
+    @Before
+    public void before() {
+        new BankCardSensitiveHandler().init();
+        new ChineseCitizenIdCardSensitiveHandler().init();
+        new ChineseMobilePhoneSensitiveHandler().init();
+        new ChineseNameSensitiveHandler().init();
+        new ChineseTellPhoneSensitiveHandler().init();
+        new CustomerSensitiveHandler().init();
+        new EMailSensitiveHandler().init();
+        new EnglishNameSensitiveHandler().init();
+
+        Map<AlgorithmMode, SecretKeyRepository.Pair> pairs = new ConcurrentHashMap<>();
+        SecretKeyRepository repository = mode -> pairs.computeIfAbsent(mode, key -> {
+            SecretKeyRepository.Pair pair = new SecretKeyRepository.Pair();
+            try {
+                switch (key) {
+                    case MODERN -> pair.setEncKey(KeyManager.generateModernEncryptionKey());
+                    case GM -> {
+                        pair.setEncKey(KeyManager.generateGMEncryptionKey());
+                        pair.setMacKey(KeyManager.generateGMMacKey());
+                    }
+                    case FPE -> pair.setEncKey(KeyManager.generateFpeKey());
+                }
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+            return pair;
+        });
+
+        List<EncryptionContext> contexts = List.of(new EncryptionContext(AlgorithmMode.MODERN), new EncryptionContext(AlgorithmMode.GM),
+                new EncryptionContext(AlgorithmMode.FPE));
+        bean = new EncryptionContextBean(contexts, () -> AlgorithmMode.MODERN, repository);
+    }
+
+    @Test
+    public void testPreload() {
+        assertEquals(EnumSet.allOf(AlgorithmMode.class), bean.preload());
+    }
+
+    @Test
+    public void testWarmUp() {
+        Duration duration = SensitiveWarmUp.warmUp(bean, 100);
+        System.out.println("[INFO] 预热耗时: " + duration.toMillis() + " ms");
+        assertTrue(duration.toNanos() > 0);
+
+        // 预热后可按密文自身的算法模式解密
+        EncryptionResult gm = bean.encrypt(AlgorithmMode.GM, "13800138000");
+        assertEquals("13800138000", bean.decrypt(gm.withMask("138****8000")));
+    }
+}
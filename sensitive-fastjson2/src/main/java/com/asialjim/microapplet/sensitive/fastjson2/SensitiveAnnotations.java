@@ -0,0 +1,75 @@
+/*
+ *    Copyright 2014-2025 <a href="mailto:asialjim@qq.com">Asial Jim</a>
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package com.asialjim.microapplet.sensitive.fastjson2;
+
+import com.asialjim.microapplet.sensitive.annotation.Sensitive;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.Objects;
+
+/**
+ * 查找属性上的 {@link Sensitive} 注解：依次检查访问器、字段与同名声明字段
+ *
+ * @author <a href="mailto:asialjim@hotmail.com">Asial Jim</a>
+ * @version 1.0
+ * @since 2026/10/19, &nbsp;&nbsp; <em>version:1.0</em>
+ */
+final class SensitiveAnnotations {
+    private static final ClassValue<Boolean> PRESENT = new ClassValue<>() {
+        @Override
+        protected Boolean computeValue(Class<?> type) {
+            for (Class<?> current = type; Objects.nonNull(current) && current != Object.class; current = current.getSuperclass()) {
+                for (Field field : current.getDeclaredFields()) {
+                    if (field.isAnnotationPresent(Sensitive.class))
+                        return true;
+                }
+                for (Method method : current.getDeclaredMethods()) {
+                    if (method.isAnnotationPresent(Sensitive.class))
+                        return true;
+                }
+            }
+            return false;
+        }
+    };
+
+    private SensitiveAnnotations() {
+    }
+
+    /**
+     * 类型（含父类）是否声明了敏感属性
+     */
+    static boolean present(Class<?> type) {
+        return !type.isPrimitive() && !type.isArray() && !type.getName().startsWith("java.") && PRESENT.get(type);
+    }
+
+    static Sensitive find(Class<?> type, String name, Field field, Method method) {
+        if (Objects.nonNull(method) && method.isAnnotationPresent(Sensitive.class))
+            return method.getAnnotation(Sensitive.class);
+
+        if (Objects.nonNull(field))
+            return field.getAnnotation(Sensitive.class);
+
+        for (Class<?> current = type; Objects.nonNull(current) && current != Object.class; current = current.getSuperclass()) {
+            try {
+                return current.getDeclaredField(name).getAnnotation(Sensitive.class);
+            } catch (NoSuchFieldException ignored) {
+                // 继续查找父类
+            }
+        }
+        return null;
+    }
+}
\ No newline at end of file
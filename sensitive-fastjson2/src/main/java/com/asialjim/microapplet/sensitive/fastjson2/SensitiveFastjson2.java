@@ -0,0 +1,45 @@
+/*
+ *    Copyright 2014-2025 <a href="mailto:asialjim@qq.com">Asial Jim</a>
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package com.asialjim.microapplet.sensitive.fastjson2;
+
+import com.alibaba.fastjson2.JSON;
+
+/**
+ * Fastjson2 敏感数据支持入口，注册后 {@link JSON#toJSONString(Object)} / {@link JSON#parseObject(String, Class)}
+ * 按 {@link com.asialjim.microapplet.sensitive.annotation.Sensitive} 注解处理敏感属性，数据格式与 Jackson 模块互通
+ *
+ * @author <a href="mailto:asialjim@hotmail.com">Asial Jim</a>
+ * @version 1.0
+ * @since 2026/10/19, &nbsp;&nbsp; <em>version:1.0</em>
+ */
+public final class SensitiveFastjson2 {
+    private static volatile boolean registered;
+
+    private SensitiveFastjson2() {
+    }
+
+    /**
+     * 向 Fastjson2 全局注册序列化与反序列化模块，重复调用无副作用；需在首次序列化相关类型之前调用
+     */
+    public static synchronized void register() {
+        if (registered)
+            return;
+
+        JSON.register(new SensitiveObjectWriterModule());
+        JSON.register(new SensitiveObjectReaderModule());
+        registered = true;
+    }
+}
\ No newline at end of file
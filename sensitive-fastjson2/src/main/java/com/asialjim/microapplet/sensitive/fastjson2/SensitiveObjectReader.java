@@ -0,0 +1,125 @@
+/*
+ *    Copyright 2014-2025 <a href="mailto:asialjim@qq.com">Asial Jim</a>
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package com.asialjim.microapplet.sensitive.fastjson2;
+
+import com.alibaba.fastjson2.JSONArray;
+import com.alibaba.fastjson2.JSONObject;
+import com.alibaba.fastjson2.JSONReader;
+import com.alibaba.fastjson2.reader.ObjectReader;
+import com.alibaba.fastjson2.util.TypeUtils;
+import com.asialjim.microapplet.sensitive.jackson.SensitivePlan;
+import org.apache.commons.lang3.StringUtils;
+
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Fastjson2 敏感属性反序列化：标准脱敏数据结构解密，原数据需满足校验规则，再转换为属性类型
+ * <p>
+ * 与 {@link com.asialjim.microapplet.sensitive.jackson.SensitiveDeserializer} 相同，数组、集合与 {@link Map} 的值逐个还原，
+ * {@link Optional} 解包后还原
+ *
+ * @author <a href="mailto:asialjim@hotmail.com">Asial Jim</a>
+ * @version 1.0
+ * @since 2026/10/19, &nbsp;&nbsp; <em>version:1.0</em>
+ */
+public class SensitiveObjectReader implements ObjectReader<Object> {
+    private final SensitivePlan plan;
+    private final Class<?> fieldClass;
+    private final Type fieldType;
+
+    public SensitiveObjectReader(SensitivePlan plan, Class<?> fieldClass) {
+        this(plan, fieldClass, fieldClass);
+    }
+
+    public SensitiveObjectReader(SensitivePlan plan, Class<?> fieldClass, Type fieldType) {
+        this.plan = plan;
+        this.fieldClass = fieldClass;
+        this.fieldType = Objects.isNull(fieldType) ? fieldClass : fieldType;
+    }
+
+    @Override
+    public Object readObject(JSONReader jsonReader, Type fieldType, Object fieldName, long features) {
+        if (jsonReader.nextIfNull())
+            return Optional.class.equals(fieldClass) ? Optional.empty() : null;
+
+        if (scalar(fieldClass)) {
+            String value = jsonReader.readString();
+            if (StringUtils.isBlank(value))
+                return String.class.equals(fieldClass) ? value : null;
+
+            String resolved = plan.resolve(value);
+            if (String.class.equals(fieldClass))
+                return resolved;
+            return TypeUtils.cast(resolved, fieldClass);
+        }
+
+        return convert(resolve(jsonReader.readAny()), this.fieldType);
+    }
+
+    private static boolean scalar(Class<?> type) {
+        return !Optional.class.equals(type)
+                && !Collection.class.isAssignableFrom(type)
+                && !Map.class.isAssignableFrom(type)
+                && !type.isArray();
+    }
+
+    private Object resolve(Object value) {
+        if (value instanceof Map<?, ?> map) {
+            JSONObject object = new JSONObject(map.size());
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                object.put(String.valueOf(entry.getKey()), resolve(entry.getValue()));
+            }
+            return object;
+        }
+
+        if (value instanceof Collection<?> collection) {
+            JSONArray array = new JSONArray(collection.size());
+            for (Object item : collection) {
+                array.add(resolve(item));
+            }
+            return array;
+        }
+
+        if (value instanceof String || value instanceof Number) {
+            String text = value instanceof BigDecimal decimal ? decimal.toPlainString() : String.valueOf(value);
+            return StringUtils.isBlank(text) ? text : plan.resolve(text);
+        }
+        return value;
+    }
+
+    private static Object convert(Object value, Type type) {
+        if (type instanceof ParameterizedType parameterized && Optional.class.equals(parameterized.getRawType()))
+            return Optional.ofNullable(convert(value, parameterized.getActualTypeArguments()[0]));
+
+        if (Optional.class.equals(type))
+            return Optional.ofNullable(value);
+
+        if (Objects.isNull(value))
+            return null;
+
+        if (value instanceof JSONArray array)
+            return array.to(type);
+        if (value instanceof JSONObject object)
+            return object.to(type);
+        return TypeUtils.cast(value, type);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,80 @@
+/*
+ *    Copyright 2014-2025 <a href="mailto:asialjim@qq.com">Asial Jim</a>
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package com.asialjim.microapplet.sensitive.fastjson2;
+
+import com.alibaba.fastjson2.modules.ObjectReaderModule;
+import com.alibaba.fastjson2.reader.FieldReader;
+import com.alibaba.fastjson2.reader.ObjectReader;
+import com.alibaba.fastjson2.reader.ObjectReaderCreator;
+import com.alibaba.fastjson2.reader.ObjectReaderProvider;
+import com.asialjim.microapplet.sensitive.annotation.Sensitive;
+import com.asialjim.microapplet.sensitive.jackson.SensitivePlan;
+
+import java.lang.reflect.Type;
+import java.util.Objects;
+
+/**
+ * Fastjson2 反序列化模块：含 {@link Sensitive} 属性的类型，将对应属性的读取器替换为 {@link SensitiveObjectReader}
+ * <p>
+ * 仅支持通过无参构造器创建的类型，record 等构造器注入的类型仍由 Fastjson2 默认处理
+ *
+ * @author <a href="mailto:asialjim@hotmail.com">Asial Jim</a>
+ * @version 1.0
+ * @since 2026/10/19, &nbsp;&nbsp; <em>version:1.0</em>
+ */
+public class SensitiveObjectReaderModule implements ObjectReaderModule {
+    private ObjectReaderProvider provider;
+
+    @Override
+    public void init(ObjectReaderProvider provider) {
+        this.provider = provider;
+    }
+
+    @Override
+    public ObjectReaderProvider getProvider() {
+        return provider;
+    }
+
+    @Override
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    public ObjectReader getObjectReader(ObjectReaderProvider provider, Type type) {
+        if (!(type instanceof Class<?> objectClass) || !SensitiveAnnotations.present(objectClass) || objectClass.isRecord())
+            return null;
+
+        ObjectReaderCreator creator = provider.getCreator();
+        FieldReader[] readers = creator.createFieldReaders(objectClass);
+        boolean replaced = false;
+        for (int i = 0; i < readers.length; i++) {
+            FieldReader reader = readers[i];
+            Sensitive sensitive = SensitiveAnnotations.find(objectClass, reader.fieldName, reader.field, reader.method);
+            if (Objects.isNull(sensitive))
+                continue;
+
+            SensitiveObjectReader sensitiveReader = new SensitiveObjectReader(SensitivePlan.of(sensitive), reader.fieldClass, reader.fieldType);
+            if (Objects.nonNull(reader.method))
+                readers[i] = creator.createFieldReader(objectClass, objectClass, reader.fieldName, reader.fieldType, reader.fieldClass,
+                        reader.ordinal, reader.features, reader.format, reader.locale, reader.defaultValue, reader.schema,
+                        reader.method, null, sensitiveReader);
+            else if (Objects.nonNull(reader.field))
+                readers[i] = creator.createFieldReader(objectClass, objectClass, reader.fieldName, reader.ordinal, reader.features,
+                        reader.format, reader.locale, reader.defaultValue, null, reader.fieldType, reader.fieldClass,
+                        reader.field, sensitiveReader);
+            replaced = true;
+        }
+
+        return replaced ? creator.createObjectReader(objectClass, readers) : null;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,98 @@
+/*
+ *    Copyright 2014-2025 <a href="mailto:asialjim@qq.com">Asial Jim</a>
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package com.asialjim.microapplet.sensitive.fastjson2;
+
+import com.alibaba.fastjson2.JSONWriter;
+import com.alibaba.fastjson2.writer.ObjectWriter;
+import com.asialjim.microapplet.sensitive.jackson.SensitivePlan;
+import org.apache.commons.lang3.StringUtils;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Type;
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Fastjson2 敏感属性序列化，输出与 Jackson 模块一致的 _mask|algorithm|nonce|encrypt|mac|mask 格式数据
+ * <p>
+ * 与 {@link com.asialjim.microapplet.sensitive.jackson.SensitiveSerializer} 相同，支持标量以及数组、{@link Collection}、
+ * {@link Map} 的值与 {@link Optional}，容器按原结构输出
+ *
+ * @author <a href="mailto:asialjim@hotmail.com">Asial Jim</a>
+ * @version 1.0
+ * @since 2026/10/19, &nbsp;&nbsp; <em>version:1.0</em>
+ */
+public class SensitiveObjectWriter implements ObjectWriter<Object> {
+    private final SensitivePlan plan;
+
+    public SensitiveObjectWriter(SensitivePlan plan) {
+        this.plan = plan;
+    }
+
+    @Override
+    public void write(JSONWriter jsonWriter, Object object, Object fieldName, Type fieldType, long features) {
+        writeValue(jsonWriter, object);
+    }
+
+    private void writeValue(JSONWriter jsonWriter, Object object) {
+        if (Objects.isNull(object)) {
+            jsonWriter.writeNull();
+        } else if (object instanceof Optional<?> optional) {
+            writeValue(jsonWriter, optional.orElse(null));
+        } else if (object instanceof Map<?, ?> map) {
+            jsonWriter.startObject();
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                jsonWriter.writeName(String.valueOf(entry.getKey()));
+                jsonWriter.writeColon();
+                writeValue(jsonWriter, entry.getValue());
+            }
+            jsonWriter.endObject();
+        } else if (object instanceof Collection<?> collection) {
+            jsonWriter.startArray();
+            int i = 0;
+            for (Object item : collection) {
+                if (i++ > 0)
+                    jsonWriter.writeComma();
+                writeValue(jsonWriter, item);
+            }
+            jsonWriter.endArray();
+        } else if (object.getClass().isArray()) {
+            jsonWriter.startArray();
+            int length = Array.getLength(object);
+            for (int i = 0; i < length; i++) {
+                if (i > 0)
+                    jsonWriter.writeComma();
+                writeValue(jsonWriter, Array.get(object, i));
+            }
+            jsonWriter.endArray();
+        } else {
+            writeScalar(jsonWriter, object);
+        }
+    }
+
+    private void writeScalar(JSONWriter jsonWriter, Object object) {
+        String source = object instanceof BigDecimal decimal ? decimal.toPlainString() : String.valueOf(object);
+        if (StringUtils.isBlank(source)) {
+            jsonWriter.writeString(source);
+            return;
+        }
+
+        jsonWriter.writeString(plan.maskOnly(null) ? plan.mask(source) : plan.apply(source));
+    }
+}
\ No newline at end of file
@@ -0,0 +1,78 @@
+/*
+ *    Copyright 2014-2025 <a href="mailto:asialjim@qq.com">Asial Jim</a>
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package com.asialjim.microapplet.sensitive.fastjson2;
+
+import com.alibaba.fastjson2.modules.ObjectWriterModule;
+import com.alibaba.fastjson2.writer.FieldWriter;
+import com.alibaba.fastjson2.writer.ObjectWriter;
+import com.alibaba.fastjson2.writer.ObjectWriterCreator;
+import com.alibaba.fastjson2.writer.ObjectWriterProvider;
+import com.asialjim.microapplet.sensitive.annotation.Sensitive;
+import com.asialjim.microapplet.sensitive.jackson.SensitivePlan;
+
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.Objects;
+
+/**
+ * Fastjson2 序列化模块：含 {@link Sensitive} 属性的类型先按 Fastjson2 默认方式生成属性输出器，再将敏感属性替换为
+ * {@link SensitiveObjectWriter}，其余属性仍由 Fastjson2 生成的访问器输出
+ *
+ * @author <a href="mailto:asialjim@hotmail.com">Asial Jim</a>
+ * @version 1.0
+ * @since 2026/10/19, &nbsp;&nbsp; <em>version:1.0</em>
+ */
+public class SensitiveObjectWriterModule implements ObjectWriterModule {
+    private ObjectWriterProvider provider;
+
+    @Override
+    public void init(ObjectWriterProvider provider) {
+        this.provider = provider;
+    }
+
+    @Override
+    public ObjectWriterProvider getProvider() {
+        return provider;
+    }
+
+    @Override
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    public ObjectWriter getObjectWriter(Type objectType, Class objectClass) {
+        if (Objects.isNull(objectClass) || !SensitiveAnnotations.present(objectClass))
+            return null;
+
+        // 先按 Fastjson2 默认方式生成，再替换敏感属性
+        ObjectWriterCreator creator = provider.getCreator();
+        List<FieldWriter> writers = new ArrayList<>(creator.createObjectWriter(objectClass, 0L, provider).getFieldWriters());
+        for (ListIterator<FieldWriter> iterator = writers.listIterator(); iterator.hasNext(); ) {
+            FieldWriter writer = iterator.next();
+            Sensitive sensitive = SensitiveAnnotations.find(objectClass, writer.fieldName, writer.field, writer.method);
+            if (Objects.isNull(sensitive))
+                continue;
+
+            SensitiveObjectWriter sensitiveWriter = new SensitiveObjectWriter(SensitivePlan.of(sensitive));
+            if (Objects.nonNull(writer.method))
+                iterator.set(creator.createFieldWriter(provider, objectClass, writer.fieldName, writer.ordinal, writer.features,
+                        writer.format, writer.label, writer.method, sensitiveWriter));
+            else if (Objects.nonNull(writer.field))
+                iterator.set(creator.createFieldWriter(writer.fieldName, writer.ordinal, writer.features,
+                        writer.format, writer.label, writer.field, sensitiveWriter));
+        }
+        return creator.createObjectWriter(objectClass, 0L, writers.toArray(new FieldWriter[0]));
+    }
+}
\ No newline at end of file
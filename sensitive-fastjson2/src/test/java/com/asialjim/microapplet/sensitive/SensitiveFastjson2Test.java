@@ -0,0 +1,156 @@
+/*
+ *    Copyright 2014-2025 <a href="mailto:asialjim@qq.com">Asial Jim</a>
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package com.asialjim.microapplet.sensitive;
+
+import com.alibaba.fastjson2.JSON;
+import com.alibaba.fastjson2.JSONObject;
+import com.asialjim.microapplet.sensitive.annotation.Sensitive;
+import com.asialjim.microapplet.sensitive.encrypt.*;
+import com.asialjim.microapplet.sensitive.fastjson2.SensitiveFastjson2;
+import com.asialjim.microapplet.sensitive.handler.*;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.Data;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+/**
+ * Fastjson2 敏感数据序列化测试，含与 Jackson 模块的数据互通
+ *
+ * @author <a href="mailto:asialjim@hotmail.com">Asial Jim</a>
+ * @version 1.0
+ * @since 2026/10/19, &nbsp;&nbsp; <em>version:1.0</em>
+ */
+public class SensitiveFastjson2Test {
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private User user;
+
+    /**
+     * Fastjson2 全局缓存类型的序列化器，密钥只初始化一次
+     */
+    @BeforeClass
+    public static void init() throws Exception {
+        new BankCardSensitiveHandler().init();
+        new ChineseMobilePhoneSensitiveHandler().init();
+        new ChineseNameSensitiveHandler().init();
+        new EMailSensitiveHandler().init();
+
+        SecretKeyRepository.Pair pair = new SecretKeyRepository.Pair().setEncKey(KeyManager.generateModernEncryptionKey());
+        new EncryptionContextBean(Collections.singletonList(new EncryptionContext(AlgorithmMode.MODERN)), () -> AlgorithmMode.MODERN, mode -> pair).init();
+        SensitiveFastjson2.register();
+    }
+
+    @Before
+    public void setUp() {
+
+        user = new User();
+        user.setId(1L);
+        user.setName("张三");
+        user.setPhone("13800138000");
+        user.setEmail("zhangsan@example.com");
+        user.setAccount(6222021234567890123L);
+        user.setNickname("nick");
+    }
+
+    @Test
+    public void testRoundTrip() {
+        String json = JSON.toJSONString(user);
+        JSONObject object = JSON.parseObject(json);
+        assertTrue(object.getString("phone").endsWith("|138****8000"));
+        assertTrue(object.getString("name").endsWith("|张*"));
+        assertTrue(object.getString("account").endsWith("|622202*********0123"));
+        assertTrue(EncryptionResult.isEncryptionMaskData(object.getString("email")));
+        assertEquals("nick", object.getString("nickname"));
+
+        assertEquals(user, JSON.parseObject(json, User.class));
+
+        // 原数据不满足校验规则时拒绝反序列化
+        assertThrows(Exception.class, () -> JSON.parseObject("{\"phone\":\"12345\"}", User.class));
+    }
+
+    @Test
+    public void testJacksonCompatibility() throws Exception {
+        // Fastjson2 输出由 Jackson 还原
+        assertEquals(user, objectMapper.readValue(JSON.toJSONString(user), User.class));
+
+        // Jackson 输出由 Fastjson2 还原
+        assertEquals(user, JSON.parseObject(objectMapper.writeValueAsString(user), User.class));
+    }
+
+    @Test
+    public void testContainerCompatibility() throws Exception {
+        Contact contact = new Contact();
+        contact.setPhones(Arrays.asList("13800138000", null, "13900139000"));
+        contact.setCards(new Long[]{6222021234567890123L});
+        contact.setEmails(new LinkedHashMap<>(Map.of("work", "zhangsan@example.com")));
+        contact.setName(Optional.of("张三"));
+        contact.setNickname(Optional.empty());
+
+        String json = JSON.toJSONString(contact);
+        JSONObject object = JSON.parseObject(json);
+        assertTrue(object.getJSONArray("phones").getString(0).endsWith("|138****8000"));
+        assertNull(object.getJSONArray("phones").get(1));
+        assertTrue(object.getJSONArray("cards").getString(0).endsWith("|622202*********0123"));
+        assertTrue(EncryptionResult.isEncryptionMaskData(object.getJSONObject("emails").getString("work")));
+        assertTrue(object.getString("name").endsWith("|张*"));
+
+        // Fastjson2 与 Jackson 的容器输出互相还原
+        assertEquals(contact, JSON.parseObject(json, Contact.class));
+        assertEquals(contact, objectMapper.readValue(json, Contact.class));
+        assertEquals(contact, JSON.parseObject(objectMapper.writeValueAsString(contact), Contact.class));
+    }
+
+    @Data
+    public static class Contact {
+        @Sensitive(SensitiveType.ChineseMobilePhone)
+        private List<String> phones;
+
+        @Sensitive(SensitiveType.BankCard)
+        private Long[] cards;
+
+        @Sensitive(SensitiveType.EMail)
+        private Map<String, String> emails;
+
+        @Sensitive(SensitiveType.ChineseName)
+        private Optional<String> name;
+
+        @Sensitive(SensitiveType.ChineseName)
+        private Optional<String> nickname;
+    }
+
+    @Data
+    public static class User {
+        private Long id;
+
+        @Sensitive(SensitiveType.ChineseName)
+        private String name;
+
+        @Sensitive(SensitiveType.ChineseMobilePhone)
+        private String phone;
+
+        @Sensitive(SensitiveType.EMail)
+        private String email;
+
+        @Sensitive(SensitiveType.BankCard)
+        private Long account;
+
+        private String nickname;
+    }
+}
\ No newline at end of file
@@ -36,7 +36,7 @@ import java.lang.annotation.Target;
  * @since 2025/11/17, &nbsp;&nbsp; <em>version:1.0</em>
  */
 @JacksonAnnotationsInside
-@Target(ElementType.FIELD)
+@Target({ElementType.FIELD, ElementType.METHOD, ElementType.PARAMETER, ElementType.RECORD_COMPONENT})
 @Retention(RetentionPolicy.RUNTIME)
 @JsonSerialize(using = SensitiveSerializer.class)
 @JsonDeserialize(using = SensitiveDeserializer.class)
@@ -69,4 +69,14 @@ public @interface Sensitive {
      * 敏感数据正则表达式
      */
     String regex() default "^[\\p{L}\\p{N}]*$";
+
+    /**
+     * 是否加密原数据，为 false 时仅输出脱敏数据，适用于只展示、不回传的字段
+     */
+    boolean encrypt() default true;
+
+    /**
+     * 在这些 {@link com.fasterxml.jackson.annotation.JsonView} 视图（及其子视图）下仅输出脱敏数据
+     */
+    Class<?>[] maskOnlyViews() default {};
 }
\ No newline at end of file
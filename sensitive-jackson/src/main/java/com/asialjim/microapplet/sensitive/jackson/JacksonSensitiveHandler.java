@@ -16,6 +16,7 @@
 
 package com.asialjim.microapplet.sensitive.jackson;
 
+import com.asialjim.microapplet.sensitive.SensitivePolicy;
 import com.asialjim.microapplet.sensitive.annotation.Sensitive;
 import com.asialjim.microapplet.sensitive.handler.SensitiveHandler;
 import com.asialjim.microapplet.sensitive.handler.SensitiveType;
@@ -37,7 +38,7 @@ public class JacksonSensitiveHandler {
         if (SensitiveType.Customer.equals(type)) {
             regex = sensitive.regex();
         } else {
-            regex = type.getRegex();
+            regex = SensitivePolicy.current().rule(type).regex();
         }
 
 
@@ -57,9 +58,10 @@ public class JacksonSensitiveHandler {
             regex = sensitive.regex();
             match = sensitive.match();
         } else {
-            prefix = type.getPrefix();
-            suffix = type.getSuffix();
-            regex = type.getRegex();
+            SensitivePolicy.Rule rule = SensitivePolicy.current().rule(type);
+            prefix = rule.prefix();
+            suffix = rule.suffix();
+            regex = rule.regex();
             match = true;
         }
 
@@ -0,0 +1,272 @@
+/*
+ *    Copyright 2014-2025 <a href="mailto:asialjim@qq.com">Asial Jim</a>
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package com.asialjim.microapplet.sensitive.jackson;
+
+import com.asialjim.microapplet.sensitive.SensitiveTenant;
+import com.asialjim.microapplet.sensitive.encrypt.EncryptionContextBean;
+import com.asialjim.microapplet.sensitive.encrypt.EncryptionResult;
+import com.asialjim.microapplet.sensitive.token.SensitiveToken;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.JsonSerializable;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.jsontype.TypeSerializer;
+import com.fasterxml.jackson.databind.util.RawValue;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * 延迟批量加密输出
+ * <p>
+ * 先将对象序列化到 {@link TokenBuffer}，期间敏感字段只完成脱敏并留下占位；序列化结束后按加密上下文分组，
+ * 以 {@link EncryptionContextBean#encryptAll} 分块并行加密，最后回放 {@link TokenBuffer} 写出完整数据。
+ * 适用于大列表接口，小对象直接使用 {@link ObjectWriter} 即可
+ * <pre>{@code
+ * SensitiveBatchWriter writer = new SensitiveBatchWriter(objectMapper.writer());
+ * String json = writer.writeValueAsString(users);
+ * }</pre>
+ *
+ * @author <a href="mailto:asialjim@hotmail.com">Asial Jim</a>
+ * @version 1.0
+ * @since 2026/10/19, &nbsp;&nbsp; <em>version:1.0</em>
+ */
+public final class SensitiveBatchWriter {
+    private static final Object COLLECTOR_ATTRIBUTE = new Object();
+    /**
+     * 默认分块大小，待加密数据不超过一块时在当前线程加密
+     */
+    public static final int DEFAULT_CHUNK_SIZE = 256;
+
+    private final ObjectWriter writer;
+    private final Executor executor;
+    private final int chunkSize;
+
+    public SensitiveBatchWriter(ObjectWriter writer) {
+        this(writer, ForkJoinPool.commonPool(), DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * @param writer    序列化配置
+     * @param executor  加密线程池，为 {@code null} 时在当前线程加密
+     * @param chunkSize 每个加密任务处理的数据条数
+     */
+    public SensitiveBatchWriter(ObjectWriter writer, Executor executor, int chunkSize) {
+        if (chunkSize <= 0)
+            throw new IllegalArgumentException("分块大小必须大于0");
+
+        this.writer = writer;
+        this.executor = executor;
+        this.chunkSize = chunkSize;
+    }
+
+    public String writeValueAsString(Object value) throws IOException {
+        TokenBuffer buffer = buffer(value);
+        return replayWriter().writeValueAsString(buffer);
+    }
+
+    public byte[] writeValueAsBytes(Object value) throws IOException {
+        TokenBuffer buffer = buffer(value);
+        return replayWriter().writeValueAsBytes(buffer);
+    }
+
+    public void writeValue(OutputStream out, Object value) throws IOException {
+        TokenBuffer buffer = buffer(value);
+        replayWriter().writeValue(out, buffer);
+    }
+
+    public void writeValue(JsonGenerator generator, Object value) throws IOException {
+        TokenBuffer buffer = buffer(value);
+        replayWriter().writeValue(generator, buffer);
+    }
+
+    private TokenBuffer buffer(Object value) throws IOException {
+        Collector collector = new Collector();
+        TokenBuffer buffer = new TokenBuffer(writer.getFactory().getCodec(), false);
+        writer.withAttribute(COLLECTOR_ATTRIBUTE, collector).writeValue(buffer, value);
+        try (SensitiveTenant.Scope ignored = SensitivePlan.tenantScope(writer.getAttributes().getAttribute(SensitiveSerializer.TENANT))) {
+            collector.encrypt(executor, chunkSize);
+        }
+        return buffer;
+    }
+
+    /**
+     * 回放缓冲数据时沿用原有输出配置（如格式化缩进），根节点包装已在首次序列化时完成
+     */
+    private ObjectWriter replayWriter() {
+        return writer.forType((JavaType) null).without(SerializationFeature.WRAP_ROOT_VALUE);
+    }
+
+    /**
+     * 当前序列化处于延迟批量加密模式时，登记待加密数据并写入占位
+     *
+     * @return 是否已登记，未登记时调用方需自行加密输出
+     */
+    static boolean defer(EncryptionContextBean encryption, String source, String mask,
+                         JsonGenerator generator, SerializerProvider provider) throws IOException {
+        if (!(generator instanceof TokenBuffer) || Objects.isNull(provider))
+            return false;
+
+        if (!(provider.getAttribute(COLLECTOR_ATTRIBUTE) instanceof Collector collector))
+            return false;
+
+        // 回放时经由 ObjectMapper 自身的 SerializerProvider 输出，单次序列化属性需在登记时读取
+        generator.writeObject(new RawValue(collector.add(encryption, source, mask, SensitivePlan.tokenize(provider))));
+        return true;
+    }
+
+    /**
+     * 当前序列化是否处于延迟批量加密模式
+     */
+    static boolean deferred(SerializerProvider provider) {
+        return Objects.nonNull(provider) && provider.getAttribute(COLLECTOR_ATTRIBUTE) instanceof Collector;
+    }
+
+    /**
+     * 单次序列化登记的待加密数据
+     */
+    private static final class Collector {
+        private final List<Pending> pending = new ArrayList<>();
+        private char[] buffer = new char[256];
+
+        Pending add(EncryptionContextBean encryption, String source, String mask, boolean tokenize) {
+            Pending item = new Pending(this, encryption, source, mask, tokenize);
+            pending.add(item);
+            return item;
+        }
+
+        /**
+         * 加密线程中的异常解包后以 {@link JsonMappingException} 抛出，与同步序列化的异常类型一致
+         */
+        void encrypt(Executor executor, int chunkSize) throws IOException {
+            if (pending.isEmpty())
+                return;
+
+            try {
+                encryptGroups(executor, chunkSize);
+            } catch (CompletionException e) {
+                throw failure(Objects.nonNull(e.getCause()) ? e.getCause() : e);
+            } catch (RuntimeException e) {
+                throw failure(e);
+            }
+        }
+
+        private static IOException failure(Throwable cause) {
+            if (cause instanceof IOException io)
+                return io;
+            return new JsonMappingException(null, "敏感数据加密失败: " + cause.getMessage(), cause);
+        }
+
+        private void encryptGroups(Executor executor, int chunkSize) {
+
+            // 通常只有一个加密上下文，按实例分组后分块
+            Map<EncryptionContextBean, List<Pending>> groups = new IdentityHashMap<>();
+            for (Pending item : pending) {
+                groups.computeIfAbsent(item.encryption, key -> new ArrayList<>()).add(item);
+            }
+
+            // 加密线程池中沿用调用线程的租户
+            String tenant = SensitiveTenant.current();
+            List<CompletableFuture<Void>> futures = new ArrayList<>();
+            for (Map.Entry<EncryptionContextBean, List<Pending>> group : groups.entrySet()) {
+                List<Pending> items = group.getValue();
+                for (int from = 0; from < items.size(); from += chunkSize) {
+                    List<Pending> chunk = items.subList(from, Math.min(from + chunkSize, items.size()));
+                    if (Objects.isNull(executor) || items.size() <= chunkSize)
+                        encrypt(group.getKey(), chunk);
+                    else
+                        futures.add(CompletableFuture.runAsync(() -> SensitiveTenant.run(tenant, () -> encrypt(group.getKey(), chunk)), executor));
+                }
+            }
+
+            if (!futures.isEmpty())
+                CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).join();
+        }
+
+        private static void encrypt(EncryptionContextBean encryption, List<Pending> chunk) {
+            List<String> sources = new ArrayList<>(chunk.size());
+            for (Pending item : chunk) {
+                sources.add(item.source);
+            }
+
+            List<EncryptionResult> results = encryption.encryptAll(sources);
+            for (int i = 0; i < chunk.size(); i++) {
+                chunk.get(i).result = results.get(i);
+            }
+        }
+
+        char[] bufferOf(int length) {
+            if (buffer.length < length)
+                buffer = new char[length];
+            return buffer;
+        }
+    }
+
+    /**
+     * 占位数据，回放时输出 _mask|algorithm|nonce|encrypt|mac|mask 格式数据，按次启用令牌化时输出 _tok|token|mask 格式数据
+     */
+    private static final class Pending extends JsonSerializable.Base {
+        private final Collector collector;
+        private final EncryptionContextBean encryption;
+        private final String source;
+        private final String mask;
+        private final boolean tokenize;
+        private EncryptionResult result;
+
+        Pending(Collector collector, EncryptionContextBean encryption, String source, String mask, boolean tokenize) {
+            this.collector = collector;
+            this.encryption = encryption;
+            this.source = source;
+            this.mask = mask;
+            this.tokenize = tokenize;
+        }
+
+        @Override
+        public void serialize(JsonGenerator generator, SerializerProvider provider) throws IOException {
+            if (Objects.isNull(result))
+                throw new IllegalStateException("敏感数据尚未完成加密");
+
+            if (tokenize) {
+                generator.writeString(SensitiveToken.tokenize(result, mask));
+                return;
+            }
+
+            if (SensitivePlan.binary(generator)) {
+                SensitivePlan.writeBinary(mask, result, generator);
+                return;
+            }
+
+            char[] buffer = collector.bufferOf(result.formattedLength(mask));
+            int length = result.writeFormatted(buffer, 0, mask);
+            generator.writeString(buffer, 0, length);
+        }
+
+        @Override
+        public void serializeWithType(JsonGenerator generator, SerializerProvider provider, TypeSerializer typeSerializer) throws IOException {
+            serialize(generator, provider);
+        }
+    }
+}
\ No newline at end of file
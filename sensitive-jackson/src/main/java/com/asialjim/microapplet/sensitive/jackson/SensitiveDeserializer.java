@@ -16,52 +16,89 @@
 
 package com.asialjim.microapplet.sensitive.jackson;
 
+import com.asialjim.microapplet.sensitive.SensitiveTenant;
 import com.asialjim.microapplet.sensitive.annotation.Sensitive;
-import com.asialjim.microapplet.sensitive.encrypt.EncryptionContextBean;
-import com.asialjim.microapplet.sensitive.encrypt.EncryptionResult;
-import com.asialjim.microapplet.sensitive.handler.SensitiveHandler;
 import com.fasterxml.jackson.core.JacksonException;
 import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.*;
 import com.fasterxml.jackson.databind.deser.ContextualDeserializer;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.BinaryNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.databind.node.TextNode;
 import org.apache.commons.lang3.StringUtils;
 
 import java.io.IOException;
+import java.util.Iterator;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
 
+/**
+ * 敏感数据反序列化工具
+ * <p>
+ * 按属性声明类型还原：标量解密或校验后转换为目标类型，数组、集合与 {@link Map} 的值逐个还原，{@link Optional} 解包后还原；
+ * CBOR/Smile 等二进制数据格式中的 {@code [mask, binary]} 与单独的二进制密文同样解密还原；
+ * 单次反序列化属性 {@link SensitiveSerializer#TENANT} 指定解密时的当前租户
+ *
+ * @author <a href="mailto:asialjim@hotmail.com">Asial Jim</a>
+ * @version 1.0
+ * @since 2025/11/17, &nbsp;&nbsp; <em>version:1.0</em>
+ */
 @SuppressWarnings("unused")
-public class SensitiveDeserializer extends JsonDeserializer<String> implements ContextualDeserializer {
-    private final Sensitive sensitive;
+public class SensitiveDeserializer extends JsonDeserializer<Object> implements ContextualDeserializer {
+    private final SensitivePlan plan;
+    private final JavaType type;
 
     public SensitiveDeserializer() {
-        this(null);
+        this((SensitivePlan) null);
+    }
+
+    public SensitiveDeserializer(Sensitive sensitive) {
+        this(SensitivePlan.of(sensitive));
+    }
+
+    public SensitiveDeserializer(SensitivePlan plan) {
+        this(plan, null);
+    }
+
+    public SensitiveDeserializer(SensitivePlan plan, JavaType type) {
+        this.plan = plan;
+        this.type = type;
     }
 
     @Override
-    public String deserialize(JsonParser jsonParser, DeserializationContext deserializationContext) throws IOException, JacksonException {
-        String valueAsString = jsonParser.getValueAsString();
-        if (StringUtils.isBlank(valueAsString))
-            return valueAsString;
+    public Object deserialize(JsonParser jsonParser, DeserializationContext deserializationContext) throws IOException, JacksonException {
+        try (SensitiveTenant.Scope ignored = SensitivePlan.tenantScope(deserializationContext.getAttribute(SensitiveSerializer.TENANT))) {
+            return read(jsonParser, deserializationContext);
+        }
+    }
 
-        if (Objects.isNull(this.sensitive))
-            return valueAsString;
+    private Object read(JsonParser jsonParser, DeserializationContext deserializationContext) throws IOException {
+        if (Objects.isNull(this.type) || this.type.hasRawClass(String.class)) {
+            if (Objects.nonNull(this.plan) && binary(jsonParser.currentToken()))
+                return deserializationContext.readTreeAsValue(resolve(deserializationContext.readTree(jsonParser)), String.class);
 
-        // 标准脱敏数据结构
-        if (EncryptionResult.isEncryptionMaskData(valueAsString))
-            // 直接解密字符串，不需要先脱敏
-            return EncryptionContextBean.instance.decrypt(valueAsString);
+            String valueAsString = jsonParser.getValueAsString();
+            if (StringUtils.isBlank(valueAsString))
+                return valueAsString;
 
-        // 原数据满足正则表达式
-        if (JacksonSensitiveHandler.match(valueAsString, this.sensitive))
-            return valueAsString;
+            if (Objects.isNull(this.plan))
+                return valueAsString;
 
-        throw new IllegalArgumentException("敏感数据校验失败:不符合校验规则");
-    }
+            return this.plan.resolve(valueAsString);
+        }
 
-    public SensitiveDeserializer(Sensitive sensitive) {
-        this.sensitive = sensitive;
+        return deserialize(jsonParser, deserializationContext, this.type);
     }
 
+    @Override
+    public Object getNullValue(DeserializationContext deserializationContext) {
+        if (Objects.nonNull(this.type) && this.type.hasRawClass(Optional.class))
+            return Optional.empty();
+        return null;
+    }
 
     @Override
     public JsonDeserializer<?> createContextual(DeserializationContext deserializationContext, BeanProperty beanProperty) throws JsonMappingException {
@@ -71,6 +108,62 @@ public class SensitiveDeserializer extends JsonDeserializer<String> implements C
         if (Objects.isNull(annotation))
             return this;
 
-        return new SensitiveDeserializer(annotation);
+        return new SensitiveDeserializer(SensitivePlan.of(annotation), beanProperty.getType());
+    }
+
+    private Object deserialize(JsonParser parser, DeserializationContext ctxt, JavaType type) throws IOException {
+        if (type.hasRawClass(Optional.class))
+            return Optional.ofNullable(deserialize(parser, ctxt, type.containedTypeOrUnknown(0)));
+
+        JsonToken token = parser.currentToken();
+        if (token.isScalarValue() && !binary(token)) {
+            String resolved = resolve(parser.getValueAsString());
+            if (type.hasRawClass(String.class) || type.hasRawClass(Object.class))
+                return resolved;
+            return ctxt.readTreeAsValue(TextNode.valueOf(resolved), type);
+        }
+
+        JsonNode node = ctxt.readTree(parser);
+        return ctxt.readTreeAsValue(resolve(node), type);
+    }
+
+    private static boolean binary(JsonToken token) {
+        return token == JsonToken.START_ARRAY || token == JsonToken.VALUE_EMBEDDED_OBJECT;
+    }
+
+    private JsonNode resolve(JsonNode node) {
+        if (node instanceof BinaryNode binary)
+            return TextNode.valueOf(this.plan.resolve(binary.binaryValue()));
+
+        if (node instanceof ArrayNode array) {
+            // 二进制数据格式的 [mask, binary]
+            if (array.size() == 2 && array.get(0).isTextual() && array.get(1) instanceof BinaryNode binary)
+                return TextNode.valueOf(this.plan.resolve(binary.binaryValue()));
+
+            for (int i = 0; i < array.size(); i++) {
+                array.set(i, resolve(array.get(i)));
+            }
+            return array;
+        }
+
+        if (node instanceof ObjectNode object) {
+            Iterator<Map.Entry<String, JsonNode>> fields = object.fields();
+            while (fields.hasNext()) {
+                Map.Entry<String, JsonNode> field = fields.next();
+                field.setValue(resolve(field.getValue()));
+            }
+            return object;
+        }
+
+        if (node.isTextual() || node.isNumber())
+            return TextNode.valueOf(resolve(node.asText()));
+
+        return node;
+    }
+
+    private String resolve(String source) {
+        if (StringUtils.isBlank(source))
+            return source;
+        return this.plan.resolve(source);
     }
 }
\ No newline at end of file
@@ -0,0 +1,214 @@
+/*
+ *    Copyright 2014-2025 <a href="mailto:asialjim@qq.com">Asial Jim</a>
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package com.asialjim.microapplet.sensitive.jackson;
+
+import com.asialjim.microapplet.sensitive.encrypt.EncryptionResult;
+import com.asialjim.microapplet.sensitive.handler.SensitiveType;
+import com.fasterxml.jackson.core.*;
+import org.apache.commons.lang3.StringUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.StringWriter;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * 原始 JSON 流式脱敏
+ * <p>
+ * 不经过对象绑定，逐个读取 {@link JsonParser} 事件并复制到 {@link JsonGenerator}，命中路径规则的字符串与数值按
+ * {@link SensitivePlan} 脱敏或加密后输出，内存占用与文档大小无关。路径使用 JSON Pointer 语法，{@code *} 匹配任意属性名或数组下标；
+ * 规则指向对象或数组时，其下所有字符串与数值均按该规则处理；不符合校验规则的数据整体脱敏，不中断输出
+ * <pre>
+ * SensitiveJsonRedactor redactor = new SensitiveJsonRedactor()
+ *         .rule("/users/*&#47;phone", SensitiveType.ChineseMobilePhone)
+ *         .rule("/users/*&#47;cards", SensitivePlan.of(SensitiveType.BankCard, 0, 0, "", true, false));
+ * redactor.redact(inputStream, outputStream);
+ * </pre>
+ *
+ * @author <a href="mailto:asialjim@hotmail.com">Asial Jim</a>
+ * @version 1.0
+ * @since 2026/10/19, &nbsp;&nbsp; <em>version:1.0</em>
+ */
+public final class SensitiveJsonRedactor {
+    private static final String WILDCARD = "*";
+
+    private final JsonFactory factory;
+    private volatile Rule[] rules = new Rule[0];
+
+    public SensitiveJsonRedactor() {
+        this(new JsonFactory());
+    }
+
+    public SensitiveJsonRedactor(JsonFactory factory) {
+        this.factory = factory;
+    }
+
+    /**
+     * 按内置敏感类型脱敏并加密
+     */
+    public SensitiveJsonRedactor rule(String path, SensitiveType type) {
+        return rule(path, SensitivePlan.of(type));
+    }
+
+    /**
+     * 添加路径规则，先添加的规则优先
+     *
+     * @param path JSON Pointer，如 <code>/users/*&#47;phone</code>
+     */
+    public synchronized SensitiveJsonRedactor rule(String path, SensitivePlan plan) {
+        Rule[] next = Arrays.copyOf(rules, rules.length + 1);
+        next[rules.length] = new Rule(compile(path), plan);
+        this.rules = next;
+        return this;
+    }
+
+    public String redact(String json) throws IOException {
+        StringWriter writer = new StringWriter(json.length() + (json.length() >> 1));
+        try (JsonParser parser = factory.createParser(json);
+             JsonGenerator generator = factory.createGenerator(writer)) {
+            redact(parser, generator);
+        }
+        return writer.toString();
+    }
+
+    /**
+     * 流式脱敏，不关闭调用方的输入输出流
+     */
+    public void redact(InputStream in, OutputStream out) throws IOException {
+        try (JsonParser parser = factory.createParser(in).disable(JsonParser.Feature.AUTO_CLOSE_SOURCE);
+             JsonGenerator generator = factory.createGenerator(out, JsonEncoding.UTF8).disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)) {
+            redact(parser, generator);
+        }
+    }
+
+    public void redact(JsonParser parser, JsonGenerator generator) throws IOException {
+        Rule[] rules = this.rules;
+        char[] buffer = new char[256];
+        JsonToken token;
+        while (Objects.nonNull(token = parser.nextToken())) {
+            if (token == JsonToken.VALUE_STRING || token.isNumeric()) {
+                SensitivePlan plan = planOf(rules, parser.getParsingContext());
+                if (Objects.nonNull(plan)) {
+                    buffer = write(plan, parser.getText(), generator, buffer);
+                    continue;
+                }
+            }
+            generator.copyCurrentEvent(parser);
+        }
+    }
+
+    private static char[] write(SensitivePlan plan, String source, JsonGenerator generator, char[] buffer) throws IOException {
+        if (StringUtils.isBlank(source)) {
+            generator.writeString(source);
+            return buffer;
+        }
+
+        String mask = maskOf(plan, source);
+        if (plan.maskOnly(null)) {
+            generator.writeString(mask);
+            return buffer;
+        }
+
+        EncryptionResult result = plan.encryption().encrypt(source);
+        int length = result.formattedLength(mask);
+        if (buffer.length < length)
+            buffer = new char[length];
+
+        generator.writeString(buffer, 0, result.writeFormatted(buffer, 0, mask));
+        return buffer;
+    }
+
+    /**
+     * 不符合敏感类型校验规则的数据整体替换为 *，不中断已输出一半的流；加密部分照常保留原数据
+     */
+    private static String maskOf(SensitivePlan plan, String source) {
+        try {
+            return plan.mask(source);
+        } catch (RuntimeException e) {
+            return StringUtils.repeat('*', source.length());
+        }
+    }
+
+    private static SensitivePlan planOf(Rule[] rules, JsonStreamContext context) {
+        int depth = context.getNestingDepth();
+        for (Rule rule : rules) {
+            if (rule.matches(context, depth))
+                return rule.plan;
+        }
+        return null;
+    }
+
+    private static String[] compile(String path) {
+        if (StringUtils.isBlank(path) || path.charAt(0) != '/')
+            throw new IllegalArgumentException("路径需为以/开头的JSON Pointer:" + path);
+
+        String[] segments = path.substring(1).split("/", -1);
+        for (int i = 0; i < segments.length; i++) {
+            segments[i] = segments[i].replace("~1", "/").replace("~0", "~");
+        }
+        return segments;
+    }
+
+    private static final class Rule {
+        private final String[] segments;
+        private final int[] indexes;
+        private final SensitivePlan plan;
+
+        private Rule(String[] segments, SensitivePlan plan) {
+            this.segments = segments;
+            this.plan = plan;
+            // 预先解析数组下标，匹配时不再分配对象
+            this.indexes = new int[segments.length];
+            for (int i = 0; i < segments.length; i++) {
+                indexes[i] = StringUtils.isNumeric(segments[i]) ? Integer.parseInt(segments[i]) : -1;
+            }
+        }
+
+        /**
+         * 从当前值所在层级向上比较，值路径长于规则路径时规则指向其祖先容器
+         */
+        boolean matches(JsonStreamContext context, int depth) {
+            int length = segments.length;
+            if (depth < length)
+                return false;
+
+            for (int i = depth; i > length; i--) {
+                context = context.getParent();
+            }
+
+            for (int i = length - 1; i >= 0; i--) {
+                if (!matches(i, context))
+                    return false;
+                context = context.getParent();
+            }
+            return true;
+        }
+
+        private boolean matches(int i, JsonStreamContext context) {
+            String segment = segments[i];
+            if (WILDCARD.equals(segment))
+                return true;
+
+            if (context.inObject())
+                return segment.equals(context.getCurrentName());
+
+            return context.inArray() && indexes[i] == context.getCurrentIndex();
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,139 @@
+/*
+ *    Copyright 2014-2025 <a href="mailto:asialjim@qq.com">Asial Jim</a>
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package com.asialjim.microapplet.sensitive.jackson;
+
+import com.asialjim.microapplet.sensitive.annotation.Sensitive;
+import com.asialjim.microapplet.sensitive.handler.SensitiveType;
+import com.fasterxml.jackson.databind.BeanDescription;
+import com.fasterxml.jackson.databind.DeserializationConfig;
+import com.fasterxml.jackson.databind.SerializationConfig;
+import com.fasterxml.jackson.databind.deser.BeanDeserializerBuilder;
+import com.fasterxml.jackson.databind.deser.BeanDeserializerModifier;
+import com.fasterxml.jackson.databind.deser.SettableBeanProperty;
+import com.fasterxml.jackson.databind.deser.ValueInstantiator;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.BeanPropertyWriter;
+import com.fasterxml.jackson.databind.ser.BeanSerializerModifier;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 敏感数据 Jackson 模块
+ * <p>
+ * 在构建每个类型的序列化器/反序列化器时一次性识别敏感属性并绑定处理计划：属性上（含 mix-in）的 {@link Sensitive} 注解，
+ * 以及通过 {@link #rule} 为第三方类声明的编程式规则。已由注解绑定的属性保持不变，其余属性交由 Jackson 及
+ * Afterburner/Blackbird 等模块按原有方式处理
+ * <pre>{@code
+ * objectMapper.registerModule(new BlackbirdModule());
+ * objectMapper.registerModule(new SensitiveModule()
+ *         .rule(ThirdPartyUser.class, "mobile", SensitiveType.ChineseMobilePhone));
+ * }</pre>
+ * 注意：Jackson 中后注册模块的 {@link BeanSerializerModifier} 先执行，与 Afterburner/Blackbird 同用时应在其后注册本模块，
+ * 使编程式规则先于访问器优化生效
+ *
+ * @author <a href="mailto:asialjim@hotmail.com">Asial Jim</a>
+ * @version 1.0
+ * @since 2026/10/19, &nbsp;&nbsp; <em>version:1.0</em>
+ */
+public class SensitiveModule extends SimpleModule {
+    private final Map<Class<?>, Map<String, SensitivePlan>> rules = new ConcurrentHashMap<>();
+
+    public SensitiveModule() {
+        super(SensitiveModule.class.getSimpleName());
+        setSerializerModifier(new SerializerModifier());
+        setDeserializerModifier(new DeserializerModifier());
+    }
+
+    /**
+     * 为类型的属性声明内置敏感类型规则
+     */
+    public SensitiveModule rule(Class<?> type, String property, SensitiveType sensitiveType) {
+        return rule(type, property, SensitivePlan.of(sensitiveType));
+    }
+
+    /**
+     * 为类型（含子类型）的属性声明处理计划，属性上的 {@link Sensitive} 注解优先
+     */
+    public SensitiveModule rule(Class<?> type, String property, SensitivePlan plan) {
+        rules.computeIfAbsent(type, key -> new ConcurrentHashMap<>()).put(property, plan);
+        return this;
+    }
+
+    private SensitivePlan planOf(Class<?> beanClass, String property, Sensitive annotation) {
+        if (Objects.nonNull(annotation))
+            return SensitivePlan.of(annotation);
+
+        for (Class<?> type = beanClass; Objects.nonNull(type); type = type.getSuperclass()) {
+            Map<String, SensitivePlan> plans = rules.get(type);
+            if (Objects.nonNull(plans) && plans.containsKey(property))
+                return plans.get(property);
+        }
+        return null;
+    }
+
+    private class SerializerModifier extends BeanSerializerModifier {
+        @Override
+        public List<BeanPropertyWriter> changeProperties(SerializationConfig config, BeanDescription beanDesc, List<BeanPropertyWriter> beanProperties) {
+            for (BeanPropertyWriter writer : beanProperties) {
+                // 已绑定序列化器（含注解绑定）的属性保持不变
+                if (writer.hasSerializer())
+                    continue;
+
+                SensitivePlan plan = planOf(beanDesc.getBeanClass(), writer.getName(), writer.getAnnotation(Sensitive.class));
+                if (Objects.nonNull(plan))
+                    writer.assignSerializer(new SensitiveSerializer(plan));
+            }
+            return beanProperties;
+        }
+    }
+
+    private class DeserializerModifier extends BeanDeserializerModifier {
+        @Override
+        public BeanDeserializerBuilder updateBuilder(DeserializationConfig config, BeanDescription beanDesc, BeanDeserializerBuilder builder) {
+            Class<?> beanClass = beanDesc.getBeanClass();
+            List<SettableBeanProperty> properties = new ArrayList<>();
+            builder.getProperties().forEachRemaining(properties::add);
+            for (SettableBeanProperty property : properties) {
+                SettableBeanProperty replaced = withSensitive(beanClass, property);
+                if (replaced != property)
+                    builder.addOrReplaceProperty(replaced, true);
+            }
+
+            // 构造器参数（如 record）由 ValueInstantiator 单独持有，需同步替换
+            ValueInstantiator instantiator = builder.getValueInstantiator();
+            SettableBeanProperty[] arguments = Objects.isNull(instantiator) ? null : instantiator.getFromObjectArguments(config);
+            if (Objects.nonNull(arguments)) {
+                for (int i = 0; i < arguments.length; i++) {
+                    arguments[i] = withSensitive(beanClass, arguments[i]);
+                }
+            }
+            return builder;
+        }
+
+        private SettableBeanProperty withSensitive(Class<?> beanClass, SettableBeanProperty property) {
+            if (Objects.isNull(property) || property.hasValueDeserializer())
+                return property;
+
+            SensitivePlan plan = planOf(beanClass, property.getName(), property.getAnnotation(Sensitive.class));
+            if (Objects.isNull(plan))
+                return property;
+
+            return property.withValueDeserializer(new SensitiveDeserializer(plan, property.getType()));
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,400 @@
+/*
+ *    Copyright 2014-2025 <a href="mailto:asialjim@qq.com">Asial Jim</a>
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package com.asialjim.microapplet.sensitive.jackson;
+
+import com.asialjim.microapplet.sensitive.SensitiveMasker;
+import com.asialjim.microapplet.sensitive.SensitiveMetrics;
+import com.asialjim.microapplet.sensitive.SensitivePolicy;
+import com.asialjim.microapplet.sensitive.SensitiveTenant;
+import com.asialjim.microapplet.sensitive.annotation.Sensitive;
+import com.asialjim.microapplet.sensitive.encrypt.EncryptionContextBean;
+import com.asialjim.microapplet.sensitive.encrypt.EncryptionResult;
+import com.asialjim.microapplet.sensitive.handler.SensitiveHandler;
+import com.asialjim.microapplet.sensitive.handler.SensitiveType;
+import com.asialjim.microapplet.sensitive.jfr.MaskEvent;
+import com.asialjim.microapplet.sensitive.token.SensitiveToken;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.BeanProperty;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.introspect.AnnotatedField;
+import com.fasterxml.jackson.databind.introspect.AnnotatedMember;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import org.apache.commons.lang3.StringUtils;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+
+/**
+ * 敏感属性处理计划
+ * <p>
+ * 在 {@link SensitiveSerializer#createContextual} / {@link SensitiveDeserializer#createContextual} 时按属性上的
+ * {@link Sensitive} 注解一次性编译：确定校验正则、脱敏函数与加密上下文，序列化每个值时不再重复解析注解与查找处理器。
+ * 内置敏感类型的校验正则与保留位数取自 {@link SensitivePolicy#current()}，策略更新后即时生效。
+ * 属性所在类型存在编译期生成的 {@link SensitiveMasker} 时，优先使用其中为该属性编译的脱敏函数
+ *
+ * @author <a href="mailto:asialjim@hotmail.com">Asial Jim</a>
+ * @version 1.0
+ * @since 2026/10/19, &nbsp;&nbsp; <em>version:1.0</em>
+ */
+public final class SensitivePlan {
+    private static final Object BUFFER_ATTRIBUTE = new Object();
+    private static final int DEFAULT_BUFFER_SIZE = 256;
+
+    private final SensitiveType type;
+    /**
+     * 自定义校验正则，内置敏感类型为空，每次校验时取自当前策略
+     */
+    private final Pattern pattern;
+    private final boolean validate;
+    private final Function<String, String> function;
+    /**
+     * 脱敏函数取自 {@link SensitiveMasker}，已包含校验、计数与 JFR 事件
+     */
+    private final boolean generated;
+    /**
+     * 经由 {@link #withEncryption} 指定的加密上下文，为空时每次使用时取 {@link EncryptionContextBean#instance}，
+     * 计划随序列化器缓存后重新初始化的加密上下文仍然生效
+     */
+    private final EncryptionContextBean encryption;
+    private final boolean encrypt;
+    private final Class<?>[] maskOnlyViews;
+
+    private SensitivePlan(SensitiveType type, Pattern pattern, boolean validate, Function<String, String> function, boolean generated,
+                          EncryptionContextBean encryption, boolean encrypt, Class<?>[] maskOnlyViews) {
+        this.type = type;
+        this.pattern = pattern;
+        this.validate = validate;
+        this.function = function;
+        this.generated = generated;
+        this.encryption = encryption;
+        this.encrypt = encrypt;
+        this.maskOnlyViews = maskOnlyViews;
+    }
+
+    public static SensitivePlan of(Sensitive sensitive) {
+        return of(sensitive.value(), sensitive.prefix(), sensitive.suffix(), sensitive.regex(), sensitive.match(),
+                sensitive.encrypt(), sensitive.maskOnlyViews());
+    }
+
+    /**
+     * 按属性编译处理计划，属性所在类型存在生成的 {@link SensitiveMasker} 且为该属性生成了脱敏函数时直接复用
+     */
+    public static SensitivePlan of(Sensitive sensitive, BeanProperty property) {
+        SensitivePlan plan = of(sensitive);
+        AnnotatedMember member = Objects.isNull(property) ? null : property.getMember();
+        if (Objects.isNull(member))
+            return plan;
+
+        SensitiveMasker<?> masker = SensitiveMasker.find(member.getDeclaringClass());
+        if (Objects.isNull(masker))
+            return plan;
+
+        String name = member instanceof AnnotatedField ? member.getName() : property.getName();
+        Function<String, String> function = masker.maskFunction(name);
+        if (Objects.isNull(function))
+            return plan;
+
+        return new SensitivePlan(plan.type, plan.pattern, plan.validate, function, true, plan.encryption, plan.encrypt, plan.maskOnlyViews);
+    }
+
+    /**
+     * 内置敏感类型的处理计划，脱敏并加密
+     */
+    public static SensitivePlan of(SensitiveType type) {
+        return of(type, 0, 0, StringUtils.EMPTY, true, true);
+    }
+
+    /**
+     * 按参数编译处理计划，参数含义与 {@link Sensitive} 注解一致，{@code prefix}/{@code suffix}/{@code regex}/{@code match}
+     * 仅对 {@link SensitiveType#Customer} 生效
+     */
+    public static SensitivePlan of(SensitiveType type, int prefix, int suffix, String regex, boolean match,
+                                   boolean encrypt, Class<?>... maskOnlyViews) {
+        if (!SensitiveType.Customer.equals(type)) {
+            Function<String, String> function = SensitiveHandler.holder.handlerOf(type).function();
+            return new SensitivePlan(type, null, true, function, false, null, encrypt, maskOnlyViews.clone());
+        }
+
+        Function<String, String> function = SensitiveHandler.indexFunction(prefix, suffix);
+        Pattern pattern = SensitiveHandler.patternOf(regex);
+        boolean validate = match && StringUtils.isNotBlank(regex);
+        return new SensitivePlan(type, pattern, validate, function, false, null, encrypt, maskOnlyViews.clone());
+    }
+
+    /**
+     * 固定使用指定的加密上下文，如同一进程内存在多个加密上下文
+     */
+    public SensitivePlan withEncryption(EncryptionContextBean encryption) {
+        return new SensitivePlan(type, pattern, validate, function, generated, encryption, encrypt, maskOnlyViews);
+    }
+
+    public SensitiveType type() {
+        return type;
+    }
+
+    /**
+     * 原数据是否满足校验规则
+     */
+    public boolean matches(String source) {
+        return pattern().matcher(source).matches();
+    }
+
+    private Pattern pattern() {
+        return Objects.nonNull(pattern) ? pattern : SensitivePolicy.current().rule(type).pattern();
+    }
+
+    /**
+     * 脱敏
+     */
+    public String mask(String source) {
+        if (generated)
+            return function.apply(source);
+
+        if (StringUtils.isBlank(source))
+            return source;
+
+        if (validate && !matches(source))
+            throw new IllegalArgumentException("敏感数据校验失败:不符合校验规则");
+
+        SensitiveMetrics.masked(type);
+        MaskEvent event = new MaskEvent();
+        event.begin();
+        String mask = function.apply(source);
+        event.complete(type);
+        return mask;
+    }
+
+    /**
+     * 脱敏并加密，输出 _mask|algorithm|nonce|encrypt|mac|mask 格式数据；不做令牌化，见 {@link SensitiveSerializer#TOKENIZE}
+     */
+    public String apply(String source) {
+        String mask = mask(source);
+        return encryption().encrypt(source).withMask(mask);
+    }
+
+    /**
+     * 脱敏并加密，将格式化数据经由每次序列化调用复用的字符缓冲区直接写入 {@link JsonGenerator}；
+     * 二进制数据格式输出 {@code [mask, binary]}，见 {@link #writeBinary}
+     */
+    public void write(String source, JsonGenerator generator, SerializerProvider provider) throws IOException {
+        String mask = mask(source);
+        if (maskOnly(provider)) {
+            generator.writeString(mask);
+            return;
+        }
+
+        EncryptionContextBean encryption = encryption();
+        if (SensitiveBatchWriter.defer(encryption, source, mask, generator, provider))
+            return;
+
+        EncryptionResult result = encryption.encrypt(source);
+        writeEnvelope(mask, result, generator, provider);
+    }
+
+    /**
+     * 批量脱敏并加密，整批数据只解析一次算法模式与密钥，并复用加密算法实例
+     *
+     * @param sources  原数据，空白数据原样输出
+     * @param provider 本次序列化上下文
+     */
+    public Batch batch(List<String> sources, SerializerProvider provider) {
+        int size = sources.size();
+        String[] masks = new String[size];
+        EncryptionResult[] results = new EncryptionResult[size];
+        String[] deferredSources = new String[size];
+        boolean maskOnly = maskOnly(provider);
+        boolean deferred = !maskOnly && SensitiveBatchWriter.deferred(provider);
+
+        List<String> pending = new ArrayList<>(size);
+        int[] positions = new int[size];
+        for (int i = 0; i < size; i++) {
+            String source = sources.get(i);
+            if (StringUtils.isBlank(source)) {
+                masks[i] = source;
+                continue;
+            }
+
+            masks[i] = mask(source);
+            if (deferred) {
+                deferredSources[i] = source;
+            } else if (!maskOnly) {
+                positions[pending.size()] = i;
+                pending.add(source);
+            }
+        }
+
+        if (!pending.isEmpty()) {
+            List<EncryptionResult> encrypted = encryption().encryptAll(pending);
+            for (int i = 0; i < encrypted.size(); i++) {
+                results[positions[i]] = encrypted.get(i);
+            }
+        }
+        return new Batch(encryption(), masks, results, deferredSources);
+    }
+
+    private static void writeEnvelope(String mask, EncryptionResult result, JsonGenerator generator, SerializerProvider provider) throws IOException {
+        if (tokenize(provider)) {
+            generator.writeString(SensitiveToken.tokenize(result, mask));
+            return;
+        }
+
+        if (binary(generator)) {
+            writeBinary(mask, result, generator);
+            return;
+        }
+
+        char[] buffer = bufferOf(provider, result.formattedLength(mask));
+        int length = result.writeFormatted(buffer, 0, mask);
+        generator.writeString(buffer, 0, length);
+    }
+
+    /**
+     * 是否以令牌替代密文：已注册令牌库，且单次序列化将 {@link SensitiveSerializer#TOKENIZE} 设置为 {@link Boolean#TRUE}
+     */
+    static boolean tokenize(SerializerProvider provider) {
+        if (!SensitiveToken.enabled() || Objects.isNull(provider))
+            return false;
+
+        return Boolean.TRUE.equals(provider.getAttribute(SensitiveSerializer.TOKENIZE));
+    }
+
+    /**
+     * 单次序列化属性 {@link SensitiveSerializer#TENANT} 指定的租户与当前租户不同时切换当前租户，
+     * 无需切换时返回 {@code null}，try-with-resources 跳过关闭
+     */
+    static SensitiveTenant.Scope tenantScope(Object tenant) {
+        if (!(tenant instanceof String value) || value.equals(SensitiveTenant.current()))
+            return null;
+        return SensitiveTenant.open(value);
+    }
+
+    /**
+     * 目标为 CBOR/Smile 等支持原生二进制值的数据格式；{@link TokenBuffer} 用于 convertValue/valueToTree 等中间转换，仍输出文本格式
+     */
+    static boolean binary(JsonGenerator generator) {
+        return generator.canWriteBinaryNatively() && !(generator instanceof TokenBuffer);
+    }
+
+    /**
+     * 以长度为 2 的数组输出脱敏数据与二进制密文 {@link EncryptionResult#toBinary()}，避免 Base64 膨胀与编解码开销
+     */
+    static void writeBinary(String mask, EncryptionResult result, JsonGenerator generator) throws IOException {
+        generator.writeStartArray(null, 2);
+        generator.writeString(mask);
+        generator.writeBinary(result.toBinary());
+        generator.writeEndArray();
+    }
+
+    /**
+     * 是否仅输出脱敏数据：注解关闭加密、命中仅脱敏视图，或单次序列化设置了 {@link SensitiveSerializer#MASK_ONLY}
+     */
+    public boolean maskOnly(SerializerProvider provider) {
+        if (!encrypt)
+            return true;
+
+        if (Objects.isNull(provider))
+            return false;
+
+        if (Boolean.TRUE.equals(provider.getAttribute(SensitiveSerializer.MASK_ONLY)))
+            return true;
+
+        Class<?> activeView = provider.getActiveView();
+        if (Objects.isNull(activeView))
+            return false;
+
+        for (Class<?> view : maskOnlyViews) {
+            if (view.isAssignableFrom(activeView))
+                return true;
+        }
+        return false;
+    }
+
+    private static char[] bufferOf(SerializerProvider provider, int length) {
+        Object attribute = provider.getAttribute(BUFFER_ATTRIBUTE);
+        if (attribute instanceof char[] buffer && buffer.length >= length)
+            return buffer;
+
+        char[] buffer = new char[Math.max(length, DEFAULT_BUFFER_SIZE)];
+        provider.setAttribute(BUFFER_ATTRIBUTE, buffer);
+        return buffer;
+    }
+
+    /**
+     * 还原反序列化数据：标准脱敏数据结构解密，令牌格式数据从令牌库取回密文后解密，原数据需满足校验规则
+     */
+    public String resolve(String source) {
+        if (EncryptionResult.isEncryptionMaskData(source))
+            return encryption().decrypt(source);
+
+        if (SensitiveToken.isTokenMaskData(source))
+            return encryption().decrypt(SensitiveToken.resolve(source));
+
+        if (matches(source))
+            return source;
+
+        throw new IllegalArgumentException("敏感数据校验失败:不符合校验规则");
+    }
+
+    /**
+     * 还原二进制数据格式中的密文
+     */
+    public String resolve(byte[] binary) {
+        return encryption().decrypt(EncryptionResult.fromBinary(binary));
+    }
+
+    EncryptionContextBean encryption() {
+        return Objects.nonNull(encryption) ? encryption : EncryptionContextBean.instance;
+    }
+
+    /**
+     * 批量处理结果，按原数据顺序依次输出
+     */
+    public static final class Batch {
+        private final EncryptionContextBean encryption;
+        private final String[] masks;
+        private final EncryptionResult[] results;
+        private final String[] deferredSources;
+        private int next;
+
+        private Batch(EncryptionContextBean encryption, String[] masks, EncryptionResult[] results, String[] deferredSources) {
+            this.encryption = encryption;
+            this.masks = masks;
+            this.results = results;
+            this.deferredSources = deferredSources;
+        }
+
+        public void writeNext(JsonGenerator generator, SerializerProvider provider) throws IOException {
+            int index = next++;
+            String source = deferredSources[index];
+            if (Objects.nonNull(source)) {
+                if (SensitiveBatchWriter.defer(encryption, source, masks[index], generator, provider))
+                    return;
+                results[index] = encryption.encrypt(source);
+            }
+
+            EncryptionResult result = results[index];
+            if (Objects.isNull(result))
+                generator.writeString(masks[index]);
+            else
+                writeEnvelope(masks[index], result, generator, provider);
+        }
+    }
+}
\ No newline at end of file
@@ -16,9 +16,9 @@
 
 package com.asialjim.microapplet.sensitive.jackson;
 
+import com.asialjim.microapplet.sensitive.SensitiveTenant;
 import com.asialjim.microapplet.sensitive.annotation.Sensitive;
-import com.asialjim.microapplet.sensitive.encrypt.EncryptionContextBean;
-import com.asialjim.microapplet.sensitive.encrypt.EncryptionResult;
+import com.asialjim.microapplet.sensitive.token.SensitiveToken;
 import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.BeanProperty;
 import com.fasterxml.jackson.databind.JsonSerializer;
@@ -27,39 +27,85 @@ import com.fasterxml.jackson.databind.ser.ContextualSerializer;
 import org.apache.commons.lang3.StringUtils;
 
 import java.io.IOException;
-import java.util.Objects;
+import java.lang.reflect.Array;
+import java.math.BigDecimal;
+import java.util.*;
 
 /**
  * 敏感数据序列化工具
+ * <p>
+ * 支持字符串、数值等标量，以及数组、{@link Collection}、{@link Map} 的值与 {@link Optional}；
+ * 容器中的元素整批脱敏并加密，标量统一按字符串输出
  *
  * @author <a href="mailto:asialjim@hotmail.com">Asial Jim</a>
  * @version 1.0
  * @since 2025/11/17, &nbsp;&nbsp; <em>version:1.0</em>
  */
 @SuppressWarnings("unused")
-public class SensitiveSerializer extends JsonSerializer<String> implements ContextualSerializer {
-    private final Sensitive sensitive;
+public class SensitiveSerializer extends JsonSerializer<Object> implements ContextualSerializer {
+    /**
+     * 单次序列化属性：值为 {@link Boolean#TRUE} 时所有敏感字段仅输出脱敏数据，
+     * 如 {@code objectMapper.writer().withAttribute(SensitiveSerializer.MASK_ONLY, true)}
+     */
+    public static final String MASK_ONLY = "sensitive.mask-only";
+
+    /**
+     * 单次序列化属性：已注册 {@link SensitiveToken} 令牌库时，值为 {@link Boolean#TRUE} 则本次以令牌替代密文格式数据，
+     * 如 {@code objectMapper.writer().withAttribute(SensitiveSerializer.TOKENIZE, true)}；未设置时输出密文格式数据，
+     * 持久化或跨节点传递的序列化结果不会意外写入只在当前节点有效的令牌。WebFlux 响应体由 {@code SensitiveJackson2JsonEncoder} 设置
+     */
+    public static final String TOKENIZE = "sensitive.tokenize";
+
+    /**
+     * 单次序列化/反序列化属性：加解密时的当前租户，见 {@link SensitiveTenant}。用于线程不固定的响应式编解码，
+     * 如 {@code objectMapper.writer().withAttribute(SensitiveSerializer.TENANT, tenant)}
+     */
+    public static final String TENANT = "sensitive.tenant";
+
+    private final SensitivePlan plan;
 
     public SensitiveSerializer() {
-        this(null);
+        this((SensitivePlan) null);
     }
 
     public SensitiveSerializer(Sensitive sensitive) {
-        this.sensitive = sensitive;
+        this(SensitivePlan.of(sensitive));
+    }
+
+    public SensitiveSerializer(SensitivePlan plan) {
+        this.plan = plan;
     }
 
 
     @Override
-    public void serialize(String s, JsonGenerator jsonGenerator, SerializerProvider serializerProvider) throws IOException {
-        if (StringUtils.isBlank(s)) {
-            jsonGenerator.writeString(s);
+    public void serialize(Object value, JsonGenerator jsonGenerator, SerializerProvider serializerProvider) throws IOException {
+        if (Objects.isNull(plan)) {
+            serializerProvider.defaultSerializeValue(value, jsonGenerator);
+            return;
+        }
+
+        try (SensitiveTenant.Scope ignored = SensitivePlan.tenantScope(serializerProvider.getAttribute(TENANT))) {
+            write(value, jsonGenerator, serializerProvider);
+        }
+    }
+
+    private void write(Object value, JsonGenerator jsonGenerator, SerializerProvider serializerProvider) throws IOException {
+        if (isScalar(value)) {
+            String s = textOf(value);
+            if (StringUtils.isBlank(s)) {
+                jsonGenerator.writeString(s);
+                return;
+            }
+
+            plan.write(s, jsonGenerator, serializerProvider);
             return;
         }
 
-        String mask = JacksonSensitiveHandler.mask(sensitive, s);
-        EncryptionResult encrypt = EncryptionContextBean.instance.encrypt(s);
-        String target = encrypt.withMask(mask);
-        jsonGenerator.writeString(target);
+        // 容器类型：先收集全部元素整批处理，再按原结构输出
+        List<String> sources = new ArrayList<>();
+        collect(value, sources);
+        SensitivePlan.Batch batch = plan.batch(sources, serializerProvider);
+        write(value, jsonGenerator, serializerProvider, batch);
     }
 
     @Override
@@ -70,6 +116,73 @@ public class SensitiveSerializer extends JsonSerializer<String> implements Conte
         Sensitive annotation = beanProperty.getAnnotation(Sensitive.class);
         if (Objects.isNull(annotation))
             return this;
-        return new SensitiveSerializer(annotation);
+        return new SensitiveSerializer(SensitivePlan.of(annotation, beanProperty));
+    }
+
+    private static boolean isScalar(Object value) {
+        return !(value instanceof Optional<?>)
+                && !(value instanceof Collection<?>)
+                && !(value instanceof Map<?, ?>)
+                && !value.getClass().isArray();
+    }
+
+    private static String textOf(Object value) {
+        if (value instanceof BigDecimal decimal)
+            return decimal.toPlainString();
+        return String.valueOf(value);
+    }
+
+    private static void collect(Object value, List<String> sources) {
+        if (Objects.isNull(value))
+            return;
+
+        if (value instanceof Optional<?> optional) {
+            collect(optional.orElse(null), sources);
+        } else if (value instanceof Map<?, ?> map) {
+            for (Object item : map.values()) {
+                collect(item, sources);
+            }
+        } else if (value instanceof Collection<?> collection) {
+            for (Object item : collection) {
+                collect(item, sources);
+            }
+        } else if (value.getClass().isArray()) {
+            int length = Array.getLength(value);
+            for (int i = 0; i < length; i++) {
+                collect(Array.get(value, i), sources);
+            }
+        } else {
+            sources.add(textOf(value));
+        }
+    }
+
+    private static void write(Object value, JsonGenerator generator, SerializerProvider provider, SensitivePlan.Batch batch) throws IOException {
+        if (Objects.isNull(value)) {
+            generator.writeNull();
+        } else if (value instanceof Optional<?> optional) {
+            write(optional.orElse(null), generator, provider, batch);
+        } else if (value instanceof Map<?, ?> map) {
+            generator.writeStartObject(value);
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                generator.writeFieldName(String.valueOf(entry.getKey()));
+                write(entry.getValue(), generator, provider, batch);
+            }
+            generator.writeEndObject();
+        } else if (value instanceof Collection<?> collection) {
+            generator.writeStartArray(value, collection.size());
+            for (Object item : collection) {
+                write(item, generator, provider, batch);
+            }
+            generator.writeEndArray();
+        } else if (value.getClass().isArray()) {
+            int length = Array.getLength(value);
+            generator.writeStartArray(value, length);
+            for (int i = 0; i < length; i++) {
+                write(Array.get(value, i), generator, provider, batch);
+            }
+            generator.writeEndArray();
+        } else {
+            batch.writeNext(generator, provider);
+        }
     }
 }
\ No newline at end of file
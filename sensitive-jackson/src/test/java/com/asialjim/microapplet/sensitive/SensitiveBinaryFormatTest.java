@@ -0,0 +1,134 @@
+/*
+ *    Copyright 2014-2025 <a href="mailto:asialjim@qq.com">Asial Jim</a>
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+
+package com.asialjim.microapplet.sensitive;
+
+import com.asialjim.microapplet.sensitive.annotation.Sensitive;
+import com.asialjim.microapplet.sensitive.encrypt.*;
+import com.asialjim.microapplet.sensitive.handler.*;
+import com.asialjim.microapplet.sensitive.jackson.SensitiveBatchWriter;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import lombok.Data;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.Assert.*;
+
+/**
+ * 二进制数据格式测试：CBOR 中敏感数据输出为 [mask, binary]，并可还原
+ *
+ * @author <a href="mailto:asialjim@hotmail.com">Asial Jim</a>
+ * @version 1.0
+ * @since 2026/10/19, &nbsp;&nbsp; <em>version:1.0</em>
+ */
+public class SensitiveBinaryFormatTest {
+    private ObjectMapper cborMapper;
+    private ObjectMapper jsonMapper;
+
+    @Before
+    public void setUp() throws Exception {
+        new BankCardSensitiveHandler().init();
+        new ChineseCitizenIdCardSensitiveHandler().init();
+        new ChineseMobilePhoneSensitiveHandler().init();
+
+        SecretKeyRepository.Pair pair = new SecretKeyRepository.Pair().setEncKey(KeyManager.generateModernEncryptionKey());
+        new EncryptionContextBean(Collections.singletonList(new EncryptionContext(AlgorithmMode.MODERN)), () -> AlgorithmMode.MODERN, mode -> pair).init();
+
+        cborMapper = new CBORMapper();
+        jsonMapper = new ObjectMapper();
+    }
+
+    @Test
+    public void testEncryptionResultBinary() {
+        EncryptionResult result = EncryptionContextBean.instance.encrypt("13800138000");
+        byte[] binary = result.toBinary();
+        assertTrue(binary.length < result.toFormattedString().length());
+
+        EncryptionResult parsed = EncryptionResult.fromBinary(binary);
+        assertEquals(result.toFormattedString(), parsed.toFormattedString());
+        assertEquals("13800138000", EncryptionContextBean.instance.decrypt(parsed));
+
+        assertThrows(IllegalArgumentException.class, () -> EncryptionResult.fromBinary(new byte[0]));
+        assertThrows(IllegalArgumentException.class, () -> EncryptionResult.fromBinary(new byte[]{2, 'G', 'M', 12, 1}));
+    }
+
+    @Test
+    public void testCborRoundTrip() throws Exception {
+        BinaryUser user = user();
+        byte[] cbor = cborMapper.writeValueAsBytes(user);
+
+        JsonNode node = cborMapper.readTree(cbor);
+        JsonNode phone = node.get("phone");
+        assertTrue(phone.isArray());
+        assertEquals("138****8000", phone.get(0).asText());
+        assertTrue(phone.get(1).isBinary());
+        assertTrue(node.get("phones").get(0).get(1).isBinary());
+        assertTrue(node.get("account").get(1).isBinary());
+
+        assertEquals(user, cborMapper.readValue(cbor, BinaryUser.class));
+
+        // 同样的数据以 JSON 输出时仍为文本格式，且比 CBOR 中的二进制格式更大
+        String json = jsonMapper.writeValueAsString(user);
+        assertTrue(EncryptionResult.isEncryptionMaskData(jsonMapper.readTree(json).get("phone").asText()));
+        assertTrue(cbor.length < json.getBytes().length);
+
+        // 中间转换仍为文本格式
+        assertTrue(cborMapper.valueToTree(user).get("phone").isTextual());
+    }
+
+    @Test
+    public void testCborBatchWriter() throws Exception {
+        BinaryUser user = user();
+        byte[] cbor = new SensitiveBatchWriter(cborMapper.writer()).writeValueAsBytes(List.of(user, user));
+
+        JsonNode node = cborMapper.readTree(cbor);
+        assertTrue(node.get(1).get("phone").get(1).isBinary());
+        BinaryUser[] users = cborMapper.readValue(cbor, BinaryUser[].class);
+        assertEquals(user, users[0]);
+        assertEquals(user, users[1]);
+    }
+
+    private static BinaryUser user() {
+        BinaryUser user = new BinaryUser();
+        user.setPhone("13800138000");
+        user.setPhones(List.of("13900139000", "13700137000"));
+        user.setAccount(6222021234567890123L);
+        user.setIdCard(Optional.of("110101199003071234"));
+        return user;
+    }
+
+    @Data
+    static class BinaryUser {
+        @Sensitive(SensitiveType.ChineseMobilePhone)
+        private String phone;
+
+        @Sensitive(SensitiveType.ChineseMobilePhone)
+        private List<String> phones;
+
+        @Sensitive(SensitiveType.BankCard)
+        private Long account;
+
+        @Sensitive(SensitiveType.ChineseCitizenIdCard)
+        private Optional<String> idCard;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,88 @@
+/*
+ *    Copyright 2014-2025 <a href="mailto:asialjim@qq.com">Asial Jim</a>
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package com.asialjim.microapplet.sensitive;
+
+import com.asialjim.microapplet.sensitive.annotation.Sensitive;
+import com.asialjim.microapplet.sensitive.encrypt.*;
+import com.asialjim.microapplet.sensitive.handler.*;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.Data;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Collections;
+
+import static org.junit.Assert.*;
+
+/**
+ * Jackson 序列化优先使用编译期生成的脱敏函数测试，生成类见 {@link SensitiveGeneratedMaskerTest_MemberSensitiveMasker}
+ *
+ * @author <a href="mailto:asialjim@hotmail.com">Asial Jim</a>
+ * @version 1.0
+ * @since 2026/10/19, &nbsp;&nbsp; <em>version:1.0</em>
+ */
+public class SensitiveGeneratedMaskerTest {
+
+    @Before
+    public void setUp() throws Exception {
+        new ChineseMobilePhoneSensitiveHandler().init();
+        new EMailSensitiveHandler().init();
+
+        SecretKeyRepository.Pair pair = new SecretKeyRepository.Pair().setEncKey(KeyManager.generateModernEncryptionKey());
+        new EncryptionContextBean(Collections.singletonList(new EncryptionContext(AlgorithmMode.MODERN)), () -> AlgorithmMode.MODERN, mode -> pair).init();
+        SensitiveGeneratedMaskerTest_MemberSensitiveMasker.CALLS.set(0);
+    }
+
+    @Test
+    public void testGeneratedFunction() throws Exception {
+        assertSame(SensitiveGeneratedMaskerTest_MemberSensitiveMasker.INSTANCE, SensitiveMasker.find(Member.class));
+        assertNull(SensitiveMasker.find(Plain.class));
+        assertThrows(IllegalArgumentException.class, () -> SensitiveMasker.of(Plain.class));
+
+        Member member = new Member();
+        member.setPhone("13800138000");
+        member.setEmail("zhangsan@example.com");
+
+        ObjectMapper objectMapper = new ObjectMapper();
+        JsonNode node = objectMapper.readTree(objectMapper.writeValueAsString(member));
+        assertEquals(1, SensitiveGeneratedMaskerTest_MemberSensitiveMasker.CALLS.get());
+        assertTrue(node.get("phone").asText().endsWith("|138****8000"));
+        assertEquals("13800138000", EncryptionContextBean.instance.decrypt(node.get("phone").asText()));
+
+        // 生成类未提供函数的属性仍按注解编译
+        assertTrue(node.get("email").asText().endsWith("|zhan*****@example.com"));
+
+        Member restored = objectMapper.readValue(objectMapper.writeValueAsString(member), Member.class);
+        assertEquals("13800138000", restored.getPhone());
+        assertEquals(2, SensitiveGeneratedMaskerTest_MemberSensitiveMasker.CALLS.get());
+    }
+
+    @Data
+    public static class Member {
+        @Sensitive(SensitiveType.ChineseMobilePhone)
+        private String phone;
+        @Sensitive(SensitiveType.EMail)
+        private String email;
+    }
+
+    @Data
+    public static class Plain {
+        @Sensitive(SensitiveType.ChineseMobilePhone)
+        private String phone;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,67 @@
+/*
+ *    Copyright 2014-2025 <a href="mailto:asialjim@qq.com">Asial Jim</a>
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package com.asialjim.microapplet.sensitive;
+
+import com.asialjim.microapplet.sensitive.handler.SensitiveHandler;
+import com.asialjim.microapplet.sensitive.handler.SensitiveType;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * 模拟 {@code sensitive-processor} 为 {@link SensitiveGeneratedMaskerTest.Member} 生成的处理工具，记录脱敏函数调用次数
+ */
+public final class SensitiveGeneratedMaskerTest_MemberSensitiveMasker implements SensitiveMasker<SensitiveGeneratedMaskerTest.Member> {
+    public static final SensitiveGeneratedMaskerTest_MemberSensitiveMasker INSTANCE = new SensitiveGeneratedMaskerTest_MemberSensitiveMasker();
+    static final AtomicInteger CALLS = new AtomicInteger();
+
+    private static final Function<String, String> PHONE = SensitiveHandler.maskFunction(SensitiveType.ChineseMobilePhone, 0, 0, "", true);
+
+    @Override
+    public Class<SensitiveGeneratedMaskerTest.Member> type() {
+        return SensitiveGeneratedMaskerTest.Member.class;
+    }
+
+    @Override
+    public Function<String, String> maskFunction(String property) {
+        if (!"phone".equals(property))
+            return null;
+
+        return source -> {
+            CALLS.incrementAndGet();
+            return PHONE.apply(source);
+        };
+    }
+
+    @Override
+    public SensitiveGeneratedMaskerTest.Member mask(SensitiveGeneratedMaskerTest.Member value) {
+        if (value == null)
+            return null;
+
+        value.setPhone(PHONE.apply(value.getPhone()));
+        return value;
+    }
+
+    @Override
+    public SensitiveGeneratedMaskerTest.Member encrypt(SensitiveGeneratedMaskerTest.Member value) {
+        if (value == null)
+            return null;
+
+        value.setPhone(SensitiveMasker.encrypt(value.getPhone(), PHONE));
+        return value;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,117 @@
+/*
+ *    Copyright 2014-2025 <a href="mailto:asialjim@qq.com">Asial Jim</a>
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package com.asialjim.microapplet.sensitive;
+
+import com.asialjim.microapplet.sensitive.encrypt.*;
+import com.asialjim.microapplet.sensitive.handler.*;
+import com.asialjim.microapplet.sensitive.jackson.SensitiveJsonRedactor;
+import com.asialjim.microapplet.sensitive.jackson.SensitivePlan;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+
+import static org.junit.Assert.*;
+
+/**
+ * 原始 JSON 流式脱敏测试
+ *
+ * @author <a href="mailto:asialjim@hotmail.com">Asial Jim</a>
+ * @version 1.0
+ * @since 2026/10/19, &nbsp;&nbsp; <em>version:1.0</em>
+ */
+public class SensitiveJsonRedactorTest {
+    private static final String JSON = "{\"total\":2,\"users\":[" +
+            "{\"id\":1,\"name\":\"张三\",\"phone\":\"13800138000\",\"cards\":[\"6222021234567890123\",6222021234567890124],\"extra\":{\"phone\":\"keep\"}}," +
+            "{\"id\":2,\"name\":\"李四\",\"phone\":\"13900139000\",\"cards\":[],\"flag\":true,\"note\":null}]," +
+            "\"a/b\":\"13800138000\"}";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private SensitiveJsonRedactor redactor;
+
+    @Before
+    public void setUp() throws Exception {
+        new BankCardSensitiveHandler().init();
+        new ChineseMobilePhoneSensitiveHandler().init();
+        new ChineseNameSensitiveHandler().init();
+
+        SecretKeyRepository.Pair pair = new SecretKeyRepository.Pair().setEncKey(KeyManager.generateModernEncryptionKey());
+        new EncryptionContextBean(Collections.singletonList(new EncryptionContext(AlgorithmMode.MODERN)), () -> AlgorithmMode.MODERN, mode -> pair).init();
+
+        redactor = new SensitiveJsonRedactor()
+                .rule("/users/*/phone", SensitiveType.ChineseMobilePhone)
+                .rule("/users/*/cards", SensitivePlan.of(SensitiveType.BankCard, 0, 0, "", true, false))
+                .rule("/users/0/name", SensitiveType.ChineseName)
+                .rule("/a~1b", SensitiveType.ChineseMobilePhone);
+    }
+
+    @Test
+    public void testInvalidValue() throws Exception {
+        // 不符合手机号校验规则的数据整体脱敏，输出仍为完整 JSON
+        String json = redactor.redact("{\"users\":[{\"phone\":\"12345\"},{\"phone\":\"13800138000\"}],\"total\":2}");
+        JsonNode node = objectMapper.readTree(json);
+        String invalid = node.get("users").get(0).get("phone").asText();
+        assertTrue(invalid.endsWith("|*****"));
+        assertEquals("12345", EncryptionContextBean.instance.decrypt(invalid));
+        assertTrue(node.get("users").get(1).get("phone").asText().endsWith("|138****8000"));
+        assertEquals(2, node.get("total").asInt());
+    }
+
+    @Test
+    public void testRedact() throws Exception {
+        JsonNode node = objectMapper.readTree(redactor.redact(JSON));
+
+        JsonNode first = node.get("users").get(0);
+        String phone = first.get("phone").asText();
+        assertTrue(phone.endsWith("|138****8000"));
+        assertEquals("13800138000", EncryptionContextBean.instance.decrypt(phone));
+        assertTrue(first.get("name").asText().endsWith("|张*"));
+
+        // 规则指向数组时处理其中所有字符串与数值
+        assertEquals("622202*********0123", first.get("cards").get(0).asText());
+        assertEquals("622202*********0124", first.get("cards").get(1).asText());
+
+        // 未命中规则的数据原样复制
+        assertEquals("keep", first.get("extra").get("phone").asText());
+        assertEquals(2, node.get("total").asInt());
+        assertEquals("李四", node.get("users").get(1).get("name").asText());
+        assertTrue(node.get("users").get(1).get("flag").asBoolean());
+        assertTrue(node.get("users").get(1).get("note").isNull());
+        assertTrue(node.get("users").get(1).get("phone").asText().endsWith("|139****9000"));
+        assertTrue(node.get("a/b").asText().endsWith("|138****8000"));
+    }
+
+    @Test
+    public void testStream() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        redactor.redact(new ByteArrayInputStream(JSON.getBytes(StandardCharsets.UTF_8)), out);
+        out.write(' ');
+
+        JsonNode node = objectMapper.readTree(out.toByteArray());
+        assertTrue(node.get("users").get(0).get("phone").asText().endsWith("|138****8000"));
+    }
+
+    @Test
+    public void testInvalidPath() {
+        assertThrows(IllegalArgumentException.class, () -> redactor.rule("users/phone", SensitiveType.ChineseMobilePhone));
+    }
+}
\ No newline at end of file
@@ -0,0 +1,133 @@
+/*
+ *    Copyright 2014-2025 <a href="mailto:asialjim@qq.com">Asial Jim</a>
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package com.asialjim.microapplet.sensitive;
+
+import com.asialjim.microapplet.sensitive.annotation.Sensitive;
+import com.asialjim.microapplet.sensitive.encrypt.*;
+import com.asialjim.microapplet.sensitive.handler.*;
+import com.asialjim.microapplet.sensitive.jackson.SensitiveModule;
+import com.asialjim.microapplet.sensitive.jackson.SensitivePlan;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import lombok.Data;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Collections;
+
+import static org.junit.Assert.*;
+
+/**
+ * Jackson 模块测试：编程式规则、mix-in 与 record
+ *
+ * @author <a href="mailto:asialjim@hotmail.com">Asial Jim</a>
+ * @version 1.0
+ * @since 2026/10/19, &nbsp;&nbsp; <em>version:1.0</em>
+ */
+public class SensitiveModuleTest {
+    private ObjectMapper objectMapper;
+
+    @Before
+    public void setUp() throws Exception {
+        new ChineseMobilePhoneSensitiveHandler().init();
+        new ChineseNameSensitiveHandler().init();
+        new CustomerSensitiveHandler().init();
+        new EMailSensitiveHandler().init();
+
+        SecretKeyRepository.Pair pair = new SecretKeyRepository.Pair().setEncKey(KeyManager.generateModernEncryptionKey());
+        new EncryptionContextBean(Collections.singletonList(new EncryptionContext(AlgorithmMode.MODERN)), () -> AlgorithmMode.MODERN, mode -> pair).init();
+
+        // 后注册的模块先修改属性
+        objectMapper = new ObjectMapper();
+        objectMapper.registerModule(new BlackbirdModule());
+        objectMapper.registerModule(new SensitiveModule()
+                .rule(ThirdPartyUser.class, "mobile", SensitiveType.ChineseMobilePhone)
+                .rule(ThirdPartyUser.class, "code", SensitivePlan.of(SensitiveType.Customer, 1, 1, "[A-Z]{5}", true, false))
+                .rule(ThirdPartyContact.class, "mobile", SensitiveType.ChineseMobilePhone));
+        objectMapper.addMixIn(ThirdPartyUser.class, ThirdPartyUserMixIn.class);
+    }
+
+    @Test
+    public void testRuleAndMixIn() throws Exception {
+        ThirdPartyUser user = new ThirdPartyUser();
+        user.setId(1L);
+        user.setMobile("13800138000");
+        user.setEmail("zhangsan@example.com");
+        user.setCode("ABCDE");
+        user.setNickname("nick");
+
+        String json = objectMapper.writeValueAsString(user);
+        JsonNode node = objectMapper.readTree(json);
+        assertTrue(node.get("mobile").asText().endsWith("|138****8000"));
+        assertTrue(EncryptionResult.isEncryptionMaskData(node.get("email").asText()));
+        assertEquals("A***E", node.get("code").asText());
+        assertEquals("nick", node.get("nickname").asText());
+        assertEquals(1L, node.get("id").asLong());
+
+        // 仅脱敏数据不能回传
+        assertThrows(Exception.class, () -> objectMapper.readValue(json, ThirdPartyUser.class));
+
+        ((com.fasterxml.jackson.databind.node.ObjectNode) node).put("code", "ABCDE");
+        ThirdPartyUser roundTrip = objectMapper.treeToValue(node, ThirdPartyUser.class);
+        assertEquals(user, roundTrip);
+    }
+
+    @Test
+    public void testRecord() throws Exception {
+        ThirdPartyContact contact = new ThirdPartyContact("张三", "13800138000");
+        String json = objectMapper.writeValueAsString(contact);
+        assertTrue(objectMapper.readTree(json).get("mobile").asText().endsWith("|138****8000"));
+        assertEquals(contact, objectMapper.readValue(json, ThirdPartyContact.class));
+
+        // 编程式规则同样校验原数据
+        assertThrows(Exception.class, () -> objectMapper.readValue("{\"name\":\"张三\",\"mobile\":\"12345\"}", ThirdPartyContact.class));
+    }
+
+    @Test
+    public void testContextReinitialized() throws Exception {
+        ThirdPartyContact contact = new ThirdPartyContact("张三", "13800138000");
+        objectMapper.writeValueAsString(contact);
+
+        // 规则与缓存的序列化器使用重新初始化后的加密上下文
+        SecretKeyRepository.Pair pair = new SecretKeyRepository.Pair().setEncKey(KeyManager.generateModernEncryptionKey());
+        new EncryptionContextBean(Collections.singletonList(new EncryptionContext(AlgorithmMode.MODERN)), () -> AlgorithmMode.MODERN, mode -> pair).init();
+        String json = objectMapper.writeValueAsString(contact);
+        assertEquals("13800138000", EncryptionContextBean.instance.decrypt(objectMapper.readTree(json).get("mobile").asText()));
+        assertEquals(contact, objectMapper.readValue(json, ThirdPartyContact.class));
+    }
+
+    /**
+     * 模拟无法修改源码的第三方类
+     */
+    @Data
+    static class ThirdPartyUser {
+        private Long id;
+        private String mobile;
+        private String email;
+        private String code;
+        private String nickname;
+    }
+
+    abstract static class ThirdPartyUserMixIn {
+        @Sensitive(SensitiveType.EMail)
+        private String email;
+    }
+
+    record ThirdPartyContact(String name, String mobile) {
+    }
+}
\ No newline at end of file
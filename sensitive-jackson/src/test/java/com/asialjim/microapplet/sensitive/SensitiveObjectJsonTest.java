@@ -22,12 +22,13 @@ import com.asialjim.microapplet.sensitive.handler.*;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.Data;
 import lombok.SneakyThrows;
+import org.apache.commons.lang3.StringUtils;
 import org.junit.Before;
 import org.junit.Test;
 
 import javax.crypto.SecretKey;
 import java.io.IOException;
-import java.util.Collections;
+import java.util.*;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.Assert.*;
@@ -67,7 +68,18 @@ public class SensitiveObjectJsonTest {
         pair.setEncKey(secretKey);
         EncryptionContext ctx = new EncryptionContext(AlgorithmMode.MODERN);
         AlgorithmModeConfig cfg = () -> AlgorithmMode.MODERN;
-        SecretKeyRepository repository = mode -> pair;
+        SecretKeyRepository repository = new SecretKeyRepository() {
+            @Override
+            public Pair pairOf(AlgorithmMode mode) {
+                return pair;
+            }
+
+            // 各租户共用测试密钥，仍按租户标记密文
+            @Override
+            public boolean tenantAware() {
+                return true;
+            }
+        };
 
         EncryptionContextBean bean = new EncryptionContextBean(Collections.singletonList(ctx), cfg, repository);
         bean.init();
@@ -166,6 +178,158 @@ public class SensitiveObjectJsonTest {
         System.out.println();
     }
 
+    @Test
+    public void testMaskedEnvelope() throws IOException {
+        String json = objectMapper.writeValueAsString(testUser);
+        com.fasterxml.jackson.databind.JsonNode node = objectMapper.readTree(json);
+
+        // 序列化输出 _mask|algorithm|nonce|encrypt|mac|mask
+        String phone = node.get("phone").asText();
+        assertTrue(EncryptionResult.isEncryptionMaskData(phone));
+        assertTrue(phone.endsWith("|138****8000"));
+        assertTrue(node.get("bankCard").asText().endsWith("|622202*********0123"));
+
+        TestUser roundTripUser = objectMapper.readValue(json, TestUser.class);
+        assertEquals(testUser, roundTripUser);
+
+        // 原数据不满足校验规则时拒绝反序列化
+        assertThrows(Exception.class, () -> objectMapper.readValue("{\"phone\":\"12345\"}", TestUser.class));
+    }
+
+    @Test
+    public void testMaskOnly() throws IOException {
+        DisplayUser user = new DisplayUser();
+        user.setPhone("13800138000");
+        user.setIdCard("110101199001011234");
+
+        // 注解关闭加密
+        String json = objectMapper.writeValueAsString(user);
+        assertTrue(json.contains("\"phone\":\"138****8000\""));
+        assertFalse(json.contains("\"idCard\":\"110101********1234\""));
+
+        // 仅脱敏视图
+        json = objectMapper.writerWithView(DisplayView.class).writeValueAsString(user);
+        assertTrue(json.contains("\"idCard\":\"110101********1234\""));
+
+        // 单次序列化属性
+        json = objectMapper.writer().withAttribute(com.asialjim.microapplet.sensitive.jackson.SensitiveSerializer.MASK_ONLY, true).writeValueAsString(testUser);
+        assertTrue(json.contains("\"phone\":\"138****8000\""));
+        assertFalse(json.contains("_mask"));
+    }
+
+    @Test
+    public void testContainerAndScalarTypes() throws IOException {
+        ContainerUser user = new ContainerUser();
+        user.setAccount(6222021234567890123L);
+        user.setPhones(Arrays.asList("13800138000", null, "13900139000"));
+        user.setCards(new String[]{"6222021234567890123"});
+        user.setEmails(new LinkedHashMap<>(Map.of("home", "zhangsan@example.com")));
+        user.setIdCard(Optional.of("110101199001011234"));
+        user.setName("张三");
+
+        String json = objectMapper.writeValueAsString(user);
+        com.fasterxml.jackson.databind.JsonNode node = objectMapper.readTree(json);
+
+        // 标量按字符串输出，容器元素逐个脱敏加密，null 元素保持 null
+        assertTrue(node.get("account").asText().endsWith("|622202*********0123"));
+        assertTrue(node.get("phones").get(0).asText().endsWith("|138****8000"));
+        assertTrue(node.get("phones").get(1).isNull());
+        assertTrue(node.get("phones").get(2).asText().endsWith("|139****9000"));
+        assertTrue(node.get("cards").get(0).asText().endsWith("|622202*********0123"));
+        assertTrue(EncryptionResult.isEncryptionMaskData(node.get("emails").get("home").asText()));
+        assertTrue(node.get("idCard").asText().endsWith("|110101********1234"));
+        assertTrue(node.get("name").asText().endsWith("|张*"));
+
+        ContainerUser roundTripUser = objectMapper.readValue(json, ContainerUser.class);
+        assertEquals(user.getAccount(), roundTripUser.getAccount());
+        assertEquals(user.getPhones(), roundTripUser.getPhones());
+        assertArrayEquals(user.getCards(), roundTripUser.getCards());
+        assertEquals(user.getEmails(), roundTripUser.getEmails());
+        assertEquals(user.getIdCard(), roundTripUser.getIdCard());
+        assertEquals(user.getName(), roundTripUser.getName());
+
+        // 空 Optional
+        user.setIdCard(Optional.empty());
+        roundTripUser = objectMapper.readValue(objectMapper.writeValueAsString(user), ContainerUser.class);
+        assertEquals(Optional.empty(), roundTripUser.getIdCard());
+
+        // 仅脱敏模式下容器同样只输出脱敏数据
+        json = objectMapper.writer().withAttribute(com.asialjim.microapplet.sensitive.jackson.SensitiveSerializer.MASK_ONLY, true).writeValueAsString(user);
+        assertTrue(json.contains("\"phones\":[\"138****8000\",null,\"139****9000\"]"));
+    }
+
+    @Test
+    public void testRecord() throws IOException {
+        Contact contact = new Contact("13800138000", List.of("zhangsan@example.com"));
+        String json = objectMapper.writeValueAsString(contact);
+        assertTrue(objectMapper.readTree(json).get("phone").asText().endsWith("|138****8000"));
+        assertEquals(contact, objectMapper.readValue(json, Contact.class));
+    }
+
+    @Test
+    public void testBatchWriter() throws Exception {
+        List<TestUser> users = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            TestUser user = new TestUser();
+            user.setId((long) i);
+            user.setName(testUser.getName());
+            user.setPhone(testUser.getPhone());
+            user.setEmail(testUser.getEmail());
+            user.setIdCard(i % 2 == 0 ? testUser.getIdCard() : null);
+            user.setBankCard(testUser.getBankCard());
+            users.add(user);
+        }
+
+        // 小分块强制多线程加密
+        com.asialjim.microapplet.sensitive.jackson.SensitiveBatchWriter writer =
+                new com.asialjim.microapplet.sensitive.jackson.SensitiveBatchWriter(objectMapper.writerWithDefaultPrettyPrinter(), java.util.concurrent.ForkJoinPool.commonPool(), 64);
+        String json = writer.writeValueAsString(users);
+        assertTrue("应保留格式化输出", json.contains("\n"));
+
+        com.fasterxml.jackson.databind.JsonNode node = objectMapper.readTree(json);
+        assertTrue(node.get(0).get("phone").asText().endsWith("|138****8000"));
+        assertTrue(node.get(1).get("idCard").isNull());
+
+        List<TestUser> roundTrip = objectMapper.readValue(json, new com.fasterxml.jackson.core.type.TypeReference<List<TestUser>>() {
+        });
+        assertEquals(users, roundTrip);
+
+        // 多线程加密沿用调用线程的租户
+        String tenantJson = SensitiveTenant.call("tenant-a", () -> writer.writeValueAsString(users));
+        assertEquals(StringUtils.countMatches(tenantJson, "_mask|"), StringUtils.countMatches(tenantJson, "@tenant-a|"));
+
+        // 容器类型与仅脱敏模式
+        ContainerUser containerUser = new ContainerUser();
+        containerUser.setPhones(Arrays.asList("13800138000", "13900139000"));
+        json = new com.asialjim.microapplet.sensitive.jackson.SensitiveBatchWriter(objectMapper.writer()).writeValueAsString(containerUser);
+        assertEquals(containerUser.getPhones(), objectMapper.readValue(json, ContainerUser.class).getPhones());
+
+        json = new com.asialjim.microapplet.sensitive.jackson.SensitiveBatchWriter(objectMapper.writer().withAttribute(com.asialjim.microapplet.sensitive.jackson.SensitiveSerializer.MASK_ONLY, true))
+                .writeValueAsString(containerUser);
+        assertTrue(json.contains("\"phones\":[\"138****8000\",\"139****9000\"]"));
+    }
+
+    @Test
+    public void testBatchWriterFailure() {
+        List<TestUser> users = Collections.nCopies(300, testUser);
+        SecretKeyRepository failing = mode -> {
+            throw new IllegalStateException("密钥服务不可用");
+        };
+        new EncryptionContextBean(Collections.singletonList(new EncryptionContext(AlgorithmMode.MODERN)), () -> AlgorithmMode.MODERN, failing).init();
+
+        // 加密线程中的异常解包为 JsonMappingException，不以 CompletionException 逃逸
+        com.asialjim.microapplet.sensitive.jackson.SensitiveBatchWriter writer =
+                new com.asialjim.microapplet.sensitive.jackson.SensitiveBatchWriter(objectMapper.writer(), java.util.concurrent.ForkJoinPool.commonPool(), 64);
+        com.fasterxml.jackson.databind.JsonMappingException e =
+                assertThrows(com.fasterxml.jackson.databind.JsonMappingException.class, () -> writer.writeValueAsString(users));
+        assertTrue(e.getCause() instanceof IllegalStateException);
+
+        // 单块在当前线程加密，异常类型相同
+        e = assertThrows(com.fasterxml.jackson.databind.JsonMappingException.class,
+                () -> new com.asialjim.microapplet.sensitive.jackson.SensitiveBatchWriter(objectMapper.writer()).writeValueAsString(List.of(testUser)));
+        assertTrue(e.getCause() instanceof IllegalStateException);
+    }
+
     @Test
     public void testEdgeCases() throws IOException {
         System.out.println("[INFO] 开始测试：边界情况处理");
@@ -195,6 +359,48 @@ public class SensitiveObjectJsonTest {
         System.out.println("==============");
         System.out.println();
     }
+    @Test
+    public void testTokenVault() throws Exception {
+        String envelope = objectMapper.writeValueAsString(testUser);
+
+        com.asialjim.microapplet.sensitive.token.LocalTokenVault vault =
+                new com.asialjim.microapplet.sensitive.token.LocalTokenVault(1000, java.time.Duration.ofMinutes(5), 64 * 1024);
+        com.asialjim.microapplet.sensitive.token.SensitiveToken.register(vault);
+        try {
+            // 未按次启用令牌化时仍输出密文格式数据
+            String json = objectMapper.writeValueAsString(testUser);
+            assertTrue(json.contains("_mask|"));
+            assertFalse(json.contains("_tok|"));
+
+            com.fasterxml.jackson.databind.ObjectWriter writer =
+                    objectMapper.writer().withAttribute(com.asialjim.microapplet.sensitive.jackson.SensitiveSerializer.TOKENIZE, true);
+            json = writer.writeValueAsString(testUser);
+            com.fasterxml.jackson.databind.JsonNode node = objectMapper.readTree(json);
+            String phone = node.get("phone").asText();
+            assertTrue(phone.matches("_tok\\|[A-Za-z0-9_-]{16}\\|138\\*{4}8000"));
+            assertFalse(json.contains("_mask"));
+            assertTrue("令牌格式应明显短于密文格式", json.length() * 2 < envelope.length());
+            assertEquals(testUser, objectMapper.readValue(json, TestUser.class));
+
+            // 密文格式数据仍可还原
+            assertEquals(testUser, objectMapper.readValue(envelope, TestUser.class));
+
+            // 延迟批量加密同样输出令牌
+            json = new com.asialjim.microapplet.sensitive.jackson.SensitiveBatchWriter(writer).writeValueAsString(List.of(testUser, testUser));
+            assertEquals(10, StringUtils.countMatches(json, "\"_tok|"));
+            assertEquals(List.of(testUser, testUser), objectMapper.readValue(json, new com.fasterxml.jackson.core.type.TypeReference<List<TestUser>>() {
+            }));
+
+            // 令牌失效后无法还原
+            vault.invalidate(phone.substring(5, 21));
+            String invalidated = objectMapper.writeValueAsString(Map.of("phone", phone));
+            assertThrows(Exception.class, () -> objectMapper.readValue(invalidated, TestUser.class));
+        } finally {
+            vault.close();
+        }
+        assertNull(com.asialjim.microapplet.sensitive.token.SensitiveToken.vault());
+    }
+
 
     /**
      * 测试用实体类，包含各种敏感字段
@@ -218,4 +424,48 @@ public class SensitiveObjectJsonTest {
         @Sensitive(SensitiveType.BankCard)
         private String bankCard;
     }
+
+    interface DisplayView {
+    }
+
+    @Data
+    static class DisplayUser {
+        @Sensitive(value = SensitiveType.ChineseMobilePhone, encrypt = false)
+        private String phone;
+
+        @Sensitive(value = SensitiveType.ChineseCitizenIdCard, maskOnlyViews = DisplayView.class)
+        private String idCard;
+    }
+
+    @Data
+    static class ContainerUser {
+        @Sensitive(SensitiveType.BankCard)
+        private Long account;
+
+        @Sensitive(SensitiveType.ChineseMobilePhone)
+        private List<String> phones;
+
+        @Sensitive(SensitiveType.BankCard)
+        private String[] cards;
+
+        @Sensitive(SensitiveType.EMail)
+        private Map<String, String> emails;
+
+        @Sensitive(SensitiveType.ChineseCitizenIdCard)
+        private Optional<String> idCard;
+
+        private String name;
+
+        /**
+         * 注解声明在访问方法上
+         */
+        @Sensitive(SensitiveType.ChineseName)
+        public String getName() {
+            return name;
+        }
+    }
+
+    record Contact(@Sensitive(SensitiveType.ChineseMobilePhone) String phone,
+                   @Sensitive(SensitiveType.EMail) List<String> emails) {
+    }
 }
\ No newline at end of file
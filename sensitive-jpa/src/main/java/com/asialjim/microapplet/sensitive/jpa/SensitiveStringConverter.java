@@ -0,0 +1,56 @@
+/*
+ *    Copyright 2014-2025 <a href="mailto:asialjim@qq.com">Asial Jim</a>
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package com.asialjim.microapplet.sensitive.jpa;
+
+import com.asialjim.microapplet.sensitive.encrypt.EncryptionContextBean;
+import com.asialjim.microapplet.sensitive.encrypt.EncryptionResult;
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+import java.util.Objects;
+
+/**
+ * 字符串属性加密存储转换器，加载实体时立即解密；加密改造前的明文数据原样返回。
+ * 需延迟解密时将属性声明为 {@link com.asialjim.microapplet.sensitive.encrypt.SensitiveValue}
+ * <pre>{@code
+ * @Convert(converter = SensitiveStringConverter.class)
+ * private String email;
+ * }</pre>
+ *
+ * @author <a href="mailto:asialjim@hotmail.com">Asial Jim</a>
+ * @version 1.0
+ * @since 2026/10/19, &nbsp;&nbsp; <em>version:1.0</em>
+ */
+@Converter
+public class SensitiveStringConverter implements AttributeConverter<String, String> {
+
+    @Override
+    public String convertToDatabaseColumn(String attribute) {
+        if (Objects.isNull(attribute))
+            return null;
+
+        return EncryptionContextBean.instance.encrypt(attribute).toFormattedString();
+    }
+
+    @Override
+    public String convertToEntityAttribute(String dbData) {
+        if (!EncryptionResult.isEncryptionMaskData(dbData))
+            return dbData;
+
+        return EncryptionContextBean.instance.decrypt(dbData);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,56 @@
+/*
+ *    Copyright 2014-2025 <a href="mailto:asialjim@qq.com">Asial Jim</a>
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package com.asialjim.microapplet.sensitive.jpa;
+
+import com.asialjim.microapplet.sensitive.encrypt.SensitiveValue;
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+import java.util.Objects;
+
+/**
+ * {@link SensitiveValue} 属性加密存储转换器，自动应用于所有 {@link SensitiveValue} 类型属性
+ * <p>
+ * 加载实体时只保留密文，属性首次 {@link SensitiveValue#get()} 时才解密，只访问非敏感字段的列表查询不产生解密开销；
+ * 未修改的值在脏检查与写回时沿用原密文，新值只加密一次
+ * <pre>{@code
+ * @Entity
+ * public class Customer {
+ *     @Id
+ *     private Long id;
+ *     private SensitiveValue phone;
+ * }
+ * }</pre>
+ *
+ * @author <a href="mailto:asialjim@hotmail.com">Asial Jim</a>
+ * @version 1.0
+ * @since 2026/10/19, &nbsp;&nbsp; <em>version:1.0</em>
+ */
+@Converter(autoApply = true)
+public class SensitiveValueConverter implements AttributeConverter<SensitiveValue, String> {
+
+    @Override
+    public String convertToDatabaseColumn(SensitiveValue attribute) {
+        // Hibernate 以转换往返生成脏检查快照，新值只加密一次
+        return Objects.isNull(attribute) ? null : attribute.encrypted();
+    }
+
+    @Override
+    public SensitiveValue convertToEntityAttribute(String dbData) {
+        return SensitiveValue.ofStored(dbData);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,164 @@
+/*
+ *    Copyright 2014-2025 <a href="mailto:asialjim@qq.com">Asial Jim</a>
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package com.asialjim.microapplet.sensitive;
+
+import com.asialjim.microapplet.sensitive.encrypt.*;
+import com.asialjim.microapplet.sensitive.jpa.SensitiveStringConverter;
+import com.asialjim.microapplet.sensitive.jpa.SensitiveValueConverter;
+import jakarta.persistence.Convert;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.cfg.Configuration;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * JPA 加密存储测试
+ */
+public class SensitiveJpaTest {
+    private final AtomicInteger keyLookups = new AtomicInteger();
+    private SessionFactory factory;
+
+    @Before
+    public void setUp() throws Exception {
+        SecretKeyRepository.Pair pair = new SecretKeyRepository.Pair().setEncKey(KeyManager.generateModernEncryptionKey());
+        EncryptionContextBean.builder()
+                .context(new EncryptionContext(AlgorithmMode.MODERN))
+                .mode(AlgorithmMode.MODERN)
+                .secretKeyRepository(mode -> {
+                    keyLookups.incrementAndGet();
+                    return pair;
+                })
+                .build();
+
+        factory = new Configuration()
+                .setProperty(AvailableSettings.JAKARTA_JDBC_URL, "jdbc:h2:mem:sensitive_jpa;DB_CLOSE_DELAY=-1")
+                .setProperty(AvailableSettings.JAKARTA_JDBC_USER, "sa")
+                .setProperty(AvailableSettings.HBM2DDL_AUTO, "create-drop")
+                .setProperty(AvailableSettings.STATEMENT_BATCH_SIZE, "100")
+                .addAttributeConverter(SensitiveValueConverter.class, true)
+                .addAnnotatedClass(Customer.class)
+                .buildSessionFactory();
+    }
+
+    @After
+    public void tearDown() {
+        factory.close();
+    }
+
+    @Test
+    public void testRoundTrip() {
+        factory.inTransaction(session -> session.persist(new Customer(1L, "张三", SensitiveValue.of("13800138000"), "zhangsan@example.com")));
+        // 每个敏感属性只加密一次
+        assertEquals(2, keyLookups.get());
+        String phone = rawPhone(1L);
+        assertTrue(EncryptionResult.isEncryptionMaskData(phone));
+        assertTrue(EncryptionResult.isEncryptionMaskData(rawEmail(1L)));
+
+        keyLookups.set(0);
+        factory.inTransaction(session -> {
+            Customer customer = session.find(Customer.class, 1L);
+            assertEquals("zhangsan@example.com", customer.getEmail());
+            assertEquals(1, keyLookups.get());
+
+            // 读取属性时才解密，按密文比较不解密
+            assertEquals(SensitiveValue.ofStored(phone), customer.getPhone());
+            assertEquals(SensitiveValue.ofStored(phone).hashCode(), customer.getPhone().hashCode());
+            assertFalse(customer.getPhone().isDecrypted());
+            assertEquals("13800138000", customer.getPhone().get());
+            assertEquals(2, keyLookups.get());
+        });
+
+        // 未修改的值不视为变更，也不重新加密
+        assertEquals(phone, rawPhone(1L));
+
+        factory.inTransaction(session -> session.find(Customer.class, 1L).setPhone(SensitiveValue.of("13900139000")));
+        assertNotEquals(phone, rawPhone(1L));
+        factory.inSession(session -> assertEquals("13900139000", session.find(Customer.class, 1L).getPhone().get()));
+
+        // 同一明文的两次加密结果不相等
+        assertNotEquals(SensitiveValue.of("13800138000"), SensitiveValue.of("13800138000"));
+    }
+
+    @Test
+    public void testListWithoutDecryption() {
+        factory.inTransaction(session -> {
+            for (long i = 0; i < 1000; i++) {
+                session.persist(new Customer(i, "user" + i, SensitiveValue.of(String.format("138%08d", i)), null));
+            }
+        });
+
+        keyLookups.set(0);
+        factory.inTransaction(session -> {
+            List<Customer> customers = session.createQuery("from Customer order by id", Customer.class).getResultList();
+            assertEquals(1000, customers.size());
+            for (Customer customer : customers) {
+                assertTrue(customer.getName().startsWith("user"));
+            }
+            // 只访问非敏感字段，加载与脏检查均不解密
+            session.flush();
+            assertEquals(0, keyLookups.get());
+            assertEquals("13800000999", customers.get(999).getPhone().get());
+        });
+    }
+
+    private String rawPhone(long id) {
+        return factory.fromSession(session -> raw(session, "phone", id));
+    }
+
+    private String rawEmail(long id) {
+        return factory.fromSession(session -> raw(session, "email", id));
+    }
+
+    private static String raw(Session session, String column, long id) {
+        return session.createNativeQuery("select " + column + " from customer where id = :id", String.class)
+                .setParameter("id", id)
+                .getSingleResult();
+    }
+
+    @Data
+    @NoArgsConstructor
+    @Entity(name = "Customer")
+    @Table(name = "customer")
+    public static class Customer {
+        @Id
+        private Long id;
+        private String name;
+        private SensitiveValue phone;
+        @Convert(converter = SensitiveStringConverter.class)
+        private String email;
+
+        public Customer(Long id, String name, SensitiveValue phone, String email) {
+            this.id = id;
+            this.name = name;
+            this.phone = phone;
+            this.email = email;
+        }
+    }
+}
\ No newline at end of file
@@ -30,14 +30,20 @@ function mask(data) {
     return data;
   }
   
-  // 检查是否符合敏感数据格式: _mask|algorithm|nonce|encrypt|mac|mask
-  const regex = /^_mask\|([A-Za-z0-9-_=]+)\|([A-Za-z0-9-_=]+)\|([A-Za-z0-9-_=]+)\|([A-Za-z0-9-_=]+)\|(.*)$/;
+  // 检查是否符合敏感数据格式: _mask|algorithm|nonce|encrypt|mac|mask，算法段可带租户标记（如 GM@tenant-a）
+  const regex = /^_mask\|([^|]+)\|([^|]+)\|([^|]+)\|([^|]+)\|(.*)$/;
   const match = data.match(regex);
   
   if (match) {
     // 格式匹配成功，返回最后一部分（mask数据段）
     return match[5];
   }
+
+  // 检查是否符合令牌格式: _tok|token|mask
+  const tokenMatch = data.match(/^_tok\|([A-Za-z0-9-_]+)\|(.*)$/);
+  if (tokenMatch) {
+    return tokenMatch[2];
+  }
   
   // 不是敏感数据格式，原样返回
   return data;
@@ -0,0 +1,74 @@
+/*
+ *    Copyright 2014-2025 <a href="mailto:asialjim@qq.com">Asial Jim</a>
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package com.asialjim.microapplet.sensitive.mybatis;
+
+import com.asialjim.microapplet.sensitive.encrypt.EncryptionContextBean;
+import com.asialjim.microapplet.sensitive.encrypt.EncryptionResult;
+
+import java.util.*;
+
+/**
+ * 当前线程中已批量加密、待写入语句参数的密文
+ * <p>
+ * 由 {@link SensitiveBatchInterceptor} 在执行语句前以 {@link EncryptionContextBean#encryptAll} 一次性加密，
+ * 类型处理器按参数对象取用；未预先加密的参数由类型处理器逐个加密
+ *
+ * @author <a href="mailto:asialjim@hotmail.com">Asial Jim</a>
+ * @version 1.0
+ * @since 2026/10/19, &nbsp;&nbsp; <em>version:1.0</em>
+ */
+final class PreparedEncryption {
+    private static final ThreadLocal<Map<Object, Deque<String>>> PREPARED = new ThreadLocal<>();
+
+    private PreparedEncryption() {
+    }
+
+    /**
+     * 批量加密
+     *
+     * @param keys    参数对象，按对象身份取用
+     * @param sources 与参数对象一一对应的原数据
+     */
+    static void prepare(List<Object> keys, List<String> sources) {
+        if (sources.isEmpty())
+            return;
+
+        List<EncryptionResult> results = EncryptionContextBean.instance.encryptAll(sources);
+        Map<Object, Deque<String>> prepared = new IdentityHashMap<>(keys.size());
+        for (int i = 0; i < keys.size(); i++) {
+            prepared.computeIfAbsent(keys.get(i), key -> new ArrayDeque<>(1)).add(results.get(i).toFormattedString());
+        }
+        PREPARED.set(prepared);
+    }
+
+    /**
+     * 取用预先加密的密文，没有时加密原数据
+     */
+    static String encrypt(Object key, String source) {
+        Map<Object, Deque<String>> prepared = PREPARED.get();
+        if (Objects.nonNull(prepared)) {
+            Deque<String> formatted = prepared.get(key);
+            if (Objects.nonNull(formatted) && !formatted.isEmpty())
+                return formatted.poll();
+        }
+        return EncryptionContextBean.instance.encrypt(source).toFormattedString();
+    }
+
+    static void clear() {
+        PREPARED.remove();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,117 @@
+/*
+ *    Copyright 2014-2025 <a href="mailto:asialjim@qq.com">Asial Jim</a>
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package com.asialjim.microapplet.sensitive.mybatis;
+
+import com.asialjim.microapplet.sensitive.encrypt.EncryptionContextBean;
+import com.asialjim.microapplet.sensitive.encrypt.SensitiveValue;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.ParameterMapping;
+import org.apache.ibatis.mapping.ParameterMode;
+import org.apache.ibatis.plugin.*;
+import org.apache.ibatis.reflection.MetaObject;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.type.TypeHandler;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Properties;
+
+/**
+ * 敏感参数批量加密插件
+ * <p>
+ * 执行语句前收集 {@link SensitiveTypeHandler} / {@link SensitiveValueTypeHandler} 处理的参数，以
+ * {@link EncryptionContextBean#encryptAll} 一次性加密，同一语句只解析一次算法模式与密钥并复用加密算法实例，如 foreach 多行插入。
+ * 批量执行器（{@code ExecutorType.BATCH}）下同样逐条语句加密后立即交由执行器绑定参数：
+ * 业务代码常复用同一参数对象循环插入，延迟绑定会使暂存的语句全部写入最后一次的参数值
+ * <pre>
+ * &lt;plugin interceptor="com.asialjim.microapplet.sensitive.mybatis.SensitiveBatchInterceptor"/&gt;
+ * </pre>
+ *
+ * @author <a href="mailto:asialjim@hotmail.com">Asial Jim</a>
+ * @version 1.0
+ * @since 2026/10/19, &nbsp;&nbsp; <em>version:1.0</em>
+ */
+@Intercepts(@Signature(type = Executor.class, method = "update", args = {MappedStatement.class, Object.class}))
+public class SensitiveBatchInterceptor implements Interceptor {
+
+    @Override
+    public Object plugin(Object target) {
+        return Plugin.wrap(target, this);
+    }
+
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+        Statement statement = new Statement((MappedStatement) invocation.getArgs()[0], invocation.getArgs()[1]);
+        List<Object> keys = new ArrayList<>();
+        List<String> sources = new ArrayList<>();
+        statement.collect(keys, sources);
+
+        try {
+            PreparedEncryption.prepare(keys, sources);
+            return invocation.proceed();
+        } finally {
+            PreparedEncryption.clear();
+        }
+    }
+
+    @Override
+    public void setProperties(Properties properties) {
+    }
+
+    private record Statement(MappedStatement mappedStatement, Object parameter) {
+
+        /**
+         * 按 DefaultParameterHandler 的取值规则收集待加密参数
+         */
+        void collect(List<Object> keys, List<String> sources) {
+            Configuration configuration = mappedStatement.getConfiguration();
+            BoundSql boundSql = mappedStatement.getBoundSql(parameter);
+            MetaObject metaObject = null;
+            for (ParameterMapping mapping : boundSql.getParameterMappings()) {
+                TypeHandler<?> typeHandler = mapping.getTypeHandler();
+                if (mapping.getMode() == ParameterMode.OUT
+                        || !(typeHandler instanceof SensitiveTypeHandler || typeHandler instanceof SensitiveValueTypeHandler))
+                    continue;
+
+                String property = mapping.getProperty();
+                Object value;
+                if (boundSql.hasAdditionalParameter(property)) {
+                    value = boundSql.getAdditionalParameter(property);
+                } else if (Objects.isNull(parameter)) {
+                    value = null;
+                } else if (configuration.getTypeHandlerRegistry().hasTypeHandler(parameter.getClass())) {
+                    value = parameter;
+                } else {
+                    if (Objects.isNull(metaObject))
+                        metaObject = configuration.newMetaObject(parameter);
+                    value = metaObject.getValue(property);
+                }
+
+                if (value instanceof String source) {
+                    keys.add(source);
+                    sources.add(source);
+                } else if (value instanceof SensitiveValue sensitive && Objects.isNull(sensitive.formatted())) {
+                    keys.add(sensitive);
+                    sources.add(sensitive.get());
+                }
+            }
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,66 @@
+/*
+ *    Copyright 2014-2025 <a href="mailto:asialjim@qq.com">Asial Jim</a>
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package com.asialjim.microapplet.sensitive.mybatis;
+
+import com.asialjim.microapplet.sensitive.encrypt.SensitiveValue;
+import org.apache.ibatis.type.BaseTypeHandler;
+import org.apache.ibatis.type.JdbcType;
+import org.apache.ibatis.type.MappedTypes;
+
+import java.sql.CallableStatement;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Objects;
+
+/**
+ * {@link SensitiveValue} 类型处理器
+ * <p>
+ * 读取时只保留密文，属性首次 {@link SensitiveValue#get()} 时才解密；写入时新值加密，读取后未修改的值沿用原密文。
+ * 注册后对 {@link SensitiveValue} 类型属性自动生效：
+ * <pre>{@code
+ * configuration.getTypeHandlerRegistry().register(SensitiveValueTypeHandler.class);
+ * }</pre>
+ *
+ * @author <a href="mailto:asialjim@hotmail.com">Asial Jim</a>
+ * @version 1.0
+ * @since 2026/10/19, &nbsp;&nbsp; <em>version:1.0</em>
+ */
+@MappedTypes(SensitiveValue.class)
+public class SensitiveValueTypeHandler extends BaseTypeHandler<SensitiveValue> {
+
+    @Override
+    public void setNonNullParameter(PreparedStatement ps, int i, SensitiveValue parameter, JdbcType jdbcType) throws SQLException {
+        String formatted = parameter.formatted();
+        ps.setString(i, Objects.nonNull(formatted) ? formatted : PreparedEncryption.encrypt(parameter, parameter.get()));
+    }
+
+    @Override
+    public SensitiveValue getNullableResult(ResultSet rs, String columnName) throws SQLException {
+        return SensitiveValue.ofStored(rs.getString(columnName));
+    }
+
+    @Override
+    public SensitiveValue getNullableResult(ResultSet rs, int columnIndex) throws SQLException {
+        return SensitiveValue.ofStored(rs.getString(columnIndex));
+    }
+
+    @Override
+    public SensitiveValue getNullableResult(CallableStatement cs, int columnIndex) throws SQLException {
+        return SensitiveValue.ofStored(cs.getString(columnIndex));
+    }
+}
\ No newline at end of file
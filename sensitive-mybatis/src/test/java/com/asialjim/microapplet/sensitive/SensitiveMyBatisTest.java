@@ -0,0 +1,245 @@
+/*
+ *    Copyright 2014-2025 <a href="mailto:asialjim@qq.com">Asial Jim</a>
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package com.asialjim.microapplet.sensitive;
+
+import com.asialjim.microapplet.sensitive.encrypt.*;
+import com.asialjim.microapplet.sensitive.mybatis.SensitiveBatchInterceptor;
+import com.asialjim.microapplet.sensitive.mybatis.SensitiveTypeHandler;
+import com.asialjim.microapplet.sensitive.mybatis.SensitiveValueTypeHandler;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.apache.ibatis.annotations.*;
+import org.apache.ibatis.datasource.pooled.PooledDataSource;
+import org.apache.ibatis.mapping.Environment;
+import org.apache.ibatis.session.*;
+import org.apache.ibatis.transaction.jdbc.JdbcTransactionFactory;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * MyBatis 加密存储测试
+ */
+public class SensitiveMyBatisTest {
+    private final AtomicInteger keyLookups = new AtomicInteger();
+    private SqlSessionFactory factory;
+
+    @Before
+    public void setUp() throws Exception {
+        SecretKeyRepository.Pair pair = new SecretKeyRepository.Pair().setEncKey(KeyManager.generateModernEncryptionKey());
+        EncryptionContextBean.builder()
+                .context(new EncryptionContext(AlgorithmMode.MODERN))
+                .mode(AlgorithmMode.MODERN)
+                .secretKeyRepository(mode -> {
+                    keyLookups.incrementAndGet();
+                    return pair;
+                })
+                .build();
+
+        PooledDataSource dataSource = new PooledDataSource("org.h2.Driver", "jdbc:h2:mem:sensitive_mybatis;DB_CLOSE_DELAY=-1", "sa", "");
+        Configuration configuration = new Configuration(new Environment("test", new JdbcTransactionFactory(), dataSource));
+        configuration.getTypeHandlerRegistry().register(SensitiveValueTypeHandler.class);
+        configuration.addInterceptor(new SensitiveBatchInterceptor());
+        configuration.addMapper(UserMapper.class);
+        factory = new SqlSessionFactoryBuilder().build(configuration);
+
+        try (SqlSession session = factory.openSession(true)) {
+            session.getMapper(UserMapper.class).recreate();
+        }
+        keyLookups.set(0);
+    }
+
+    @Test
+    public void testRoundTrip() {
+        try (SqlSession session = factory.openSession(true)) {
+            UserMapper mapper = session.getMapper(UserMapper.class);
+            mapper.insert(new User(1L, "张三", "13800138000", SensitiveValue.of("zhangsan@example.com")));
+
+            UserMapper.Raw raw = mapper.raw(1L);
+            assertTrue(EncryptionResult.isEncryptionMaskData(raw.getPhone()));
+            assertTrue(EncryptionResult.isEncryptionMaskData(raw.getEmail()));
+
+            User user = mapper.find(1L);
+            assertEquals("13800138000", user.getPhone());
+            // 延迟解密：读取属性前不解密
+            assertFalse(user.getEmail().isDecrypted());
+            assertEquals("******", user.getEmail().toString());
+            assertEquals("zhangsan@example.com", user.getEmail().get());
+
+            // 未修改的值沿用原密文
+            mapper.update(user);
+            assertEquals(raw.getEmail(), mapper.raw(1L).getEmail());
+            assertNotEquals(raw.getPhone(), mapper.raw(1L).getPhone());
+        }
+    }
+
+    @Test
+    public void testLegacyPlaintext() {
+        try (SqlSession session = factory.openSession(true)) {
+            UserMapper mapper = session.getMapper(UserMapper.class);
+            mapper.insertPlain(2L, "李四", "13900139000", "lisi@example.com");
+
+            User user = mapper.find(2L);
+            assertEquals("13900139000", user.getPhone());
+            assertEquals("lisi@example.com", user.getEmail().get());
+        }
+    }
+
+    @Test
+    public void testForeachInsert() {
+        try (SqlSession session = factory.openSession(true)) {
+            UserMapper mapper = session.getMapper(UserMapper.class);
+            assertEquals(50, mapper.insertAll(users(0, 50)));
+            // 同一语句中的敏感参数整批加密，只解析一次密钥
+            assertEquals(1, keyLookups.get());
+            assertEquals("13800000049", mapper.find(49L).getPhone());
+        }
+    }
+
+    @Test
+    public void testBatchExecutor() {
+        try (SqlSession session = factory.openSession(ExecutorType.BATCH)) {
+            UserMapper mapper = session.getMapper(UserMapper.class);
+            for (User user : users(0, 250)) {
+                mapper.insert(user);
+            }
+            // 每条语句加密后立即绑定
+            assertEquals(250, keyLookups.get());
+            session.commit();
+        }
+
+        try (SqlSession session = factory.openSession()) {
+            UserMapper mapper = session.getMapper(UserMapper.class);
+            assertEquals(250, mapper.count());
+            assertEquals("13800000123", mapper.find(123L).getPhone());
+            assertEquals("user123@example.com", mapper.find(123L).getEmail().get());
+        }
+    }
+
+    @Test
+    public void testBatchFlushAndRollback() {
+        try (SqlSession session = factory.openSession(ExecutorType.BATCH)) {
+            UserMapper mapper = session.getMapper(UserMapper.class);
+            for (User user : users(0, 10)) {
+                mapper.insert(user);
+            }
+            // 查询前写入暂存语句
+            assertEquals(10, mapper.count());
+
+            for (User user : users(10, 20)) {
+                mapper.insert(user);
+            }
+            session.rollback();
+        }
+
+        try (SqlSession session = factory.openSession()) {
+            assertEquals(0, session.getMapper(UserMapper.class).count());
+        }
+    }
+
+    @Test
+    public void testBatchReusedParameter() {
+        try (SqlSession session = factory.openSession(ExecutorType.BATCH)) {
+            UserMapper mapper = session.getMapper(UserMapper.class);
+            User user = new User();
+            for (int i = 0; i < 20; i++) {
+                user.setId((long) i);
+                user.setName("user" + i);
+                user.setPhone(String.format("138%08d", i));
+                user.setEmail(SensitiveValue.of("user" + i + "@example.com"));
+                mapper.insert(user);
+            }
+            session.commit();
+        }
+
+        try (SqlSession session = factory.openSession()) {
+            UserMapper mapper = session.getMapper(UserMapper.class);
+            assertEquals(20, mapper.count());
+            for (long i = 0; i < 20; i++) {
+                User user = mapper.find(i);
+                assertEquals("user" + i, user.getName());
+                assertEquals(String.format("138%08d", i), user.getPhone());
+                assertEquals("user" + i + "@example.com", user.getEmail().get());
+            }
+        }
+    }
+
+    private static List<User> users(int from, int to) {
+        List<User> users = new ArrayList<>(to - from);
+        for (int i = from; i < to; i++) {
+            users.add(new User((long) i, "user" + i, String.format("138%08d", i), SensitiveValue.of("user" + i + "@example.com")));
+        }
+        return users;
+    }
+
+    @Data
+    @NoArgsConstructor
+    public static class User {
+        private Long id;
+        private String name;
+        private String phone;
+        private SensitiveValue email;
+
+        public User(Long id, String name, String phone, SensitiveValue email) {
+            this.id = id;
+            this.name = name;
+            this.phone = phone;
+            this.email = email;
+        }
+    }
+
+    public interface UserMapper {
+
+        @Data
+        class Raw {
+            private String phone;
+            private String email;
+        }
+
+        @Update("drop table if exists users; create table users(id bigint primary key, name varchar(64), phone varchar(255), email varchar(255))")
+        void recreate();
+
+        @Insert("insert into users(id, name, phone, email) values (#{id}, #{name}, #{phone, typeHandler=com.asialjim.microapplet.sensitive.mybatis.SensitiveTypeHandler}, #{email})")
+        int insert(User user);
+
+        @Insert("insert into users(id, name, phone, email) values (#{id}, #{name}, #{phone}, #{email})")
+        int insertPlain(@Param("id") long id, @Param("name") String name, @Param("phone") String phone, @Param("email") String email);
+
+        @Insert("<script>insert into users(id, name, phone, email) values <foreach collection='users' item='user' separator=','>" +
+                "(#{user.id}, #{user.name}, #{user.phone, typeHandler=com.asialjim.microapplet.sensitive.mybatis.SensitiveTypeHandler}, #{user.email})" +
+                "</foreach></script>")
+        int insertAll(@Param("users") List<User> users);
+
+        @Update("update users set name = #{name}, phone = #{phone, typeHandler=com.asialjim.microapplet.sensitive.mybatis.SensitiveTypeHandler}, email = #{email} where id = #{id}")
+        int update(User user);
+
+        @Select("select * from users where id = #{id}")
+        @Results({@Result(column = "phone", property = "phone", typeHandler = SensitiveTypeHandler.class)})
+        User find(long id);
+
+        @Select("select phone, email from users where id = #{id}")
+        Raw raw(long id);
+
+        @Select("select count(*) from users")
+        int count();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,351 @@
+/*
+ *    Copyright 2014-2025 <a href="mailto:asialjim@qq.com">Asial Jim</a>
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+
+package com.asialjim.microapplet.sensitive.processor;
+
+import javax.annotation.processing.*;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.*;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Elements;
+import javax.tools.Diagnostic;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.*;
+
+/**
+ * 敏感数据处理工具生成器
+ * <p>
+ * 为含 {@code @Sensitive} 字段（或 record 组件）的类型在同一包下生成 {@code <类型名>SensitiveMasker}，
+ * 实现 {@code SensitiveMasker}：脱敏函数在类加载时编译为常量，字段可访问时直接读写字段，否则使用 getter/setter，
+ * 运行时无反射、无扫描。嵌套类型的生成类名以 {@code _} 连接外层类名，如 {@code Outer_InnerSensitiveMasker}。
+ * 生成类按属性名提供编译好的脱敏函数，供 Jackson 序列化时复用；父类与子类同名字段以子类为准
+ *
+ * @author <a href="mailto:asialjim@hotmail.com">Asial Jim</a>
+ * @version 1.0
+ * @since 2026/10/19, &nbsp;&nbsp; <em>version:1.0</em>
+ */
+@SupportedAnnotationTypes(SensitiveMaskerProcessor.SENSITIVE)
+public class SensitiveMaskerProcessor extends AbstractProcessor {
+    static final String SENSITIVE = "com.asialjim.microapplet.sensitive.annotation.Sensitive";
+    private static final String SUFFIX = "SensitiveMasker";
+    private static final String STRING = "java.lang.String";
+
+    private final Set<String> generated = new HashSet<>();
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        TypeElement annotation = processingEnv.getElementUtils().getTypeElement(SENSITIVE);
+        if (Objects.isNull(annotation))
+            return false;
+
+        Set<TypeElement> types = new LinkedHashSet<>();
+        for (Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+            ElementKind kind = element.getKind();
+            if (kind == ElementKind.FIELD || kind == ElementKind.RECORD_COMPONENT)
+                types.add((TypeElement) element.getEnclosingElement());
+        }
+
+        for (TypeElement type : types) {
+            if (generated.add(type.getQualifiedName().toString()))
+                generate(type, annotation);
+        }
+        return false;
+    }
+
+    private void generate(TypeElement type, TypeElement annotation) {
+        for (Element element = type; element instanceof TypeElement; element = element.getEnclosingElement()) {
+            if (element.getModifiers().contains(Modifier.PRIVATE)) {
+                error(type, "私有类型无法生成敏感数据处理工具");
+                return;
+            }
+        }
+
+        String packageName = processingEnv.getElementUtils().getPackageOf(type).getQualifiedName().toString();
+        List<Property> properties = type.getKind() == ElementKind.RECORD
+                ? recordProperties(type, annotation)
+                : classProperties(type, annotation, packageName);
+        if (Objects.isNull(properties))
+            return;
+
+        String simpleName = maskerName(type);
+        String qualifiedName = packageName.isEmpty() ? simpleName : packageName + "." + simpleName;
+        try (Writer writer = processingEnv.getFiler().createSourceFile(qualifiedName, type).openWriter()) {
+            writer.write(source(type, packageName, simpleName, properties));
+        } catch (IOException e) {
+            error(type, "生成敏感数据处理工具失败:" + e.getMessage());
+        }
+    }
+
+    /**
+     * record 的全部组件按声明顺序参与构造，敏感组件替换后创建新实例
+     */
+    private List<Property> recordProperties(TypeElement type, TypeElement annotation) {
+        List<Property> properties = new ArrayList<>();
+        for (RecordComponentElement component : type.getRecordComponents()) {
+            String read = "value." + component.getSimpleName() + "()";
+            AnnotationMirror mirror = mirrorOf(component, annotation);
+            Rule rule = Objects.isNull(mirror) ? null : rule(component, mirror);
+            if (Objects.nonNull(rule) && !isString(component.asType())) {
+                warning(component, "仅支持字符串类型的敏感字段，已忽略");
+                rule = null;
+            }
+            properties.add(new Property(component.getSimpleName().toString(), read, null, rule));
+        }
+        return properties;
+    }
+
+    /**
+     * 普通类（含父类）的敏感字段，在原对象上替换
+     */
+    private List<Property> classProperties(TypeElement type, TypeElement annotation, String packageName) {
+        List<Property> properties = new ArrayList<>();
+        boolean valid = true;
+        for (TypeElement current = type; Objects.nonNull(current); current = superclassOf(current)) {
+            for (VariableElement field : ElementFilter.fieldsIn(current.getEnclosedElements())) {
+                AnnotationMirror mirror = mirrorOf(field, annotation);
+                if (Objects.isNull(mirror) || field.getModifiers().contains(Modifier.STATIC))
+                    continue;
+
+                if (!isString(field.asType())) {
+                    warning(field, "仅支持字符串类型的敏感字段，已忽略");
+                    continue;
+                }
+
+                String name = field.getSimpleName().toString();
+                boolean accessible = accessible(field, packageName);
+                String read = accessible ? "value." + name : accessor(type, "get" + capitalize(name), 0, packageName);
+                String write = accessible && !field.getModifiers().contains(Modifier.FINAL)
+                        ? "value." + name + " = %s"
+                        : accessor(type, "set" + capitalize(name), 1, packageName);
+                if (Objects.isNull(read) || Objects.isNull(write)) {
+                    error(field, "敏感字段不可访问，需为非私有字段或提供非私有的 getter/setter");
+                    valid = false;
+                    continue;
+                }
+
+                properties.add(new Property(name, read, write, rule(field, mirror)));
+            }
+        }
+        return valid ? properties : null;
+    }
+
+    private String source(TypeElement type, String packageName, String simpleName, List<Property> properties) {
+        String target = type.getQualifiedName().toString();
+        boolean record = type.getKind() == ElementKind.RECORD;
+        boolean generic = !type.getTypeParameters().isEmpty();
+
+        StringBuilder source = new StringBuilder();
+        if (!packageName.isEmpty())
+            source.append("package ").append(packageName).append(";\n\n");
+
+        source.append("import com.asialjim.microapplet.sensitive.SensitiveMasker;\n")
+                .append("import com.asialjim.microapplet.sensitive.handler.SensitiveHandler;\n")
+                .append("import com.asialjim.microapplet.sensitive.handler.SensitiveType;\n\n")
+                .append("import java.util.function.Function;\n\n")
+                .append("/**\n * {@link ").append(target).append("} 敏感数据处理工具，编译期生成，请勿修改\n */\n")
+                .append("@javax.annotation.processing.Generated(\"").append(getClass().getName()).append("\")\n");
+        if (generic)
+            source.append("@SuppressWarnings({\"rawtypes\", \"unchecked\"})\n");
+        source.append("public final class ").append(simpleName).append(" implements SensitiveMasker<").append(target).append("> {\n")
+                .append("    public static final ").append(simpleName).append(" INSTANCE = new ").append(simpleName).append("();\n\n");
+
+        Map<Property, String> constants = new IdentityHashMap<>();
+        Set<String> names = new HashSet<>();
+        for (Property property : properties) {
+            if (Objects.isNull(property.rule))
+                continue;
+
+            String constant = constantName(property.name);
+            for (int i = 1; !names.add(constant); i++) {
+                constant = constantName(property.name) + "_" + i;
+            }
+            constants.put(property, constant);
+
+            Rule rule = property.rule;
+            Elements elements = processingEnv.getElementUtils();
+            source.append("    private static final Function<String, String> ").append(constant)
+                    .append(" = SensitiveHandler.maskFunction(SensitiveType.").append(rule.type).append(", ")
+                    .append(rule.prefix).append(", ").append(rule.suffix).append(", ")
+                    .append(elements.getConstantExpression(rule.regex)).append(", ").append(rule.match).append(");\n");
+        }
+        if (!constants.isEmpty())
+            source.append('\n');
+
+        source.append("    @Override\n")
+                .append("    public Class<").append(target).append("> type() {\n")
+                .append("        return ").append(target).append(".class;\n")
+                .append("    }\n");
+
+        if (!constants.isEmpty()) {
+            source.append("\n    @Override\n")
+                    .append("    public Function<String, String> maskFunction(String property) {\n")
+                    .append("        return switch (property) {\n");
+            Set<String> cases = new HashSet<>();
+            for (Property property : properties) {
+                String constant = constants.get(property);
+                if (Objects.nonNull(constant) && cases.add(property.name))
+                    source.append("            case \"").append(property.name).append("\" -> ").append(constant).append(";\n");
+            }
+            source.append("            default -> null;\n")
+                    .append("        };\n")
+                    .append("    }\n");
+        }
+
+        for (boolean encrypt : new boolean[]{false, true}) {
+            source.append("\n    @Override\n")
+                    .append("    public ").append(target).append(' ').append(encrypt ? "encrypt" : "mask")
+                    .append('(').append(target).append(" value) {\n")
+                    .append("        if (value == null)\n")
+                    .append("            return null;\n\n");
+
+            if (record) {
+                StringJoiner arguments = new StringJoiner(",\n                ", "        return new " + target + "(\n                ", ");\n");
+                for (Property property : properties) {
+                    arguments.add(expression(property, constants.get(property), encrypt));
+                }
+                source.append(arguments);
+            } else {
+                for (Property property : properties) {
+                    source.append("        ").append(String.format(property.write, expression(property, constants.get(property), encrypt))).append(";\n");
+                }
+                source.append("        return value;\n");
+            }
+            source.append("    }\n");
+        }
+        return source.append("}\n").toString();
+    }
+
+    private static String expression(Property property, String constant, boolean encrypt) {
+        if (Objects.isNull(property.rule))
+            return property.read;
+
+        if (encrypt && property.rule.encrypt)
+            return "SensitiveMasker.encrypt(" + property.read + ", " + constant + ")";
+
+        return constant + ".apply(" + property.read + ")";
+    }
+
+    private Rule rule(Element element, AnnotationMirror mirror) {
+        Map<String, Object> values = new HashMap<>();
+        processingEnv.getElementUtils().getElementValuesWithDefaults(mirror)
+                .forEach((method, value) -> values.put(method.getSimpleName().toString(), value.getValue()));
+
+        Object type = values.get("value");
+        if (!(type instanceof VariableElement constant)) {
+            error(element, "无法解析敏感数据类型");
+            return null;
+        }
+
+        return new Rule(constant.getSimpleName().toString(), (Integer) values.get("prefix"), (Integer) values.get("suffix"),
+                (String) values.get("regex"), (Boolean) values.get("match"), (Boolean) values.get("encrypt"));
+    }
+
+    private static AnnotationMirror mirrorOf(Element element, TypeElement annotation) {
+        for (AnnotationMirror mirror : element.getAnnotationMirrors()) {
+            if (mirror.getAnnotationType().asElement().equals(annotation))
+                return mirror;
+        }
+        return null;
+    }
+
+    /**
+     * 查找可访问的 getter（无参数）或 setter（一个字符串参数），返回调用表达式
+     */
+    private String accessor(TypeElement type, String name, int parameters, String packageName) {
+        for (ExecutableElement method : ElementFilter.methodsIn(processingEnv.getElementUtils().getAllMembers(type))) {
+            if (!method.getSimpleName().contentEquals(name) || method.getParameters().size() != parameters)
+                continue;
+            if (method.getModifiers().contains(Modifier.STATIC) || !accessible(method, packageName))
+                continue;
+            if (parameters == 1 && !isString(method.getParameters().get(0).asType()))
+                continue;
+            if (parameters == 0 && !isString(method.getReturnType()))
+                continue;
+
+            return "value." + name + "(" + (parameters == 0 ? ")" : "%s)");
+        }
+        return null;
+    }
+
+    private boolean accessible(Element element, String packageName) {
+        Set<Modifier> modifiers = element.getModifiers();
+        if (modifiers.contains(Modifier.PUBLIC))
+            return true;
+        if (modifiers.contains(Modifier.PRIVATE))
+            return false;
+
+        return processingEnv.getElementUtils().getPackageOf(element).getQualifiedName().contentEquals(packageName);
+    }
+
+    private static TypeElement superclassOf(TypeElement type) {
+        TypeMirror superclass = type.getSuperclass();
+        if (superclass.getKind() != TypeKind.DECLARED)
+            return null;
+
+        TypeElement element = (TypeElement) ((DeclaredType) superclass).asElement();
+        return element.getQualifiedName().contentEquals("java.lang.Object") ? null : element;
+    }
+
+    private static boolean isString(TypeMirror type) {
+        return type.getKind() == TypeKind.DECLARED
+                && ((TypeElement) ((DeclaredType) type).asElement()).getQualifiedName().contentEquals(STRING);
+    }
+
+    private static String maskerName(TypeElement type) {
+        StringBuilder name = new StringBuilder(type.getSimpleName());
+        for (Element element = type.getEnclosingElement(); element instanceof TypeElement; element = element.getEnclosingElement()) {
+            name.insert(0, '_').insert(0, element.getSimpleName());
+        }
+        return name.append(SUFFIX).toString();
+    }
+
+    private static String constantName(String name) {
+        return name.replaceAll("([a-z0-9])([A-Z])", "$1_$2").toUpperCase(Locale.ROOT);
+    }
+
+    private static String capitalize(String name) {
+        return Character.toUpperCase(name.charAt(0)) + name.substring(1);
+    }
+
+    private void error(Element element, String message) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+    }
+
+    private void warning(Element element, String message) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING, message, element);
+    }
+
+    private record Rule(String type, int prefix, int suffix, String regex, boolean match, boolean encrypt) {
+    }
+
+    /**
+     * @param read  读取表达式
+     * @param write 写入表达式模板，{@code %s} 为新值；record 为空
+     * @param rule  处理规则，非敏感 record 组件为空
+     */
+    private record Property(String name, String read, String write, Rule rule) {
+    }
+}
\ No newline at end of file
@@ -0,0 +1,253 @@
+/*
+ *    Copyright 2014-2025 <a href="mailto:asialjim@qq.com">Asial Jim</a>
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+
+package com.asialjim.microapplet.sensitive;
+
+import com.asialjim.microapplet.sensitive.annotation.Sensitive;
+import com.asialjim.microapplet.sensitive.encrypt.*;
+import com.asialjim.microapplet.sensitive.handler.*;
+import com.asialjim.microapplet.sensitive.processor.SensitiveMaskerProcessor;
+import com.fasterxml.jackson.annotation.JacksonAnnotationsInside;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.tools.*;
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.function.Supplier;
+
+import static org.junit.Assert.*;
+
+/**
+ * 敏感数据处理工具生成器测试：使用 javac 编译带注解的源码并执行生成类
+ *
+ * @author <a href="mailto:asialjim@hotmail.com">Asial Jim</a>
+ * @version 1.0
+ * @since 2026/10/19, &nbsp;&nbsp; <em>version:1.0</em>
+ */
+public class SensitiveMaskerProcessorTest {
+    private static final String USER = """
+            package demo;
+
+            import com.asialjim.microapplet.sensitive.annotation.Sensitive;
+            import com.asialjim.microapplet.sensitive.handler.SensitiveType;
+
+            public class User {
+                @Sensitive(SensitiveType.ChineseMobilePhone)
+                private String phone;
+                @Sensitive(SensitiveType.EMail)
+                String email;
+                @Sensitive(value = SensitiveType.Customer, prefix = 2, suffix = 1, encrypt = false)
+                private String code;
+                @Sensitive(SensitiveType.BankCard)
+                private Long account;
+                private String nickname;
+
+                public String getPhone() { return phone; }
+                public void setPhone(String phone) { this.phone = phone; }
+                public String getCode() { return code; }
+                public void setCode(String code) { this.code = code; }
+                public Long getAccount() { return account; }
+                public void setAccount(Long account) { this.account = account; }
+                public String getNickname() { return nickname; }
+                public void setNickname(String nickname) { this.nickname = nickname; }
+            }
+            """;
+
+    private static final String CONTACT = """
+            package demo;
+
+            import com.asialjim.microapplet.sensitive.annotation.Sensitive;
+            import com.asialjim.microapplet.sensitive.handler.SensitiveType;
+
+            public record Contact(String name, @Sensitive(SensitiveType.ChineseMobilePhone) String phone) {
+            }
+            """;
+
+    private static final String OUTER = """
+            package demo;
+
+            import com.asialjim.microapplet.sensitive.annotation.Sensitive;
+            import com.asialjim.microapplet.sensitive.handler.SensitiveType;
+
+            public class Outer {
+                public static class Inner {
+                    @Sensitive(SensitiveType.ChineseName)
+                    public String name;
+                }
+            }
+            """;
+
+    private static final String FIXTURE = """
+            package demo;
+
+            import com.asialjim.microapplet.sensitive.SensitiveMasker;
+
+            import java.util.*;
+            import java.util.function.Supplier;
+
+            public class Fixture implements Supplier<Map<String, String>> {
+                @Override
+                public Map<String, String> get() {
+                    Map<String, String> result = new LinkedHashMap<>();
+                    User user = user();
+                    UserSensitiveMasker.INSTANCE.mask(user);
+                    result.put("phone", user.getPhone());
+                    result.put("email", user.email);
+                    result.put("code", user.getCode());
+                    result.put("account", String.valueOf(user.getAccount()));
+                    result.put("nickname", user.getNickname());
+
+                    User encrypted = SensitiveMasker.of(User.class).encrypt(user());
+                    result.put("encryptedPhone", encrypted.getPhone());
+                    result.put("encryptedCode", encrypted.getCode());
+
+                    Contact contact = SensitiveMasker.of(Contact.class).mask(new Contact("张三", "13800138000"));
+                    result.put("contactName", contact.name());
+                    result.put("contactPhone", contact.phone());
+
+                    result.put("phoneFunction", UserSensitiveMasker.INSTANCE.maskFunction("phone").apply("13900139000"));
+                    result.put("nicknameFunction", String.valueOf(UserSensitiveMasker.INSTANCE.maskFunction("nickname")));
+                    result.put("accountFunction", String.valueOf(UserSensitiveMasker.INSTANCE.maskFunction("account")));
+
+                    Outer.Inner inner = new Outer.Inner();
+                    inner.name = "张三丰";
+                    result.put("inner", Outer_InnerSensitiveMasker.INSTANCE.mask(inner).name);
+                    return result;
+                }
+
+                private static User user() {
+                    User user = new User();
+                    user.setPhone("13800138000");
+                    user.email = "zhangsan@example.com";
+                    user.setCode("ABCDEF");
+                    user.setAccount(6222021234567890123L);
+                    user.setNickname("nick");
+                    return user;
+                }
+            }
+            """;
+
+    @Before
+    public void setUp() throws Exception {
+        new ChineseMobilePhoneSensitiveHandler().init();
+        new ChineseNameSensitiveHandler().init();
+        new CustomerSensitiveHandler().init();
+        new EMailSensitiveHandler().init();
+
+        SecretKeyRepository.Pair pair = new SecretKeyRepository.Pair().setEncKey(KeyManager.generateModernEncryptionKey());
+        new EncryptionContextBean(Collections.singletonList(new EncryptionContext(AlgorithmMode.MODERN)), () -> AlgorithmMode.MODERN, mode -> pair).init();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testGeneratedMasker() throws Exception {
+        Path output = Files.createTempDirectory("sensitive-processor");
+        List<Diagnostic<? extends JavaFileObject>> diagnostics = compile(output,
+                Map.of("User", USER, "Contact", CONTACT, "Outer", OUTER, "Fixture", FIXTURE));
+        assertTrue(diagnostics.toString(), diagnostics.stream().noneMatch(item -> item.getKind() == Diagnostic.Kind.ERROR));
+        assertTrue(diagnostics.stream().anyMatch(item -> item.getKind() == Diagnostic.Kind.WARNING
+                && item.getMessage(Locale.ROOT).contains("仅支持字符串类型")));
+
+        String generated = Files.readString(output.resolve("demo/UserSensitiveMasker.java"));
+        assertFalse(generated.contains("reflect"));
+        assertTrue(generated.contains("value.email = "));
+        assertTrue(generated.contains("value.setPhone("));
+
+        try (URLClassLoader loader = new URLClassLoader(new URL[]{output.toUri().toURL()}, getClass().getClassLoader())) {
+            Map<String, String> result = ((Supplier<Map<String, String>>) loader.loadClass("demo.Fixture")
+                    .getDeclaredConstructor().newInstance()).get();
+
+            assertEquals("138****8000", result.get("phone"));
+            assertEquals("zhan*****@example.com", result.get("email"));
+            assertEquals("AB***F", result.get("code"));
+            assertEquals("6222021234567890123", result.get("account"));
+            assertEquals("nick", result.get("nickname"));
+
+            String encryptedPhone = result.get("encryptedPhone");
+            assertTrue(EncryptionResult.isEncryptionMaskData(encryptedPhone));
+            assertTrue(encryptedPhone.endsWith("|138****8000"));
+            assertEquals("13800138000", EncryptionContextBean.instance.decrypt(encryptedPhone));
+            assertEquals("AB***F", result.get("encryptedCode"));
+
+            assertEquals("张三", result.get("contactName"));
+            assertEquals("138****8000", result.get("contactPhone"));
+            assertEquals("张*丰", result.get("inner"));
+            assertEquals("139****9000", result.get("phoneFunction"));
+            assertEquals("null", result.get("nicknameFunction"));
+            assertEquals("null", result.get("accountFunction"));
+        }
+    }
+
+    @Test
+    public void testInaccessibleField() throws Exception {
+        String source = """
+                package demo;
+
+                import com.asialjim.microapplet.sensitive.annotation.Sensitive;
+                import com.asialjim.microapplet.sensitive.handler.SensitiveType;
+
+                public class Hidden {
+                    @Sensitive(SensitiveType.ChineseMobilePhone)
+                    private String phone;
+                }
+                """;
+        List<Diagnostic<? extends JavaFileObject>> diagnostics = compile(Files.createTempDirectory("sensitive-processor"), Map.of("Hidden", source));
+        assertTrue(diagnostics.stream().anyMatch(item -> item.getKind() == Diagnostic.Kind.ERROR
+                && item.getMessage(Locale.ROOT).contains("敏感字段不可访问")));
+    }
+
+    private List<Diagnostic<? extends JavaFileObject>> compile(Path output, Map<String, String> sources) throws IOException {
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        try (StandardJavaFileManager fileManager = compiler.getStandardFileManager(diagnostics, Locale.ROOT, StandardCharsets.UTF_8)) {
+            List<File> files = new ArrayList<>();
+            for (Map.Entry<String, String> source : sources.entrySet()) {
+                Path file = output.resolve("demo/" + source.getKey() + ".java");
+                Files.createDirectories(file.getParent());
+                Files.writeString(file, source.getValue());
+                files.add(file.toFile());
+            }
+
+            List<String> options = List.of("-proc:full", "-classpath", classpath(), "-d", output.toString(), "-s", output.toString());
+            JavaCompiler.CompilationTask task = compiler.getTask(null, fileManager, diagnostics, options, null,
+                    fileManager.getJavaFileObjectsFromFiles(files));
+            task.setProcessors(List.of(new SensitiveMaskerProcessor()));
+            task.call();
+        }
+        return diagnostics.getDiagnostics();
+    }
+
+    /**
+     * 注解与生成代码依赖的模块位置
+     */
+    private static String classpath() {
+        StringJoiner classpath = new StringJoiner(File.pathSeparator);
+        for (Class<?> type : new Class<?>[]{Sensitive.class, SensitiveHandler.class, JacksonAnnotationsInside.class, JsonSerialize.class}) {
+            classpath.add(new File(type.getProtectionDomain().getCodeSource().getLocation().getPath()).getPath());
+        }
+        classpath.add(System.getProperty("java.class.path"));
+        return classpath.toString();
+    }
+}
\ No newline at end of file
@@ -16,16 +16,39 @@
 
 package com.asialjim.microapplet.sensitive;
 
+import com.asialjim.microapplet.sensitive.audit.RingBufferAuditListener;
+import com.asialjim.microapplet.sensitive.audit.SensitiveAudit;
 import com.asialjim.microapplet.sensitive.encrypt.*;
-import com.asialjim.microapplet.sensitive.handler.*;
+import com.asialjim.microapplet.sensitive.token.LocalTokenVault;
+import com.asialjim.microapplet.sensitive.token.SensitiveToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
-import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.context.annotation.Import;
+import org.springframework.context.annotation.ImportRuntimeHints;
+import org.springframework.core.annotation.Order;
+import org.springframework.core.env.Environment;
+import org.springframework.http.codec.ServerCodecConfigurer;
+import org.springframework.web.reactive.config.WebFluxConfigurer;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.concurrent.ConcurrentHashMap;
@@ -39,20 +62,8 @@ import java.util.concurrent.ConcurrentHashMap;
  */
 @Slf4j
 @Configuration
-@ComponentScan
-@Import({
-        BankCardSensitiveHandler.class,
-        ChineseCitizenIdCardSensitiveHandler.class,
-        ChineseMobilePhoneSensitiveHandler.class,
-        ChineseNameSensitiveHandler.class,
-        ChineseTellPhoneSensitiveHandler.class,
-        CustomerSensitiveHandler.class,
-        EMailSensitiveHandler.class,
-        EnglishNameSensitiveHandler.class,
-        EncryptionContextBean.class,
-        GMEncryptionStrategy.class,
-        ModernEncryptionStrategy.class
-})
+@EnableConfigurationProperties(SensitiveProperties.class)
+@ImportRuntimeHints(SensitiveRuntimeHints.class)
 public class MicroBankWebSensitiveBean {
 
     @Bean
@@ -61,26 +72,104 @@ public class MicroBankWebSensitiveBean {
     }
 
     @Bean
-    public EncryptionContext gmEncryptionContext(){
+    public EncryptionContext gmEncryptionContext(@Value("${sensitive.gm.engine:jce}") String engine){
+        // lightweight: 基于 Bouncy Castle 轻量级API 并缓存密钥扩展结果
+        if ("lightweight".equalsIgnoreCase(engine))
+            return new EncryptionContext(new LightweightGMEncryptionStrategy());
         return new EncryptionContext(AlgorithmMode.GM);
     }
 
+    @Bean
+    public EncryptionContext fpeEncryptionContext(){
+        return new EncryptionContext(AlgorithmMode.FPE);
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    public EncryptionContextBean encryptionContextBean(List<EncryptionContext> contexts,
+                                                       AlgorithmModeConfig algorithmModeConfig,
+                                                       SecretKeyRepository secretKeyRepository) {
+        // 内置处理器与加密策略由 ServiceLoader 注册，无需声明为 Bean
+        return EncryptionContextBean.builder()
+                .contexts(contexts)
+                .algorithmModeConfig(algorithmModeConfig)
+                .secretKeyRepository(secretKeyRepository)
+                .build();
+    }
+
     @Bean
     @ConditionalOnMissingBean(AlgorithmModeConfig.class)
     public AlgorithmModeConfig algorithmModeConfig() {
-        return () -> AlgorithmMode.MODERN;
+        // sensitive.mode，随策略刷新即时生效
+        return SensitivePolicy.modeConfig();
+    }
+
+    @Bean
+    public SensitivePolicyRefresher sensitivePolicyRefresher(Environment environment) {
+        return new SensitivePolicyRefresher(environment);
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "sensitive.warm-up", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public SensitiveWarmUpInitializer sensitiveWarmUpInitializer(EncryptionContextBean encryptionContextBean,
+                                                                 @Value("${sensitive.warm-up.iterations:" + SensitiveWarmUp.DEFAULT_ITERATIONS + "}") int iterations) {
+        return new SensitiveWarmUpInitializer(encryptionContextBean, iterations);
+    }
+
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(prefix = "sensitive.audit", name = "file")
+    public RingBufferAuditListener sensitiveAuditListener(SensitiveProperties properties) throws IOException {
+        SensitiveProperties.Audit audit = properties.getAudit();
+        RingBufferAuditListener listener = new RingBufferAuditListener(Path.of(audit.getFile()), audit.getBufferSize(),
+                audit.getBatchSize(), audit.getSampleRate(), audit.getBackpressure()).start();
+        SensitiveAudit.register(listener);
+        return listener;
+    }
+
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(prefix = "sensitive.token", name = "enabled", havingValue = "true")
+    public LocalTokenVault sensitiveTokenVault(SensitiveProperties properties) {
+        SensitiveProperties.Token token = properties.getToken();
+        LocalTokenVault vault = new LocalTokenVault(token.getMaximumSize(), token.getTtl(), token.getOffHeapBytes());
+        SensitiveToken.register(vault);
+        return vault;
+    }
+
+    /**
+     * sensitive.tenant.cache-size 大于 0 时以 {@link TenantCachingSecretKeyRepository} 包装密钥仓库 Bean，
+     * 加密上下文、Actuator 端点与密钥预加载过滤器共用同一缓存
+     */
+    @Bean
+    public static BeanPostProcessor sensitiveTenantCachingPostProcessor(Environment environment) {
+        SensitiveProperties.Tenant tenant = Binder.get(environment)
+                .bind("sensitive.tenant", SensitiveProperties.Tenant.class)
+                .orElseGet(SensitiveProperties.Tenant::new);
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (tenant.getCacheSize() <= 0 || !(bean instanceof SecretKeyRepository repository)
+                        || bean instanceof TenantCachingSecretKeyRepository)
+                    return bean;
+                return new TenantCachingSecretKeyRepository(repository, tenant.getCacheSize(), tenant.getExpireAfterAccess());
+            }
+        };
     }
 
     @Bean
     @ConditionalOnMissingBean(SecretKeyRepository.class)
-    public SecretKeyRepository secretKeyRepository() {
-        return new SecretKeyRepository() {
+    public SecretKeyRepository secretKeyRepository(SensitiveProperties properties) throws Exception {
+        SensitiveProperties.KeyStore keyStore = properties.getKeyStore();
+        if (Objects.nonNull(keyStore) && StringUtils.isNotBlank(keyStore.getPath()))
+            return keyStoreSecretKeyRepository(keyStore);
+
+        log.warn("默认的密钥管理仓库:SecretKeyRepository 在重启时将会导致密钥变更导致业务异常，请配置 sensitive.key-store 或可信的中央密钥管理仓库");
+        // 生成的密钥常驻内存，缓存层仅记录加载时间与命中次数，刷新后仍取回同一密钥
+        return new CachingSecretKeyRepository(new SecretKeyRepository() {
             private static final Map<AlgorithmMode, Pair> PAIR_MAP = new ConcurrentHashMap<>();
 
             @Override
             @SneakyThrows
             public Pair pairOf(AlgorithmMode mode) {
-                log.warn("默认的密钥管理仓库:SecretKeyRepository 在重启时将会导致密钥变更导致业务异常，请配置可信的中央密钥管理仓库");
                 if (Objects.isNull(mode))
                     return null;
                 Pair pair = PAIR_MAP.get(mode);
@@ -99,11 +188,91 @@ public class MicroBankWebSensitiveBean {
                             pair.setEncKey(KeyManager.generateGMEncryptionKey());
                             pair.setMacKey(KeyManager.generateGMMacKey());
                         }
+                        case FPE -> pair.setEncKey(KeyManager.generateFpeKey());
                     }
                     PAIR_MAP.put(mode, pair);
                 }
                 return pair;
             }
-        };
+        });
+    }
+
+    private static KeyStoreSecretKeyRepository keyStoreSecretKeyRepository(SensitiveProperties.KeyStore keyStore) throws Exception {
+        if (StringUtils.isEmpty(keyStore.getPassword()))
+            throw new IllegalArgumentException("密钥库口令不能为空:sensitive.key-store.password");
+
+        Path path = Path.of(keyStore.getPath());
+        char[] password = keyStore.getPassword().toCharArray();
+        KeyStoreSecretKeyRepository repository = keyStore.isCreate()
+                ? KeyStoreSecretKeyRepository.createIfAbsent(path, password, keyStore.getType())
+                : new KeyStoreSecretKeyRepository(path, password, keyStore.getType());
+
+        Duration interval = keyStore.getWatchInterval();
+        if (Objects.nonNull(interval) && !interval.isZero() && !interval.isNegative())
+            repository.watch(interval);
+        return repository;
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(name = "org.springframework.boot.actuate.endpoint.annotation.Endpoint")
+    static class SensitiveEndpointConfiguration {
+
+        @Bean
+        @ConditionalOnMissingBean
+        public SensitiveEndpoint sensitiveEndpoint(AlgorithmModeConfig algorithmModeConfig,
+                                                   EncryptionContextBean encryptionContextBean,
+                                                   SecretKeyRepository secretKeyRepository,
+                                                   SensitivePolicyRefresher sensitivePolicyRefresher) {
+            return new SensitiveEndpoint(algorithmModeConfig, encryptionContextBean, secretKeyRepository, sensitivePolicyRefresher);
+        }
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+    @ConditionalOnClass(name = {
+            "org.springframework.http.codec.json.Jackson2JsonEncoder",
+            "com.asialjim.microapplet.sensitive.jackson.SensitiveBatchWriter"
+    })
+    static class SensitiveWebFluxConfiguration {
+
+        @Bean(destroyMethod = "dispose")
+        @ConditionalOnMissingBean(name = "sensitiveScheduler")
+        public Scheduler sensitiveScheduler(SensitiveProperties properties) {
+            SensitiveProperties.Reactive reactive = properties.getReactive();
+            return Schedulers.newBoundedElastic(reactive.getThreads(), reactive.getQueueCapacity(), "sensitive");
+        }
+
+        @Bean
+        public SensitiveKeyPreloadWebFilter sensitiveKeyPreloadWebFilter(AlgorithmModeConfig algorithmModeConfig,
+                                                                         SecretKeyRepository secretKeyRepository,
+                                                                         @Qualifier("sensitiveScheduler") Scheduler scheduler) {
+            return new SensitiveKeyPreloadWebFilter(algorithmModeConfig, secretKeyRepository, scheduler);
+        }
+
+        @Bean
+        @ConditionalOnProperty(prefix = "sensitive.tenant", name = "header")
+        public SensitiveTenantWebFilter sensitiveTenantWebFilter(SensitiveProperties properties) {
+            return new SensitiveTenantWebFilter(properties.getTenant().getHeader());
+        }
+
+        /**
+         * 只替换服务端编解码器：CodecCustomizer 同样作用于 WebClient.Builder，会使发往其他服务的请求体带上只在当前节点有效的令牌
+         */
+        @Bean
+        @Order
+        public WebFluxConfigurer sensitiveWebFluxConfigurer(ObjectProvider<ObjectMapper> objectMapper,
+                                                            SensitiveProperties properties,
+                                                            @Qualifier("sensitiveScheduler") Scheduler scheduler) {
+            return new WebFluxConfigurer() {
+                @Override
+                public void configureHttpMessageCodecs(ServerCodecConfigurer configurer) {
+                    // 在 Spring Boot 默认的 Jackson 编解码配置之后替换编解码器
+                    ObjectMapper mapper = objectMapper.getIfAvailable(ObjectMapper::new);
+                    configurer.defaultCodecs().jackson2JsonEncoder(new SensitiveJackson2JsonEncoder(
+                            mapper, scheduler, properties.getReactive().getOffloadThreshold()));
+                    configurer.defaultCodecs().jackson2JsonDecoder(new SensitiveJackson2JsonDecoder(mapper));
+                }
+            };
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,106 @@
+/*
+ *    Copyright 2014-2025 <a href="mailto:asialjim@qq.com">Asial Jim</a>
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+
+package com.asialjim.microapplet.sensitive;
+
+import com.asialjim.microapplet.sensitive.audit.RingBufferAuditListener;
+import com.asialjim.microapplet.sensitive.audit.SensitiveAudit;
+import com.asialjim.microapplet.sensitive.encrypt.AlgorithmModeConfig;
+import com.asialjim.microapplet.sensitive.encrypt.CachingSecretKeyRepository;
+import com.asialjim.microapplet.sensitive.encrypt.EncryptionContextBean;
+import com.asialjim.microapplet.sensitive.encrypt.KeyStoreSecretKeyRepository;
+import com.asialjim.microapplet.sensitive.encrypt.SecretKeyRepository;
+import com.asialjim.microapplet.sensitive.encrypt.TenantCachingSecretKeyRepository;
+import com.asialjim.microapplet.sensitive.token.LocalTokenVault;
+import com.asialjim.microapplet.sensitive.token.SensitiveToken;
+import lombok.AllArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * 敏感数据 Actuator 端点
+ * <p>
+ * 读取：当前算法模式、各敏感类型/算法模式计数、解密与 MAC 校验失败次数、加解密耗时百分位、正则与密钥缓存（含租户密钥缓存）状态、密钥库文件加载状态、解密审计写出状态、令牌库状态；
+ * 写入：{@code keys} 重新加载密钥，{@code policy} 重新绑定配置，{@code warm-up} 执行预热
+ * <pre>
+ * GET  /actuator/sensitive
+ * POST /actuator/sensitive {"action": "keys"}
+ * </pre>
+ *
+ * @author <a href="mailto:asialjim@hotmail.com">Asial Jim</a>
+ * @version 1.0
+ * @since 2026/10/19, &nbsp;&nbsp; <em>version:1.0</em>
+ */
+@AllArgsConstructor
+@Endpoint(id = "sensitive")
+public class SensitiveEndpoint {
+    private final AlgorithmModeConfig algorithmModeConfig;
+    private final EncryptionContextBean encryptionContextBean;
+    private final SecretKeyRepository secretKeyRepository;
+    private final SensitivePolicyRefresher policyRefresher;
+
+    @ReadOperation
+    public Map<String, Object> sensitive() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("mode", algorithmModeConfig.currentMode());
+        result.putAll(SensitiveMetrics.snapshot());
+        SecretKeyRepository secretKeyRepository = this.secretKeyRepository;
+        if (secretKeyRepository instanceof TenantCachingSecretKeyRepository repository) {
+            result.put("tenantKeyCache", repository.stats());
+            secretKeyRepository = repository.delegate();
+        }
+        if (secretKeyRepository instanceof CachingSecretKeyRepository repository)
+            result.put("keyCache", repository.stats());
+        if (SensitiveAudit.listener() instanceof RingBufferAuditListener audit)
+            result.put("audit", audit.stats());
+        if (SensitiveToken.vault() instanceof LocalTokenVault vault)
+            result.put("token", vault.stats());
+        if (secretKeyRepository instanceof KeyStoreSecretKeyRepository repository) {
+            Map<String, Object> keyStore = new LinkedHashMap<>();
+            keyStore.put("file", repository.file().toString());
+            Exception failure = repository.lastFailure();
+            keyStore.put("lastFailure", Objects.isNull(failure) ? null : failure.toString());
+            result.put("keyStore", keyStore);
+        }
+        return result;
+    }
+
+    @WriteOperation
+    public Map<String, Object> refresh(String action) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("action", action);
+        switch (action) {
+            case "keys" -> {
+                encryptionContextBean.refreshKeys();
+                result.put("modes", encryptionContextBean.preload());
+            }
+            case "policy" -> result.put("mode", policyRefresher.refresh().mode());
+            case "warm-up" -> {
+                Duration duration = SensitiveWarmUp.warmUp(encryptionContextBean);
+                result.put("millis", duration.toMillis());
+            }
+            default -> throw new IllegalArgumentException("不支持的操作:" + action + ", 可选 keys/policy/warm-up");
+        }
+        return result;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,52 @@
+/*
+ *    Copyright 2014-2025 <a href="mailto:asialjim@qq.com">Asial Jim</a>
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+
+package com.asialjim.microapplet.sensitive;
+
+import com.asialjim.microapplet.sensitive.jackson.SensitiveSerializer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.springframework.core.ResolvableType;
+import org.springframework.http.codec.json.Jackson2JsonDecoder;
+import org.springframework.lang.Nullable;
+
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * 按请求租户解密的 JSON 解码器
+ * <p>
+ * 请求体解码时读取 Reactor Context 中由 {@link SensitiveTenantWebFilter} 写入的 {@link SensitiveTenant#CONTEXT_KEY}，
+ * 经由 {@link SensitiveSerializer#TENANT} 设置解密时的当前租户，其他租户的密文按租户隔离规则拒绝解密
+ *
+ * @author <a href="mailto:asialjim@hotmail.com">Asial Jim</a>
+ * @version 1.0
+ * @since 2026/10/19, &nbsp;&nbsp; <em>version:1.0</em>
+ */
+public class SensitiveJackson2JsonDecoder extends Jackson2JsonDecoder {
+
+    public SensitiveJackson2JsonDecoder(ObjectMapper mapper) {
+        super(mapper);
+    }
+
+    @Override
+    protected ObjectReader customizeReader(ObjectReader reader, ResolvableType elementType, @Nullable Map<String, Object> hints) {
+        ObjectReader customized = super.customizeReader(reader, elementType, hints);
+        String tenant = SensitiveJackson2JsonEncoder.tenantOf(hints);
+        return Objects.isNull(tenant) ? customized : customized.withAttribute(SensitiveSerializer.TENANT, tenant);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,159 @@
+/*
+ *    Copyright 2014-2025 <a href="mailto:asialjim@qq.com">Asial Jim</a>
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+
+package com.asialjim.microapplet.sensitive;
+
+import com.asialjim.microapplet.sensitive.jackson.SensitiveBatchWriter;
+import com.asialjim.microapplet.sensitive.jackson.SensitiveSerializer;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.util.ByteArrayBuilder;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.exc.InvalidDefinitionException;
+import org.reactivestreams.Publisher;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.codec.CodecException;
+import org.springframework.core.codec.EncodingException;
+import org.springframework.core.codec.Hints;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.http.codec.json.Jackson2CodecSupport;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.lang.Nullable;
+import org.springframework.util.MimeType;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.util.context.ContextView;
+
+import java.io.IOException;
+import java.lang.reflect.Array;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * 将大响应体的加密移出事件循环的 JSON 编码器
+ * <p>
+ * 单值响应体为集合、数组或 {@link Map} 且元素数不小于阈值时，在独立的有界线程池中经由 {@link SensitiveBatchWriter}
+ * 序列化并批量加密；其余响应体与流式响应仍按 {@link Jackson2JsonEncoder} 在当前线程编码。
+ * 单值与流式响应体编码期间均按 Reactor Context 中的 {@link SensitiveTenant#CONTEXT_KEY} 设置当前租户
+ * （经由 {@link SensitiveSerializer#TENANT}，不依赖编码所在线程）；
+ * 已注册令牌库时响应体以令牌替代密文，见 {@link SensitiveSerializer#TOKENIZE}，因此只用于服务端响应，不应配置到 WebClient
+ *
+ * @author <a href="mailto:asialjim@hotmail.com">Asial Jim</a>
+ * @version 1.0
+ * @since 2026/10/19, &nbsp;&nbsp; <em>version:1.0</em>
+ */
+public class SensitiveJackson2JsonEncoder extends Jackson2JsonEncoder {
+    private final Scheduler scheduler;
+    private final int offloadThreshold;
+
+    public SensitiveJackson2JsonEncoder(ObjectMapper mapper, Scheduler scheduler, int offloadThreshold) {
+        super(mapper);
+        this.scheduler = scheduler;
+        this.offloadThreshold = offloadThreshold;
+    }
+
+    @Override
+    public Flux<DataBuffer> encode(Publisher<?> inputStream, DataBufferFactory bufferFactory, ResolvableType elementType,
+                                   @Nullable MimeType mimeType, @Nullable Map<String, Object> hints) {
+        if (!(inputStream instanceof Mono<?> mono))
+            return super.encode(inputStream, bufferFactory, elementType, mimeType, hints);
+
+        return Flux.deferContextual(contextView -> {
+            Map<String, Object> hintsToUse = contextView.isEmpty() ? hints :
+                    Hints.merge(hints, ContextView.class.getName(), contextView);
+            String tenant = contextView.getOrDefault(SensitiveTenant.CONTEXT_KEY, null);
+
+            return mono.flatMap(value -> {
+                if (sizeOf(value) < offloadThreshold)
+                    return Mono.fromCallable(() -> SensitiveTenant.call(tenant, () -> encodeValue(value, bufferFactory, elementType, mimeType, hintsToUse)));
+
+                return Mono.fromCallable(() -> SensitiveTenant.call(tenant, () -> encodeBatch(value, bufferFactory, elementType, mimeType, hintsToUse)))
+                        .subscribeOn(scheduler);
+            });
+        });
+    }
+
+    @Override
+    protected ObjectWriter customizeWriter(ObjectWriter writer, @Nullable MimeType mimeType, ResolvableType elementType,
+                                           @Nullable Map<String, Object> hints) {
+        // 令牌只在当前节点有效，仅用于返回给客户端的响应体
+        ObjectWriter customized = super.customizeWriter(writer, mimeType, elementType, hints).withAttribute(SensitiveSerializer.TOKENIZE, Boolean.TRUE);
+        String tenant = tenantOf(hints);
+        return Objects.isNull(tenant) ? customized : customized.withAttribute(SensitiveSerializer.TENANT, tenant);
+    }
+
+    /**
+     * 编解码提示中 Reactor Context 的 {@link SensitiveTenant#CONTEXT_KEY}
+     */
+    static String tenantOf(@Nullable Map<String, Object> hints) {
+        if (Objects.isNull(hints) || !(hints.get(ContextView.class.getName()) instanceof ContextView contextView))
+            return null;
+        return contextView.getOrDefault(SensitiveTenant.CONTEXT_KEY, null);
+    }
+
+    private DataBuffer encodeBatch(Object value, DataBufferFactory bufferFactory, ResolvableType valueType,
+                                   @Nullable MimeType mimeType, @Nullable Map<String, Object> hints) {
+        ObjectMapper mapper = selectObjectMapper(valueType, mimeType);
+        if (Objects.isNull(mapper))
+            throw new IllegalStateException("No ObjectMapper for " + valueType);
+
+        Class<?> jsonView = Objects.isNull(hints) ? null : (Class<?>) hints.get(Jackson2CodecSupport.JSON_VIEW_HINT);
+        ObjectWriter writer = Objects.isNull(jsonView) ? mapper.writer() : mapper.writerWithView(jsonView);
+        JavaType javaType = getJavaType(valueType.getType(), null);
+        if (javaType.isContainerType())
+            writer = writer.forType(javaType);
+        writer = customizeWriter(writer, mimeType, valueType, hints);
+
+        // 已在加密线程池中，分块加密不再分发到其他线程
+        SensitiveBatchWriter batchWriter = new SensitiveBatchWriter(writer, null, SensitiveBatchWriter.DEFAULT_CHUNK_SIZE);
+        ByteArrayBuilder byteBuilder = new ByteArrayBuilder(writer.getFactory()._getBufferRecycler());
+        try {
+            try (JsonGenerator generator = mapper.getFactory().createGenerator(byteBuilder, getJsonEncoding(mimeType))) {
+                batchWriter.writeValue(generator, value);
+                generator.flush();
+            } catch (InvalidDefinitionException ex) {
+                throw new CodecException("Type definition error: " + ex.getType(), ex);
+            } catch (JsonProcessingException ex) {
+                throw new EncodingException("JSON encoding error: " + ex.getOriginalMessage(), ex);
+            } catch (IOException ex) {
+                throw new IllegalStateException("Unexpected I/O error while writing to byte array builder", ex);
+            }
+
+            byte[] bytes = byteBuilder.toByteArray();
+            DataBuffer buffer = bufferFactory.allocateBuffer(bytes.length);
+            buffer.write(bytes);
+            return buffer;
+        } finally {
+            byteBuilder.release();
+        }
+    }
+
+    private static int sizeOf(Object value) {
+        if (value instanceof Collection<?> collection)
+            return collection.size();
+        if (value instanceof Map<?, ?> map)
+            return map.size();
+        if (Objects.nonNull(value) && value.getClass().isArray())
+            return Array.getLength(value);
+        return 1;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,80 @@
+/*
+ *    Copyright 2014-2025 <a href="mailto:asialjim@qq.com">Asial Jim</a>
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+
+package com.asialjim.microapplet.sensitive;
+
+import com.asialjim.microapplet.sensitive.encrypt.AlgorithmMode;
+import com.asialjim.microapplet.sensitive.encrypt.AlgorithmModeConfig;
+import com.asialjim.microapplet.sensitive.encrypt.CachingSecretKeyRepository;
+import com.asialjim.microapplet.sensitive.encrypt.SecretKeyRepository;
+import com.asialjim.microapplet.sensitive.encrypt.TenantCachingSecretKeyRepository;
+import lombok.AllArgsConstructor;
+import org.springframework.core.Ordered;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.util.Objects;
+
+/**
+ * 响应序列化前预先加载密钥
+ * <p>
+ * 当前租户与算法模式的密钥尚未缓存时，在加密线程池中加载后再继续处理请求，避免序列化时在事件循环线程上访问较慢的密钥仓库；
+ * 已缓存时直接放行，不切换线程。租户取自 {@link SensitiveTenantWebFilter} 写入 Reactor Context 的
+ * {@link SensitiveTenant#CONTEXT_KEY}，因此排在其后执行。仅对 {@link TenantCachingSecretKeyRepository} 与
+ * {@link CachingSecretKeyRepository}（只缓存平台密钥）生效，其余密钥仓库无法判断是否已加载，直接放行
+ *
+ * @author <a href="mailto:asialjim@hotmail.com">Asial Jim</a>
+ * @version 1.0
+ * @since 2026/10/19, &nbsp;&nbsp; <em>version:1.0</em>
+ */
+@AllArgsConstructor
+public class SensitiveKeyPreloadWebFilter implements WebFilter, Ordered {
+    private final AlgorithmModeConfig algorithmModeConfig;
+    private final SecretKeyRepository secretKeyRepository;
+    private final Scheduler scheduler;
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        AlgorithmMode mode = algorithmModeConfig.currentMode();
+        return Mono.deferContextual(context -> {
+            // 与 EncryptionContextBean 一致，不区分租户的仓库只使用平台密钥
+            String tenant = secretKeyRepository.tenantAware() ? context.getOrDefault(SensitiveTenant.CONTEXT_KEY, null) : null;
+            if (cached(tenant, mode))
+                return chain.filter(exchange);
+
+            return Mono.fromCallable(() -> secretKeyRepository.pairOf(tenant, mode))
+                    .subscribeOn(scheduler)
+                    .then(chain.filter(exchange));
+        });
+    }
+
+    private boolean cached(String tenant, AlgorithmMode mode) {
+        if (secretKeyRepository instanceof TenantCachingSecretKeyRepository repository)
+            return repository.cached(tenant, mode);
+        if (Objects.isNull(tenant) && secretKeyRepository instanceof CachingSecretKeyRepository repository)
+            return repository.cached(mode);
+        return true;
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE + 1;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,50 @@
+/*
+ *    Copyright 2014-2025 <a href="mailto:asialjim@qq.com">Asial Jim</a>
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+
+package com.asialjim.microapplet.sensitive;
+
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.core.env.Environment;
+
+/**
+ * 敏感数据策略刷新
+ * <p>
+ * 从当前 {@link Environment} 重新绑定 {@link SensitiveProperties}，编译成功后整体替换 {@link SensitivePolicy}，
+ * 配置无效时抛出异常并保留原策略
+ *
+ * @author <a href="mailto:asialjim@hotmail.com">Asial Jim</a>
+ * @version 1.0
+ * @since 2026/10/19, &nbsp;&nbsp; <em>version:1.0</em>
+ */
+@Slf4j
+@AllArgsConstructor
+public class SensitivePolicyRefresher {
+    private final Environment environment;
+
+    public SensitivePolicy refresh() {
+        SensitiveProperties properties = Binder.get(this.environment)
+                .bind(SensitiveProperties.PREFIX, SensitiveProperties.class)
+                .orElseGet(SensitiveProperties::new);
+
+        SensitivePolicy policy = properties.toPolicy();
+        SensitivePolicy.update(policy);
+        log.info("敏感数据处理策略已刷新, 算法模式: {}", policy.mode());
+        return policy;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,252 @@
+/*
+ *    Copyright 2014-2025 <a href="mailto:asialjim@qq.com">Asial Jim</a>
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+
+package com.asialjim.microapplet.sensitive;
+
+import com.asialjim.microapplet.sensitive.audit.RingBufferAuditListener;
+import com.asialjim.microapplet.sensitive.encrypt.AlgorithmMode;
+import com.asialjim.microapplet.sensitive.encrypt.KeyStoreSecretKeyRepository;
+import com.asialjim.microapplet.sensitive.handler.SensitiveType;
+import lombok.Data;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * 敏感数据配置
+ * <pre>
+ * sensitive:
+ *   mode: GM
+ *   rules:
+ *     ChineseMobilePhone:
+ *       prefix: 3
+ *       suffix: 2
+ *   key-store:
+ *     path: /data/keys/sensitive.p12
+ *     password: ${SENSITIVE_KEYSTORE_PASSWORD}
+ * </pre>
+ * 绑定完成后编译为 {@link SensitivePolicy} 并整体替换当前策略；Spring Cloud 刷新配置重新绑定本类时同样生效，
+ * 其余场景可调用 {@link SensitivePolicyRefresher#refresh()}
+ *
+ * @author <a href="mailto:asialjim@hotmail.com">Asial Jim</a>
+ * @version 1.0
+ * @since 2026/10/19, &nbsp;&nbsp; <em>version:1.0</em>
+ */
+@Data
+@ConfigurationProperties(prefix = SensitiveProperties.PREFIX)
+public class SensitiveProperties implements InitializingBean {
+    public static final String PREFIX = "sensitive";
+
+    /**
+     * 加密算法模式
+     */
+    private AlgorithmMode mode = AlgorithmMode.MODERN;
+
+    /**
+     * 敏感类型规则，未配置的类型与属性使用 {@link SensitiveType} 内置规则
+     */
+    private Map<SensitiveType, Rule> rules = new EnumMap<>(SensitiveType.class);
+
+    /**
+     * WebFlux 集成
+     */
+    private Reactive reactive = new Reactive();
+
+    /**
+     * 密钥库文件，配置 {@code path} 后替代默认的内存密钥仓库
+     */
+    private KeyStore keyStore = new KeyStore();
+
+    /**
+     * 多租户
+     */
+    private Tenant tenant = new Tenant();
+
+    /**
+     * 解密审计，配置 {@code file} 后启用
+     */
+    private Audit audit = new Audit();
+
+    /**
+     * 令牌化输出，启用后 WebFlux 响应体中以随机令牌替代密文，持久化等其他序列化仍输出密文
+     */
+    private Token token = new Token();
+
+    @Override
+    public void afterPropertiesSet() {
+        SensitivePolicy.update(toPolicy());
+    }
+
+    /**
+     * 编译为不可变策略，配置无效时抛出异常
+     */
+    public SensitivePolicy toPolicy() {
+        SensitivePolicy policy = SensitivePolicy.defaults(this.mode);
+        if (Objects.isNull(this.rules))
+            return policy;
+
+        for (Map.Entry<SensitiveType, Rule> entry : this.rules.entrySet()) {
+            SensitiveType type = entry.getKey();
+            Rule rule = entry.getValue();
+            if (Objects.isNull(rule))
+                continue;
+
+            int prefix = Objects.nonNull(rule.getPrefix()) ? rule.getPrefix() : type.getPrefix();
+            int suffix = Objects.nonNull(rule.getSuffix()) ? rule.getSuffix() : type.getSuffix();
+            policy = policy.withRule(type, prefix, suffix, rule.getRegex());
+        }
+        return policy;
+    }
+
+    @Data
+    public static class Rule {
+        /**
+         * 脱敏保留前缀位数
+         */
+        private Integer prefix;
+
+        /**
+         * 脱敏保留后缀位数
+         */
+        private Integer suffix;
+
+        /**
+         * 校验正则
+         */
+        private String regex;
+    }
+
+    @Data
+    public static class Reactive {
+        /**
+         * 响应体为集合、数组或 Map 且元素数不小于该值时，切换到独立线程池批量加密，否则在当前线程直接序列化
+         */
+        private int offloadThreshold = 64;
+
+        /**
+         * 加密线程池线程数上限
+         */
+        private int threads = Runtime.getRuntime().availableProcessors();
+
+        /**
+         * 加密线程池排队任务数上限
+         */
+        private int queueCapacity = 10_000;
+    }
+
+    @Data
+    public static class KeyStore {
+        /**
+         * 密钥库文件路径，多个节点可共用同一文件
+         */
+        private String path;
+
+        /**
+         * 密钥库及条目口令
+         */
+        private String password;
+
+        /**
+         * 密钥库类型，PKCS12 或 BCFKS
+         */
+        private String type = KeyStoreSecretKeyRepository.DEFAULT_TYPE;
+
+        /**
+         * 文件不存在时生成密钥并写入
+         */
+        private boolean create = true;
+
+        /**
+         * 监听文件变化并比较文件属性的间隔，为空时不监听
+         */
+        private Duration watchInterval = Duration.ofSeconds(30);
+    }
+
+    @Data
+    public static class Tenant {
+        /**
+         * WebFlux 应用从该请求头读取租户，为空时不读取；租户应由认证网关写入，不应信任客户端自行传入的值。
+         * Servlet 应用不读取该配置，需在自己的过滤器中以 {@link SensitiveTenant#open(String)} 设置当前租户
+         */
+        private String header;
+
+        /**
+         * 按租户分片缓存的密钥对上限，为 0 时不缓存
+         */
+        private int cacheSize;
+
+        /**
+         * 租户未访问多久后移出缓存
+         */
+        private Duration expireAfterAccess = Duration.ofHours(1);
+    }
+
+    @Data
+    public static class Audit {
+        /**
+         * 审计文件，只追加写入
+         */
+        private String file;
+
+        /**
+         * 环形缓冲区槽位数
+         */
+        private int bufferSize = 8192;
+
+        /**
+         * 每批写出的最大事件数
+         */
+        private int batchSize = 256;
+
+        /**
+         * 成功解密的抽样比例，失败的解密总是记录
+         */
+        private double sampleRate = 1.0;
+
+        /**
+         * 缓冲区已满时等待（BLOCK）或丢弃（DROP）
+         */
+        private RingBufferAuditListener.Backpressure backpressure = RingBufferAuditListener.Backpressure.BLOCK;
+    }
+
+    @Data
+    public static class Token {
+        /**
+         * 是否启用令牌化输出，令牌只在当前节点有效，多节点部署需会话粘滞
+         */
+        private boolean enabled;
+
+        /**
+         * 令牌数上限，超出时淘汰最早写入的令牌
+         */
+        private int maximumSize = 100_000;
+
+        /**
+         * 令牌有效期，自写入起计算
+         */
+        private Duration ttl = Duration.ofMinutes(30);
+
+        /**
+         * 堆外存储容量（字节），为 0 时密文存放在堆内
+         */
+        private long offHeapBytes;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,52 @@
+/*
+ *    Copyright 2014-2025 <a href="mailto:asialjim@qq.com">Asial Jim</a>
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package com.asialjim.microapplet.sensitive;
+
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.boot.context.properties.bind.BindableRuntimeHintsRegistrar;
+import org.springframework.util.ClassUtils;
+
+/**
+ * 敏感数据 native-image 运行期提示
+ * <p>
+ * {@link SensitivePolicyRefresher} 在运行期经由 {@code Binder} 重新绑定 {@link SensitiveProperties}；
+ * {@code @Sensitive} 注解通过 {@code @JsonSerialize(using = ...)} 声明的序列化器由 Jackson 反射创建。
+ * 内置处理器与加密策略表见 sensitive-core 中的 native-image 构建参数，在构建期完成初始化
+ *
+ * @author <a href="mailto:asialjim@hotmail.com">Asial Jim</a>
+ * @version 1.0
+ * @since 2026/10/19, &nbsp;&nbsp; <em>version:1.0</em>
+ */
+public class SensitiveRuntimeHints implements RuntimeHintsRegistrar {
+    private static final String[] JACKSON_TYPES = {
+            "com.asialjim.microapplet.sensitive.jackson.SensitiveSerializer",
+            "com.asialjim.microapplet.sensitive.jackson.SensitiveDeserializer"
+    };
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        BindableRuntimeHintsRegistrar.forTypes(SensitiveProperties.class).registerHints(hints, classLoader);
+
+        for (String type : JACKSON_TYPES) {
+            if (ClassUtils.isPresent(type, classLoader))
+                hints.reflection().registerType(TypeReference.of(type), MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS);
+        }
+    }
+}
\ No newline at end of file
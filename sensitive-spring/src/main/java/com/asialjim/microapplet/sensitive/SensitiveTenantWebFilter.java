@@ -0,0 +1,61 @@
+/*
+ *    Copyright 2014-2025 <a href="mailto:asialjim@qq.com">Asial Jim</a>
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package com.asialjim.microapplet.sensitive;
+
+import lombok.AllArgsConstructor;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.core.Ordered;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.ServerWebInputException;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+/**
+ * 从请求头读取租户并写入 Reactor Context
+ * <p>
+ * 响应式处理链的线程不固定，租户经由 Context 的 {@link SensitiveTenant#CONTEXT_KEY} 传递，
+ * 由 {@link SensitiveJackson2JsonEncoder} 与 {@link SensitiveJackson2JsonDecoder} 在编码响应体、解码请求体时设置为当前租户；业务代码可通过 {@code Mono.deferContextual} 读取。
+ * 租户标识不合法时返回 400
+ *
+ * @author <a href="mailto:asialjim@hotmail.com">Asial Jim</a>
+ * @version 1.0
+ * @since 2026/10/19, &nbsp;&nbsp; <em>version:1.0</em>
+ */
+@AllArgsConstructor
+public class SensitiveTenantWebFilter implements WebFilter, Ordered {
+    private final String header;
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        String tenant = exchange.getRequest().getHeaders().getFirst(header);
+        if (StringUtils.isEmpty(tenant))
+            return chain.filter(exchange);
+
+        try {
+            SensitiveTenant.validate(tenant);
+        } catch (IllegalArgumentException e) {
+            return Mono.error(new ServerWebInputException(e.getMessage()));
+        }
+        return chain.filter(exchange).contextWrite(context -> context.put(SensitiveTenant.CONTEXT_KEY, tenant));
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE;
+    }
+}
\ No newline at end of file
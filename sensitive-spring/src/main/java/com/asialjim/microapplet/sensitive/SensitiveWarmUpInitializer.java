@@ -0,0 +1,46 @@
+/*
+ *    Copyright 2014-2025 <a href="mailto:asialjim@qq.com">Asial Jim</a>
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package com.asialjim.microapplet.sensitive;
+
+import com.asialjim.microapplet.sensitive.encrypt.EncryptionContextBean;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+
+import java.time.Duration;
+
+/**
+ * 敏感数据组件启动预热
+ * <p>
+ * 在所有单例初始化完成后、Web容器开始接收请求之前执行 {@link SensitiveWarmUp}
+ *
+ * @author <a href="mailto:asialjim@hotmail.com">Asial Jim</a>
+ * @version 1.0
+ * @since 2026/10/19, &nbsp;&nbsp; <em>version:1.0</em>
+ */
+@Slf4j
+@AllArgsConstructor
+public class SensitiveWarmUpInitializer implements SmartInitializingSingleton {
+    private final EncryptionContextBean encryptionContextBean;
+    private final int iterations;
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        Duration duration = SensitiveWarmUp.warmUp(this.encryptionContextBean, this.iterations);
+        log.info("敏感数据组件预热完成, 每条路径执行 {} 次, 耗时 {} ms", this.iterations, duration.toMillis());
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ *    Copyright 2014-2025 <a href="mailto:asialjim@qq.com">Asial Jim</a>
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package com.asialjim.microapplet.sensitive;
+
+import com.asialjim.microapplet.sensitive.encrypt.*;
+import com.asialjim.microapplet.sensitive.handler.ChineseMobilePhoneSensitiveHandler;
+import com.asialjim.microapplet.sensitive.handler.SensitiveHandler;
+import com.asialjim.microapplet.sensitive.handler.SensitiveType;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * 敏感数据 Actuator 端点测试
+ */
+@SuppressWarnings("unchecked")
+public class SensitiveEndpointTest {
+    private final AtomicInteger loads = new AtomicInteger();
+    private MockEnvironment environment;
+    private CachingSecretKeyRepository repository;
+    private SensitiveEndpoint endpoint;
+
+    @Before
+    public void before() throws Exception {
+        new ChineseMobilePhoneSensitiveHandler().init();
+        SensitiveMetrics.reset();
+
+        SecretKeyRepository.Pair pair = new SecretKeyRepository.Pair()
+                .setEncKey(KeyManager.generateGMEncryptionKey())
+                .setMacKey(KeyManager.generateGMMacKey());
+        repository = new CachingSecretKeyRepository(mode -> {
+            loads.incrementAndGet();
+            return pair;
+        });
+        EncryptionContextBean bean = new EncryptionContextBean(Collections.singletonList(new EncryptionContext(AlgorithmMode.GM)),
+                () -> AlgorithmMode.GM, repository);
+        environment = new MockEnvironment();
+        endpoint = new SensitiveEndpoint(() -> SensitivePolicy.current().mode(), bean, repository, new SensitivePolicyRefresher(environment));
+    }
+
+    @After
+    public void after() {
+        SensitivePolicy.reset();
+    }
+
+    @Test
+    public void testRead() {
+        SensitiveHandler.mask(SensitiveType.ChineseMobilePhone, "13800138000");
+
+        Map<String, Object> result = endpoint.sensitive();
+        assertEquals(SensitivePolicy.current().mode(), result.get("mode"));
+        assertEquals(1L, ((Map<SensitiveType, Long>) result.get("masks")).get(SensitiveType.ChineseMobilePhone).longValue());
+        assertTrue(result.containsKey("modes"));
+        assertTrue(result.containsKey("latency"));
+        assertTrue(result.containsKey("keyCache"));
+        assertFalse(result.containsKey("keyStore"));
+    }
+
+    @Test
+    public void testTenantCache() {
+        Object wrapped = MicroBankWebSensitiveBean.sensitiveTenantCachingPostProcessor(environment)
+                .postProcessAfterInitialization(repository, "secretKeyRepository");
+        assertSame(repository, wrapped);
+
+        environment.setProperty("sensitive.tenant.cache-size", "100");
+        wrapped = MicroBankWebSensitiveBean.sensitiveTenantCachingPostProcessor(environment)
+                .postProcessAfterInitialization(repository, "secretKeyRepository");
+        assertTrue(wrapped instanceof TenantCachingSecretKeyRepository);
+        assertFalse(((SecretKeyRepository) wrapped).tenantAware());
+
+        SensitiveEndpoint tenantEndpoint = new SensitiveEndpoint(() -> AlgorithmMode.GM, null, (SecretKeyRepository) wrapped,
+                new SensitivePolicyRefresher(environment));
+        Map<String, Object> result = tenantEndpoint.sensitive();
+        assertTrue(result.containsKey("tenantKeyCache"));
+        assertTrue(result.containsKey("keyCache"));
+    }
+
+    @Test
+    public void testKeys() {
+        Map<String, Object> result = endpoint.refresh("keys");
+        assertEquals("keys", result.get("action"));
+        assertEquals(EnumSet.of(AlgorithmMode.GM), result.get("modes"));
+        assertEquals(1, loads.get());
+        assertTrue(repository.ages().containsKey(AlgorithmMode.GM));
+    }
+
+    @Test
+    public void testPolicy() {
+        environment.setProperty("sensitive.mode", "GM");
+        Map<String, Object> result = endpoint.refresh("policy");
+        assertEquals(AlgorithmMode.GM, result.get("mode"));
+        assertEquals(AlgorithmMode.GM, endpoint.sensitive().get("mode"));
+    }
+
+    @Test
+    public void testWarmUp() {
+        Map<String, Object> result = endpoint.refresh("warm-up");
+        assertEquals("warm-up", result.get("action"));
+        assertTrue((Long) result.get("millis") >= 0);
+
+        // 预热不计入指标
+        Map<String, Object> snapshot = endpoint.sensitive();
+        assertEquals(0L, ((Map<SensitiveType, Long>) snapshot.get("masks")).get(SensitiveType.ChineseMobilePhone).longValue());
+        Map<String, Long> gm = ((Map<AlgorithmMode, Map<String, Long>>) snapshot.get("modes")).get(AlgorithmMode.GM);
+        assertEquals(0L, gm.get("encrypt").longValue());
+        assertEquals(0L, gm.get("decrypt").longValue());
+    }
+
+    @Test
+    public void testUnknownAction() {
+        assertThrows(IllegalArgumentException.class, () -> endpoint.refresh("unknown"));
+    }
+}
\ No newline at end of file
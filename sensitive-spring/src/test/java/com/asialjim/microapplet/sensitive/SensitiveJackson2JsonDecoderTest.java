@@ -0,0 +1,146 @@
+/*
+ *    Copyright 2014-2025 <a href="mailto:asialjim@qq.com">Asial Jim</a>
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+
+package com.asialjim.microapplet.sensitive;
+
+import com.asialjim.microapplet.sensitive.annotation.Sensitive;
+import com.asialjim.microapplet.sensitive.encrypt.*;
+import com.asialjim.microapplet.sensitive.handler.ChineseMobilePhoneSensitiveHandler;
+import com.asialjim.microapplet.sensitive.handler.SensitiveType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.Data;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.web.reactive.function.server.HandlerStrategies;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.Assert.*;
+
+/**
+ * WebFlux 请求体解码与流式响应的租户隔离测试
+ */
+public class SensitiveJackson2JsonDecoderTest {
+    private static final String HEADER = "X-Tenant-Id";
+
+    private Scheduler scheduler;
+    private EncryptionContextBean bean;
+    private WebTestClient client;
+
+    @Before
+    public void before() {
+        new ChineseMobilePhoneSensitiveHandler().init();
+        Map<String, SecretKeyRepository.Pair> pairs = new ConcurrentHashMap<>();
+        bean = EncryptionContextBean.builder()
+                .contexts(List.of(new EncryptionContext(AlgorithmMode.MODERN)))
+                .mode(AlgorithmMode.MODERN)
+                .secretKeyRepository(new SecretKeyRepository() {
+                    @Override
+                    public Pair pairOf(AlgorithmMode mode) {
+                        return pairOf(null, mode);
+                    }
+
+                    @Override
+                    public Pair pairOf(String tenant, AlgorithmMode mode) {
+                        return pairs.computeIfAbsent(String.valueOf(tenant), key -> {
+                            try {
+                                return new Pair().setEncKey(KeyManager.generateModernEncryptionKey());
+                            } catch (Exception e) {
+                                throw new IllegalStateException(e);
+                            }
+                        });
+                    }
+
+                    @Override
+                    public boolean tenantAware() {
+                        return true;
+                    }
+                })
+                .build();
+
+        ObjectMapper mapper = new ObjectMapper();
+        scheduler = Schedulers.newBoundedElastic(2, 16, "sensitive");
+        client = WebTestClient.bindToRouterFunction(RouterFunctions.route()
+                        .POST("/phone", request -> request.bodyToMono(Item.class)
+                                .flatMap(item -> ServerResponse.ok().contentType(MediaType.TEXT_PLAIN).bodyValue(item.getPhone())))
+                        .GET("/items", request -> ServerResponse.ok().body(Flux.range(0, 3).map(i -> item("13800138000")), Item.class))
+                        .build())
+                .webFilter(new SensitiveTenantWebFilter(HEADER))
+                .handlerStrategies(HandlerStrategies.builder().codecs(configurer -> {
+                    configurer.defaultCodecs().jackson2JsonEncoder(new SensitiveJackson2JsonEncoder(mapper, scheduler, 16));
+                    configurer.defaultCodecs().jackson2JsonDecoder(new SensitiveJackson2JsonDecoder(mapper));
+                }).build())
+                .build();
+    }
+
+    @After
+    public void after() {
+        scheduler.dispose();
+    }
+
+    @Test
+    public void testCrossTenantRejected() throws Exception {
+        String tenantA = SensitiveTenant.call("tenant-a", () -> bean.encrypt("13800138000")).withMask("138****8000");
+        String tenantB = SensitiveTenant.call("tenant-b", () -> bean.encrypt("13800138000")).withMask("138****8000");
+
+        String phone = client.post().uri("/phone").header(HEADER, "tenant-a")
+                .contentType(MediaType.APPLICATION_JSON).bodyValue(Map.of("phone", tenantA))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(String.class).returnResult().getResponseBody();
+        assertEquals("13800138000", phone);
+
+        // 租户 A 的请求不能解密租户 B 的密文
+        client.post().uri("/phone").header(HEADER, "tenant-a")
+                .contentType(MediaType.APPLICATION_JSON).bodyValue(Map.of("phone", tenantB))
+                .exchange()
+                .expectStatus().is4xxClientError();
+    }
+
+    @Test
+    public void testFluxTenant() {
+        String body = client.get().uri("/items").header(HEADER, "tenant-a").exchange()
+                .expectStatus().isOk()
+                .expectBody(String.class).returnResult().getResponseBody();
+
+        assertNotNull(body);
+        assertEquals(3, body.split("_mask\\|MODERN@tenant-a\\|", -1).length - 1);
+        assertFalse(body.contains("13800138000"));
+    }
+
+    private static Item item(String phone) {
+        Item item = new Item();
+        item.setPhone(phone);
+        return item;
+    }
+
+    @Data
+    public static class Item {
+        @Sensitive(SensitiveType.ChineseMobilePhone)
+        private String phone;
+    }
+}
\ No newline at end of file
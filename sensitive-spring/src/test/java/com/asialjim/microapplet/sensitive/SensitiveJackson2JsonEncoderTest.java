@@ -0,0 +1,223 @@
+/*
+ *    Copyright 2014-2025 <a href="mailto:asialjim@qq.com">Asial Jim</a>
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package com.asialjim.microapplet.sensitive;
+
+import com.asialjim.microapplet.sensitive.annotation.Sensitive;
+import com.asialjim.microapplet.sensitive.encrypt.*;
+import com.asialjim.microapplet.sensitive.handler.ChineseMobilePhoneSensitiveHandler;
+import com.asialjim.microapplet.sensitive.handler.SensitiveType;
+import com.asialjim.microapplet.sensitive.token.LocalTokenVault;
+import com.asialjim.microapplet.sensitive.token.SensitiveToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.Data;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.boot.web.codec.CodecCustomizer;
+import org.springframework.boot.web.reactive.context.AnnotationConfigReactiveWebApplicationContext;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.EncoderHttpMessageWriter;
+import org.springframework.http.codec.ServerCodecConfigurer;
+import org.springframework.mock.http.client.reactive.MockClientHttpRequest;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.web.reactive.config.WebFluxConfigurer;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeStrategies;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.server.HandlerStrategies;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.*;
+
+/**
+ * 大响应体加密移出事件循环的 JSON 编码器测试
+ */
+public class SensitiveJackson2JsonEncoderTest {
+    private static final int OFFLOAD_THRESHOLD = 16;
+
+    private Scheduler scheduler;
+    private SensitiveJackson2JsonEncoder encoder;
+    private WebTestClient client;
+
+    @Before
+    public void before() throws Exception {
+        new ChineseMobilePhoneSensitiveHandler().init();
+        SecretKeyRepository.Pair pair = new SecretKeyRepository.Pair().setEncKey(KeyManager.generateModernEncryptionKey());
+        new EncryptionContextBean(Collections.singletonList(new EncryptionContext(AlgorithmMode.MODERN)),
+                () -> AlgorithmMode.MODERN, mode -> pair).init();
+
+        scheduler = Schedulers.newBoundedElastic(2, 16, "sensitive");
+        encoder = new SensitiveJackson2JsonEncoder(new ObjectMapper(), scheduler, OFFLOAD_THRESHOLD);
+        client = WebTestClient.bindToRouterFunction(RouterFunctions.route()
+                        .GET("/large", request -> ServerResponse.ok().bodyValue(items(OFFLOAD_THRESHOLD)))
+                        .GET("/small", request -> ServerResponse.ok().bodyValue(items(OFFLOAD_THRESHOLD - 1)))
+                        .build())
+                .handlerStrategies(HandlerStrategies.builder().codecs(configurer -> configurer.defaultCodecs().jackson2JsonEncoder(encoder)).build())
+                .build();
+    }
+
+    @After
+    public void after() {
+        scheduler.dispose();
+    }
+
+    @Test
+    public void testOffload() {
+        String body = client.get().uri("/large").exchange()
+                .expectStatus().isOk()
+                .expectBody(String.class).returnResult().getResponseBody();
+
+        assertNotNull(body);
+        assertTrue(body.contains("\"thread\":\"sensitive-"));
+        assertTrue(body.contains("|138****8000\""));
+        assertFalse(body.contains("13800138000"));
+    }
+
+    @Test
+    public void testInline() {
+        String body = client.get().uri("/small").exchange()
+                .expectStatus().isOk()
+                .expectBody(String.class).returnResult().getResponseBody();
+
+        assertNotNull(body);
+        assertFalse(body.contains("\"thread\":\"sensitive-"));
+        assertTrue(body.contains("|138****8000\""));
+    }
+
+    @Test
+    public void testEncode() {
+        ResolvableType type = ResolvableType.forClassWithGenerics(List.class, Item.class);
+        StepVerifier.create(encoder.encode(Mono.just(items(OFFLOAD_THRESHOLD)), DefaultDataBufferFactory.sharedInstance, type,
+                        MediaType.APPLICATION_JSON, null))
+                .assertNext(buffer -> assertTrue(text(buffer).contains("\"thread\":\"sensitive-")))
+                .verifyComplete();
+
+        StepVerifier.create(encoder.encode(Mono.just(items(1)), DefaultDataBufferFactory.sharedInstance, type,
+                        MediaType.APPLICATION_JSON, null))
+                .assertNext(buffer -> assertTrue(text(buffer).contains("\"thread\":\"" + Thread.currentThread().getName() + "\"")))
+                .verifyComplete();
+    }
+
+    @Test
+    public void testTokenize() throws Exception {
+        LocalTokenVault vault = new LocalTokenVault(1000, Duration.ofMinutes(5), 0);
+        SensitiveToken.register(vault);
+        try {
+            for (String uri : List.of("/large", "/small")) {
+                String body = client.get().uri(uri).exchange()
+                        .expectStatus().isOk()
+                        .expectBody(String.class).returnResult().getResponseBody();
+
+                assertNotNull(body);
+                assertTrue(body.contains("\"_tok|"));
+                assertFalse(body.contains("_mask|"));
+            }
+
+            // 编码器以外的序列化仍输出密文格式数据
+            assertTrue(new ObjectMapper().writeValueAsString(items(1)).contains("_mask|"));
+        } finally {
+            vault.close();
+        }
+    }
+
+    @Test
+    public void testWebClient() {
+        try (AnnotationConfigReactiveWebApplicationContext context = new AnnotationConfigReactiveWebApplicationContext()) {
+            context.getEnvironment().getPropertySources().addFirst(new MapPropertySource("test",
+                    Map.of("sensitive.warm-up.enabled", "false", "sensitive.token.enabled", "true")));
+            context.register(MicroBankWebSensitiveBean.class);
+            context.refresh();
+
+            // 与 Spring Boot 的 WebClientAutoConfiguration 相同，CodecCustomizer 同样作用于 WebClient.Builder
+            List<CodecCustomizer> customizers = context.getBeanProvider(CodecCustomizer.class).orderedStream().toList();
+            ExchangeStrategies strategies = ExchangeStrategies.builder()
+                    .codecs(configurer -> customizers.forEach(customizer -> customizer.customize(configurer)))
+                    .build();
+            AtomicReference<String> body = new AtomicReference<>();
+            WebClient.builder()
+                    .exchangeStrategies(strategies)
+                    .exchangeFunction(request -> {
+                        MockClientHttpRequest mock = new MockClientHttpRequest(request.method(), request.url());
+                        return request.writeTo(mock, strategies)
+                                .then(Mono.defer(mock::getBodyAsString))
+                                .doOnNext(body::set)
+                                .thenReturn(ClientResponse.create(HttpStatus.OK, strategies).build());
+                    })
+                    .build()
+                    .post().uri("http://localhost/items").bodyValue(items(1))
+                    .retrieve().toBodilessEntity().block();
+
+            // 发往其他服务的请求体不含只在当前节点有效的令牌
+            assertTrue(body.get().contains("_mask|"));
+            assertFalse(body.get().contains("_tok|"));
+
+            ServerCodecConfigurer server = ServerCodecConfigurer.create();
+            context.getBeanProvider(WebFluxConfigurer.class).orderedStream()
+                    .forEach(configurer -> configurer.configureHttpMessageCodecs(server));
+            assertTrue(server.getWriters().stream().anyMatch(writer -> writer instanceof EncoderHttpMessageWriter<?> encoderWriter
+                    && encoderWriter.getEncoder() instanceof SensitiveJackson2JsonEncoder));
+        }
+    }
+
+    private static String text(DataBuffer buffer) {
+        String text = buffer.toString(StandardCharsets.UTF_8);
+        DataBufferUtils.release(buffer);
+        return text;
+    }
+
+    private static List<Item> items(int size) {
+        List<Item> items = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Item item = new Item();
+            item.setPhone("13800138000");
+            items.add(item);
+        }
+        return items;
+    }
+
+    @Data
+    public static class Item {
+        @Sensitive(SensitiveType.ChineseMobilePhone)
+        private String phone;
+
+        /**
+         * 序列化时所在线程
+         */
+        public String getThread() {
+            return Thread.currentThread().getName();
+        }
+    }
+}
\ No newline at end of file
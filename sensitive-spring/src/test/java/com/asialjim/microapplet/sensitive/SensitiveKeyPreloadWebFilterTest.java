@@ -0,0 +1,142 @@
+/*
+ *    Copyright 2014-2025 <a href="mailto:asialjim@qq.com">Asial Jim</a>
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package com.asialjim.microapplet.sensitive;
+
+import com.asialjim.microapplet.sensitive.encrypt.AlgorithmMode;
+import com.asialjim.microapplet.sensitive.encrypt.CachingSecretKeyRepository;
+import com.asialjim.microapplet.sensitive.encrypt.KeyManager;
+import com.asialjim.microapplet.sensitive.encrypt.SecretKeyRepository;
+import com.asialjim.microapplet.sensitive.encrypt.TenantCachingSecretKeyRepository;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.Assert.*;
+
+/**
+ * 响应序列化前预先加载密钥测试
+ */
+public class SensitiveKeyPreloadWebFilterTest {
+    private final List<String> loads = new CopyOnWriteArrayList<>();
+    private final List<String> chains = new CopyOnWriteArrayList<>();
+    private final WebFilterChain chain = exchange -> Mono.fromRunnable(() -> chains.add(Thread.currentThread().getName()));
+
+    private Scheduler scheduler;
+    private CachingSecretKeyRepository repository;
+
+    @Before
+    public void before() throws Exception {
+        SecretKeyRepository.Pair pair = new SecretKeyRepository.Pair()
+                .setEncKey(KeyManager.generateGMEncryptionKey())
+                .setMacKey(KeyManager.generateGMMacKey());
+        repository = new CachingSecretKeyRepository(mode -> {
+            loads.add(Thread.currentThread().getName());
+            return pair;
+        });
+        scheduler = Schedulers.newBoundedElastic(2, 16, "sensitive");
+    }
+
+    @After
+    public void after() {
+        scheduler.dispose();
+    }
+
+    @Test
+    public void testPreload() {
+        SensitiveKeyPreloadWebFilter filter = new SensitiveKeyPreloadWebFilter(() -> AlgorithmMode.GM, repository, scheduler);
+        assertFalse(repository.cached(AlgorithmMode.GM));
+
+        StepVerifier.create(filter.filter(exchange(), chain)).verifyComplete();
+        assertTrue(repository.cached(AlgorithmMode.GM));
+        assertEquals(1, loads.size());
+        assertTrue(loads.get(0).startsWith("sensitive-"));
+        assertEquals(1, chains.size());
+
+        // 已缓存时直接放行，不切换线程
+        StepVerifier.create(filter.filter(exchange(), chain)).verifyComplete();
+        assertEquals(1, loads.size());
+        assertEquals(Thread.currentThread().getName(), chains.get(1));
+    }
+
+    @Test
+    public void testTenantPreload() throws Exception {
+        SecretKeyRepository.Pair pair = new SecretKeyRepository.Pair().setEncKey(KeyManager.generateModernEncryptionKey());
+        List<String> tenants = new CopyOnWriteArrayList<>();
+        TenantCachingSecretKeyRepository tenantRepository = new TenantCachingSecretKeyRepository(new SecretKeyRepository() {
+            @Override
+            public Pair pairOf(AlgorithmMode mode) {
+                return pairOf(null, mode);
+            }
+
+            @Override
+            public Pair pairOf(String tenant, AlgorithmMode mode) {
+                tenants.add(tenant + "@" + Thread.currentThread().getName());
+                return pair;
+            }
+
+            @Override
+            public boolean tenantAware() {
+                return true;
+            }
+        }, 16, Duration.ofHours(1));
+        SensitiveKeyPreloadWebFilter filter = new SensitiveKeyPreloadWebFilter(() -> AlgorithmMode.MODERN, tenantRepository, scheduler);
+
+        // 按 Reactor Context 中的租户在加密线程池中加载
+        StepVerifier.create(filter.filter(exchange(), chain).contextWrite(context -> context.put(SensitiveTenant.CONTEXT_KEY, "tenant-a")))
+                .verifyComplete();
+        assertEquals(1, tenants.size());
+        assertTrue(tenants.get(0).startsWith("tenant-a@sensitive-"));
+        assertTrue(tenantRepository.cached("tenant-a", AlgorithmMode.MODERN));
+
+        StepVerifier.create(filter.filter(exchange(), chain).contextWrite(context -> context.put(SensitiveTenant.CONTEXT_KEY, "tenant-a")))
+                .verifyComplete();
+        assertEquals(1, tenants.size());
+        assertEquals(Thread.currentThread().getName(), chains.get(1));
+
+        // 其他租户仍需加载
+        StepVerifier.create(filter.filter(exchange(), chain).contextWrite(context -> context.put(SensitiveTenant.CONTEXT_KEY, "tenant-b")))
+                .verifyComplete();
+        assertEquals(2, tenants.size());
+        assertTrue(tenants.get(1).startsWith("tenant-b@"));
+    }
+
+    @Test
+    public void testUncachedRepository() {
+        SecretKeyRepository uncached = mode -> {
+            throw new IllegalStateException("不应加载密钥");
+        };
+        SensitiveKeyPreloadWebFilter filter = new SensitiveKeyPreloadWebFilter(() -> AlgorithmMode.GM, uncached, scheduler);
+
+        StepVerifier.create(filter.filter(exchange(), chain)).verifyComplete();
+        assertEquals(List.of(Thread.currentThread().getName()), chains);
+    }
+
+    private static MockServerWebExchange exchange() {
+        return MockServerWebExchange.from(MockServerHttpRequest.get("/"));
+    }
+}
\ No newline at end of file